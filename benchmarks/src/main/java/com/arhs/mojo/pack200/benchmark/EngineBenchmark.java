@@ -0,0 +1,294 @@
+package com.arhs.mojo.pack200.benchmark;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.SyntheticJarGenerator;
+import com.arhs.mojo.pack200.engine.Engine;
+import com.arhs.mojo.pack200.engine.EngineType;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
+import com.arhs.mojo.pack200.packing.options.DeflateHint;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the pack, repack and unpack operations of the engines, across the packing options.
+ * <p>
+ * The throughput is reported in operations per second, and the size of the output file by the
+ * <code>outputBytes</code> counter. The allocation rate is reported by the GC profiler: <code>-prof gc</code>.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EngineBenchmark {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Resource of the bundled JAR file.
+     */
+    private static final String BUNDLED_JAR = "/my-applet.original.jar";
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Deflate hint.
+     */
+    @Param({"KEEP", "TRUE"})
+    public DeflateHint deflateHint;
+
+    /**
+     * Effort.
+     */
+    @Param({"1", "5", "9"})
+    public String effort;
+
+    /**
+     * Engine type. The <code>FORK</code> engine, which requires the executables of JDK 13 or earlier on the path, is
+     * only benchmarked with <code>-p engineType=FORK</code>.
+     */
+    @Param({"IN_PROCESS"})
+    public EngineType engineType;
+
+    /**
+     * Input JAR file: <code>bundled</code> for the JAR file of the plugin tests, <code>synthetic</code> for a
+     * generated JAR file.
+     */
+    @Param({"bundled", "synthetic"})
+    public String jar;
+
+    /**
+     * Segment limit.
+     */
+    @Param({"-1", "1000000"})
+    public int segmentLimit;
+
+    /**
+     * Strips the debug attributes.
+     */
+    @Param({"false", "true"})
+    public boolean stripDebug;
+
+    /**
+     * Working directory.
+     */
+    private File directory;
+
+    /**
+     * Engine.
+     */
+    private Engine engine;
+
+    /**
+     * Input JAR file.
+     */
+    private File inputFile;
+
+    /**
+     * Packing options.
+     */
+    private PackOptions packOptions;
+
+    /**
+     * Packed file, input of the unpack benchmark.
+     */
+    private File packedFile;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Checks if an executable is on the path.
+     *
+     * @param name  Name of the executable.
+     * @return      {@code true} if the executable was found.
+     */
+    private static boolean isOnPath(String name) {
+        final String path = System.getenv("PATH");
+        if (path != null) {
+            for (String directory : path.split(File.pathSeparator)) {
+                if (new File(directory, name).canExecute() || new File(directory, name + ".exe").canExecute()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deletes a directory and its files.
+     *
+     * @param directory Directory.
+     */
+    private static void delete(File directory) {
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    //</editor-fold>
+
+    /**
+     * Creates the input JAR file, the engine and the packed file.
+     *
+     * @throws IOException If the files couldn't be created.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (engineType == EngineType.FORK && !isOnPath("pack200")) {
+            throw new IllegalStateException("The pack200 executable isn't available, run with -p engineType=IN_PROCESS.");
+        }
+
+        directory = Files.createTempDirectory("pack200-benchmark").toFile();
+        inputFile = new File(directory, "input.jar");
+        if ("synthetic".equals(jar)) {
+            final SyntheticJarGenerator generator = new SyntheticJarGenerator();
+            generator.setClasses(500);
+            generator.setTextResources(50);
+            generator.setBinaryResources(50);
+            generator.create(inputFile);
+        } else {
+            try (InputStream inputStream = EngineBenchmark.class.getResourceAsStream(BUNDLED_JAR)) {
+                Files.copy(inputStream, inputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        engine = engineType.createEngine(new SystemStreamLog(), false);
+        packOptions = new PackOptions();
+        packOptions.setDeflateHint(deflateHint);
+        packOptions.setEffort(effort);
+        packOptions.setQuiet(true);
+        packOptions.setSegmentLimit(segmentLimit);
+        packOptions.setStripDebug(stripDebug);
+
+        packedFile = new File(directory, "input.jar.pack.gz");
+        engine.pack(inputFile, packedFile, packOptions);
+    }
+
+    /**
+     * Deletes the files.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        delete(directory);
+    }
+
+    /**
+     * Packs the JAR file.
+     *
+     * @param counters      Counters.
+     * @throws IOException  If the JAR file couldn't be packed.
+     */
+    @Benchmark
+    public void pack(OutputCounters counters) throws IOException {
+        final File outputFile = new File(directory, "pack.jar.pack.gz");
+        engine.pack(inputFile, outputFile, packOptions);
+        counters.outputBytes = outputFile.length();
+    }
+
+    /**
+     * Normalizes the JAR file.
+     *
+     * @param counters      Counters.
+     * @throws IOException  If the JAR file couldn't be normalized.
+     */
+    @Benchmark
+    public void repack(OutputCounters counters) throws IOException {
+        final File outputFile = new File(directory, "repack.jar");
+        engine.repack(inputFile, outputFile, packOptions);
+        counters.outputBytes = outputFile.length();
+    }
+
+    /**
+     * Unpacks the packed file.
+     *
+     * @param counters      Counters.
+     * @throws IOException  If the packed file couldn't be unpacked.
+     */
+    @Benchmark
+    public void unpack(OutputCounters counters) throws IOException {
+        final File outputFile = new File(directory, "unpack.jar");
+        final UnpackOptions unpackOptions = new UnpackOptions();
+        unpackOptions.setQuiet(true);
+        engine.unpack(packedFile, outputFile, unpackOptions);
+        counters.outputBytes = outputFile.length();
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Inner classes section.">
+
+    /**
+     * Counters reported with the results.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class OutputCounters {
+
+        /**
+         * Size of the output file of the last operation, in bytes.
+         */
+        public long outputBytes;
+    }
+
+    //</editor-fold>
+
+}
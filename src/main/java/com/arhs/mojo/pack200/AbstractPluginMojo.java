@@ -23,36 +23,60 @@ package com.arhs.mojo.pack200;
  * THE SOFTWARE.
  */
 
-import org.apache.commons.exec.CommandLine;
-import org.apache.commons.exec.DefaultExecutor;
-import org.apache.commons.exec.Executor;
+import com.arhs.mojo.pack200.engine.ClassDataSharing;
+import com.arhs.mojo.pack200.engine.Engine;
+import com.arhs.mojo.pack200.engine.EngineType;
+import com.arhs.mojo.pack200.engine.ForkEngine;
+import com.arhs.mojo.pack200.engine.LimitedEngine;
+import com.arhs.mojo.pack200.engine.WorkerEngine;
+import com.arhs.mojo.pack200.fingerprint.Fingerprint;
+import com.arhs.mojo.pack200.fingerprint.UpToDateCheck;
+import com.arhs.mojo.pack200.report.PerformanceReport;
+import com.arhs.mojo.pack200.report.ReactorReport;
+import com.arhs.mojo.pack200.worker.WorkerSettings;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
-import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.codehaus.plexus.util.StringUtils;
+import org.apache.maven.project.MavenProject;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Base for plugin Mojo.
  *
  * @author Cyril Schumacher
- * @version 1.0
+ * @version 1.1
  * @since 2014-11-20
  */
-public class AbstractPluginMojo extends AbstractMojo {
+public abstract class AbstractPluginMojo extends AbstractMojo {
 
     //<editor-fold desc="Fields section.">
 
     /**
-     * Command.
+     * Maps an application class data sharing archive into the processes of the <code>FORK</code> engine.
+     * <p>
+     * The default value is: <code>false</code>. If <code>true</code>, the first execution of the
+     * <code>pack200</code> and <code>unpack200</code> executables records the classes they load, which are then
+     * dumped into an archive of the <code>classDataSharingDirectory</code>. The next executions map the archive
+     * instead of loading and verifying the classes again, which shortens the startup. The archive is created again
+     * when the JDK of the executables changes. It requires executables of JDK 11 or later.
+     * </p>
      */
-    private final CommandLine command;
+    @Parameter(defaultValue = "false")
+    public boolean classDataSharing;
 
     /**
-     * Executor.
+     * Directory of the class data sharing archives, which can be shared between projects.
+     * <p>The default value is: <code>${user.home}/.m2/pack200-cds</code>.</p>
+     *
+     * @see AbstractPluginMojo#classDataSharing
      */
-    private final DefaultExecutor executor;
+    @Parameter(defaultValue = "${user.home}/.m2/pack200-cds")
+    public File classDataSharingDirectory;
 
     /**
      * Debug mode.
@@ -60,103 +84,260 @@ public class AbstractPluginMojo extends AbstractMojo {
     @Parameter
     public boolean debug;
 
-    //</editor-fold>
-
-    //<editor-fold desc="Constructors section.">
+    /**
+     * Engine performing the operation.
+     * <p>
+     * The value <code>FORK</code> runs the <code>pack200</code> or <code>unpack200</code> executable in a new
+     * process, as it was done before. The value <code>IN_PROCESS</code> runs the packer inside the Java Virtual
+     * Machine of Maven. The value <code>WORKER</code> sends the jobs to long-lived worker Java Virtual Machines, which
+     * stay warm across the projects.
+     * </p>
+     * <p>
+     * By default, <code>FORK</code> is used where the executables are found on the path, and <code>IN_PROCESS</code>
+     * otherwise, such as on JDK 14 and later.
+     * </p>
+     *
+     * @see com.arhs.mojo.pack200.engine.EngineType#getDefault()
+     */
+    @Parameter
+    public EngineType engine;
 
     /**
-     * Constructor.
+     * Directory containing the fingerprints of the last executions.
+     * <p>The default value is: <code>${project.build.directory}/pack200-fingerprints</code>.</p>
      *
-     * @param command Command name.
+     * @see AbstractPluginMojo#upToDateCheck
      */
-    protected AbstractPluginMojo(String command) {
-        this(CommandLine.parse(command), new DefaultExecutor());
-    }
+    @Parameter(defaultValue = "${project.build.directory}/pack200-fingerprints")
+    public File fingerprintDirectory;
 
     /**
-     * Constructor.
+     * Memory budget of the pack and unpack jobs running at the same time in the Java Virtual Machine, in megabytes.
+     * <p>
+     * The default value is: <code>0</code>, which uses three quarters of the maximum heap. The memory footprint of a
+     * job is estimated from the size of its input file, and a job waits until it fits into the budget beside the
+     * running jobs, of every project of a parallel build.
+     * </p>
+     */
+    @Parameter(defaultValue = "0")
+    public long jobMemoryBudget;
+
+    /**
+     * Maximum number of pack and unpack jobs running at the same time in the Java Virtual Machine, across the
+     * projects of a parallel build.
+     * <p>The default value is: <code>0</code>, which uses the number of available processors.</p>
+     */
+    @Parameter(defaultValue = "0")
+    public int maxConcurrentJobs;
+
+    /**
+     * Current project.
+     */
+    @Parameter(defaultValue = "${project}", readonly = true)
+    public MavenProject project;
+
+    /**
+     * Reports the performance of the execution.
+     * <p>
+     * The default value is: <code>true</code>. A one-line summary is logged, with the wall time of the phases, the
+     * sizes of the files, the number of entries and classes and the peak memory usage. The same report is written as
+     * JSON into the <code>reportDirectory</code>, and the reports of the reactor are aggregated into
+     * <code>pack200-reports/reactor.json</code> in the build directory of the top-level project.
+     * </p>
+     */
+    @Parameter(defaultValue = "true")
+    public boolean report;
+
+    /**
+     * Directory of the performance reports.
+     * <p>The default value is: <code>${project.build.directory}/pack200-reports</code>.</p>
      *
-     * @param command  pack200 command.
-     * @param executor Executor.
+     * @see AbstractPluginMojo#report
      */
-    protected AbstractPluginMojo(CommandLine command, DefaultExecutor executor) {
-        this.command = command;
-        this.executor = executor;
-    }
+    @Parameter(defaultValue = "${project.build.directory}/pack200-reports")
+    public File reportDirectory;
+
+    /**
+     * Current build session.
+     */
+    @Parameter(defaultValue = "${session}", readonly = true)
+    public MavenSession session;
+
+    /**
+     * Skips the execution if the input file, the options and the output file didn't change since the last
+     * execution.
+     * <p>The default value is: <code>true</code>.</p>
+     */
+    @Parameter(defaultValue = "true")
+    public boolean upToDateCheck;
+
+    /**
+     * Time after which an idle worker ends, in seconds, with the <code>WORKER</code> engine.
+     * <p>The default value is: <code>300</code>.</p>
+     */
+    @Parameter(defaultValue = "300")
+    public int workerIdleTimeout;
+
+    /**
+     * Java home of the workers, with the <code>WORKER</code> engine.
+     * <p>
+     * By default, the workers run on the Java home of Maven. The workers running on JDK 13 or earlier use the packer
+     * of the JDK, the other ones the packer of Apache Commons Compress.
+     * </p>
+     */
+    @Parameter
+    public File workerJavaHome;
+
+    /**
+     * Number of jobs after which a worker is replaced, to bound its memory usage, with the <code>WORKER</code>
+     * engine.
+     * <p>The default value is: <code>100</code>.</p>
+     */
+    @Parameter(defaultValue = "100")
+    public int workerMaxJobs;
+
+    /**
+     * Maximum number of workers, with the <code>WORKER</code> engine.
+     * <p>The default value is: <code>2</code>.</p>
+     */
+    @Parameter(defaultValue = "2")
+    public int workers;
 
     //</editor-fold>
 
     //<editor-fold desc="Methods section.">
 
+    //<editor-fold desc="Private methods section.">
+
     /**
-     * Executes command.
+     * Gets the file of the performance reports aggregated across the reactor.
      *
-     * @throws IOException Execution of subprocess failed or the subprocess returned a exit value indicating a failure
-     *                     {@code Executor.setExitValue(int)}.
-     * @see AbstractPluginMojo#command
-     * @see AbstractPluginMojo#executor
+     * @return File.
      */
-    private void executeCommand() throws IOException, MojoExecutionException {
-        if (debug) {
-            getLog().info("Executable: " + command.getExecutable());
-            getLog().info("Arguments: " + StringUtils.join(command.getArguments(), " "));
-        }
+    private File getReactorReportFile() {
+        final MavenProject topLevelProject = session.getTopLevelProject();
+        final File directory = topLevelProject != null && topLevelProject.getBuild() != null
+                ? new File(topLevelProject.getBuild().getDirectory())
+                : new File(session.getExecutionRootDirectory(), "target");
+        return new File(directory, "pack200-reports/reactor.json");
+    }
 
-        int processExitValue = executor.execute(command);
+    //</editor-fold>
+
+    /**
+     * Creates the engine performing the operation, within the limits of the concurrent jobs.
+     *
+     * @return Engine.
+     * @see AbstractPluginMojo#engine
+     * @see AbstractPluginMojo#classDataSharing
+     * @see AbstractPluginMojo#maxConcurrentJobs
+     * @see AbstractPluginMojo#jobMemoryBudget
+     */
+    protected Engine createEngine() {
+        final EngineType engineType = getEngineType();
         if (debug) {
-            getLog().info(String.format("Process returned %d (0x%01X)", processExitValue, processExitValue));
+            getLog().info("Engine: " + engineType);
         }
 
-        if (processExitValue == Executor.INVALID_EXITVALUE) {
-            throw new MojoExecutionException("An error occurred during the execution of the program.");
+        final Engine typedEngine;
+        if (engineType == EngineType.WORKER) {
+            // The workers of the jobs are the ones of the version probe, which have the same options.
+            typedEngine = new WorkerEngine(getLog(), debug, new WorkerSettings(workerJavaHome, workers,
+                    workerIdleTimeout, workerMaxJobs, getJvmOptions()));
+        } else if (engineType == EngineType.FORK && classDataSharing) {
+            typedEngine = new ForkEngine(getLog(), debug, new ClassDataSharing(classDataSharingDirectory, getLog()));
+        } else {
+            typedEngine = engineType.createEngine(getLog(), debug);
         }
+        return new LimitedEngine(typedEngine, maxConcurrentJobs, jobMemoryBudget * 1024 * 1024);
     }
 
     /**
-     * Adds a value argument.
+     * Gets the engine type performing the operation.
      *
-     * @param value Argument value.
+     * @return Configured engine type, or the default one if none is configured.
+     * @see AbstractPluginMojo#engine
      */
-    protected void addArgument(String value) {
-        command.addArgument(value);
+    protected EngineType getEngineType() {
+        return engine != null ? engine : EngineType.getDefault();
     }
 
     /**
-     * Adds a argument with its value.
+     * Gets the options to the Java Virtual Machine of the operations.
      *
-     * @param name  Argument name.
-     * @param value Argument value.
-     * @see AbstractPluginMojo#addArgument(String, String, String)
+     * @return Options.
      */
-    protected void addArgument(String name, String value) {
-        addArgument(name, value, "=");
+    protected List<String> getJvmOptions() {
+        return Collections.emptyList();
     }
 
     /**
-     * Adds a argument with its value and using a assignment operator.
+     * Creates the performance report of the execution.
      *
-     * @param name                  Argument name.
-     * @param value                 Argument value.
-     * @param assignmentOperator    Assignment operator.
+     * @param goal  Goal.
+     * @return      Performance report or {@code null} if the report is disabled.
+     * @see AbstractPluginMojo#report
      */
-    protected void addArgument(String name, String value, String assignmentOperator) {
-        addArgument(String.format("%s%s%s", name, assignmentOperator, value));
+    protected PerformanceReport createReport(String goal) {
+        return report ? new PerformanceReport(goal, project != null ? project.getId() : null) : null;
     }
 
     /**
-     * Perform whatever build-process behavior this Mojo implements.
+     * Publishes the performance report of the execution: logs its summary, writes it into the report directory and
+     * adds it to the aggregate of the reactor, which is logged at the end of the session.
      *
-     * @throws MojoExecutionException If an unexpected problem occurs. Throwing this exception
-     *                                causes a <b>BUILD ERROR</b> message to be displayed.
+     * @param performanceReport Performance report or {@code null}.
+     * @param name              Name of the report, unique for the executions of the project.
      */
-    public void execute() throws MojoExecutionException {
+    protected void publishReport(PerformanceReport performanceReport, String name) {
+        if (performanceReport == null) {
+            return;
+        }
+
+        performanceReport.finish();
+        getLog().info(performanceReport.toSummary());
         try {
-            executeCommand();
+            if (reportDirectory != null) {
+                performanceReport.write(new File(reportDirectory, name + ".json"));
+            }
+            if (session != null && session.getRequest() != null) {
+                final ReactorReport reactorReport = ReactorReport.add(session.getRequest().getStartTime(),
+                        performanceReport);
+                reactorReport.write(getReactorReportFile());
+                // The last project to publish isn't known in a parallel build, so the end of the session is awaited.
+                final Log log = getLog();
+                SessionEndListener.register(session, "reactor-report", new Runnable() {
+                    public void run() {
+                        log.info(reactorReport.toSummary());
+                    }
+                });
+            }
         } catch (IOException e) {
-            throw new MojoExecutionException("Command is failed.", e);
+            getLog().warn("The performance report couldn't be written: " + e.getMessage());
         }
     }
 
+    /**
+     * Creates the up-to-date check of an operation.
+     *
+     * @param operation     Name of the operation.
+     * @param inputFile     Input file.
+     * @param outputFile    Output file, which may be the input file.
+     * @param options       Fingerprint of the options of the operation.
+     * @return              Up-to-date check or {@code null} if the check is disabled.
+     * @see AbstractPluginMojo#upToDateCheck
+     */
+    protected UpToDateCheck createUpToDateCheck(String operation, File inputFile, File outputFile,
+                                                Fingerprint options) {
+        if (!upToDateCheck || fingerprintDirectory == null) {
+            return null;
+        }
+
+        final EngineType engineType = getEngineType();
+        return new UpToDateCheck(fingerprintDirectory, operation, inputFile, outputFile,
+                options.add("engine", engineType).toHex());
+    }
+
     //</editor-fold>
 
 }
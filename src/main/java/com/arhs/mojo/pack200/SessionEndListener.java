@@ -0,0 +1,283 @@
+package com.arhs.mojo.pack200;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Listener of the build running callbacks at the end of the session, once every project was built.
+ * <p>
+ * A plugin which isn't declared as an extension can't register a lifecycle participant, so the listener is installed
+ * by the first execution which needs it, in front of the listener of the request, to which it forwards every event.
+ * Maven reads the listener of the request for each event, so the end of the session is received whatever the
+ * builder, serial or parallel (<code>-T</code>), and whatever the projects which were built.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public final class SessionEndListener implements ExecutionListener {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Callbacks, by key.
+     */
+    private final Map<String, Runnable> callbacks = new LinkedHashMap<>();
+
+    /**
+     * Listener of the request, which receives every event, or {@code null}.
+     */
+    private final ExecutionListener delegate;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param delegate Listener of the request, which receives every event, or {@code null}.
+     */
+    private SessionEndListener(ExecutionListener delegate) {
+        this.delegate = delegate;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Registers a callback run at the end of a session, before the listener of the request logs the summary of the
+     * build. A callback is registered once per key, the first registration wins.
+     *
+     * @param session   Build session.
+     * @param key       Key of the callback.
+     * @param callback  Callback.
+     * @return          {@code true} if the callback is registered, {@code false} if the session has no request or
+     *                  a callback is already registered with the key.
+     */
+    public static boolean register(MavenSession session, String key, Runnable callback) {
+        final MavenExecutionRequest request = session != null ? session.getRequest() : null;
+        if (request == null) {
+            return false;
+        }
+
+        final SessionEndListener listener;
+        synchronized (request) {
+            if (request.getExecutionListener() instanceof SessionEndListener) {
+                listener = (SessionEndListener) request.getExecutionListener();
+            } else {
+                listener = new SessionEndListener(request.getExecutionListener());
+                request.setExecutionListener(listener);
+            }
+        }
+        synchronized (listener) {
+            if (listener.callbacks.containsKey(key)) {
+                return false;
+            }
+            listener.callbacks.put(key, callback);
+            return true;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void projectDiscoveryStarted(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.projectDiscoveryStarted(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void sessionStarted(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.sessionStarted(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The callbacks run in the order of their registration, then the event is forwarded.
+     * </p>
+     */
+    public void sessionEnded(ExecutionEvent event) {
+        final List<Runnable> sessionCallbacks;
+        synchronized (this) {
+            sessionCallbacks = new ArrayList<>(callbacks.values());
+            callbacks.clear();
+        }
+        try {
+            for (Runnable callback : sessionCallbacks) {
+                callback.run();
+            }
+        } finally {
+            if (delegate != null) {
+                delegate.sessionEnded(event);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void projectSkipped(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.projectSkipped(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void projectStarted(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.projectStarted(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void projectSucceeded(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.projectSucceeded(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void projectFailed(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.projectFailed(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void mojoSkipped(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.mojoSkipped(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void mojoStarted(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.mojoStarted(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void mojoSucceeded(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.mojoSucceeded(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void mojoFailed(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.mojoFailed(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void forkStarted(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkStarted(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void forkSucceeded(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkSucceeded(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void forkFailed(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkFailed(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void forkedProjectStarted(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkedProjectStarted(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void forkedProjectSucceeded(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkedProjectSucceeded(event);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void forkedProjectFailed(ExecutionEvent event) {
+        if (delegate != null) {
+            delegate.forkedProjectFailed(event);
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,146 @@
+package com.arhs.mojo.pack200.aggregate;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Packing jobs running in the background of the build, until an execution of the <code>await</code> goal joins them.
+ * <p>
+ * The jobs are identified by their output file and run on daemon threads, at most one per processor, so that the
+ * build goes on with the next phases. A job which isn't joined doesn't prevent the Java Virtual Machine from ending.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public final class BackgroundPackJobs {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Jobs, by absolute path of their output file.
+     */
+    private static final Map<String, Future<?>> JOBS = new HashMap<>();
+
+    /**
+     * Number of the threads created.
+     */
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Executor running the jobs, created by the first job.
+     */
+    private static ExecutorService executor;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     */
+    private BackgroundPackJobs() {
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Gets the key of an output file.
+     *
+     * @param outputFile    Output file.
+     * @return              Key.
+     */
+    private static String toKey(File outputFile) {
+        return outputFile.getAbsoluteFile().toPath().normalize().toString();
+    }
+
+    /**
+     * Gets the executor running the jobs.
+     *
+     * @return Executor.
+     */
+    private static ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+                public Thread newThread(Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "pack200-background-" + THREAD_NUMBER.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return executor;
+    }
+
+    //</editor-fold>
+
+    /**
+     * Starts a job in the background.
+     *
+     * @param outputFile    Output file of the job.
+     * @param job           Job or {@code null} if the output file is up to date.
+     */
+    public static synchronized void submit(File outputFile, final PackJob job) {
+        final Future<?> future = job == null ? CompletableFuture.completedFuture(null)
+                : getExecutor().submit(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        job.run();
+                        return null;
+                    }
+                });
+        JOBS.put(toKey(outputFile), future);
+    }
+
+    /**
+     * Removes the job writing an output file, in order to join it.
+     *
+     * @param outputFile    Output file.
+     * @return              Job or {@code null} if no job was started for the output file.
+     */
+    public static synchronized Future<?> remove(File outputFile) {
+        return JOBS.remove(toKey(outputFile));
+    }
+
+    //</editor-fold>
+
+}
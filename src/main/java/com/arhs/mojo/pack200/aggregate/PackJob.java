@@ -0,0 +1,59 @@
+package com.arhs.mojo.pack200.aggregate;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Operation of a goal on a JAR file, which can be deferred to the end of the reactor.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public interface PackJob {
+
+    /**
+     * Gets the input JAR file.
+     *
+     * @return Input JAR file.
+     */
+    File getInputFile();
+
+    /**
+     * Gets the file written by the operation.
+     *
+     * @return Output file.
+     */
+    File getOutputFile();
+
+    /**
+     * Performs the operation.
+     *
+     * @throws IOException If the operation failed.
+     */
+    void run() throws IOException;
+
+}
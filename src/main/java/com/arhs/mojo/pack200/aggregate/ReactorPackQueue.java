@@ -0,0 +1,230 @@
+package com.arhs.mojo.pack200.aggregate;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue of the packing jobs of the projects of the reactor, performed together once every execution has arrived.
+ * <p>
+ * Each execution of the goal arrives once, with its job if it is deferred. The last execution to arrive gets the
+ * queued jobs and performs them on a single pool, bounded by the number of processors, the largest JAR files first
+ * so that the last worker doesn't finish long after the others. The queue is identified by the start time of the
+ * build, so that a Java Virtual Machine running several builds starts a new queue for each one.
+ * </p>
+ * <p>
+ * The number of executions is counted from the projects of the reactor, so the last one may never arrive: its phase
+ * isn't reached, its project fails or is skipped, or it isn't bound to a phase. The jobs still queued at the end of
+ * the session are then drained.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class ReactorPackQueue {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Queue of the current build.
+     */
+    private static ReactorPackQueue current;
+
+    /**
+     * Number of executions which have arrived.
+     */
+    private int arrivals;
+
+    /**
+     * Number of executions of the goal in the reactor.
+     */
+    private final int executions;
+
+    /**
+     * Queued jobs.
+     */
+    private final List<PackJob> jobs = new ArrayList<>();
+
+    /**
+     * Start time of the build.
+     */
+    private final Date startTime;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param startTime     Start time of the build.
+     * @param executions    Number of executions of the goal in the reactor.
+     */
+    private ReactorPackQueue(Date startTime, int executions) {
+        this.startTime = startTime;
+        this.executions = executions;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Waits for the end of the running jobs.
+     *
+     * @param executor  Executor.
+     * @param log       Logger.
+     */
+    private static void awaitTermination(ExecutorService executor, Log log) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("Waiting for the end of the running operations.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //</editor-fold>
+
+    /**
+     * Gets the queue of a build.
+     *
+     * @param startTime     Start time of the build.
+     * @param executions    Number of executions of the goal in the reactor, used by the first execution to arrive.
+     * @return              Queue.
+     */
+    public static synchronized ReactorPackQueue get(Date startTime, int executions) {
+        if (current == null || !current.startTime.equals(startTime)) {
+            current = new ReactorPackQueue(startTime, executions);
+        }
+        return current;
+    }
+
+    /**
+     * Registers the arrival of an execution.
+     *
+     * @param job   Deferred job of the execution or {@code null} if the execution has nothing to defer.
+     * @return      Queued jobs if the execution is the last one to arrive, {@code null} otherwise.
+     */
+    public synchronized List<PackJob> arrive(PackJob job) {
+        if (job != null) {
+            jobs.add(job);
+        }
+        if (++arrivals < executions) {
+            return null;
+        }
+
+        final List<PackJob> queuedJobs = new ArrayList<>(jobs);
+        jobs.clear();
+        return queuedJobs;
+    }
+
+    /**
+     * Drains the queued jobs, which no execution will perform.
+     *
+     * @return Queued jobs.
+     */
+    public synchronized List<PackJob> drain() {
+        final List<PackJob> queuedJobs = new ArrayList<>(jobs);
+        jobs.clear();
+        return queuedJobs;
+    }
+
+    /**
+     * Performs jobs concurrently, the largest JAR files first.
+     *
+     * @param jobs          Jobs.
+     * @param threads       Number of threads, <code>0</code> for the number of available processors.
+     * @param log           Logger.
+     * @return              Failures of the jobs, the largest JAR files first.
+     * @throws IOException  If the jobs were interrupted.
+     */
+    public static Map<PackJob, Exception> run(List<PackJob> jobs, int threads, Log log) throws IOException {
+        final List<PackJob> sortedJobs = new ArrayList<>(jobs);
+        Collections.sort(sortedJobs, new Comparator<PackJob>() {
+            public int compare(PackJob first, PackJob second) {
+                return Long.compare(second.getInputFile().length(), first.getInputFile().length());
+            }
+        });
+
+        final Map<PackJob, Exception> failures = new LinkedHashMap<>();
+        if (sortedJobs.isEmpty()) {
+            return failures;
+        }
+        final int threadCount = Math.max(1, Math.min(threads > 0 ? threads
+                : Runtime.getRuntime().availableProcessors(), sortedJobs.size()));
+        log.info(String.format("Packing %d files of the reactor with %d threads.", sortedJobs.size(), threadCount));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        final Map<PackJob, Future<?>> futures = new LinkedHashMap<>();
+        try {
+            // The pool takes the jobs in the order of submission, so the largest JAR files are packed first.
+            for (final PackJob job : sortedJobs) {
+                futures.put(job, executor.submit(new Callable<Void>() {
+                    public Void call() throws IOException {
+                        job.run();
+                        return null;
+                    }
+                }));
+            }
+            for (Map.Entry<PackJob, Future<?>> entry : futures.entrySet()) {
+                try {
+                    entry.getValue().get();
+                } catch (ExecutionException e) {
+                    failures.put(entry.getKey(), e.getCause() instanceof Exception ? (Exception) e.getCause()
+                            : new IOException(e.getCause()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The packing of the reactor was interrupted.", e);
+        } finally {
+            executor.shutdownNow();
+            awaitTermination(executor, log);
+        }
+        return failures;
+    }
+
+    //</editor-fold>
+
+}
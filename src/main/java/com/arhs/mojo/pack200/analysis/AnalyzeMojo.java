@@ -0,0 +1,118 @@
+package com.arhs.mojo.pack200.analysis;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.AbstractPluginMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Goal for analyzing the entries of the jar before packing it.
+ * <p>
+ * The entry types, the versions of the class files and the largest packages are logged, and the analysis is written
+ * as a JSON file into the <code>reportDirectory</code>: <code>analysis-&lt;file name&gt;.json</code>.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+@Mojo(name = "analyze", defaultPhase = LifecyclePhase.PACKAGE, threadSafe = true)
+public class AnalyzeMojo extends AbstractPluginMojo {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Name of the generated JAR.
+     * <p>
+     * This property is required and the default value is the name of JAR file generated:
+     * <code>${project.build.finalName}.jar</code>.
+     * </p>
+     */
+    @Parameter(defaultValue = "${project.build.finalName}.jar", required = true)
+    public String inputFile;
+
+    /**
+     * Number of the largest packages which are logged.
+     * <p>The default value is: <code>10</code>.</p>
+     */
+    @Parameter(defaultValue = "10")
+    public int packages;
+
+    /**
+     * The directory of the analyzed file.
+     * <p>This property is required and the default value is: <code>${project.build.directory}</code>.</p>
+     */
+    @Parameter(defaultValue = "${project.build.directory}", required = true)
+    public File target;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Perform whatever build-process behavior this Mojo implements.
+     *
+     * @throws MojoExecutionException If an unexpected problem occurs. Throwing this exception
+     *                                causes a <b>BUILD ERROR</b> message to be displayed.
+     */
+    public void execute() throws MojoExecutionException {
+        final File jarFile = new File(target, inputFile);
+        final JarAnalysis analysis;
+        try {
+            analysis = JarAnalyzer.analyze(jarFile);
+        } catch (IOException e) {
+            throw new MojoExecutionException("The file couldn't be analyzed: " + jarFile, e);
+        }
+
+        getLog().info(analysis.toSummary());
+        for (EntryType type : EntryType.values()) {
+            getLog().info(String.format("  %s: %d entries, %d bytes (%d compressed)", type, analysis.getEntries(type),
+                    analysis.getSize(type), analysis.getCompressedSize(type)));
+        }
+        final List<PackageStatistics> statistics = analysis.getPackages();
+        for (PackageStatistics packageStatistics : statistics.subList(0, Math.min(packages, statistics.size()))) {
+            getLog().info(String.format("  %s: %d entries, %d classes, %d bytes",
+                    packageStatistics.getName().isEmpty() ? "/" : packageStatistics.getName(),
+                    packageStatistics.getEntries(), packageStatistics.getClasses(), packageStatistics.getSize()));
+        }
+
+        if (reportDirectory != null) {
+            try {
+                analysis.write(new File(reportDirectory, "analysis-" + jarFile.getName() + ".json"));
+            } catch (IOException e) {
+                getLog().warn("The analysis couldn't be written: " + e.getMessage());
+            }
+        }
+    }
+
+    //</editor-fold>
+
+}
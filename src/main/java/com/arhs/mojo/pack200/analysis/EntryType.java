@@ -0,0 +1,114 @@
+package com.arhs.mojo.pack200.analysis;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Entry type value.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public enum EntryType {
+    /**
+     * Class file, which the packer splits into bands.
+     */
+    CLASS,
+
+    /**
+     * Resource, which the packer stores as is but compresses well.
+     */
+    RESOURCE,
+
+    /**
+     * Resource which is already compressed, like an image, and which barely shrinks.
+     */
+    COMPRESSED,
+
+    /**
+     * Nested archive, like a JAR file, whose classes aren't packed.
+     */
+    NESTED_ARCHIVE;
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Extensions of the already compressed resources.
+     */
+    private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<>(Arrays.asList("7z", "bz2", "gif", "gz",
+            "jpeg", "jpg", "mp3", "mp4", "ogg", "pack", "png", "webp", "woff", "woff2", "xz"));
+
+    /**
+     * Size from which the compression ratio of a deflated entry tells if it is already compressed, since the small
+     * entries barely shrink anyway.
+     */
+    private static final long COMPRESSED_MIN_SIZE = 1024;
+
+    /**
+     * Ratio of the compressed size to the size above which a deflated entry is considered already compressed.
+     */
+    private static final double COMPRESSED_RATIO = 0.95;
+
+    /**
+     * Extensions of the nested archives.
+     */
+    private static final Set<String> NESTED_ARCHIVE_EXTENSIONS = new HashSet<>(Arrays.asList("ear", "jar", "war",
+            "zip"));
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Gets the type of an entry, from its name and, for the deflated entries, its compression ratio.
+     *
+     * @param name              Name of the entry.
+     * @param deflated          {@code true} if the entry is deflated.
+     * @param size              Size of the entry.
+     * @param compressedSize    Compressed size of the entry.
+     * @return                  Type.
+     */
+    public static EntryType of(String name, boolean deflated, long size, long compressedSize) {
+        final int dot = name.lastIndexOf('.');
+        final String extension = dot > name.lastIndexOf('/') ? name.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".class")) {
+            return CLASS;
+        }
+        if (NESTED_ARCHIVE_EXTENSIONS.contains(extension)) {
+            return NESTED_ARCHIVE;
+        }
+        if (COMPRESSED_EXTENSIONS.contains(extension)
+                || (deflated && size >= COMPRESSED_MIN_SIZE && compressedSize >= size * COMPRESSED_RATIO)) {
+            return COMPRESSED;
+        }
+        return RESOURCE;
+    }
+
+    //</editor-fold>
+}
@@ -0,0 +1,355 @@
+package com.arhs.mojo.pack200.analysis;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.report.PerformanceReport;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Analysis of the entries of a JAR file: histogram of the entry types, versions of the class files and contribution
+ * of every package to the size of the JAR file.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ * @see JarAnalyzer
+ */
+public class JarAnalysis {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Number of class files per major version.
+     */
+    private final SortedMap<Integer, Long> classVersions = new TreeMap<>();
+
+    /**
+     * Compressed size of the entries per type, indexed by ordinal.
+     */
+    private final long[] compressedSizes = new long[EntryType.values().length];
+
+    /**
+     * Number of deflated entries.
+     */
+    private long deflatedEntries;
+
+    /**
+     * Number of directories.
+     */
+    private long directories;
+
+    /**
+     * Duration of the analysis, in nanoseconds.
+     */
+    private long duration;
+
+    /**
+     * Number of entries per type, indexed by ordinal.
+     */
+    private final long[] entries = new long[EntryType.values().length];
+
+    /**
+     * Analyzed JAR file.
+     */
+    private final File file;
+
+    /**
+     * Contributions of the packages, by name.
+     */
+    private final Map<String, PackageStatistics> packages = new HashMap<>();
+
+    /**
+     * Size of the entries per type, indexed by ordinal.
+     */
+    private final long[] sizes = new long[EntryType.values().length];
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param file Analyzed JAR file.
+     */
+    JarAnalysis(File file) {
+        this.file = file;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Adds an entry.
+     *
+     * @param name              Name of the entry.
+     * @param type              Type of the entry.
+     * @param deflated          {@code true} if the entry is deflated.
+     * @param size              Size of the entry.
+     * @param compressedSize    Compressed size of the entry.
+     */
+    void add(String name, EntryType type, boolean deflated, long size, long compressedSize) {
+        entries[type.ordinal()]++;
+        sizes[type.ordinal()] += size;
+        compressedSizes[type.ordinal()] += compressedSize;
+        if (deflated) {
+            deflatedEntries++;
+        }
+
+        final int separator = name.lastIndexOf('/');
+        final String packageName = separator >= 0 ? name.substring(0, separator).replace('/', '.') : "";
+        PackageStatistics statistics = packages.get(packageName);
+        if (statistics == null) {
+            statistics = new PackageStatistics(packageName);
+            packages.put(packageName, statistics);
+        }
+        statistics.add(type, size, compressedSize);
+    }
+
+    /**
+     * Adds the major version of a class file.
+     *
+     * @param majorVersion Major version.
+     */
+    void addClassVersion(int majorVersion) {
+        final Long count = classVersions.get(majorVersion);
+        classVersions.put(majorVersion, count != null ? count + 1 : 1);
+    }
+
+    /**
+     * Adds a directory.
+     */
+    void addDirectory() {
+        directories++;
+    }
+
+    /**
+     * Sets the duration of the analysis.
+     *
+     * @param duration Duration, in nanoseconds.
+     */
+    void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * Gets the number of class files per major version, which is unknown for the entries neither stored nor
+     * deflated.
+     *
+     * @return Number of class files per major version.
+     */
+    public SortedMap<Integer, Long> getClassVersions() {
+        return Collections.unmodifiableSortedMap(classVersions);
+    }
+
+    /**
+     * Gets the compressed size of the entries of a type.
+     *
+     * @param type  Type.
+     * @return      Compressed size, in bytes.
+     */
+    public long getCompressedSize(EntryType type) {
+        return compressedSizes[type.ordinal()];
+    }
+
+    /**
+     * Gets the number of deflated entries, besides the directories.
+     *
+     * @return Number of deflated entries.
+     */
+    public long getDeflatedEntries() {
+        return deflatedEntries;
+    }
+
+    /**
+     * Gets the number of directories.
+     *
+     * @return Number of directories.
+     */
+    public long getDirectories() {
+        return directories;
+    }
+
+    /**
+     * Gets the duration of the analysis.
+     *
+     * @return Duration, in milliseconds.
+     */
+    public long getDuration() {
+        return duration / 1000000;
+    }
+
+    /**
+     * Gets the number of entries, besides the directories.
+     *
+     * @return Number of entries.
+     */
+    public long getEntries() {
+        long count = 0;
+        for (long typeEntries : entries) {
+            count += typeEntries;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of entries of a type.
+     *
+     * @param type  Type.
+     * @return      Number of entries.
+     */
+    public long getEntries(EntryType type) {
+        return entries[type.ordinal()];
+    }
+
+    /**
+     * Gets the analyzed JAR file.
+     *
+     * @return JAR file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Gets the contributions of the packages, the largest first.
+     *
+     * @return Contributions of the packages.
+     */
+    public List<PackageStatistics> getPackages() {
+        final List<PackageStatistics> list = new ArrayList<>(packages.values());
+        Collections.sort(list, new Comparator<PackageStatistics>() {
+            public int compare(PackageStatistics first, PackageStatistics second) {
+                final int comparison = Long.compare(second.getSize(), first.getSize());
+                return comparison != 0 ? comparison : first.getName().compareTo(second.getName());
+            }
+        });
+        return list;
+    }
+
+    /**
+     * Gets the size of the entries, besides the directories.
+     *
+     * @return Size, in bytes.
+     */
+    public long getSize() {
+        long size = 0;
+        for (long typeSize : sizes) {
+            size += typeSize;
+        }
+        return size;
+    }
+
+    /**
+     * Gets the size of the entries of a type.
+     *
+     * @param type  Type.
+     * @return      Size, in bytes.
+     */
+    public long getSize(EntryType type) {
+        return sizes[type.ordinal()];
+    }
+
+    /**
+     * Formats the analysis as a one-line summary.
+     *
+     * @return Summary.
+     */
+    public String toSummary() {
+        return String.format(Locale.ROOT, "analysis: %d entries (%d classes, %d resources, %d compressed, %d nested "
+                        + "archives), %d bytes, %d packages, class versions %s in %d ms", getEntries(),
+                getEntries(EntryType.CLASS), getEntries(EntryType.RESOURCE), getEntries(EntryType.COMPRESSED),
+                getEntries(EntryType.NESTED_ARCHIVE), getSize(), packages.size(), classVersions.keySet(),
+                getDuration());
+    }
+
+    /**
+     * Formats the analysis as a JSON object.
+     *
+     * @return JSON object.
+     */
+    public String toJson() {
+        final StringBuilder builder = new StringBuilder("{\n");
+        builder.append("  \"file\": ").append(PerformanceReport.quote(file.getPath())).append(",\n");
+        builder.append("  \"durationMillis\": ").append(getDuration()).append(",\n");
+        builder.append("  \"entries\": ").append(getEntries()).append(",\n");
+        builder.append("  \"directories\": ").append(directories).append(",\n");
+        builder.append("  \"deflatedEntries\": ").append(deflatedEntries).append(",\n");
+        builder.append("  \"size\": ").append(getSize()).append(",\n");
+        builder.append("  \"types\": {");
+        for (EntryType type : EntryType.values()) {
+            builder.append(type.ordinal() > 0 ? ", " : "")
+                    .append(PerformanceReport.quote(type.name().toLowerCase(Locale.ROOT)))
+                    .append(": {\"entries\": ").append(getEntries(type))
+                    .append(", \"size\": ").append(getSize(type))
+                    .append(", \"compressedSize\": ").append(getCompressedSize(type)).append('}');
+        }
+        builder.append("},\n");
+        builder.append("  \"classVersions\": {");
+        boolean first = true;
+        for (Map.Entry<Integer, Long> version : classVersions.entrySet()) {
+            builder.append(first ? "" : ", ").append(PerformanceReport.quote(String.valueOf(version.getKey())))
+                    .append(": ").append(version.getValue());
+            first = false;
+        }
+        builder.append("},\n");
+        builder.append("  \"packages\": [");
+        first = true;
+        for (PackageStatistics statistics : getPackages()) {
+            builder.append(first ? "\n" : ",\n")
+                    .append("    {\"name\": ").append(PerformanceReport.quote(statistics.getName()))
+                    .append(", \"entries\": ").append(statistics.getEntries())
+                    .append(", \"classes\": ").append(statistics.getClasses())
+                    .append(", \"size\": ").append(statistics.getSize())
+                    .append(", \"compressedSize\": ").append(statistics.getCompressedSize()).append('}');
+            first = false;
+        }
+        return builder.append(first ? "]\n}\n" : "\n  ]\n}\n").toString();
+    }
+
+    /**
+     * Writes the analysis as a JSON file.
+     *
+     * @param jsonFile      JSON file.
+     * @throws IOException  If the file couldn't be written.
+     */
+    public void write(File jsonFile) throws IOException {
+        PerformanceReport.writeJson(jsonFile, toJson());
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,416 @@
+package com.arhs.mojo.pack200.analysis;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Analyzer of the entries of a JAR file, which doesn't inflate the entries.
+ * <p>
+ * Only the central directory of the JAR file is read, with the header of every class file: the first bytes of a
+ * deflated class file are inflated to get its version. The analysis of a JAR file of several hundred megabytes takes
+ * a few milliseconds. The file is read with positional reads rather than mapped in memory, since a mapping holds the
+ * file until it is garbage collected, which prevents moving or deleting it on Windows.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public final class JarAnalyzer {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Signature of a file header of the central directory.
+     */
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+
+    /**
+     * Size of a file header of the central directory, without its variable fields.
+     */
+    private static final int CENTRAL_HEADER_SIZE = 46;
+
+    /**
+     * Size of the header of a class file, up to its major version.
+     */
+    private static final int CLASS_HEADER_SIZE = 8;
+
+    /**
+     * Magic number of a class file.
+     */
+    private static final int CLASS_MAGIC = 0xCAFEBABE;
+
+    /**
+     * Compression method of the deflated entries.
+     */
+    private static final int DEFLATED = 8;
+
+    /**
+     * Maximum number of compressed bytes read to inflate the header of a class file.
+     */
+    private static final int DEFLATED_HEADER_INPUT = 512;
+
+    /**
+     * Signature of the end of the central directory.
+     */
+    private static final int END_SIGNATURE = 0x06054b50;
+
+    /**
+     * Size of the end of the central directory, without its comment.
+     */
+    private static final int END_SIZE = 22;
+
+    /**
+     * Signature of a local file header.
+     */
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+
+    /**
+     * Size of a local file header, without its variable fields.
+     */
+    private static final int LOCAL_HEADER_SIZE = 30;
+
+    /**
+     * Number of bytes read at a local file header, which usually include the first bytes of the data.
+     */
+    private static final int LOCAL_READ_SIZE = 1024;
+
+    /**
+     * Maximum size of the comment of the JAR file.
+     */
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    /**
+     * Compression method of the stored entries.
+     */
+    private static final int STORED = 0;
+
+    /**
+     * Identifier of the ZIP64 extra field.
+     */
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+
+    /**
+     * Size of the ZIP64 end of the central directory record, without its variable fields.
+     */
+    private static final int ZIP64_END_SIZE = 56;
+
+    /**
+     * Value of a field of 32 bits whose value is in the ZIP64 extra field.
+     */
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+    /**
+     * Signature of the ZIP64 end of the central directory locator.
+     */
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+
+    /**
+     * Size of the ZIP64 end of the central directory locator.
+     */
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     */
+    private JarAnalyzer() {
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Finds the end of the central directory, searching backward from the end of the file.
+     *
+     * @param tail          End of the JAR file.
+     * @return              Position of the end of the central directory in the end of the JAR file.
+     * @throws IOException  If the JAR file hasn't a central directory.
+     */
+    private static int findEnd(ByteBuffer tail) throws IOException {
+        final int last = tail.limit() - END_SIZE;
+        for (int position = last; position >= 0 && position >= last - MAX_COMMENT_SIZE; position--) {
+            if (tail.getInt(position) == END_SIGNATURE) {
+                return position;
+            }
+        }
+        throw new IOException("The end of the central directory wasn't found.");
+    }
+
+    /**
+     * Gets an unsigned value of 16 bits.
+     *
+     * @param buffer    Part of the JAR file.
+     * @param position  Position of the value.
+     * @return          Value.
+     */
+    private static int getUnsignedShort(ByteBuffer buffer, int position) {
+        return buffer.getShort(position) & 0xFFFF;
+    }
+
+    /**
+     * Gets an unsigned value of 32 bits.
+     *
+     * @param buffer    Part of the JAR file.
+     * @param position  Position of the value.
+     * @return          Value.
+     */
+    private static long getUnsignedInt(ByteBuffer buffer, int position) {
+        return buffer.getInt(position) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Reads a part of the JAR file into a heap buffer.
+     *
+     * @param channel       JAR file.
+     * @param position      Position of the part.
+     * @param length        Length of the part.
+     * @return              Buffer in little-endian order, whose limit is the number of bytes read, which is lower than
+     *                      the length at the end of the file.
+     * @throws IOException  If the JAR file couldn't be read.
+     */
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Reads the central directory of the JAR file.
+     *
+     * @param channel       JAR file.
+     * @return              Central directory.
+     * @throws IOException  If the JAR file couldn't be read or hasn't a central directory.
+     */
+    private static ByteBuffer readCentralDirectory(FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final int tailLength = (int) Math.min(size, END_SIZE + MAX_COMMENT_SIZE + ZIP64_LOCATOR_SIZE);
+        final ByteBuffer tail = read(channel, size - tailLength, tailLength);
+        final int end = findEnd(tail);
+        long centralDirectorySize = getUnsignedInt(tail, end + 12);
+        long centralDirectoryOffset = getUnsignedInt(tail, end + 16);
+        final int locator = end - ZIP64_LOCATOR_SIZE;
+        if (locator >= 0 && tail.getInt(locator) == ZIP64_LOCATOR_SIGNATURE) {
+            final ByteBuffer zip64End = read(channel, tail.getLong(locator + 8), ZIP64_END_SIZE);
+            if (zip64End.limit() < ZIP64_END_SIZE) {
+                throw new IOException("The central directory is corrupted.");
+            }
+            centralDirectorySize = zip64End.getLong(40);
+            centralDirectoryOffset = zip64End.getLong(48);
+        }
+
+        if (centralDirectoryOffset < 0 || centralDirectorySize < 0 || centralDirectorySize > Integer.MAX_VALUE
+                || centralDirectoryOffset + centralDirectorySize > size) {
+            throw new IOException("The central directory is corrupted.");
+        }
+        return read(channel, centralDirectoryOffset, (int) centralDirectorySize);
+    }
+
+    /**
+     * Reads the major version of a class file from its header.
+     *
+     * @param channel           JAR file.
+     * @param localOffset       Offset of the local file header.
+     * @param method            Compression method.
+     * @param compressedSize    Compressed size.
+     * @param inflater          Inflater, reset before use.
+     * @return                  Major version or <code>0</code> if the header couldn't be read.
+     * @throws IOException      If the JAR file couldn't be read.
+     */
+    private static int readClassVersion(FileChannel channel, long localOffset, int method, long compressedSize,
+                                        Inflater inflater) throws IOException {
+        if (localOffset < 0) {
+            return 0;
+        }
+        ByteBuffer buffer = read(channel, localOffset, LOCAL_READ_SIZE);
+        if (buffer.limit() < LOCAL_HEADER_SIZE || buffer.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+            return 0;
+        }
+        int data = LOCAL_HEADER_SIZE + getUnsignedShort(buffer, 26) + getUnsignedShort(buffer, 28);
+        final int length = (int) Math.min(compressedSize, DEFLATED_HEADER_INPUT);
+        if (length < 0) {
+            return 0;
+        }
+        if (data + length > buffer.limit()) {
+            // The name or the extra field of the header is long, the data is read on its own.
+            buffer = read(channel, localOffset + data, length);
+            data = 0;
+        }
+
+        final byte[] input = new byte[Math.min(length, buffer.limit() - data)];
+        final ByteBuffer slice = buffer.duplicate();
+        slice.position(data);
+        slice.get(input);
+
+        final byte[] header;
+        if (method == STORED) {
+            header = input;
+        } else if (method == DEFLATED) {
+            header = new byte[CLASS_HEADER_SIZE];
+            inflater.reset();
+            inflater.setInput(input);
+            try {
+                int inflated = 0;
+                while (inflated < CLASS_HEADER_SIZE && !inflater.finished() && !inflater.needsInput()) {
+                    inflated += inflater.inflate(header, inflated, CLASS_HEADER_SIZE - inflated);
+                }
+                if (inflated < CLASS_HEADER_SIZE) {
+                    return 0;
+                }
+            } catch (DataFormatException e) {
+                return 0;
+            }
+        } else {
+            return 0;
+        }
+
+        final ByteBuffer headerBuffer = ByteBuffer.wrap(header).order(ByteOrder.BIG_ENDIAN);
+        if (header.length < CLASS_HEADER_SIZE || headerBuffer.getInt(0) != CLASS_MAGIC) {
+            return 0;
+        }
+        return headerBuffer.getShort(6) & 0xFFFF;
+    }
+
+    /**
+     * Analyzes the entries of the central directory of a JAR file.
+     *
+     * @param channel       JAR file.
+     * @param analysis      Analysis receiving the entries.
+     * @throws IOException  If the JAR file couldn't be read or isn't a ZIP file.
+     */
+    private static void analyze(FileChannel channel, JarAnalysis analysis) throws IOException {
+        final ByteBuffer buffer = readCentralDirectory(channel);
+
+        final Inflater inflater = new Inflater(true);
+        try {
+            // The central directory only holds the file headers.
+            int position = 0;
+            while (position < buffer.limit()) {
+                if (position + CENTRAL_HEADER_SIZE > buffer.limit()
+                        || buffer.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                    throw new IOException("The central directory is corrupted.");
+                }
+                final int method = getUnsignedShort(buffer, position + 10);
+                long compressedSize = getUnsignedInt(buffer, position + 20);
+                long size = getUnsignedInt(buffer, position + 24);
+                final int nameLength = getUnsignedShort(buffer, position + 28);
+                final int extraLength = getUnsignedShort(buffer, position + 30);
+                final int commentLength = getUnsignedShort(buffer, position + 32);
+                long localOffset = getUnsignedInt(buffer, position + 42);
+
+                final byte[] nameBytes = new byte[nameLength];
+                final ByteBuffer nameSlice = buffer.duplicate();
+                nameSlice.position(position + CENTRAL_HEADER_SIZE);
+                nameSlice.get(nameBytes);
+                final String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+                // The ZIP64 extra field holds the values which don't fit in 32 bits, in this order.
+                int extra = position + CENTRAL_HEADER_SIZE + nameLength;
+                final int extraEnd = extra + extraLength;
+                while (extra + 4 <= extraEnd) {
+                    final int id = getUnsignedShort(buffer, extra);
+                    final int length = getUnsignedShort(buffer, extra + 2);
+                    if (id == ZIP64_EXTRA_ID) {
+                        int field = extra + 4;
+                        if (size == ZIP64_MAGIC) {
+                            size = buffer.getLong(field);
+                            field += 8;
+                        }
+                        if (compressedSize == ZIP64_MAGIC) {
+                            compressedSize = buffer.getLong(field);
+                            field += 8;
+                        }
+                        if (localOffset == ZIP64_MAGIC) {
+                            localOffset = buffer.getLong(field);
+                        }
+                    }
+                    extra += 4 + length;
+                }
+                position = extraEnd + commentLength;
+
+                if (name.endsWith("/")) {
+                    analysis.addDirectory();
+                    continue;
+                }
+                final EntryType type = EntryType.of(name, method == DEFLATED, size, compressedSize);
+                analysis.add(name, type, method == DEFLATED, size, compressedSize);
+                if (type == EntryType.CLASS) {
+                    final int majorVersion = readClassVersion(channel, localOffset, method, compressedSize,
+                            inflater);
+                    if (majorVersion > 0) {
+                        analysis.addClassVersion(majorVersion);
+                    }
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+    }
+
+    //</editor-fold>
+
+    /**
+     * Analyzes a JAR file.
+     *
+     * @param jarFile       JAR file.
+     * @return              Analysis.
+     * @throws IOException  If the JAR file couldn't be read or isn't a ZIP file.
+     */
+    public static JarAnalysis analyze(File jarFile) throws IOException {
+        final long start = System.nanoTime();
+        final JarAnalysis analysis = new JarAnalysis(jarFile);
+        try (FileChannel channel = FileChannel.open(jarFile.toPath(), StandardOpenOption.READ)) {
+            analyze(channel, analysis);
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("The central directory is corrupted: " + jarFile, e);
+        }
+        analysis.setDuration(System.nanoTime() - start);
+        return analysis;
+    }
+
+    //</editor-fold>
+
+}
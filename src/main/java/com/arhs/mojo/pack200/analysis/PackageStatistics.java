@@ -0,0 +1,142 @@
+package com.arhs.mojo.pack200.analysis;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+/**
+ * Contribution of the entries of a package to the size of a JAR file.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class PackageStatistics {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Number of class files.
+     */
+    private long classes;
+
+    /**
+     * Compressed size of the entries, in bytes.
+     */
+    private long compressedSize;
+
+    /**
+     * Number of entries.
+     */
+    private long entries;
+
+    /**
+     * Name of the package, with dots as separators: empty for the root directory.
+     */
+    private final String name;
+
+    /**
+     * Size of the entries, in bytes.
+     */
+    private long size;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param name Name of the package, with dots as separators: empty for the root directory.
+     */
+    PackageStatistics(String name) {
+        this.name = name;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Adds an entry of the package.
+     *
+     * @param type                  Type of the entry.
+     * @param entrySize             Size of the entry.
+     * @param entryCompressedSize   Compressed size of the entry.
+     */
+    void add(EntryType type, long entrySize, long entryCompressedSize) {
+        entries++;
+        if (type == EntryType.CLASS) {
+            classes++;
+        }
+        size += entrySize;
+        compressedSize += entryCompressedSize;
+    }
+
+    /**
+     * Gets the number of class files.
+     *
+     * @return Number of class files.
+     */
+    public long getClasses() {
+        return classes;
+    }
+
+    /**
+     * Gets the compressed size of the entries.
+     *
+     * @return Compressed size, in bytes.
+     */
+    public long getCompressedSize() {
+        return compressedSize;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return Number of entries.
+     */
+    public long getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets the name of the package.
+     *
+     * @return Name, with dots as separators: empty for the root directory.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the size of the entries.
+     *
+     * @return Size, in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    //</editor-fold>
+
+}
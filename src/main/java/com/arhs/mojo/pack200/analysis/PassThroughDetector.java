@@ -0,0 +1,233 @@
+package com.arhs.mojo.pack200.analysis;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.compression.Entropy;
+import org.codehaus.plexus.util.SelectorUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Detector of the entries of a JAR file which the packer should transmit as they are.
+ * <p>
+ * An entry is passed through if its name matches an include pattern and no exclude pattern. If the automatic
+ * detection is enabled, the resources which are already compressed are passed through as well: they are recognized
+ * by their extension, their compression ratio in the JAR file, the magic number of a compressed format or the
+ * entropy of their first bytes. The class files are never detected automatically, since the packer compresses them
+ * much better than any other compressor.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class PassThroughDetector {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Entropy, in bits per byte, from which the first bytes of an entry show it is already compressed.
+     */
+    private static final double COMPRESSED_ENTROPY = 7.5;
+
+    /**
+     * Magic numbers of the compressed formats: PNG, JPEG, GIF, ZIP, GZIP, XZ, BZIP2, 7z, WOFF, WOFF2, Ogg and
+     * Pack200.
+     */
+    private static final int[][] COMPRESSED_MAGIC_NUMBERS = {
+            {0x89, 'P', 'N', 'G'},
+            {0xff, 0xd8, 0xff},
+            {'G', 'I', 'F', '8'},
+            {'P', 'K', 0x03, 0x04},
+            {0x1f, 0x8b},
+            {0xfd, '7', 'z', 'X', 'Z'},
+            {'B', 'Z', 'h'},
+            {'7', 'z', 0xbc, 0xaf},
+            {'w', 'O', 'F', 'F'},
+            {'w', 'O', 'F', '2'},
+            {'O', 'g', 'g', 'S'},
+            {0xca, 0xfe, 0xd0, 0x0d}
+    };
+
+    /**
+     * Size from which the content of an entry is sampled, since the small entries barely shrink anyway.
+     */
+    private static final long MIN_SAMPLED_SIZE = 1024;
+
+    /**
+     * Number of the first bytes of an entry whose entropy is computed.
+     */
+    private static final int SAMPLE_SIZE = 4096;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * {@code true} to detect the compressed resources automatically.
+     */
+    private final boolean automatic;
+
+    /**
+     * Patterns of the entries which are never passed through.
+     */
+    private final List<String> excludes;
+
+    /**
+     * Patterns of the entries which are always passed through.
+     */
+    private final List<String> includes;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param automatic {@code true} to detect the compressed resources automatically.
+     * @param includes  Patterns of the entries which are always passed through, or {@code null}.
+     * @param excludes  Patterns of the entries which are never passed through, or {@code null}.
+     */
+    public PassThroughDetector(boolean automatic, List<String> includes, List<String> excludes) {
+        this.automatic = automatic;
+        this.excludes = excludes != null ? excludes : Collections.<String>emptyList();
+        this.includes = includes != null ? includes : Collections.<String>emptyList();
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Checks if the first bytes of an entry start with the magic number of a compressed format.
+     *
+     * @param sample    First bytes.
+     * @param length    Number of bytes.
+     * @return          {@code true} if a magic number matches.
+     */
+    private static boolean hasCompressedMagicNumber(byte[] sample, int length) {
+        for (int[] magicNumber : COMPRESSED_MAGIC_NUMBERS) {
+            boolean matches = magicNumber.length <= length;
+            for (int i = 0; matches && i < magicNumber.length; i++) {
+                matches = (sample[i] & 0xff) == magicNumber[i];
+            }
+            if (matches) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if an entry is already compressed.
+     *
+     * @param zipFile       JAR file.
+     * @param entry         Entry, which isn't a class file.
+     * @return              {@code true} if the entry is already compressed.
+     * @throws IOException  If the entry couldn't be read.
+     */
+    private static boolean isCompressed(ZipFile zipFile, ZipEntry entry) throws IOException {
+        final EntryType type = EntryType.of(entry.getName(), entry.getMethod() == ZipEntry.DEFLATED,
+                entry.getSize(), entry.getCompressedSize());
+        if (type == EntryType.COMPRESSED || type == EntryType.NESTED_ARCHIVE) {
+            return true;
+        }
+        if (entry.getSize() >= 0 && entry.getSize() < MIN_SAMPLED_SIZE) {
+            return false;
+        }
+
+        final byte[] sample = new byte[SAMPLE_SIZE];
+        int length = 0;
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+            int read;
+            while (length < sample.length && (read = inputStream.read(sample, length, sample.length - length)) > 0) {
+                length += read;
+            }
+        }
+        return length >= MIN_SAMPLED_SIZE && (hasCompressedMagicNumber(sample, length)
+                || Entropy.of(sample, 0, length) >= COMPRESSED_ENTROPY);
+    }
+
+    /**
+     * Checks if a name matches one of the patterns.
+     *
+     * @param patterns  Patterns, with <code>/</code> as separator.
+     * @param name      Name of the entry.
+     * @return          {@code true} if the name matches.
+     */
+    private static boolean matches(List<String> patterns, String name) {
+        for (String pattern : patterns) {
+            if (SelectorUtils.matchPath(pattern, name, "/", true)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //</editor-fold>
+
+    /**
+     * Detects the entries of a JAR file which the packer should transmit as they are.
+     *
+     * @param jarFile       JAR file.
+     * @return              Names of the entries, in the order of the JAR file.
+     * @throws IOException  If the JAR file couldn't be read.
+     */
+    public List<String> detect(File jarFile) throws IOException {
+        final List<String> passFiles = new ArrayList<>();
+        if (!automatic && includes.isEmpty()) {
+            return passFiles;
+        }
+
+        try (ZipFile zipFile = new ZipFile(jarFile)) {
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                final String name = entry.getName();
+                if (entry.isDirectory() || matches(excludes, name)) {
+                    continue;
+                }
+                if (matches(includes, name)
+                        || (automatic && !name.endsWith(".class") && isCompressed(zipFile, entry))) {
+                    passFiles.add(name);
+                }
+            }
+        }
+        return passFiles;
+    }
+
+    //</editor-fold>
+
+}
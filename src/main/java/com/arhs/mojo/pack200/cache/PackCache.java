@@ -0,0 +1,300 @@
+package com.arhs.mojo.pack200.cache;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Content-addressed cache of packed files, shared between builds and processes.
+ * <p>
+ * Each entry is stored in a file named after its key. Entries are written into temporary files, then published and
+ * restored with atomic moves, so the copies run concurrently and a reader never sees a partial entry. Only the
+ * eviction of the least recently used entries, when the size of the cache exceeds its limit, is serialized with a lock
+ * file for the other processes and with a lock for the other threads.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class PackCache {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Extension of the entries.
+     */
+    private static final String ENTRY_EXTENSION = ".entry";
+
+    /**
+     * Name of the lock file.
+     */
+    private static final String LOCK_FILE = ".lock";
+
+    /**
+     * Locks of the eviction of the cache directories used by the current Java Virtual Machine.
+     * <p>
+     * A file lock is held on behalf of the whole Java Virtual Machine, so the threads must be serialized as well.
+     * </p>
+     */
+    private static final ConcurrentMap<String, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Cache directory.
+     */
+    private final File directory;
+
+    /**
+     * Maximum size of the cache, in bytes.
+     */
+    private final long maxSize;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param directory Cache directory.
+     * @param maxSize   Maximum size of the cache, in bytes.
+     */
+    public PackCache(File directory, long maxSize) {
+        this.directory = directory.getAbsoluteFile();
+        this.maxSize = maxSize;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Copies a file atomically: the destination file is either unchanged or completely written.
+     *
+     * @param source        Source file.
+     * @param destination   Destination file.
+     * @throws IOException  If the file couldn't be copied.
+     */
+    private static void copyAtomically(File source, File destination) throws IOException {
+        final File parent = destination.getAbsoluteFile().getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("The directory couldn't be created: " + parent);
+        }
+
+        final File temporaryFile = File.createTempFile(destination.getName(), ".tmp", parent);
+        try {
+            Files.copy(source.toPath(), temporaryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temporaryFile.toPath(), destination.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries until the size of the cache is lower than its limit.
+     *
+     * @throws IOException If an entry couldn't be deleted.
+     */
+    private void evict() throws IOException {
+        final List<File> entries = new ArrayList<>();
+        long size = 0;
+        final File[] subdirectories = directory.listFiles();
+        if (subdirectories != null) {
+            for (File subdirectory : subdirectories) {
+                final File[] files = subdirectory.listFiles();
+                if (files != null) {
+                    for (File file : files) {
+                        if (file.getName().endsWith(ENTRY_EXTENSION)) {
+                            entries.add(file);
+                            size += file.length();
+                        }
+                    }
+                }
+            }
+        }
+        if (size <= maxSize) {
+            return;
+        }
+
+        Collections.sort(entries, new Comparator<File>() {
+            public int compare(File first, File second) {
+                return Long.compare(first.lastModified(), second.lastModified());
+            }
+        });
+        for (File entry : entries) {
+            if (size <= maxSize) {
+                break;
+            }
+            final long length = entry.length();
+            try {
+                Files.deleteIfExists(entry.toPath());
+                size -= length;
+            } catch (IOException e) {
+                // An entry which another process is reading can't be deleted on some file systems, so it is kept.
+            }
+        }
+    }
+
+    /**
+     * Gets the file of an entry.
+     *
+     * @param key   Key of the entry.
+     * @return      File of the entry.
+     */
+    private File getEntryFile(String key) {
+        return new File(new File(directory, key.substring(0, 2)), key + ENTRY_EXTENSION);
+    }
+
+    /**
+     * Acquires the locks of the eviction.
+     *
+     * @return              Channel of the lock file, which must be closed to release the lock.
+     * @throws IOException  If the lock file couldn't be locked.
+     */
+    private FileChannel lock() throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("The cache directory couldn't be created: " + directory);
+        }
+
+        final ReentrantLock threadLock = getThreadLock();
+        threadLock.lock();
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(new File(directory, LOCK_FILE).toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+            channel.lock();
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            if (channel != null) {
+                channel.close();
+            }
+            threadLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * Releases the locks of the eviction.
+     *
+     * @param channel       Channel of the lock file.
+     * @throws IOException  If the lock file couldn't be unlocked.
+     */
+    private void unlock(FileChannel channel) throws IOException {
+        try {
+            // Closing the channel releases the file lock.
+            channel.close();
+        } finally {
+            getThreadLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the lock of the eviction for the threads of the current Java Virtual Machine.
+     *
+     * @return Lock.
+     */
+    private ReentrantLock getThreadLock() {
+        final String path = directory.getPath();
+        ReentrantLock lock = LOCKS.get(path);
+        if (lock == null) {
+            final ReentrantLock newLock = new ReentrantLock();
+            lock = LOCKS.putIfAbsent(path, newLock);
+            if (lock == null) {
+                lock = newLock;
+            }
+        }
+        return lock;
+    }
+
+    //</editor-fold>
+
+    /**
+     * Copies an entry into a file.
+     *
+     * @param key           Key of the entry.
+     * @param destination   Destination file.
+     * @return              {@code true} if the entry exists and was copied, otherwise {@code false}.
+     * @throws IOException  If the entry couldn't be copied.
+     */
+    public boolean get(String key, File destination) throws IOException {
+        final File entryFile = getEntryFile(key);
+        if (!entryFile.isFile()) {
+            return false;
+        }
+
+        try {
+            copyAtomically(entryFile, destination);
+        } catch (NoSuchFileException e) {
+            // The entry was evicted meanwhile.
+            return false;
+        }
+        // The modification time is the last access time of the entry.
+        entryFile.setLastModified(System.currentTimeMillis());
+        return true;
+    }
+
+    /**
+     * Publishes a file as an entry, then evicts the least recently used entries if the cache is full.
+     *
+     * @param key           Key of the entry.
+     * @param source        Source file.
+     * @throws IOException  If the entry couldn't be published.
+     */
+    public void put(String key, File source) throws IOException {
+        if (source.length() > maxSize) {
+            return;
+        }
+
+        copyAtomically(source, getEntryFile(key));
+        final FileChannel channel = lock();
+        try {
+            evict();
+        } finally {
+            unlock(channel);
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,222 @@
+package com.arhs.mojo.pack200.compression;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZInputStream;
+import org.tukaani.xz.XZOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compression codec of the packed files.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public enum Codec {
+    /**
+     * GZIP, compressed with several threads. It is the format produced by the <code>pack200</code> executable.
+     */
+    GZIP(".gz", 0x1f, 0x8b) {
+        @Override
+        public OutputStream createOutputStream(OutputStream outputStream, int level, int threads,
+                                               boolean storeIncompressible) throws IOException {
+            return new ParallelGzipOutputStream(outputStream, level > 0 ? level : Deflater.DEFAULT_COMPRESSION,
+                    threads, storeIncompressible);
+        }
+
+        @Override
+        public InputStream createInputStream(InputStream inputStream) throws IOException {
+            return new GZIPInputStream(inputStream);
+        }
+    },
+
+    /**
+     * XZ (LZMA2), which produces smaller files than GZIP but is slower. The compression uses a single thread.
+     */
+    XZ(".xz", 0xfd, 0x37, 0x7a, 0x58, 0x5a, 0x00) {
+        @Override
+        public OutputStream createOutputStream(OutputStream outputStream, int level, int threads,
+                                               boolean storeIncompressible) throws IOException {
+            return new XZOutputStream(outputStream,
+                    new LZMA2Options(level > 0 ? level : LZMA2Options.PRESET_DEFAULT));
+        }
+
+        @Override
+        public InputStream createInputStream(InputStream inputStream) throws IOException {
+            return new XZInputStream(inputStream);
+        }
+    },
+
+    /**
+     * No compression.
+     */
+    NONE("") {
+        @Override
+        public OutputStream createOutputStream(OutputStream outputStream, int level, int threads,
+                                               boolean storeIncompressible) {
+            return outputStream;
+        }
+
+        @Override
+        public InputStream createInputStream(InputStream inputStream) {
+            return inputStream;
+        }
+    };
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Extension of the compressed files.
+     */
+    private final String extension;
+
+    /**
+     * First bytes of the compressed files.
+     */
+    private final int[] magic;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param extension Extension of the compressed files.
+     * @param magic     First bytes of the compressed files.
+     */
+    Codec(String extension, int... magic) {
+        this.extension = extension;
+        this.magic = magic;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Detects the codec of a stream from its first bytes.
+     *
+     * @param inputStream   Input stream, which must support {@link InputStream#mark(int)}. The stream is reset to
+     *                      its current position.
+     * @return              Codec, {@link #NONE} if the stream isn't compressed by a known codec.
+     * @throws IOException  If the stream couldn't be read.
+     */
+    public static Codec detect(InputStream inputStream) throws IOException {
+        final int[] header = new int[XZ.magic.length];
+        inputStream.mark(header.length);
+        try {
+            for (int i = 0; i < header.length; i++) {
+                header[i] = inputStream.read();
+            }
+        } finally {
+            inputStream.reset();
+        }
+
+        for (Codec codec : values()) {
+            if (codec.matches(header)) {
+                return codec;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Checks if a header starts with the magic number of the codec.
+     *
+     * @param header    First bytes of a stream.
+     * @return          {@code true} if the header matches, always {@code false} for {@link #NONE}.
+     */
+    private boolean matches(int[] header) {
+        if (magic.length == 0) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (header[i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a stream compressing the data written into another stream.
+     * <p>Closing the returned stream closes the other stream.</p>
+     *
+     * @param outputStream  Output stream.
+     * @param level         Compression level, from <code>1</code> to <code>9</code>, or <code>0</code> for the
+     *                      default level.
+     * @param threads       Number of threads: <code>0</code> to use the number of available processors. Ignored by
+     *                      the codecs compressing with a single thread.
+     * @return              Compressing stream.
+     * @throws IOException  If the stream couldn't be created.
+     */
+    public OutputStream createOutputStream(OutputStream outputStream, int level, int threads) throws IOException {
+        return createOutputStream(outputStream, level, threads, false);
+    }
+
+    /**
+     * Creates a stream compressing the data written into another stream.
+     * <p>Closing the returned stream closes the other stream.</p>
+     *
+     * @param outputStream          Output stream.
+     * @param level                 Compression level, from <code>1</code> to <code>9</code>, or <code>0</code> for
+     *                              the default level.
+     * @param threads               Number of threads: <code>0</code> to use the number of available processors.
+     *                              Ignored by the codecs compressing with a single thread.
+     * @param storeIncompressible   {@code true} to store the incompressible data instead of compressing it. Ignored
+     *                              by the codecs which can't store data.
+     * @return                      Compressing stream.
+     * @throws IOException          If the stream couldn't be created.
+     */
+    public abstract OutputStream createOutputStream(OutputStream outputStream, int level, int threads,
+                                                    boolean storeIncompressible) throws IOException;
+
+    /**
+     * Creates a stream decompressing the data read from another stream.
+     *
+     * @param inputStream   Input stream.
+     * @return              Decompressing stream.
+     * @throws IOException  If the stream couldn't be created.
+     */
+    public abstract InputStream createInputStream(InputStream inputStream) throws IOException;
+
+    /**
+     * Gets the extension of the compressed files.
+     *
+     * @return Extension, such as <code>.gz</code>, or an empty string if the files aren't compressed.
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    //</editor-fold>
+}
@@ -0,0 +1,89 @@
+package com.arhs.mojo.pack200.compression;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+/**
+ * Order-0 Shannon entropy of data, which tells quickly if the data is already compressed.
+ * <p>
+ * The entropy is computed from the frequencies of the bytes only, so it doesn't see the repeated sequences: a low
+ * entropy means the data compresses well, a high entropy that only a dictionary coder may still shrink it.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public final class Entropy {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Natural logarithm of 2.
+     */
+    private static final double LOG_2 = Math.log(2);
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     */
+    private Entropy() {
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Computes the entropy of data.
+     *
+     * @param data      Data.
+     * @param offset    Offset of the data.
+     * @param length    Length of the data.
+     * @return          Entropy, from <code>0</code> to <code>8</code> bits per byte.
+     */
+    public static double of(byte[] data, int offset, int length) {
+        if (length <= 0) {
+            return 0;
+        }
+
+        final int[] frequencies = new int[256];
+        for (int i = offset; i < offset + length; i++) {
+            frequencies[data[i] & 0xff]++;
+        }
+        double entropy = 0;
+        for (int frequency : frequencies) {
+            if (frequency > 0) {
+                final double probability = (double) frequency / length;
+                entropy -= probability * Math.log(probability);
+            }
+        }
+        return entropy / LOG_2;
+    }
+
+    //</editor-fold>
+
+}
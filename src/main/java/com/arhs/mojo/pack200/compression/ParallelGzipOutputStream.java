@@ -0,0 +1,442 @@
+package com.arhs.mojo.pack200.compression;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Output stream compressing the data in the GZIP format with several threads.
+ * <p>
+ * The data is split into blocks which are deflated independently, each one using the end of the previous block as
+ * preset dictionary so that the compression ratio is close to the one of a single thread. Every block except the
+ * last one is terminated by a sync flush, so the deflated blocks are concatenated into a single standard GZIP member
+ * that any GZIP reader, including <code>unpack200</code>, can read. The output only depends on the data and the
+ * compression level, not on the number of threads.
+ * </p>
+ * <p>
+ * Optionally, the blocks whose entropy shows they are already compressed, like the images and the nested archives
+ * stored by the packer, are written as stored deflate blocks instead of being deflated for almost no gain.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class ParallelGzipOutputStream extends FilterOutputStream {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Size of the blocks deflated independently.
+     */
+    private static final int BLOCK_SIZE = 256 * 1024;
+
+    /**
+     * Size of the preset dictionary, which is the size of the deflate window.
+     */
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    /**
+     * GZIP header: magic number, deflate method, no flag, no modification time, no extra flag, unknown system.
+     */
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    /**
+     * Entropy, in bits per byte, from which a block is considered incompressible: Huffman coding would save less
+     * than 1% of its size.
+     */
+    private static final double INCOMPRESSIBLE_ENTROPY = 7.95;
+
+    /**
+     * Number of the threads created by the streams.
+     */
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Current block.
+     */
+    private byte[] block = new byte[BLOCK_SIZE];
+
+    /**
+     * Number of bytes in the current block.
+     */
+    private int blockLength;
+
+    /**
+     * CRC-32 of the uncompressed data.
+     */
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * End of the previous block, used as preset dictionary of the current block.
+     */
+    private byte[] dictionary;
+
+    /**
+     * Executor deflating the blocks or {@code null} to deflate them in the current thread.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * {@code true} if the stream is finished.
+     */
+    private boolean finished;
+
+    /**
+     * Compression level.
+     */
+    private final int level;
+
+    /**
+     * Maximum number of blocks being deflated.
+     */
+    private final int maxPendingBlocks;
+
+    /**
+     * Blocks being deflated, in the order of the stream.
+     */
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+
+    /**
+     * Size of the uncompressed data.
+     */
+    private long size;
+
+    /**
+     * {@code true} to store the incompressible blocks instead of deflating them.
+     */
+    private final boolean storeIncompressible;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param out           Output stream.
+     * @param level         Compression level, from <code>0</code> to <code>9</code>, or <code>-1</code> for the
+     *                      default level.
+     * @param threads       Number of threads: <code>0</code> to use the number of available processors.
+     * @throws IOException  If the header couldn't be written.
+     */
+    public ParallelGzipOutputStream(OutputStream out, int level, int threads) throws IOException {
+        this(out, level, threads, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param out                   Output stream.
+     * @param level                 Compression level, from <code>0</code> to <code>9</code>, or <code>-1</code>
+     *                              for the default level.
+     * @param threads               Number of threads: <code>0</code> to use the number of available processors.
+     * @param storeIncompressible   {@code true} to store the incompressible blocks instead of deflating them.
+     * @throws IOException          If the header couldn't be written.
+     */
+    public ParallelGzipOutputStream(OutputStream out, int level, int threads, boolean storeIncompressible)
+            throws IOException {
+        super(out);
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+
+        final int threadCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.level = level;
+        this.maxPendingBlocks = threadCount * 2;
+        this.storeIncompressible = storeIncompressible;
+        this.executor = threadCount > 1 ? Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                final Thread thread = new Thread(runnable, "pack200-gzip-" + THREAD_NUMBER.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        }) : null;
+
+        out.write(HEADER);
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Deflates a block.
+     *
+     * @param block         Block.
+     * @param length        Length of the block.
+     * @param dictionary    Preset dictionary or {@code null}.
+     * @param last          {@code true} if it is the last block of the stream.
+     * @param level         Compression level.
+     * @param store         {@code true} to store the block if it is incompressible.
+     * @return              Deflated block.
+     */
+    private static byte[] deflate(byte[] block, int length, byte[] dictionary, boolean last, int level,
+                                  boolean store) {
+        final boolean incompressible = store && Entropy.of(block, 0, length) >= INCOMPRESSIBLE_ENTROPY;
+        final Deflater deflater = new Deflater(incompressible ? Deflater.NO_COMPRESSION : level, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(block, 0, length);
+
+            final ByteArrayBuilder output = new ByteArrayBuilder(length / 2 + 64);
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    output.deflate(deflater, Deflater.NO_FLUSH);
+                }
+            } else {
+                // Flushes until the output buffer isn't full, which means all the input was consumed.
+                boolean full;
+                do {
+                    full = output.deflate(deflater, Deflater.SYNC_FLUSH);
+                } while (full);
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Submits the current block.
+     *
+     * @param last          {@code true} if it is the last block of the stream.
+     * @throws IOException  If a previous block couldn't be written.
+     */
+    private void submitBlock(final boolean last) throws IOException {
+        final byte[] data = block;
+        final int length = blockLength;
+        final byte[] presetDictionary = dictionary;
+
+        crc.update(data, 0, length);
+        size += length;
+        if (length >= DICTIONARY_SIZE) {
+            dictionary = Arrays.copyOfRange(data, length - DICTIONARY_SIZE, length);
+        } else if (length > 0) {
+            dictionary = Arrays.copyOfRange(data, 0, length);
+        }
+        block = new byte[BLOCK_SIZE];
+        blockLength = 0;
+
+        if (executor == null) {
+            out.write(deflate(data, length, presetDictionary, last, level, storeIncompressible));
+            return;
+        }
+
+        pendingBlocks.add(executor.submit(new Callable<byte[]>() {
+            public byte[] call() {
+                return deflate(data, length, presetDictionary, last, level, storeIncompressible);
+            }
+        }));
+        while (pendingBlocks.size() >= maxPendingBlocks) {
+            writePendingBlock();
+        }
+    }
+
+    /**
+     * Writes the first pending block, waiting for its compression if needed.
+     *
+     * @throws IOException If the block couldn't be compressed or written.
+     */
+    private void writePendingBlock() throws IOException {
+        try {
+            out.write(pendingBlocks.removeFirst().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The compression was interrupted.");
+        } catch (ExecutionException e) {
+            throw new IOException("The block couldn't be compressed.", e.getCause());
+        }
+    }
+
+    /**
+     * Writes a 32-bit value in little endian order.
+     *
+     * @param value         Value.
+     * @throws IOException  If the value couldn't be written.
+     */
+    private void writeInt(long value) throws IOException {
+        out.write((int) (value & 0xff));
+        out.write((int) ((value >> 8) & 0xff));
+        out.write((int) ((value >> 16) & 0xff));
+        out.write((int) ((value >> 24) & 0xff));
+    }
+
+    //</editor-fold>
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (finished) {
+            throw new IOException("The stream is finished.");
+        }
+
+        int offset = off;
+        int remaining = len;
+        while (remaining > 0) {
+            final int length = Math.min(remaining, BLOCK_SIZE - blockLength);
+            System.arraycopy(b, offset, block, blockLength, length);
+            blockLength += length;
+            offset += length;
+            remaining -= length;
+            if (blockLength == BLOCK_SIZE) {
+                submitBlock(false);
+            }
+        }
+    }
+
+    /**
+     * Finishes the compressed data without closing the underlying stream.
+     *
+     * @throws IOException If the compressed data couldn't be written.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+
+        submitBlock(true);
+        while (!pendingBlocks.isEmpty()) {
+            writePendingBlock();
+        }
+        writeInt(crc.getValue());
+        writeInt(size);
+        finished = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            out.close();
+        }
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Inner classes section.">
+
+    /**
+     * Growing byte array receiving the output of a deflater.
+     */
+    private static final class ByteArrayBuilder {
+
+        /**
+         * Bytes.
+         */
+        private byte[] bytes;
+
+        /**
+         * Number of bytes.
+         */
+        private int count;
+
+        /**
+         * Constructor.
+         *
+         * @param capacity Initial capacity.
+         */
+        private ByteArrayBuilder(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        /**
+         * Deflates into the free space of the array.
+         *
+         * @param deflater  Deflater.
+         * @param flush     Flush mode.
+         * @return          {@code true} if the free space was filled, so that more output may be available.
+         */
+        private boolean deflate(Deflater deflater, int flush) {
+            if (count == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            final int free = bytes.length - count;
+            final int length = deflater.deflate(bytes, count, free, flush);
+            count += length;
+            return length == free;
+        }
+
+        /**
+         * Gets the bytes.
+         *
+         * @return Bytes.
+         */
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, count);
+        }
+    }
+
+    //</editor-fold>
+
+}
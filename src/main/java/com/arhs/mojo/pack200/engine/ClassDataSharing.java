@@ -0,0 +1,216 @@
+package com.arhs.mojo.pack200.engine;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import org.apache.commons.exec.CommandLine;
+import org.apache.commons.exec.DefaultExecutor;
+import org.apache.commons.exec.PumpStreamHandler;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Application class data sharing archives of the executables run in a new process, which save the loading and the
+ * verification of the same classes on every run.
+ * <p>
+ * The archive of an executable is created once per JDK: the first run records the classes it loads, then the
+ * archive of these classes is dumped, and the next runs map it. The name of the archive contains the fingerprint of
+ * the executable found on the path, its real path and its version, so that another JDK creates another archive. The
+ * Java Virtual Machine ignores an archive which doesn't match it. The archives require an executable of JDK 11 or
+ * later, whatever the JDK running Maven.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class ClassDataSharing {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Extension of the archives.
+     */
+    private static final String ARCHIVE_EXTENSION = ".jsa";
+
+    /**
+     * Extension of the lists of the loaded classes.
+     */
+    private static final String CLASS_LIST_EXTENSION = ".classlist";
+
+    /**
+     * First major version of Java whose Java Virtual Machine archives the classes of the JDK modules.
+     */
+    private static final int MIN_JAVA_VERSION = 11;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Directory of the archives.
+     */
+    private final File directory;
+
+    /**
+     * Logger.
+     */
+    private final Log log;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param directory Directory of the archives, which can be shared between projects.
+     * @param log       Logger.
+     */
+    public ClassDataSharing(File directory, Log log) {
+        this.directory = directory;
+        this.log = log;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Gets the archive of an executable.
+     *
+     * @param executable    Executable.
+     * @param jdkExecutable Executable found on the path.
+     * @return              Archive.
+     */
+    private File getArchiveFile(String executable, JdkExecutable jdkExecutable) {
+        return new File(directory, executable + "-" + jdkExecutable.getFingerprint().substring(0, 16)
+                + ARCHIVE_EXTENSION);
+    }
+
+    /**
+     * Deletes the archives of an executable created by other JDKs.
+     *
+     * @param executable    Executable.
+     * @param archiveFile   Archive of the current JDK.
+     */
+    private void deleteStaleArchives(String executable, File archiveFile) {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            final String name = file.getName();
+            if (name.startsWith(executable + "-") && name.endsWith(ARCHIVE_EXTENSION) && !file.equals(archiveFile)) {
+                if (file.delete()) {
+                    log.debug("The stale class data sharing archive is deleted: " + file);
+                }
+            }
+        }
+    }
+
+    //</editor-fold>
+
+    /**
+     * Adds the options of the Java Virtual Machine mapping the archive of the executable of a command, or recording
+     * the loaded classes if the archive doesn't exist yet.
+     *
+     * @param command       Command of an executable of the JDK, which passes the <code>-J</code> arguments to its
+     *                      Java Virtual Machine.
+     * @return              List of the loaded classes, to pass to {@link #createArchive(String, File)} once the
+     *                      command succeeded, or {@code null} if the archive is mapped or isn't supported.
+     * @throws IOException  If the directory of the archives couldn't be created.
+     */
+    public File addJvmOptions(CommandLine command) throws IOException {
+        final JdkExecutable jdkExecutable = JdkExecutable.find(command.getExecutable());
+        if (jdkExecutable.getMajorVersion() < MIN_JAVA_VERSION) {
+            log.debug(String.format("The class data sharing archives require Java %d or later, the %s executable "
+                    + "runs: %s", MIN_JAVA_VERSION, command.getExecutable(), jdkExecutable.getVersion()));
+            return null;
+        }
+
+        final File archiveFile = getArchiveFile(command.getExecutable(), jdkExecutable);
+        if (archiveFile.isFile()) {
+            command.addArgument("-J-XX:SharedArchiveFile=" + archiveFile.getAbsolutePath());
+            return null;
+        }
+
+        Files.createDirectories(directory.toPath());
+        final File classListFile = File.createTempFile(command.getExecutable() + "-", CLASS_LIST_EXTENSION,
+                directory);
+        command.addArgument("-J-XX:DumpLoadedClassList=" + classListFile.getAbsolutePath());
+        return classListFile;
+    }
+
+    /**
+     * Creates the archive of an executable from the classes it loaded, unless another process created it meanwhile.
+     * A failure is logged, since the executable runs without archive.
+     *
+     * @param executable    Executable.
+     * @param classListFile List of the classes loaded by the executable.
+     */
+    public void createArchive(String executable, File classListFile) {
+        final File archiveFile = getArchiveFile(executable, JdkExecutable.find(executable));
+        if (archiveFile.isFile() || !classListFile.isFile() || classListFile.length() == 0) {
+            return;
+        }
+
+        File temporaryFile = null;
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            temporaryFile = File.createTempFile(executable + "-", ARCHIVE_EXTENSION + ".tmp", directory);
+            final CommandLine command = new CommandLine(executable);
+            command.addArgument("-J-Xshare:dump");
+            command.addArgument("-J-XX:SharedClassListFile=" + classListFile.getAbsolutePath());
+            command.addArgument("-J-XX:SharedArchiveFile=" + temporaryFile.getAbsolutePath());
+            final DefaultExecutor executor = new DefaultExecutor();
+            executor.setStreamHandler(new PumpStreamHandler(output));
+            executor.execute(command);
+
+            Files.move(temporaryFile.toPath(), archiveFile.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            log.info("The class data sharing archive is created: " + archiveFile);
+            deleteStaleArchives(executable, archiveFile);
+        } catch (IOException e) {
+            log.warn("The class data sharing archive couldn't be created: " + e.getMessage());
+            if (output.size() > 0) {
+                log.debug(new String(output.toByteArray(), Charset.defaultCharset()));
+            }
+        } finally {
+            if (temporaryFile != null && !temporaryFile.delete() && temporaryFile.exists()) {
+                temporaryFile.deleteOnExit();
+            }
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,78 @@
+package com.arhs.mojo.pack200.engine;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Engine performing the pack200 and unpack200 operations.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public interface Engine {
+
+    /**
+     * Gets the version of the engine, which identifies the packer producing the files.
+     *
+     * @return Version.
+     */
+    String getVersion();
+
+    /**
+     * Packs a JAR file.
+     *
+     * @param inputFile     Input JAR file.
+     * @param outputFile    Output packed file.
+     * @param options       Packing options.
+     * @throws IOException  If the JAR file couldn't be packed.
+     */
+    void pack(File inputFile, File outputFile, PackOptions options) throws IOException;
+
+    /**
+     * Normalizes a JAR file by packing and unpacking it.
+     *
+     * @param inputFile     Input JAR file.
+     * @param outputFile    Output JAR file or {@code null} to replace the input JAR file.
+     * @param options       Packing options.
+     * @throws IOException  If the JAR file couldn't be normalized.
+     */
+    void repack(File inputFile, File outputFile, PackOptions options) throws IOException;
+
+    /**
+     * Unpacks a packed file.
+     *
+     * @param inputFile     Input packed file.
+     * @param outputFile    Output JAR file.
+     * @param options       Unpacking options.
+     * @throws IOException  If the packed file couldn't be unpacked.
+     */
+    void unpack(File inputFile, File outputFile, UnpackOptions options) throws IOException;
+
+}
@@ -0,0 +1,90 @@
+package com.arhs.mojo.pack200.engine;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.worker.WorkerSettings;
+import org.apache.maven.plugin.logging.Log;
+
+import java.util.Collections;
+
+/**
+ * Engine type value.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public enum EngineType {
+    /**
+     * The packer runs inside the Java Virtual Machine of Maven.
+     */
+    IN_PROCESS {
+        @Override
+        public Engine createEngine(Log log, boolean debug) {
+            return new InProcessEngine(log, debug);
+        }
+    },
+
+    /**
+     * The <code>pack200</code> and <code>unpack200</code> executables run in a new process.
+     */
+    FORK {
+        @Override
+        public Engine createEngine(Log log, boolean debug) {
+            return new ForkEngine(log, debug);
+        }
+    },
+
+    /**
+     * The jobs are sent to long-lived worker Java Virtual Machines, with the default settings of the workers.
+     */
+    WORKER {
+        @Override
+        public Engine createEngine(Log log, boolean debug) {
+            return new WorkerEngine(log, debug, new WorkerSettings(null, 0, 0, 0, Collections.<String>emptyList()));
+        }
+    };
+
+    /**
+     * Creates the engine.
+     *
+     * @param log   Logger.
+     * @param debug Debug mode.
+     * @return      Engine.
+     */
+    public abstract Engine createEngine(Log log, boolean debug);
+
+    /**
+     * Gets the engine type used when none is configured.
+     * <p>
+     * The executables keep running the operations where they are found on the path, as it was done before. Otherwise,
+     * on JDK 14 and later, the packer runs inside the Java Virtual Machine of Maven.
+     * </p>
+     *
+     * @return <code>FORK</code> if the executables are found on the path, <code>IN_PROCESS</code> otherwise.
+     */
+    public static EngineType getDefault() {
+        return ForkEngine.isAvailable() ? FORK : IN_PROCESS;
+    }
+}
@@ -0,0 +1,470 @@
+package com.arhs.mojo.pack200.engine;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.compression.Codec;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
+import com.arhs.mojo.pack200.report.Phase;
+import com.arhs.mojo.pack200.report.PerformanceReport;
+import com.arhs.mojo.pack200.report.ProcessMemorySampler;
+import com.arhs.mojo.pack200.report.TimedInputStream;
+import com.arhs.mojo.pack200.report.TimedOutputStream;
+import org.apache.commons.exec.CommandLine;
+import org.apache.commons.exec.DefaultExecutor;
+import org.apache.commons.exec.Executor;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Engine running the <code>pack200</code> and <code>unpack200</code> executables in a new process.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class ForkEngine implements Engine {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Name of the pack executable.
+     */
+    private static final String PACK_EXECUTABLE = "pack200";
+
+    /**
+     * Name of the unpack executable.
+     */
+    private static final String UNPACK_EXECUTABLE = "unpack200";
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Class data sharing archives of the executables, or {@code null}.
+     */
+    private final ClassDataSharing classDataSharing;
+
+    /**
+     * Debug mode.
+     */
+    private final boolean debug;
+
+    /**
+     * Logger.
+     */
+    private final Log log;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param log   Logger.
+     * @param debug Debug mode.
+     */
+    public ForkEngine(Log log, boolean debug) {
+        this(log, debug, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param log               Logger.
+     * @param debug             Debug mode.
+     * @param classDataSharing  Class data sharing archives of the executables, or {@code null}.
+     */
+    public ForkEngine(Log log, boolean debug, ClassDataSharing classDataSharing) {
+        this.log = log;
+        this.debug = debug;
+        this.classDataSharing = classDataSharing;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Adds a argument with its value.
+     *
+     * @param command   Command.
+     * @param name      Argument name.
+     * @param value     Argument value.
+     */
+    private static void addArgument(CommandLine command, String name, String value) {
+        command.addArgument(String.format("%s=%s", name, value));
+    }
+
+    /**
+     * Adds the "options" arguments.
+     *
+     * @param command       Command.
+     * @param jvmOptions    Options to the Java Virtual Machine.
+     */
+    private static void addJvmOptions(CommandLine command, List<String> jvmOptions) {
+        for (String option : jvmOptions) {
+            command.addArgument("-J" + option);
+        }
+    }
+
+    /**
+     * Adds the "log-file", "quiet" and "verbose" arguments.
+     *
+     * @param command   Command.
+     * @param logFile   Log output file.
+     * @param quiet     Quiet operation.
+     * @param verbose   Verbose operation.
+     */
+    private static void addLogArguments(CommandLine command, File logFile, boolean quiet, boolean verbose) {
+        if (verbose && !quiet) {
+            command.addArgument("--verbose");
+        }
+        if (quiet && !verbose) {
+            command.addArgument("--quiet");
+        }
+        if (logFile != null) {
+            addArgument(command, "--log-file", logFile.toString());
+        }
+    }
+
+    /**
+     * Adds the packing options arguments.
+     *
+     * @param command Command.
+     * @param options Packing options.
+     * @param gzip    {@code true} if <code>pack200</code> compresses the packed file with GZIP.
+     */
+    private void addPackArguments(CommandLine command, PackOptions options, boolean gzip) {
+        if (!gzip) {
+            command.addArgument("--no-gzip");
+        }
+        if (options.isStripDebug()) {
+            command.addArgument("--strip-debug");
+        }
+        if (options.getKeepFileOrder() != null) {
+            command.addArgument(options.getKeepFileOrder() ? "--keep-file-order" : "--no-keep-file-order");
+        }
+        if (options.getSegmentLimit() != 0) {
+            addArgument(command, "--segment-limit", String.valueOf(options.getSegmentLimit()));
+        }
+        if (StringUtils.isNotEmpty(options.getEffort())) {
+            addArgument(command, "--effort", options.getEffort());
+        }
+        if (options.getDeflateHint() != null) {
+            addArgument(command, "--deflate-hint", options.getDeflateHint().name().toLowerCase());
+        }
+        if (options.getModificationTime() != null) {
+            addArgument(command, "--modification-time", options.getModificationTime().name().toLowerCase());
+        }
+        if (options.getUnknownAttribute() != null) {
+            addArgument(command, "--unknown-attribute", options.getUnknownAttribute().name().toLowerCase());
+        }
+        for (String passFile : options.getPassFiles()) {
+            addArgument(command, "--pass-file", passFile);
+        }
+        addConfigFileArgument(command, options.getConfigFile());
+        addLogArguments(command, options.getLogFile(), options.isQuiet(), options.isVerbose());
+        addJvmOptions(command, options.getJvmOptions());
+    }
+
+    /**
+     * Adds the configuration file if this exists.
+     *
+     * @param command       Command.
+     * @param configFile    Configuration file.
+     */
+    private void addConfigFileArgument(CommandLine command, File configFile) {
+        if (configFile != null) {
+            if (configFile.exists()) {
+                addArgument(command, "--config-file", configFile.toString());
+            } else if (debug) {
+                log.warn("The configuration file doesn't exist: " + configFile);
+            }
+        }
+    }
+
+    /**
+     * Compresses a packed file with the codec of the options.
+     * <p>
+     * The compressed file is written into a temporary file of the same directory, then moved into place, so that a
+     * failed compression doesn't leave a truncated file under the output name.
+     * </p>
+     *
+     * @param inputFile     Input packed file.
+     * @param outputFile    Output compressed file.
+     * @param options       Packing options.
+     * @throws IOException  If the packed file couldn't be compressed.
+     */
+    static void compress(File inputFile, File outputFile, PackOptions options) throws IOException {
+        final PerformanceReport report = options.getReport();
+        final File temporaryFile = File.createTempFile("pack", ".pack" + options.getCompression().getExtension(),
+                outputFile.getAbsoluteFile().getParentFile());
+        try {
+            final OutputStream fileStream = TimedOutputStream.wrap(new FileOutputStream(temporaryFile), report,
+                    Phase.WRITE);
+            try (OutputStream outputStream = TimedOutputStream.wrap(options.getCompression().createOutputStream(
+                    fileStream, options.getCompressionLevel(), options.getCompressionThreads(),
+                    options.isStoreIncompressible()), report, Phase.COMPRESS)) {
+                Files.copy(inputFile.toPath(), outputStream);
+            }
+            Files.move(temporaryFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    /**
+     * Detects the codec of a packed file.
+     *
+     * @param inputFile     Packed file.
+     * @return              Codec.
+     * @throws IOException  If the packed file couldn't be read.
+     */
+    static Codec detectCodec(File inputFile) throws IOException {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(inputFile.toPath()))) {
+            return Codec.detect(inputStream);
+        }
+    }
+
+    /**
+     * Checks if <code>pack200</code> writes the packed file directly, rather than the plugin compressing it.
+     * <p>
+     * It is the case without compression, and for GZIP unless a level, several threads or the storing of the
+     * incompressible blocks are configured, since <code>pack200</code> compresses the file with its own
+     * <code>--gzip</code> without writing an intermediate file.
+     * </p>
+     *
+     * @param options   Packing options.
+     * @return          {@code true} if <code>pack200</code> writes the packed file.
+     */
+    private static boolean isPackerCompression(PackOptions options) {
+        switch (options.getCompression()) {
+            case NONE:
+                return true;
+            case GZIP:
+                return options.getCompressionThreads() <= 1 && options.getCompressionLevel() == 0
+                        && !options.isStoreIncompressible();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Executes command.
+     *
+     * @param command       Command.
+     * @param report        Performance report receiving the peak memory usage of the process, or {@code null}.
+     * @throws IOException  Execution of subprocess failed or the subprocess returned a exit value indicating a
+     *                      failure {@code Executor.setExitValue(int)}.
+     */
+    private void executeCommand(CommandLine command, final PerformanceReport report) throws IOException {
+        final File classListFile = classDataSharing != null ? classDataSharing.addJvmOptions(command) : null;
+        try {
+            executeCommand(command, report, classListFile);
+        } finally {
+            if (classListFile != null) {
+                Files.deleteIfExists(classListFile.toPath());
+            }
+        }
+    }
+
+    /**
+     * Executes command, then creates the class data sharing archive of its executable from the loaded classes.
+     *
+     * @param command       Command.
+     * @param report        Performance report receiving the peak memory usage of the process, or {@code null}.
+     * @param classListFile List of the classes loaded by the process, or {@code null}.
+     * @throws IOException  Execution of subprocess failed or the subprocess returned a exit value indicating a
+     *                      failure {@code Executor.setExitValue(int)}.
+     */
+    private void executeCommand(CommandLine command, final PerformanceReport report, File classListFile)
+            throws IOException {
+        if (debug) {
+            log.info("Executable: " + command.getExecutable());
+            log.info("Arguments: " + StringUtils.join(command.getArguments(), " "));
+        }
+
+        final DefaultExecutor executor = new DefaultExecutor() {
+            @Override
+            protected Process launch(CommandLine command, Map<String, String> env, File dir) throws IOException {
+                final Process process = super.launch(command, env, dir);
+                ProcessMemorySampler.start(process, report);
+                return process;
+            }
+        };
+        int processExitValue = executor.execute(command);
+        if (debug) {
+            log.info(String.format("Process returned %d (0x%01X)", processExitValue, processExitValue));
+        }
+
+        if (processExitValue == Executor.INVALID_EXITVALUE) {
+            throw new IOException("An error occurred during the execution of the program.");
+        }
+        if (classListFile != null) {
+            classDataSharing.createArchive(command.getExecutable(), classListFile);
+        }
+    }
+
+    /**
+     * Runs <code>unpack200</code>.
+     *
+     * @param inputFile         Input packed file, in a format read by <code>unpack200</code>.
+     * @param outputFile        Output JAR file.
+     * @param options           Unpacking options.
+     * @param removePackFile    {@code true} to remove the input file after unpacking.
+     * @throws IOException      If the packed file couldn't be unpacked.
+     */
+    private void unpack(File inputFile, File outputFile, UnpackOptions options, boolean removePackFile)
+            throws IOException {
+        final CommandLine command = new CommandLine(UNPACK_EXECUTABLE);
+        if (options.getDeflateHint() != null) {
+            addArgument(command, "--deflate-hint", options.getDeflateHint().name().toLowerCase());
+        }
+        if (removePackFile) {
+            command.addArgument("--remove-pack-file");
+        }
+        addLogArguments(command, options.getLogFile(), options.isQuiet(), options.isVerbose());
+        addJvmOptions(command, options.getJvmOptions());
+        command.addArgument(inputFile.getAbsolutePath());
+        command.addArgument(outputFile.getAbsolutePath());
+
+        executeCommand(command, options.getReport());
+    }
+
+    //</editor-fold>
+
+    /**
+     * Checks if the <code>pack200</code> and <code>unpack200</code> executables are found on the path.
+     *
+     * @return {@code true} if both executables are found on the path.
+     */
+    public static boolean isAvailable() {
+        return JdkExecutable.isOnPath(PACK_EXECUTABLE) && JdkExecutable.isOnPath(UNPACK_EXECUTABLE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The version is the one of the Java Virtual Machine of the <code>pack200</code> executable found on the path,
+     * which rarely is the JDK running Maven, so that the files packed by another JDK aren't reused. Both executables
+     * are expected to belong to the same JDK.
+     * </p>
+     */
+    public String getVersion() {
+        return "fork/" + JdkExecutable.find(PACK_EXECUTABLE).getVersion();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void pack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        if (isPackerCompression(options)) {
+            final CommandLine command = new CommandLine(PACK_EXECUTABLE);
+            addPackArguments(command, options, options.getCompression() == Codec.GZIP);
+            command.addArgument(outputFile.getAbsolutePath());
+            command.addArgument(inputFile.getAbsolutePath());
+
+            executeCommand(command, options.getReport());
+            return;
+        }
+
+        // The packed file is written without compression, then compressed by the codec.
+        final File packedFile = File.createTempFile("pack", ".pack", outputFile.getAbsoluteFile().getParentFile());
+        try {
+            final CommandLine command = new CommandLine(PACK_EXECUTABLE);
+            addPackArguments(command, options, false);
+            command.addArgument(packedFile.getAbsolutePath());
+            command.addArgument(inputFile.getAbsolutePath());
+
+            executeCommand(command, options.getReport());
+            compress(packedFile, outputFile, options);
+        } finally {
+            Files.deleteIfExists(packedFile.toPath());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void repack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        final CommandLine command = new CommandLine(PACK_EXECUTABLE);
+        command.addArgument("--repack");
+        addPackArguments(command, options, options.getCompression() == Codec.GZIP);
+        if (outputFile != null) {
+            command.addArgument(outputFile.getAbsolutePath());
+        }
+        command.addArgument(inputFile.getAbsolutePath());
+
+        executeCommand(command, options.getReport());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * <code>unpack200</code> reads the GZIP and uncompressed files. The files compressed by another codec are
+     * decompressed into a temporary file first.
+     * </p>
+     */
+    public void unpack(File inputFile, File outputFile, UnpackOptions options) throws IOException {
+        final Codec codec = detectCodec(inputFile);
+        if (codec == Codec.GZIP || codec == Codec.NONE) {
+            unpack(inputFile, outputFile, options, options.isRemovePackFile());
+            return;
+        }
+
+        final File packedFile = File.createTempFile("unpack", ".pack", outputFile.getAbsoluteFile().getParentFile());
+        try {
+            try (InputStream inputStream = TimedInputStream.wrap(codec.createInputStream(
+                    new BufferedInputStream(Files.newInputStream(inputFile.toPath()))), options.getReport(),
+                    Phase.COMPRESS)) {
+                Files.copy(inputStream, packedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            unpack(packedFile, outputFile, options, false);
+        } finally {
+            Files.deleteIfExists(packedFile.toPath());
+        }
+        if (options.isRemovePackFile()) {
+            Files.delete(inputFile.toPath());
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,483 @@
+package com.arhs.mojo.pack200.engine;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.compression.Codec;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
+import com.arhs.mojo.pack200.packing.options.DeflateHint;
+import com.arhs.mojo.pack200.report.Phase;
+import com.arhs.mojo.pack200.report.PerformanceReport;
+import com.arhs.mojo.pack200.report.TimedInputStream;
+import com.arhs.mojo.pack200.report.TimedOutputStream;
+import org.apache.commons.compress.harmony.pack200.Archive;
+import org.apache.commons.compress.harmony.pack200.Pack200Exception;
+import org.apache.commons.compress.harmony.pack200.PackingOptions;
+import org.apache.commons.compress.java.util.jar.Pack200.Packer;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.logging.Handler;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+/**
+ * Engine running the packer and the unpacker inside the current Java Virtual Machine.
+ * <p>
+ * The Pack200 implementation of Apache Commons Compress is used, so that the engine works on every JDK,
+ * including the ones which no longer provide the <code>pack200</code> tools. The options are mapped onto packer
+ * properties, as the <code>--config-file</code> argument of the <code>pack200</code> command does.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class InProcessEngine implements Engine {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Name of the logger used by the packer.
+     */
+    private static final String PACKER_LOGGER = "org.harmony.apache.pack200";
+
+    /**
+     * Packer property stripping the attributes used for debugging.
+     */
+    public static final String STRIP_DEBUG = "com.sun.java.util.jar.pack.strip.debug";
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Lock of the unpacker, which keeps a static state.
+     */
+    private static final Object UNPACK_LOCK = new Object();
+
+    /**
+     * Debug mode.
+     */
+    private final boolean debug;
+
+    /**
+     * Logger.
+     */
+    private final Log log;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param log   Logger.
+     * @param debug Debug mode.
+     */
+    public InProcessEngine(Log log, boolean debug) {
+        this.log = log;
+        this.debug = debug;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Loads the configuration file into the packer properties.
+     *
+     * @param properties    Packer properties.
+     * @param configFile    Configuration file.
+     * @throws IOException  If the configuration file couldn't be read.
+     */
+    private void loadConfigFile(SortedMap<String, String> properties, File configFile) throws IOException {
+        if (configFile != null) {
+            if (configFile.exists()) {
+                final Properties config = new Properties();
+                try (InputStream inputStream = Files.newInputStream(configFile.toPath())) {
+                    config.load(inputStream);
+                }
+                for (String name : config.stringPropertyNames()) {
+                    properties.put(name, config.getProperty(name));
+                }
+            } else if (debug) {
+                log.warn("The configuration file doesn't exist: " + configFile);
+            }
+        }
+    }
+
+    /**
+     * Logs the options which can't be applied inside the current Java Virtual Machine.
+     *
+     * @param options Options to the Java Virtual Machine.
+     */
+    private void logIgnoredJvmOptions(Iterable<String> options) {
+        for (String option : options) {
+            log.warn("The option is ignored by the in-process engine: " + option);
+        }
+    }
+
+    /**
+     * Packs a JAR file.
+     *
+     * @param inputFile     Input JAR file.
+     * @param outputStream  Output stream.
+     * @param options       Packing options.
+     * @param gzip          {@code true} to compress the packed stream with GZIP.
+     * @throws IOException  If the JAR file couldn't be packed.
+     */
+    private void pack(File inputFile, OutputStream outputStream, PackOptions options, boolean gzip)
+            throws IOException {
+        logIgnoredJvmOptions(options.getJvmOptions());
+        final PackingOptions packingOptions = toPackingOptions(toPackerProperties(options));
+        packingOptions.setGzip(gzip);
+        packingOptions.setVerbose(options.isVerbose() && !options.isQuiet());
+
+        try (JarFile jarFile = new JarFile(inputFile)) {
+            // The archive configures the logger of the packer, so the handler is added afterwards.
+            final Archive archive = new Archive(jarFile, outputStream, packingOptions);
+            final Logger packerLogger = Logger.getLogger(PACKER_LOGGER);
+            final Handler logHandler = createLogHandler(options.getLogFile());
+            if (logHandler != null) {
+                packerLogger.addHandler(logHandler);
+            }
+            try {
+                archive.pack();
+            } finally {
+                if (logHandler != null) {
+                    packerLogger.removeHandler(logHandler);
+                    logHandler.close();
+                }
+            }
+        } catch (Pack200Exception e) {
+            throw new IOException("Failed to pack the JAR file: " + inputFile, e);
+        }
+    }
+
+    /**
+     * Unpacks a packed stream.
+     * <p>
+     * The JAR file is written into a temporary file of the same directory, then moved into place, so that a failed
+     * unpacking doesn't leave a truncated JAR file under the output name.
+     * </p>
+     *
+     * @param inputStream   Input packed stream.
+     * @param outputFile    Output JAR file.
+     * @param options       Unpacking options.
+     * @throws IOException  If the packed stream couldn't be unpacked.
+     */
+    private void unpack(InputStream inputStream, File outputFile, UnpackOptions options) throws IOException {
+        final File directory = outputFile.getAbsoluteFile().getParentFile();
+        final File temporaryFile = File.createTempFile("unpack", ".jar", directory);
+        try {
+            unpack(inputStream, TimedOutputStream.wrap(new FileOutputStream(temporaryFile), options.getReport(),
+                    Phase.WRITE), options, directory);
+            Files.move(temporaryFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    /**
+     * Unpacks a packed stream into a JAR stream, which is closed.
+     *
+     * @param inputStream   Input packed stream.
+     * @param outputStream  Output JAR stream.
+     * @param options       Unpacking options.
+     * @param logDirectory  Directory of the temporary log file or {@code null} for the default temporary directory.
+     * @throws IOException  If the packed stream couldn't be unpacked.
+     */
+    private void unpack(InputStream inputStream, OutputStream outputStream, UnpackOptions options,
+                        File logDirectory) throws IOException {
+        // Without a log file, the unpacker writes its messages into the standard output, then closes it.
+        final File logFile = options.getLogFile() != null ? options.getLogFile()
+                : File.createTempFile("unpack", ".log", logDirectory);
+        try {
+            // The unpacker keeps a static state, so the executions of a parallel build unpack one at a time.
+            synchronized (UNPACK_LOCK) {
+                try (JarOutputStream jarOutputStream = new JarOutputStream(outputStream)) {
+                    final org.apache.commons.compress.harmony.unpack200.Archive archive =
+                            new org.apache.commons.compress.harmony.unpack200.Archive(inputStream, jarOutputStream);
+                    final DeflateHint deflateHint = options.getDeflateHint();
+                    if (deflateHint != null && deflateHint != DeflateHint.KEEP) {
+                        archive.setDeflateHint(deflateHint == DeflateHint.TRUE);
+                    }
+                    archive.setLogFile(logFile.toString());
+                    archive.setVerbose(options.isVerbose() && !options.isQuiet());
+                    archive.setQuiet(options.isQuiet() && !options.isVerbose());
+                    archive.unpack();
+                } catch (Pack200Exception e) {
+                    throw new IOException("Failed to unpack the file: " + e.getMessage(), e);
+                }
+            }
+
+            if (options.getLogFile() == null && options.isVerbose() && !options.isQuiet()) {
+                for (String line : Files.readAllLines(logFile.toPath(), Charset.defaultCharset())) {
+                    log.info(line);
+                }
+            }
+        } finally {
+            if (options.getLogFile() == null) {
+                Files.deleteIfExists(logFile.toPath());
+            }
+        }
+    }
+
+    /**
+     * Creates a handler writing the messages of the packer into the log output file.
+     *
+     * @param logFile       Log output file.
+     * @return              Handler or {@code null} if there is no log output file.
+     * @throws IOException  If the log output file couldn't be created.
+     */
+    private static Handler createLogHandler(File logFile) throws IOException {
+        if (logFile == null) {
+            return null;
+        }
+        return new StreamHandler(new FileOutputStream(logFile), new SimpleFormatter());
+    }
+
+    //</editor-fold>
+
+    /**
+     * Creates the packing options of the packer from the packer properties.
+     * <p>
+     * The packer adapter of Apache Commons Compress ignores the changes of its properties, so the packer is driven
+     * with these options instead, by this engine and by the workers.
+     * </p>
+     *
+     * @param properties    Packer properties.
+     * @return              Packing options.
+     */
+    public static PackingOptions toPackingOptions(Map<String, String> properties) {
+        final PackingOptions packingOptions = new PackingOptions();
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            final String name = property.getKey();
+            final String value = property.getValue();
+            if (name.startsWith(Packer.CLASS_ATTRIBUTE_PFX)) {
+                packingOptions.addClassAttributeAction(name.substring(Packer.CLASS_ATTRIBUTE_PFX.length()), value);
+            } else if (name.startsWith(Packer.CODE_ATTRIBUTE_PFX)) {
+                packingOptions.addCodeAttributeAction(name.substring(Packer.CODE_ATTRIBUTE_PFX.length()), value);
+            } else if (name.startsWith(Packer.FIELD_ATTRIBUTE_PFX)) {
+                packingOptions.addFieldAttributeAction(name.substring(Packer.FIELD_ATTRIBUTE_PFX.length()), value);
+            } else if (name.startsWith(Packer.METHOD_ATTRIBUTE_PFX)) {
+                packingOptions.addMethodAttributeAction(name.substring(Packer.METHOD_ATTRIBUTE_PFX.length()), value);
+            } else if (name.startsWith(Packer.PASS_FILE_PFX)) {
+                packingOptions.addPassFile(value);
+            } else if (name.equals(Packer.DEFLATE_HINT)) {
+                packingOptions.setDeflateHint(value);
+            } else if (name.equals(Packer.EFFORT)) {
+                packingOptions.setEffort(Integer.parseInt(value.trim()));
+            } else if (name.equals(Packer.KEEP_FILE_ORDER)) {
+                packingOptions.setKeepFileOrder(Boolean.parseBoolean(value));
+            } else if (name.equals(Packer.MODIFICATION_TIME)) {
+                packingOptions.setModificationTime(value);
+            } else if (name.equals(Packer.SEGMENT_LIMIT)) {
+                packingOptions.setSegmentLimit(Long.parseLong(value.trim()));
+            } else if (name.equals(Packer.UNKNOWN_ATTRIBUTE)) {
+                packingOptions.setUnknownAttributeAction(value);
+            } else if (name.equals(STRIP_DEBUG)) {
+                packingOptions.setStripDebug(Boolean.parseBoolean(value));
+            }
+        }
+        return packingOptions;
+    }
+
+    /**
+     * Maps the packing options onto packer properties.
+     * <p>
+     * The properties of the configuration file are loaded first, then overridden by the options.
+     * </p>
+     *
+     * @param options       Packing options.
+     * @return              Packer properties.
+     * @throws IOException  If the configuration file couldn't be read.
+     */
+    public SortedMap<String, String> toPackerProperties(PackOptions options) throws IOException {
+        final SortedMap<String, String> properties = new TreeMap<>();
+        loadConfigFile(properties, options.getConfigFile());
+
+        if (options.isStripDebug()) {
+            properties.put(STRIP_DEBUG, Packer.TRUE);
+        }
+        if (options.getKeepFileOrder() != null) {
+            properties.put(Packer.KEEP_FILE_ORDER, options.getKeepFileOrder() ? Packer.TRUE : Packer.FALSE);
+        }
+        if (options.getSegmentLimit() != 0) {
+            properties.put(Packer.SEGMENT_LIMIT, String.valueOf(options.getSegmentLimit()));
+        }
+        if (StringUtils.isNotEmpty(options.getEffort())) {
+            properties.put(Packer.EFFORT, options.getEffort());
+        }
+        if (options.getDeflateHint() != null) {
+            properties.put(Packer.DEFLATE_HINT, options.getDeflateHint().name().toLowerCase());
+        }
+        if (options.getModificationTime() != null) {
+            properties.put(Packer.MODIFICATION_TIME, options.getModificationTime().name().toLowerCase());
+        }
+        if (options.getUnknownAttribute() != null) {
+            properties.put(Packer.UNKNOWN_ATTRIBUTE, options.getUnknownAttribute().name().toLowerCase());
+        }
+        for (int i = 0; i < options.getPassFiles().size(); i++) {
+            properties.put(Packer.PASS_FILE_PFX + "entry." + i, options.getPassFiles().get(i));
+        }
+
+        if (debug) {
+            log.info("Packer properties: " + properties);
+        }
+        return properties;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getVersion() {
+        final String version = Archive.class.getPackage().getImplementationVersion();
+        return "in-process/commons-compress-" + (version != null ? version : "unknown");
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The packed stream is compressed by the codec of the options rather than by the packer, so that the
+     * compression uses the configured level and threads. The packed file is written into a temporary file of the same
+     * directory, then moved into place, so that a failed packing doesn't leave a truncated packed file under the
+     * output name.
+     * </p>
+     */
+    public void pack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        final PerformanceReport report = options.getReport();
+        final File temporaryFile = File.createTempFile("pack", ".pack" + options.getCompression().getExtension(),
+                outputFile.getAbsoluteFile().getParentFile());
+        try {
+            final OutputStream fileStream = TimedOutputStream.wrap(new FileOutputStream(temporaryFile), report,
+                    Phase.WRITE);
+            try (OutputStream outputStream = TimedOutputStream.wrap(options.getCompression().createOutputStream(
+                    fileStream, options.getCompressionLevel(), options.getCompressionThreads(),
+                    options.isStoreIncompressible()), report, Phase.COMPRESS)) {
+                pack(inputFile, outputStream, options, false);
+            }
+            Files.move(temporaryFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    /**
+     * Packs a JAR file into a stream, without compression. The stream is closed by the packer.
+     *
+     * @param inputFile     Input JAR file.
+     * @param outputStream  Output packed stream.
+     * @param options       Packing options.
+     * @throws IOException  If the JAR file couldn't be packed.
+     */
+    public void pack(File inputFile, OutputStream outputStream, PackOptions options) throws IOException {
+        pack(inputFile, outputStream, options, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void repack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        final ByteArrayOutputStream packedStream = new ByteArrayOutputStream();
+        pack(inputFile, packedStream, options, false);
+
+        final UnpackOptions unpackOptions = new UnpackOptions();
+        unpackOptions.setQuiet(options.isQuiet());
+        unpackOptions.setReport(options.getReport());
+        unpackOptions.setVerbose(options.isVerbose());
+
+        // The JAR file is unpacked into a temporary file, so the input JAR file is replaced only on success.
+        final File destinationFile = outputFile != null ? outputFile : inputFile;
+        unpack(new ByteArrayInputStream(packedStream.toByteArray()), destinationFile, unpackOptions);
+    }
+
+    /**
+     * Unpacks an uncompressed or GZIP packed stream into a JAR stream, which is closed.
+     * <p>
+     * The unpacker keeps a static state, so the streams are unpacked one at a time across the threads. The packed
+     * stream is read into memory before the unpacking, so that the other unpackings don't wait for a slow producer,
+     * such as a packer writing into a pipe; the JAR stream is still written during the unpacking, so it must be
+     * consumed at the same time.
+     * </p>
+     *
+     * @param inputStream   Input packed stream.
+     * @param outputStream  Output JAR stream.
+     * @param options       Unpacking options.
+     * @throws IOException  If the packed stream couldn't be unpacked.
+     */
+    public void unpack(InputStream inputStream, OutputStream outputStream, UnpackOptions options) throws IOException {
+        logIgnoredJvmOptions(options.getJvmOptions());
+        unpack(new ByteArrayInputStream(IOUtils.toByteArray(inputStream)), outputStream, options, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The codec of the packed file is detected from its first bytes.
+     * </p>
+     */
+    public void unpack(File inputFile, File outputFile, UnpackOptions options) throws IOException {
+        logIgnoredJvmOptions(options.getJvmOptions());
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(inputFile.toPath()))) {
+            final Codec codec = Codec.detect(inputStream);
+            if (debug) {
+                log.info("Compression codec: " + codec);
+            }
+            // The unpacker unwraps the filter streams, the shield keeps the decompressing stream.
+            unpack(CloseShieldInputStream.wrap(TimedInputStream.wrap(codec.createInputStream(inputStream),
+                    options.getReport(), Phase.COMPRESS)), outputFile, options);
+        }
+        if (options.isRemovePackFile()) {
+            Files.delete(inputFile.toPath());
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,271 @@
+package com.arhs.mojo.pack200.engine;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.fingerprint.Fingerprint;
+import org.apache.commons.exec.CommandLine;
+import org.apache.commons.exec.DefaultExecutor;
+import org.apache.commons.exec.ExecuteWatchdog;
+import org.apache.commons.exec.PumpStreamHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Executable of a JDK found on the path, such as <code>pack200</code>, with the version of its Java Virtual Machine.
+ * <p>
+ * The executables of the <code>pack200</code> tools only exist up to JDK 13, so they rarely belong to the JDK running
+ * Maven. The version is probed once per executable by running it with <code>-J-version</code>, and probed again when
+ * the executable is replaced.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public final class JdkExecutable {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Executables already probed, by real path, size and modification time.
+     */
+    private static final ConcurrentMap<String, JdkExecutable> PROBED = new ConcurrentHashMap<>();
+
+    /**
+     * Timeout of the version probe, in milliseconds.
+     */
+    private static final long PROBE_TIMEOUT = 30000;
+
+    /**
+     * Version of an executable which couldn't be found or probed.
+     */
+    private static final String UNKNOWN_VERSION = "unknown";
+
+    /**
+     * Pattern of the version printed by the Java Virtual Machine, such as <code>"1.8.0_292"</code> or
+     * <code>"11.0.2"</code>.
+     */
+    private static final Pattern VERSION_PATTERN = Pattern.compile("version \"(?:1\\.)?(\\d+)");
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Real path of the executable, or {@code null} if it isn't found on the path.
+     */
+    private final File file;
+
+    /**
+     * Major version of the Java Virtual Machine, or <code>0</code> if it is unknown.
+     */
+    private final int majorVersion;
+
+    /**
+     * Version printed by the Java Virtual Machine, on a single line.
+     */
+    private final String version;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param file      Real path of the executable, or {@code null} if it isn't found on the path.
+     * @param version   Version printed by the Java Virtual Machine, on a single line.
+     */
+    private JdkExecutable(File file, String version) {
+        this.file = file;
+        this.version = version;
+        this.majorVersion = parseMajorVersion(version);
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Finds an executable on the path, as the operating system does when the executable is run by its name.
+     *
+     * @param name  Name of the executable.
+     * @return      Executable file or {@code null} if it isn't found.
+     */
+    private static File findOnPath(String name) {
+        final String path = System.getenv("PATH");
+        if (path == null) {
+            return null;
+        }
+
+        final boolean windows = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+        final String[] extensions = windows ? System.getenv().getOrDefault("PATHEXT", ".EXE;.BAT;.CMD").split(";")
+                : new String[] {""};
+        for (String directory : path.split(File.pathSeparator)) {
+            for (String extension : extensions) {
+                final File candidate = new File(directory, name + extension.toLowerCase(Locale.ROOT));
+                if (candidate.isFile() && candidate.canExecute()) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Runs an executable with <code>-J-version</code> and reads the version of its Java Virtual Machine.
+     *
+     * @param file  Executable file.
+     * @return      Version on a single line, or <code>unknown</code> if the executable failed.
+     */
+    private static String probeVersion(File file) {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final CommandLine command = new CommandLine(file.getPath());
+        command.addArgument("-J-version");
+        final DefaultExecutor executor = new DefaultExecutor();
+        executor.setStreamHandler(new PumpStreamHandler(output));
+        executor.setWatchdog(new ExecuteWatchdog(PROBE_TIMEOUT));
+        try {
+            executor.execute(command);
+        } catch (IOException e) {
+            return UNKNOWN_VERSION;
+        }
+        final String version = new String(output.toByteArray(), Charset.defaultCharset()).trim()
+                .replaceAll("\\s+", " ");
+        return version.isEmpty() ? UNKNOWN_VERSION : version;
+    }
+
+    //</editor-fold>
+
+    /**
+     * Finds an executable on the path and probes its version, once per executable file.
+     *
+     * @param name  Name of the executable, such as <code>pack200</code>.
+     * @return      Executable, whose file is {@code null} if it isn't found on the path.
+     */
+    public static JdkExecutable find(String name) {
+        final File file = findOnPath(name);
+        return file != null ? of(file) : new JdkExecutable(null, UNKNOWN_VERSION);
+    }
+
+    /**
+     * Checks if an executable is found on the path, without probing its version.
+     *
+     * @param name  Name of the executable, such as <code>pack200</code>.
+     * @return      {@code true} if the executable is found on the path.
+     */
+    public static boolean isOnPath(String name) {
+        return findOnPath(name) != null;
+    }
+
+    /**
+     * Gets an executable file and probes its version, once per executable file.
+     *
+     * @param file  Executable file.
+     * @return      Executable.
+     */
+    public static JdkExecutable of(File file) {
+        File realFile;
+        try {
+            realFile = file.toPath().toRealPath().toFile();
+        } catch (IOException e) {
+            realFile = file.getAbsoluteFile();
+        }
+
+        // A replaced executable, such as an upgraded JDK at the same path, is probed again.
+        final String key = realFile.getPath() + ":" + realFile.length() + ":" + realFile.lastModified();
+        JdkExecutable executable = PROBED.get(key);
+        if (executable == null) {
+            executable = new JdkExecutable(realFile, probeVersion(realFile));
+            final JdkExecutable previous = PROBED.putIfAbsent(key, executable);
+            if (previous != null) {
+                executable = previous;
+            }
+        }
+        return executable;
+    }
+
+    /**
+     * Parses the major version of a Java Virtual Machine from its printed version.
+     *
+     * @param version   Printed version, such as <code>openjdk version "11.0.2" 2019-01-15</code>.
+     * @return          Major version, such as <code>8</code> or <code>11</code>, or <code>0</code> if it is unknown.
+     */
+    public static int parseMajorVersion(String version) {
+        final Matcher matcher = VERSION_PATTERN.matcher(version);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    /**
+     * Gets the real path of the executable.
+     *
+     * @return Executable file, or {@code null} if it isn't found on the path.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Gets the fingerprint of the executable: its real path and its version.
+     *
+     * @return Fingerprint, in hexadecimal.
+     */
+    public String getFingerprint() {
+        return new Fingerprint()
+                .add("path", file != null ? file.getPath() : "")
+                .add("version", version)
+                .toHex();
+    }
+
+    /**
+     * Gets the major version of the Java Virtual Machine of the executable.
+     *
+     * @return Major version, such as <code>8</code> or <code>11</code>, or <code>0</code> if it is unknown.
+     */
+    public int getMajorVersion() {
+        return majorVersion;
+    }
+
+    /**
+     * Gets the version printed by the Java Virtual Machine of the executable.
+     *
+     * @return Version on a single line, or <code>unknown</code> if the executable isn't found or failed.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    //</editor-fold>
+
+}
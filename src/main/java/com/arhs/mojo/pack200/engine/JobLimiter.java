@@ -0,0 +1,139 @@
+package com.arhs.mojo.pack200.engine;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Limiter of the pack and unpack jobs running at the same time in the Java Virtual Machine, shared by the
+ * executions of a parallel build.
+ * <p>
+ * A job runs when fewer jobs than the limit of its execution are running, and when its estimated memory footprint
+ * fits into the memory budget of its execution beside the running jobs. A job larger than the budget runs alone.
+ * The footprint is estimated from the size of the input file, since the packer holds the classes of a segment in
+ * memory.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public final class JobLimiter {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Estimated memory footprint of a job besides its input file, in bytes.
+     */
+    private static final long BASE_FOOTPRINT = 16L * 1024 * 1024;
+
+    /**
+     * Estimated memory footprint of a job per byte of its input file.
+     */
+    private static final long FOOTPRINT_PER_BYTE = 16;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Lock of the counters.
+     */
+    private static final Object LOCK = new Object();
+
+    /**
+     * Estimated memory footprint of the running jobs, in bytes.
+     */
+    private static long runningFootprint;
+
+    /**
+     * Number of running jobs.
+     */
+    private static int runningJobs;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     */
+    private JobLimiter() {
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Estimates the memory footprint of a job.
+     *
+     * @param inputFile Input file of the job.
+     * @return          Footprint, in bytes.
+     */
+    public static long estimateFootprint(File inputFile) {
+        return BASE_FOOTPRINT + inputFile.length() * FOOTPRINT_PER_BYTE;
+    }
+
+    /**
+     * Waits until a job can run, then counts it as running. The job must be released at its end.
+     *
+     * @param maxJobs       Maximum number of running jobs.
+     * @param memoryBudget  Memory budget of the running jobs, in bytes.
+     * @param footprint     Estimated memory footprint of the job, in bytes.
+     * @throws IOException  If the wait was interrupted.
+     */
+    public static void acquire(int maxJobs, long memoryBudget, long footprint) throws IOException {
+        synchronized (LOCK) {
+            while (runningJobs >= maxJobs || (runningJobs > 0 && runningFootprint + footprint > memoryBudget)) {
+                try {
+                    LOCK.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("The wait for a job slot was interrupted.");
+                }
+            }
+            runningJobs++;
+            runningFootprint += footprint;
+        }
+    }
+
+    /**
+     * Releases a job counted as running.
+     *
+     * @param footprint Estimated memory footprint of the job, in bytes.
+     */
+    public static void release(long footprint) {
+        synchronized (LOCK) {
+            runningJobs--;
+            runningFootprint -= footprint;
+            LOCK.notifyAll();
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,129 @@
+package com.arhs.mojo.pack200.engine;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Engine running the jobs of another engine within the limits of the Java Virtual Machine.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ * @see JobLimiter
+ */
+public class LimitedEngine implements Engine {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Engine running the jobs.
+     */
+    private final Engine engine;
+
+    /**
+     * Maximum number of running jobs.
+     */
+    private final int maxJobs;
+
+    /**
+     * Memory budget of the running jobs, in bytes.
+     */
+    private final long memoryBudget;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param engine        Engine running the jobs.
+     * @param maxJobs       Maximum number of running jobs: <code>0</code> to use the number of available processors.
+     * @param memoryBudget  Memory budget of the running jobs, in bytes: <code>0</code> to use three quarters of the
+     *                      maximum heap of the Java Virtual Machine.
+     */
+    public LimitedEngine(Engine engine, int maxJobs, long memoryBudget) {
+        this.engine = engine;
+        this.maxJobs = maxJobs > 0 ? maxJobs : Runtime.getRuntime().availableProcessors();
+        this.memoryBudget = memoryBudget > 0 ? memoryBudget : Runtime.getRuntime().maxMemory() / 4 * 3;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getVersion() {
+        return engine.getVersion();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void pack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        final long footprint = JobLimiter.estimateFootprint(inputFile);
+        JobLimiter.acquire(maxJobs, memoryBudget, footprint);
+        try {
+            engine.pack(inputFile, outputFile, options);
+        } finally {
+            JobLimiter.release(footprint);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void repack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        final long footprint = JobLimiter.estimateFootprint(inputFile);
+        JobLimiter.acquire(maxJobs, memoryBudget, footprint);
+        try {
+            engine.repack(inputFile, outputFile, options);
+        } finally {
+            JobLimiter.release(footprint);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void unpack(File inputFile, File outputFile, UnpackOptions options) throws IOException {
+        final long footprint = JobLimiter.estimateFootprint(inputFile);
+        JobLimiter.acquire(maxJobs, memoryBudget, footprint);
+        try {
+            engine.unpack(inputFile, outputFile, options);
+        } finally {
+            JobLimiter.release(footprint);
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,273 @@
+package com.arhs.mojo.pack200.engine;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.analysis.EntryType;
+import com.arhs.mojo.pack200.analysis.JarAnalysis;
+import com.arhs.mojo.pack200.analysis.JarAnalyzer;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
+import org.apache.commons.exec.ExecuteException;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Engine packing the JAR files of another engine within a memory budget.
+ * <p>
+ * The heap of the packers running in another Java Virtual Machine is set to the budget, unless the options already
+ * set it. Half of the budget is left to the segments: the memory footprint of the JAR file is estimated from the size
+ * of its entries and its number of classes, and if it doesn't fit, the segment limit is lowered in proportion. If the
+ * packer still runs out of memory, the job is retried with half the segment limit, down to {@link #MIN_SEGMENT_LIMIT}.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class MemoryBoundedEngine implements Engine {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Estimated memory footprint of a segment per byte of the entries.
+     */
+    private static final long BYTE_FOOTPRINT = 8;
+
+    /**
+     * Estimated memory footprint of a segment per class, in bytes.
+     */
+    private static final long CLASS_FOOTPRINT = 16 * 1024;
+
+    /**
+     * Segment limit of the packer by default, in bytes.
+     */
+    private static final int DEFAULT_SEGMENT_LIMIT = 1000000;
+
+    /**
+     * Smallest segment limit of a retry, in bytes.
+     */
+    private static final int MIN_SEGMENT_LIMIT = 64 * 1024;
+
+    /**
+     * Exit value of a Java Virtual Machine started with the <code>-XX:+ExitOnOutOfMemoryError</code> option, when it
+     * runs out of memory.
+     */
+    private static final int OUT_OF_MEMORY_EXIT_VALUE = 3;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Engine packing the JAR files.
+     */
+    private final Engine engine;
+
+    /**
+     * Type of the engine packing the JAR files.
+     */
+    private final EngineType engineType;
+
+    /**
+     * Logger.
+     */
+    private final Log log;
+
+    /**
+     * Memory budget of a job, in bytes.
+     */
+    private final long memoryBudget;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param engine        Engine packing the JAR files.
+     * @param engineType    Type of the engine packing the JAR files.
+     * @param log           Logger.
+     * @param memoryBudget  Memory budget of a job, in bytes.
+     */
+    public MemoryBoundedEngine(Engine engine, EngineType engineType, Log log, long memoryBudget) {
+        this.engine = engine;
+        this.engineType = engineType;
+        this.log = log;
+        this.memoryBudget = memoryBudget;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Gets the segment limit which the packer applies for a value of the options.
+     *
+     * @param segmentLimit  Segment limit of the options.
+     * @param inputFile     Input JAR file.
+     * @return              Segment limit, in bytes.
+     */
+    private static long getEffectiveSegmentLimit(int segmentLimit, File inputFile) {
+        if (segmentLimit == 0) {
+            return DEFAULT_SEGMENT_LIMIT;
+        }
+        return segmentLimit > 0 ? segmentLimit : Math.max(inputFile.length(), MIN_SEGMENT_LIMIT);
+    }
+
+    /**
+     * Checks if the options set the maximum heap of the Java Virtual Machine.
+     *
+     * @param options   Packing options.
+     * @return          {@code true} if the maximum heap is set.
+     */
+    private static boolean hasHeapOption(PackOptions options) {
+        for (String option : options.getJvmOptions()) {
+            if (option.startsWith("-Xmx") || option.startsWith("-XX:MaxHeapSize=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a failure of the packer is caused by a lack of memory.
+     *
+     * @param throwable Failure.
+     * @return          {@code true} if the packer ran out of memory.
+     */
+    private static boolean isOutOfMemory(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OutOfMemoryError
+                    || (cause instanceof ExecuteException
+                            && ((ExecuteException) cause).getExitValue() == OUT_OF_MEMORY_EXIT_VALUE)
+                    || (cause.getMessage() != null && cause.getMessage().contains("OutOfMemoryError"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plans the packing of a JAR file within the memory budget.
+     *
+     * @param inputFile     Input JAR file.
+     * @param options       Packing options.
+     * @return              Packing options with the heap and the segment limit of the budget.
+     * @throws IOException  If the JAR file couldn't be read.
+     */
+    private PackOptions plan(File inputFile, PackOptions options) throws IOException {
+        final PackOptions plannedOptions = options.copy();
+        if (engineType != EngineType.IN_PROCESS && !hasHeapOption(options)) {
+            plannedOptions.getJvmOptions().add("-Xmx" + Math.max(memoryBudget / (1024 * 1024), 1) + "m");
+            if (engineType == EngineType.FORK) {
+                // The exit value of the process tells a lack of memory from another failure.
+                plannedOptions.getJvmOptions().add("-XX:+ExitOnOutOfMemoryError");
+            }
+        }
+
+        final JarAnalysis analysis = JarAnalyzer.analyze(inputFile);
+        final long footprint = analysis.getSize() * BYTE_FOOTPRINT
+                + analysis.getEntries(EntryType.CLASS) * CLASS_FOOTPRINT;
+        final long segmentBudget = memoryBudget / 2;
+        if (footprint > segmentBudget) {
+            final long segmentLimit = Math.max(analysis.getSize() * segmentBudget / footprint, MIN_SEGMENT_LIMIT);
+            if (segmentLimit < getEffectiveSegmentLimit(options.getSegmentLimit(), inputFile)) {
+                plannedOptions.setSegmentLimit((int) segmentLimit);
+                log.info(String.format("The segment limit is lowered to %d bytes to fit in the memory budget: %s",
+                        segmentLimit, inputFile));
+            }
+        }
+        return plannedOptions;
+    }
+
+    /**
+     * Performs an operation within the memory budget, retrying it with smaller segments if the packer runs out of
+     * memory.
+     *
+     * @param inputFile     Input JAR file.
+     * @param outputFile    Output file.
+     * @param options       Packing options.
+     * @param repack        {@code true} to normalize the JAR file, {@code false} to pack it.
+     * @throws IOException  If the operation failed.
+     */
+    private void execute(File inputFile, File outputFile, PackOptions options, boolean repack) throws IOException {
+        final PackOptions plannedOptions = plan(inputFile, options);
+        while (true) {
+            try {
+                if (repack) {
+                    engine.repack(inputFile, outputFile, plannedOptions);
+                } else {
+                    engine.pack(inputFile, outputFile, plannedOptions);
+                }
+                return;
+            } catch (IOException | OutOfMemoryError e) {
+                final long segmentLimit = getEffectiveSegmentLimit(plannedOptions.getSegmentLimit(), inputFile);
+                if (!isOutOfMemory(e) || segmentLimit <= MIN_SEGMENT_LIMIT) {
+                    throw e;
+                }
+                plannedOptions.setSegmentLimit((int) Math.max(segmentLimit / 2, MIN_SEGMENT_LIMIT));
+                log.warn(String.format("The packer ran out of memory, retrying with a segment limit of %d bytes: %s",
+                        plannedOptions.getSegmentLimit(), inputFile));
+            }
+        }
+    }
+
+    //</editor-fold>
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getVersion() {
+        return engine.getVersion();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void pack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        execute(inputFile, outputFile, options, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void repack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        execute(inputFile, outputFile, options, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void unpack(File inputFile, File outputFile, UnpackOptions options) throws IOException {
+        engine.unpack(inputFile, outputFile, options);
+    }
+
+    //</editor-fold>
+
+}
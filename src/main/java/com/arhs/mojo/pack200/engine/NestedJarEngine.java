@@ -0,0 +1,642 @@
+package com.arhs.mojo.pack200.engine;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.compression.Codec;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Engine packing the JAR files nested in a JAR file, like the libraries of a fat JAR file, with another engine.
+ * <p>
+ * The packer transmits a nested JAR file as an opaque resource, whose deflated entries don't shrink. Instead, the
+ * nested JAR files are extracted and packed concurrently, recursively, into uncompressed archives, which replace them
+ * in a copy of the JAR file with the <code>.pack</code> extension. The copy is then packed, so that the compression of
+ * the packed file applies to the nested archives as well. An index entry records the nested JAR files and their
+ * compression method, so that the unpacking reassembles the JAR file: the nested archives are unpacked and stored
+ * again under their original names. They are unpacked concurrently by the external and worker engines only, since
+ * the in-process unpacker is serialized.
+ * </p>
+ * <p>
+ * The signed nested JAR files and the entries which aren't JAR files are left as they are. The unpacked nested JAR
+ * files have the same entries as the original ones, but are rewritten by the unpacker.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class NestedJarEngine implements Engine {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Value of the index of a nested JAR file which was deflated.
+     */
+    private static final String DEFLATED = "deflated";
+
+    /**
+     * Name of the index entry, listing the compression method and the name of the packed nested JAR files, one per
+     * line.
+     */
+    public static final String INDEX_NAME = "META-INF/pack200-nested.list";
+
+    /**
+     * Extension of the nested JAR files.
+     */
+    private static final String JAR_EXTENSION = ".jar";
+
+    /**
+     * Extension of the packed nested JAR files.
+     */
+    private static final String PACK_EXTENSION = ".pack";
+
+    /**
+     * Value of the index of a nested JAR file which was stored.
+     */
+    private static final String STORED = "stored";
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Engine packing the JAR files.
+     */
+    private final Engine engine;
+
+    /**
+     * Logger.
+     */
+    private final Log log;
+
+    /**
+     * Number of nested JAR files packed or unpacked at the same time.
+     */
+    private final int threads;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param engine    Engine packing the JAR files.
+     * @param log       Logger.
+     * @param threads   Number of nested JAR files packed or unpacked at the same time: <code>0</code> to use the
+     *                  number of available processors.
+     */
+    public NestedJarEngine(Engine engine, Log log, int threads) {
+        this.engine = engine;
+        this.log = log;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Copies an entry into a file.
+     *
+     * @param zipFile       JAR file.
+     * @param entry         Entry.
+     * @param file          File.
+     * @throws IOException  If the entry couldn't be copied.
+     */
+    private static void extract(ZipFile zipFile, ZipArchiveEntry entry, File file) throws IOException {
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+            Files.copy(inputStream, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Checks if an entry is a nested JAR file which may be packed.
+     *
+     * @param zipFile   JAR file.
+     * @param entry     Entry.
+     * @return          {@code true} if the entry is a nested JAR file.
+     */
+    private static boolean isNestedJar(ZipFile zipFile, ZipArchiveEntry entry) {
+        return !entry.isDirectory() && entry.getName().toLowerCase(Locale.ROOT).endsWith(JAR_EXTENSION)
+                && zipFile.getEntry(entry.getName() + PACK_EXTENSION) == null;
+    }
+
+    /**
+     * Checks if a JAR file is signed, since the unpacker wouldn't reproduce the signed entries.
+     *
+     * @param jarFile       JAR file.
+     * @return              {@code true} if the JAR file is signed.
+     * @throws IOException  If the JAR file isn't a ZIP file.
+     */
+    private static boolean isSigned(File jarFile) throws IOException {
+        try (java.util.zip.ZipFile zipFile = new java.util.zip.ZipFile(jarFile)) {
+            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                final String name = entries.nextElement().getName().toUpperCase(Locale.ROOT);
+                if (name.startsWith("META-INF/") && (name.endsWith(".SF") || name.endsWith(".RSA")
+                        || name.endsWith(".DSA") || name.endsWith(".EC"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Waits for the result of a task.
+     *
+     * @param future        Task.
+     * @return              Result.
+     * @throws IOException  If the task failed or was interrupted.
+     */
+    private static File get(Future<File> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The processing of the nested JAR files was interrupted.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("A nested JAR file couldn't be processed.", e.getCause());
+        }
+    }
+
+    /**
+     * Deletes the files produced by the tasks which weren't consumed.
+     *
+     * @param futures Tasks.
+     */
+    private static void deleteFiles(Iterable<Future<File>> futures) {
+        for (Future<File> future : futures) {
+            try {
+                if (future.isDone() && !future.isCancelled() && future.get() != null) {
+                    Files.deleteIfExists(future.get().toPath());
+                }
+            } catch (IOException | ExecutionException e) {
+                // The task failed or its file was already deleted.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Writes the content of a file as an entry.
+     *
+     * @param outputStream  Output JAR file.
+     * @param name          Name of the entry.
+     * @param time          Modification time of the entry.
+     * @param stored        {@code true} to store the entry, {@code false} to deflate it.
+     * @param file          File.
+     * @throws IOException  If the entry couldn't be written.
+     */
+    private static void putEntry(ZipArchiveOutputStream outputStream, String name, long time, boolean stored,
+                                 File file) throws IOException {
+        final ZipArchiveEntry entry = new ZipArchiveEntry(name);
+        entry.setTime(time);
+        if (stored) {
+            final CRC32 crc = new CRC32();
+            try (InputStream inputStream = new CheckedInputStream(Files.newInputStream(file.toPath()), crc)) {
+                final byte[] buffer = new byte[8192];
+                while (inputStream.read(buffer) != -1) {
+                    // Reads until the end, which computes the CRC-32.
+                }
+            }
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(file.length());
+            entry.setCompressedSize(file.length());
+            entry.setCrc(crc.getValue());
+        } else {
+            entry.setMethod(ZipEntry.DEFLATED);
+        }
+        outputStream.putArchiveEntry(entry);
+        Files.copy(file.toPath(), outputStream);
+        outputStream.closeArchiveEntry();
+    }
+
+    /**
+     * Creates a copy of a JAR file whose nested JAR files are replaced by their packed archives.
+     *
+     * @param inputFile     Input JAR file.
+     * @param directory     Directory of the temporary files.
+     * @param options       Packing options.
+     * @return              Copy of the JAR file or {@code null} if no nested JAR file was packed.
+     * @throws IOException  If the JAR file couldn't be read or the copy couldn't be written.
+     */
+    private File packNestedJars(File inputFile, File directory, PackOptions options) throws IOException {
+        final PackOptions nestedOptions = options.copy();
+        nestedOptions.setCompression(Codec.NONE);
+        // The nested JAR files are measured with the JAR file, by the time of the operation.
+        nestedOptions.setReport(null);
+        // The names of the entries passed through are the ones of the JAR file.
+        nestedOptions.getPassFiles().clear();
+        if (nestedOptions.getLogFile() != null) {
+            // Concurrent operations would overwrite the same log file.
+            nestedOptions.setLogFile(null);
+        }
+
+        try (ZipFile zipFile = ZipFile.builder().setFile(inputFile).get()) {
+            final List<ZipArchiveEntry> entries = Collections.list(zipFile.getEntries());
+            final Map<String, Future<File>> packedJars = new LinkedHashMap<>();
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                for (ZipArchiveEntry entry : entries) {
+                    if (isNestedJar(zipFile, entry)) {
+                        packedJars.put(entry.getName(), executor.submit(
+                                new PackTask(zipFile, entry, directory, nestedOptions)));
+                    }
+                }
+                if (packedJars.isEmpty()) {
+                    return null;
+                }
+
+                final File outerFile = File.createTempFile("nested", JAR_EXTENSION, directory);
+                final StringBuilder index = new StringBuilder();
+                int packedCount = 0;
+                long indexTime = -1;
+                try (ZipArchiveOutputStream outputStream = new ZipArchiveOutputStream(outerFile)) {
+                    for (ZipArchiveEntry entry : entries) {
+                        final Future<File> future = packedJars.get(entry.getName());
+                        final File packedFile = future != null ? get(future) : null;
+                        if (packedFile == null) {
+                            try (InputStream inputStream = zipFile.getRawInputStream(entry)) {
+                                outputStream.addRawArchiveEntry(entry, inputStream);
+                            }
+                            continue;
+                        }
+                        try {
+                            putEntry(outputStream, entry.getName() + PACK_EXTENSION, entry.getTime(), true,
+                                    packedFile);
+                            index.append(entry.getMethod() == ZipEntry.STORED ? STORED : DEFLATED).append(' ')
+                                    .append(entry.getName()).append('\n');
+                            packedCount++;
+                            indexTime = Math.max(indexTime, entry.getTime());
+                        } finally {
+                            Files.deleteIfExists(packedFile.toPath());
+                        }
+                    }
+                    if (packedCount > 0) {
+                        final ZipArchiveEntry indexEntry = new ZipArchiveEntry(INDEX_NAME);
+                        indexEntry.setTime(indexTime);
+                        outputStream.putArchiveEntry(indexEntry);
+                        outputStream.write(index.toString().getBytes(StandardCharsets.UTF_8));
+                        outputStream.closeArchiveEntry();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(outerFile.toPath());
+                    throw e;
+                }
+                if (packedCount == 0) {
+                    Files.deleteIfExists(outerFile.toPath());
+                    return null;
+                }
+                log.debug(String.format("%d nested JAR files are packed: %s", packedCount, inputFile.getName()));
+                return outerFile;
+            } finally {
+                executor.shutdownNow();
+                deleteFiles(packedJars.values());
+            }
+        }
+    }
+
+    /**
+     * Reassembles an unpacked JAR file, by unpacking its nested JAR files.
+     *
+     * @param jarFile       Unpacked JAR file, replaced by the reassembled one.
+     * @param options       Unpacking options.
+     * @throws IOException  If the JAR file couldn't be reassembled.
+     */
+    private void unpackNestedJars(File jarFile, UnpackOptions options) throws IOException {
+        final UnpackOptions nestedOptions = new UnpackOptions();
+        nestedOptions.setDeflateHint(options.getDeflateHint());
+        nestedOptions.getJvmOptions().addAll(options.getJvmOptions());
+        nestedOptions.setQuiet(options.isQuiet());
+        nestedOptions.setVerbose(options.isVerbose());
+
+        final File directory = jarFile.getAbsoluteFile().getParentFile();
+        final File outerFile;
+        try (ZipFile zipFile = ZipFile.builder().setFile(jarFile).get()) {
+            final ZipArchiveEntry indexEntry = zipFile.getEntry(INDEX_NAME);
+            if (indexEntry == null) {
+                return;
+            }
+            final Map<String, String> index = new LinkedHashMap<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(indexEntry),
+                    StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    final int separator = line.indexOf(' ');
+                    if (separator > 0) {
+                        index.put(line.substring(separator + 1), line.substring(0, separator));
+                    }
+                }
+            }
+
+            final List<ZipArchiveEntry> entries = Collections.list(zipFile.getEntries());
+            final Map<String, Future<File>> unpackedJars = new LinkedHashMap<>();
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                for (ZipArchiveEntry entry : entries) {
+                    final String name = entry.getName();
+                    if (name.endsWith(PACK_EXTENSION) && index.containsKey(
+                            name.substring(0, name.length() - PACK_EXTENSION.length()))) {
+                        unpackedJars.put(name, executor.submit(
+                                new UnpackTask(zipFile, entry, directory, nestedOptions)));
+                    }
+                }
+
+                outerFile = File.createTempFile("nested", JAR_EXTENSION, directory);
+                try (ZipArchiveOutputStream outputStream = new ZipArchiveOutputStream(outerFile)) {
+                    for (ZipArchiveEntry entry : entries) {
+                        final Future<File> future = unpackedJars.get(entry.getName());
+                        if (future == null) {
+                            if (!INDEX_NAME.equals(entry.getName())) {
+                                try (InputStream inputStream = zipFile.getRawInputStream(entry)) {
+                                    outputStream.addRawArchiveEntry(entry, inputStream);
+                                }
+                            }
+                            continue;
+                        }
+                        final File unpackedFile = get(future);
+                        try {
+                            final String name = entry.getName().substring(0,
+                                    entry.getName().length() - PACK_EXTENSION.length());
+                            putEntry(outputStream, name, entry.getTime(), STORED.equals(index.get(name)),
+                                    unpackedFile);
+                        } finally {
+                            Files.deleteIfExists(unpackedFile.toPath());
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(outerFile.toPath());
+                    throw e;
+                }
+            } finally {
+                executor.shutdownNow();
+                deleteFiles(unpackedJars.values());
+            }
+        }
+        Files.move(outerFile.toPath(), jarFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    //</editor-fold>
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getVersion() {
+        return engine.getVersion() + "/nested";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void pack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        final File outerFile = packNestedJars(inputFile, outputFile.getAbsoluteFile().getParentFile(), options);
+        try {
+            engine.pack(outerFile != null ? outerFile : inputFile, outputFile, options);
+        } finally {
+            if (outerFile != null) {
+                Files.deleteIfExists(outerFile.toPath());
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The nested JAR files are normalized as well.
+     * </p>
+     */
+    public void repack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        final File destinationFile = outputFile != null ? outputFile : inputFile;
+        final File directory = destinationFile.getAbsoluteFile().getParentFile();
+        final File outerFile = packNestedJars(inputFile, directory, options);
+        if (outerFile == null) {
+            engine.repack(inputFile, outputFile, options);
+            return;
+        }
+
+        final File packedFile = File.createTempFile("repack", PACK_EXTENSION, directory);
+        final File unpackedFile = File.createTempFile("repack", ".jar", directory);
+        try {
+            final PackOptions packOptions = options.copy();
+            packOptions.setCompression(Codec.NONE);
+            engine.pack(outerFile, packedFile, packOptions);
+
+            final UnpackOptions unpackOptions = new UnpackOptions();
+            unpackOptions.setQuiet(options.isQuiet());
+            unpackOptions.setReport(options.getReport());
+            unpackOptions.setVerbose(options.isVerbose());
+            unpack(packedFile, unpackedFile, unpackOptions);
+
+            // The JAR file is only replaced once it is completely unpacked, since it may be the input file.
+            Files.move(unpackedFile.toPath(), destinationFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(unpackedFile.toPath());
+            Files.deleteIfExists(packedFile.toPath());
+            Files.deleteIfExists(outerFile.toPath());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the packed file has nested JAR files, they are unpacked into the JAR file.
+     * </p>
+     */
+    public void unpack(File inputFile, File outputFile, UnpackOptions options) throws IOException {
+        engine.unpack(inputFile, outputFile, options);
+        unpackNestedJars(outputFile, options);
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Inner classes section.">
+
+    /**
+     * Operation packing a nested JAR file.
+     */
+    private final class PackTask implements Callable<File> {
+
+        /**
+         * Directory of the temporary files.
+         */
+        private final File directory;
+
+        /**
+         * Entry of the nested JAR file.
+         */
+        private final ZipArchiveEntry entry;
+
+        /**
+         * Packing options.
+         */
+        private final PackOptions options;
+
+        /**
+         * JAR file.
+         */
+        private final ZipFile zipFile;
+
+        /**
+         * Constructor.
+         *
+         * @param zipFile   JAR file.
+         * @param entry     Entry of the nested JAR file.
+         * @param directory Directory of the temporary files.
+         * @param options   Packing options.
+         */
+        private PackTask(ZipFile zipFile, ZipArchiveEntry entry, File directory, PackOptions options) {
+            this.zipFile = zipFile;
+            this.entry = entry;
+            this.directory = directory;
+            this.options = options;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @return Packed archive or {@code null} if the nested JAR file is left as it is.
+         */
+        public File call() throws IOException {
+            final File nestedFile = File.createTempFile("nested", JAR_EXTENSION, directory);
+            final File packedFile = File.createTempFile("nested", PACK_EXTENSION, directory);
+            try {
+                extract(zipFile, entry, nestedFile);
+                if (isSigned(nestedFile)) {
+                    log.debug("The signed nested JAR file is left as it is: " + entry.getName());
+                    Files.deleteIfExists(packedFile.toPath());
+                    return null;
+                }
+                pack(nestedFile, packedFile, options);
+                return packedFile;
+            } catch (IOException | RuntimeException e) {
+                log.warn(String.format("The nested JAR file is left as it is: %s (%s)", entry.getName(), e));
+                Files.deleteIfExists(packedFile.toPath());
+                return null;
+            } finally {
+                Files.deleteIfExists(nestedFile.toPath());
+            }
+        }
+    }
+
+    /**
+     * Operation unpacking a nested JAR file.
+     */
+    private final class UnpackTask implements Callable<File> {
+
+        /**
+         * Directory of the temporary files.
+         */
+        private final File directory;
+
+        /**
+         * Entry of the packed archive.
+         */
+        private final ZipArchiveEntry entry;
+
+        /**
+         * Unpacking options.
+         */
+        private final UnpackOptions options;
+
+        /**
+         * JAR file.
+         */
+        private final ZipFile zipFile;
+
+        /**
+         * Constructor.
+         *
+         * @param zipFile   JAR file.
+         * @param entry     Entry of the packed archive.
+         * @param directory Directory of the temporary files.
+         * @param options   Unpacking options.
+         */
+        private UnpackTask(ZipFile zipFile, ZipArchiveEntry entry, File directory, UnpackOptions options) {
+            this.zipFile = zipFile;
+            this.entry = entry;
+            this.directory = directory;
+            this.options = options;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @return Unpacked nested JAR file.
+         */
+        public File call() throws IOException {
+            final File packedFile = File.createTempFile("nested", PACK_EXTENSION, directory);
+            final File nestedFile = File.createTempFile("nested", JAR_EXTENSION, directory);
+            try {
+                extract(zipFile, entry, packedFile);
+                unpack(packedFile, nestedFile, options);
+                return nestedFile;
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(nestedFile.toPath());
+                throw e;
+            } finally {
+                Files.deleteIfExists(packedFile.toPath());
+            }
+        }
+    }
+
+    //</editor-fold>
+
+}
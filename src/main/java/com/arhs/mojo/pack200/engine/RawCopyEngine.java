@@ -0,0 +1,233 @@
+package com.arhs.mojo.pack200.engine;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
+import com.arhs.mojo.pack200.packing.options.DeflateHint;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.zip.ZipEntry;
+
+/**
+ * Engine repacking the JAR files with another engine without compressing again the resources which didn't change.
+ * <p>
+ * The packer transmits the bytes of the resources unchanged, but the unpacker inflates and deflates all of them
+ * again. The other engine repacks the JAR file into a stored JAR file, then the output JAR file is assembled from its
+ * entries: the resources which have the same name, CRC and size as in the input JAR file and would be compressed the
+ * same way are copied with their compressed bytes, the other entries are compressed once, as the deflate hint
+ * requires. Packing and unpacking are delegated. The other engine mustn't repack the nested JAR files, whose entries
+ * would be stored.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class RawCopyEngine implements Engine {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Size of the buffer of the output JAR file, which receives many small writes.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Extension of the class files.
+     */
+    private static final String CLASS_EXTENSION = ".class";
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Engine repacking the JAR files.
+     */
+    private final Engine engine;
+
+    /**
+     * Logger.
+     */
+    private final Log log;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param engine    Engine repacking the JAR files.
+     * @param log       Logger.
+     */
+    public RawCopyEngine(Engine engine, Log log) {
+        this.engine = engine;
+        this.log = log;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Gets the compression method of an entry of the output JAR file, which the unpacker would have used.
+     *
+     * @param deflateHint   Deflate hint or {@code null} to keep the method of the input entry.
+     * @param inputEntry    Entry of the input JAR file or {@code null} if the entry is new.
+     * @return              Compression method.
+     */
+    private static int getMethod(DeflateHint deflateHint, ZipArchiveEntry inputEntry) {
+        if (deflateHint == DeflateHint.TRUE) {
+            return ZipEntry.DEFLATED;
+        }
+        if (deflateHint == DeflateHint.FALSE) {
+            return ZipEntry.STORED;
+        }
+        return inputEntry != null && inputEntry.getMethod() == ZipEntry.STORED ? ZipEntry.STORED : ZipEntry.DEFLATED;
+    }
+
+    /**
+     * Checks if an entry of the repacked JAR file is a resource of the input JAR file which didn't change.
+     *
+     * @param entry         Entry of the repacked JAR file.
+     * @param inputEntry    Entry of the input JAR file with the same name or {@code null}.
+     * @return              {@code true} if the compressed bytes of the input entry can be copied.
+     */
+    private static boolean isUntouched(ZipArchiveEntry entry, ZipArchiveEntry inputEntry) {
+        return inputEntry != null && !entry.isDirectory() && !entry.getName().endsWith(CLASS_EXTENSION)
+                && entry.getSize() == inputEntry.getSize() && entry.getCrc() == inputEntry.getCrc()
+                && inputEntry.getCompressedSize() != ZipArchiveEntry.SIZE_UNKNOWN;
+    }
+
+    /**
+     * Assembles the output JAR file from the entries of the stored repacked JAR file, copying the compressed bytes of
+     * the resources of the input JAR file which didn't change.
+     *
+     * @param inputFile     Input JAR file.
+     * @param storedFile    Repacked JAR file, whose entries are stored.
+     * @param outputFile    Output JAR file.
+     * @param deflateHint   Deflate hint of the repacking.
+     * @throws IOException  If a JAR file couldn't be read or the output JAR file couldn't be written.
+     */
+    private void assemble(File inputFile, File storedFile, File outputFile, DeflateHint deflateHint)
+            throws IOException {
+        int copiedEntries = 0;
+        int entries = 0;
+        try (ZipFile inputZipFile = ZipFile.builder().setFile(inputFile).get();
+             ZipFile storedZipFile = ZipFile.builder().setFile(storedFile).get();
+             ZipArchiveOutputStream outputStream = new ZipArchiveOutputStream(new BufferedOutputStream(
+                     new FileOutputStream(outputFile), BUFFER_SIZE))) {
+            for (ZipArchiveEntry entry : Collections.list(storedZipFile.getEntriesInPhysicalOrder())) {
+                final ZipArchiveEntry inputEntry = inputZipFile.getEntry(entry.getName());
+                final int method = getMethod(deflateHint, inputEntry);
+                // The copy keeps the time and the extra fields written by the unpacker.
+                final ZipArchiveEntry outputEntry = new ZipArchiveEntry(entry);
+                outputEntry.setMethod(method);
+                entries++;
+
+                if (isUntouched(entry, inputEntry) && inputEntry.getMethod() == method) {
+                    outputEntry.setCompressedSize(inputEntry.getCompressedSize());
+                    try (InputStream inputStream = inputZipFile.getRawInputStream(inputEntry)) {
+                        outputStream.addRawArchiveEntry(outputEntry, inputStream);
+                    }
+                    copiedEntries++;
+                } else {
+                    outputEntry.setCompressedSize(ZipArchiveEntry.SIZE_UNKNOWN);
+                    outputStream.putArchiveEntry(outputEntry);
+                    try (InputStream inputStream = storedZipFile.getInputStream(entry)) {
+                        IOUtils.copy(inputStream, outputStream);
+                    }
+                    outputStream.closeArchiveEntry();
+                }
+            }
+        }
+        log.info(String.format("%d of %d entries are copied without being compressed again: %s", copiedEntries,
+                entries, inputFile.getName()));
+    }
+
+    //</editor-fold>
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getVersion() {
+        return engine.getVersion() + "/raw-copy";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void pack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        engine.pack(inputFile, outputFile, options);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void repack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        final File destinationFile = outputFile != null ? outputFile : inputFile;
+        final File directory = destinationFile.getAbsoluteFile().getParentFile();
+        final File storedFile = File.createTempFile("repack-stored", ".jar", directory);
+        final File assembledFile = File.createTempFile("repack", ".jar", directory);
+        try {
+            // The deflate hint only changes the compression of the entries, not their content, unless the other
+            // engine repacks the nested JAR files: their entries would be stored as well.
+            final PackOptions storedOptions = options.copy();
+            storedOptions.setDeflateHint(DeflateHint.FALSE);
+            engine.repack(inputFile, storedFile, storedOptions);
+
+            assemble(inputFile, storedFile, assembledFile, options.getDeflateHint());
+            Files.move(assembledFile.toPath(), destinationFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(storedFile.toPath());
+            Files.deleteIfExists(assembledFile.toPath());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void unpack(File inputFile, File outputFile, UnpackOptions options) throws IOException {
+        engine.unpack(inputFile, outputFile, options);
+    }
+
+    //</editor-fold>
+
+}
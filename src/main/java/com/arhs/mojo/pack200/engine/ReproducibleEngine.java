@@ -0,0 +1,249 @@
+package com.arhs.mojo.pack200.engine;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+/**
+ * Engine packing a normalized copy of the JAR files with another engine, so that the packed files only depend on the
+ * content of the entries.
+ * <p>
+ * The packer transmits the modification times and the order of the entries, which change on every build even if the
+ * classes didn't. If the options have a timestamp, the entries are copied, without being compressed again, in the
+ * order of their names, the manifest first, with the timestamp as modification time and without the extra fields and
+ * comments. The directories are stored. The GZIP codec doesn't write any modification time or file name.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ * @see PackOptions#getTimestamp()
+ */
+public class ReproducibleEngine implements Engine {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Order of the entries of the normalized JAR files: the <code>META-INF/</code> directory, the manifest, then the
+     * other entries by name.
+     */
+    static final Comparator<ZipArchiveEntry> ENTRY_ORDER = new Comparator<ZipArchiveEntry>() {
+        public int compare(ZipArchiveEntry first, ZipArchiveEntry second) {
+            final int comparison = Integer.compare(getRank(first.getName()), getRank(second.getName()));
+            return comparison != 0 ? comparison : first.getName().compareTo(second.getName());
+        }
+    };
+
+    /**
+     * Name of the directory of the manifest.
+     */
+    private static final String META_INF_NAME = "META-INF/";
+
+    /**
+     * Smallest timestamp, which is the first time of the ZIP format after the epoch, in milliseconds.
+     */
+    private static final long MIN_TIMESTAMP = 315532802000L;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Engine packing the normalized JAR files.
+     */
+    private final Engine engine;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param engine Engine packing the normalized JAR files.
+     */
+    public ReproducibleEngine(Engine engine) {
+        this.engine = engine;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Gets the rank of an entry in the normalized JAR files.
+     *
+     * @param name  Name of the entry.
+     * @return      Rank.
+     */
+    private static int getRank(String name) {
+        if (META_INF_NAME.equals(name)) {
+            return 0;
+        }
+        return JarFile.MANIFEST_NAME.equals(name) ? 1 : 2;
+    }
+
+    /**
+     * Writes a normalized copy of a JAR file.
+     *
+     * @param inputFile     Input JAR file.
+     * @param directory     Directory of the copy.
+     * @param timestamp     Modification time of the entries, in milliseconds since the epoch.
+     * @return              Copy.
+     * @throws IOException  If the JAR file couldn't be read or the copy couldn't be written.
+     */
+    private static File normalize(File inputFile, File directory, long timestamp) throws IOException {
+        final File normalizedFile = File.createTempFile("reproducible", ".jar", directory);
+        try (ZipFile zipFile = ZipFile.builder().setFile(inputFile).get();
+             ZipArchiveOutputStream outputStream = new ZipArchiveOutputStream(normalizedFile)) {
+            final List<ZipArchiveEntry> entries = Collections.list(zipFile.getEntries());
+            Collections.sort(entries, ENTRY_ORDER);
+            for (ZipArchiveEntry entry : entries) {
+                final ZipArchiveEntry normalizedEntry = new ZipArchiveEntry(entry.getName());
+                normalizedEntry.setTime(timestamp);
+                if (entry.isDirectory()) {
+                    // The tools store or deflate the directories, which the packer transmits as a deflate hint.
+                    normalizedEntry.setMethod(ZipEntry.STORED);
+                    normalizedEntry.setSize(0);
+                    normalizedEntry.setCrc(0);
+                    outputStream.putArchiveEntry(normalizedEntry);
+                    outputStream.closeArchiveEntry();
+                    continue;
+                }
+                normalizedEntry.setMethod(entry.getMethod());
+                normalizedEntry.setCrc(entry.getCrc());
+                normalizedEntry.setSize(entry.getSize());
+                normalizedEntry.setCompressedSize(entry.getCompressedSize());
+                try (InputStream inputStream = zipFile.getRawInputStream(entry)) {
+                    outputStream.addRawArchiveEntry(normalizedEntry, inputStream);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(normalizedFile.toPath());
+            throw e;
+        }
+        return normalizedFile;
+    }
+
+    //</editor-fold>
+
+    /**
+     * Parses a timestamp in the format of the <code>project.build.outputTimestamp</code> property: a date in the ISO
+     * 8601 format, with an offset, or a number of seconds since the epoch.
+     *
+     * @param outputTimestamp   Timestamp, ignored if it is a single character, like the property disabling the
+     *                          reproducible builds.
+     * @return                  Timestamp, in milliseconds since the epoch, or {@code null} if it is ignored.
+     * @throws IllegalArgumentException If the timestamp is invalid or before 1980.
+     */
+    public static Long parseTimestamp(String outputTimestamp) {
+        if (outputTimestamp == null || outputTimestamp.trim().length() < 2) {
+            return null;
+        }
+        final String value = outputTimestamp.trim();
+        final long timestamp;
+        try {
+            timestamp = value.matches("\\d+") ? Long.parseLong(value) * 1000
+                    : OffsetDateTime.parse(value).toInstant().toEpochMilli();
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid output timestamp: " + value, e);
+        }
+        if (timestamp < MIN_TIMESTAMP) {
+            throw new IllegalArgumentException("The output timestamp must be after 1980-01-01T00:00:02Z: " + value);
+        }
+        return timestamp;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getVersion() {
+        return engine.getVersion();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void pack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        if (options.getTimestamp() == null) {
+            engine.pack(inputFile, outputFile, options);
+            return;
+        }
+
+        final File normalizedFile = normalize(inputFile, outputFile.getAbsoluteFile().getParentFile(),
+                options.getTimestamp());
+        try {
+            engine.pack(normalizedFile, outputFile, options);
+        } finally {
+            Files.deleteIfExists(normalizedFile.toPath());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void repack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        if (options.getTimestamp() == null) {
+            engine.repack(inputFile, outputFile, options);
+            return;
+        }
+
+        final File destinationFile = outputFile != null ? outputFile : inputFile;
+        final File normalizedFile = normalize(inputFile, destinationFile.getAbsoluteFile().getParentFile(),
+                options.getTimestamp());
+        try {
+            engine.repack(normalizedFile, destinationFile, options);
+        } finally {
+            Files.deleteIfExists(normalizedFile.toPath());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void unpack(File inputFile, File outputFile, UnpackOptions options) throws IOException {
+        engine.unpack(inputFile, outputFile, options);
+    }
+
+    //</editor-fold>
+
+}
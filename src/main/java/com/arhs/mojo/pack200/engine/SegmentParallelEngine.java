@@ -0,0 +1,598 @@
+package com.arhs.mojo.pack200.engine;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.cache.PackCache;
+import com.arhs.mojo.pack200.compression.Codec;
+import com.arhs.mojo.pack200.fingerprint.Fingerprint;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
+import com.arhs.mojo.pack200.packing.options.ModificationTime;
+import com.arhs.mojo.pack200.report.Phase;
+import com.arhs.mojo.pack200.report.PerformanceReport;
+import com.arhs.mojo.pack200.report.TimedOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarFile;
+
+/**
+ * Engine packing the segments of a JAR file concurrently with another engine.
+ * <p>
+ * The entries of the JAR file are partitioned up front into contiguous parts of similar sizes, in the order used by
+ * the packer. Each part is copied into a temporary JAR file without recompressing its entries, then packed by the
+ * other engine on its own thread. As a Pack200 archive may consist of several segments, the packed parts are
+ * concatenated into a single archive, then compressed.
+ * </p>
+ * <p>
+ * The unpacked JAR file has the same entries as with a serial packing, in the same order and with the same
+ * attributes. As with a different segment limit, only the order of the inner classes attributes of some classes may
+ * differ, since the unpacker rebuilds them from the inner classes of their segment. The latest modification time
+ * (<code>LATEST</code>) is the one of the whole JAR file rather than of each part: the entries of the parts are given
+ * that time, then packed with their own times.
+ * </p>
+ * <p>
+ * In the incremental mode, the entries are rather partitioned at the packages whose name hashes to a boundary, so
+ * that the parts don't move when classes change, and the packed parts are cached by the fingerprint of their
+ * entries. Only the parts whose entries changed are packed again.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class SegmentParallelEngine implements Engine {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Average number of packages of the parts of an incremental packing: a part starts at every package whose name
+     * hashes to a multiple of this number.
+     */
+    private static final int SEGMENT_PACKAGES = 8;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Engine packing the parts.
+     */
+    private final Engine engine;
+
+    /**
+     * Logger.
+     */
+    private final Log log;
+
+    /**
+     * Cache of the packed parts, or {@code null} if the packing isn't incremental.
+     */
+    private final PackCache segmentCache;
+
+    /**
+     * Number of parts packed at the same time.
+     */
+    private final int threads;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param engine    Engine packing the parts.
+     * @param log       Logger.
+     * @param threads   Number of parts packed at the same time: <code>0</code> to use the number of available
+     *                  processors.
+     */
+    public SegmentParallelEngine(Engine engine, Log log, int threads) {
+        this(engine, log, threads, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param engine        Engine packing the parts.
+     * @param log           Logger.
+     * @param threads       Number of parts packed at the same time: <code>0</code> to use the number of available
+     *                      processors.
+     * @param segmentCache  Cache of the packed parts, which makes the packing incremental, or {@code null}.
+     */
+    public SegmentParallelEngine(Engine engine, Log log, int threads, PackCache segmentCache) {
+        this.engine = engine;
+        this.log = log;
+        this.segmentCache = segmentCache;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Gets the entries of a JAR file in the order used by the packer.
+     * <p>
+     * If the order of the files isn't kept, the packer removes the directories and sorts the files by name, the
+     * manifest first.
+     * </p>
+     *
+     * @param zipFile       JAR file.
+     * @param keepFileOrder {@code true} if the order of the files is kept.
+     * @return              Entries.
+     */
+    private static List<ZipArchiveEntry> getEntries(ZipFile zipFile, boolean keepFileOrder) {
+        final List<ZipArchiveEntry> entries = Collections.list(zipFile.getEntries());
+        if (!keepFileOrder) {
+            final Iterator<ZipArchiveEntry> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isDirectory()) {
+                    iterator.remove();
+                }
+            }
+            Collections.sort(entries, new Comparator<ZipArchiveEntry>() {
+                public int compare(ZipArchiveEntry first, ZipArchiveEntry second) {
+                    if (first.getName().equals(second.getName())) {
+                        return 0;
+                    }
+                    if (JarFile.MANIFEST_NAME.equals(first.getName())) {
+                        return -1;
+                    }
+                    if (JarFile.MANIFEST_NAME.equals(second.getName())) {
+                        return 1;
+                    }
+                    return first.getName().compareTo(second.getName());
+                }
+            });
+        }
+        return entries;
+    }
+
+    /**
+     * Gets the package of an entry.
+     *
+     * @param name  Name of the entry.
+     * @return      Package, with slashes as separators: empty for the root directory.
+     */
+    private static String getPackageName(String name) {
+        final int separator = name.lastIndexOf('/');
+        return separator >= 0 ? name.substring(0, separator) : "";
+    }
+
+    /**
+     * Checks if the packing options request a zero effort, which copies the JAR file instead of packing it into
+     * segments.
+     *
+     * @param options   Packing options.
+     * @return          {@code true} if the effort is zero.
+     */
+    private static boolean isZeroEffort(PackOptions options) {
+        return options.getEffort() != null && "0".equals(options.getEffort().trim());
+    }
+
+    /**
+     * Partitions entries into contiguous parts of similar uncompressed sizes.
+     *
+     * @param entries   Entries.
+     * @return          Parts, at most one per thread.
+     */
+    private List<List<ZipArchiveEntry>> partition(List<ZipArchiveEntry> entries) {
+        long totalSize = 0;
+        for (ZipArchiveEntry entry : entries) {
+            totalSize += Math.max(0, entry.getSize());
+        }
+        final long partSize = Math.max(1, (totalSize + threads - 1) / threads);
+
+        final List<List<ZipArchiveEntry>> parts = new ArrayList<>();
+        List<ZipArchiveEntry> part = new ArrayList<>();
+        long size = 0;
+        for (ZipArchiveEntry entry : entries) {
+            part.add(entry);
+            size += Math.max(0, entry.getSize());
+            if (size >= partSize && parts.size() < threads - 1) {
+                parts.add(part);
+                part = new ArrayList<>();
+                size = 0;
+            }
+        }
+        if (!part.isEmpty()) {
+            parts.add(part);
+        }
+        return parts;
+    }
+
+    /**
+     * Partitions entries into contiguous parts starting at the packages whose name hashes to a boundary, which only
+     * depend on the names of the packages.
+     *
+     * @param entries   Entries.
+     * @return          Parts.
+     */
+    private static List<List<ZipArchiveEntry>> partitionByPackage(List<ZipArchiveEntry> entries) {
+        final List<List<ZipArchiveEntry>> parts = new ArrayList<>();
+        List<ZipArchiveEntry> part = new ArrayList<>();
+        String packageName = null;
+        for (ZipArchiveEntry entry : entries) {
+            final String entryPackageName = getPackageName(entry.getName());
+            if (!part.isEmpty() && !entryPackageName.equals(packageName)
+                    && (entryPackageName.hashCode() & Integer.MAX_VALUE) % SEGMENT_PACKAGES == 0) {
+                parts.add(part);
+                part = new ArrayList<>();
+            }
+            part.add(entry);
+            packageName = entryPackageName;
+        }
+        if (!part.isEmpty()) {
+            parts.add(part);
+        }
+        return parts;
+    }
+
+    /**
+     * Creates the key of the cache entry of a packed part, from the attributes of its entries.
+     *
+     * @param entries       Entries of the part.
+     * @param options       Packing options of the part.
+     * @param entryTime     Modification time given to the entries, or <code>-1</code> to keep their own times.
+     * @return              Key.
+     * @throws IOException  If the configuration file couldn't be read.
+     */
+    private String createSegmentKey(List<ZipArchiveEntry> entries, PackOptions options, long entryTime)
+            throws IOException {
+        // Only the pass files of the part change its packing, so a pass file added elsewhere keeps its entry.
+        final PackOptions keyOptions = options.copy();
+        keyOptions.getPassFiles().clear();
+        for (String passFile : options.getPassFiles()) {
+            for (ZipArchiveEntry entry : entries) {
+                if (isPassFile(entry.getName(), passFile)) {
+                    keyOptions.getPassFiles().add(passFile);
+                    break;
+                }
+            }
+        }
+
+        final Fingerprint fingerprint = keyOptions.appendTo(new Fingerprint())
+                .add("operation", "segment")
+                .add("engine", engine.getVersion());
+        for (ZipArchiveEntry entry : entries) {
+            fingerprint.add(entry.getName(), String.format("%d %d %d %d", entry.getMethod(), entry.getCrc(),
+                    entry.getSize(), entryTime >= 0 ? entryTime : entry.getTime()));
+        }
+        return fingerprint.toHex();
+    }
+
+    /**
+     * Checks if an entry is transmitted as it is by a pass file, as the packer does: a pass file is the name of the
+     * entry or, unless it is a class file, one of its directories.
+     *
+     * @param name      Name of the entry.
+     * @param passFile  Pass file.
+     * @return          {@code true} if the entry is transmitted as it is.
+     */
+    private static boolean isPassFile(String name, String passFile) {
+        if (name.equals(passFile)) {
+            return true;
+        }
+        if (passFile.endsWith(".class")) {
+            return false;
+        }
+        return name.startsWith(passFile.endsWith("/") ? passFile : passFile + "/");
+    }
+
+    /**
+     * Packs a JAR file into an uncompressed archive, by packing its parts concurrently.
+     *
+     * @param inputFile     Input JAR file.
+     * @param outputStream  Output stream receiving the segments.
+     * @param options       Packing options.
+     * @throws IOException  If the JAR file couldn't be packed.
+     */
+    private void packSegments(File inputFile, OutputStream outputStream, PackOptions options) throws IOException {
+        final PackOptions partOptions = options.copy();
+        partOptions.setCompression(Codec.NONE);
+        // The parts are measured as a whole, by the time of the packing.
+        partOptions.setReport(null);
+        if (partOptions.getLogFile() != null) {
+            // Concurrent operations would overwrite the same log file.
+            log.warn("The log file is ignored when the segments are packed concurrently: " + partOptions.getLogFile());
+            partOptions.setLogFile(null);
+        }
+
+        final File directory = inputFile.getAbsoluteFile().getParentFile();
+        try (ZipFile zipFile = ZipFile.builder().setFile(inputFile).get()) {
+            final boolean keepFileOrder = options.getKeepFileOrder() == null || options.getKeepFileOrder();
+            final List<ZipArchiveEntry> entries = getEntries(zipFile, keepFileOrder);
+            if (keepFileOrder && options.getTimestamp() != null) {
+                // The parts of a reproducible packed file don't depend on the order of the JAR file.
+                Collections.sort(entries, ReproducibleEngine.ENTRY_ORDER);
+            }
+            final List<List<ZipArchiveEntry>> parts = segmentCache != null ? partitionByPackage(entries)
+                    : partition(entries);
+
+            // The latest modification time of a part would differ from the one of the JAR file.
+            long entryTime = -1;
+            if (partOptions.getModificationTime() == ModificationTime.LATEST) {
+                for (ZipArchiveEntry entry : entries) {
+                    entryTime = Math.max(entryTime, entry.getTime());
+                }
+                partOptions.setModificationTime(ModificationTime.KEEP);
+            }
+
+            final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads,
+                    parts.size())));
+            final List<Future<File>> futures = new ArrayList<>();
+            final AtomicInteger cachedParts = new AtomicInteger();
+            try {
+                for (List<ZipArchiveEntry> part : parts) {
+                    final String key = segmentCache != null ? createSegmentKey(part, partOptions, entryTime) : null;
+                    futures.add(executor.submit(new PartTask(zipFile, part, directory, partOptions, entryTime, key,
+                            cachedParts)));
+                }
+                for (Future<File> future : futures) {
+                    final File packedFile = future.get();
+                    try {
+                        Files.copy(packedFile.toPath(), outputStream);
+                    } finally {
+                        Files.deleteIfExists(packedFile.toPath());
+                    }
+                }
+                if (segmentCache != null) {
+                    log.info(String.format("%d of %d segments are restored from the cache: %s", cachedParts.get(),
+                            parts.size(), inputFile.getName()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("The packing of the segments was interrupted.");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("A segment couldn't be packed.", e.getCause());
+            } finally {
+                executor.shutdownNow();
+                deletePackedFiles(futures);
+            }
+        }
+    }
+
+    /**
+     * Deletes the packed parts which weren't concatenated.
+     *
+     * @param futures Packed parts.
+     */
+    private static void deletePackedFiles(List<Future<File>> futures) {
+        for (Future<File> future : futures) {
+            try {
+                if (future.isDone() && !future.isCancelled()) {
+                    Files.deleteIfExists(future.get().toPath());
+                }
+            } catch (IOException | ExecutionException e) {
+                // The part failed or was already deleted.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    //</editor-fold>
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getVersion() {
+        return engine.getVersion() + (segmentCache != null ? "/segments-packages" : "/segments-" + threads);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The segments are written into a temporary file of the same directory, which is moved into place once all of
+     * them are packed.
+     * </p>
+     */
+    public void pack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        if (isZeroEffort(options)) {
+            engine.pack(inputFile, outputFile, options);
+            return;
+        }
+        final PerformanceReport report = options.getReport();
+        final File temporaryFile = File.createTempFile("pack", ".pack" + options.getCompression().getExtension(),
+                outputFile.getAbsoluteFile().getParentFile());
+        try {
+            final OutputStream fileStream = TimedOutputStream.wrap(new FileOutputStream(temporaryFile), report,
+                    Phase.WRITE);
+            try (OutputStream outputStream = TimedOutputStream.wrap(options.getCompression().createOutputStream(
+                    fileStream, options.getCompressionLevel(), options.getCompressionThreads(),
+                    options.isStoreIncompressible()), report, Phase.COMPRESS)) {
+                packSegments(inputFile, outputStream, options);
+            }
+            Files.move(temporaryFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void repack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        if (isZeroEffort(options)) {
+            engine.repack(inputFile, outputFile, options);
+            return;
+        }
+        final File destinationFile = outputFile != null ? outputFile : inputFile;
+        final File packedFile = File.createTempFile("repack", ".pack",
+                destinationFile.getAbsoluteFile().getParentFile());
+        try {
+            try (OutputStream outputStream = new FileOutputStream(packedFile)) {
+                packSegments(inputFile, outputStream, options);
+            }
+
+            final UnpackOptions unpackOptions = new UnpackOptions();
+            unpackOptions.setQuiet(options.isQuiet());
+            unpackOptions.setReport(options.getReport());
+            unpackOptions.setVerbose(options.isVerbose());
+            engine.unpack(packedFile, destinationFile, unpackOptions);
+        } finally {
+            Files.deleteIfExists(packedFile.toPath());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void unpack(File inputFile, File outputFile, UnpackOptions options) throws IOException {
+        engine.unpack(inputFile, outputFile, options);
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Inner classes section.">
+
+    /**
+     * Operation packing a part of a JAR file.
+     */
+    private final class PartTask implements Callable<File> {
+
+        /**
+         * Number of the parts restored from the cache.
+         */
+        private final AtomicInteger cachedParts;
+
+        /**
+         * Directory of the temporary files.
+         */
+        private final File directory;
+
+        /**
+         * Modification time given to the entries, or <code>-1</code> to keep their own times.
+         */
+        private final long entryTime;
+
+        /**
+         * Entries of the part.
+         */
+        private final List<ZipArchiveEntry> entries;
+
+        /**
+         * Key of the cache entry of the packed part, or {@code null} if the packing isn't incremental.
+         */
+        private final String key;
+
+        /**
+         * Packing options.
+         */
+        private final PackOptions options;
+
+        /**
+         * JAR file.
+         */
+        private final ZipFile zipFile;
+
+        /**
+         * Constructor.
+         *
+         * @param zipFile       JAR file.
+         * @param entries       Entries of the part.
+         * @param directory     Directory of the temporary files.
+         * @param options       Packing options.
+         * @param entryTime     Modification time given to the entries, or <code>-1</code> to keep their own times.
+         * @param key           Key of the cache entry of the packed part, or {@code null} if the packing isn't
+         *                      incremental.
+         * @param cachedParts   Number of the parts restored from the cache.
+         */
+        private PartTask(ZipFile zipFile, List<ZipArchiveEntry> entries, File directory, PackOptions options,
+                         long entryTime, String key, AtomicInteger cachedParts) {
+            this.zipFile = zipFile;
+            this.entries = entries;
+            this.directory = directory;
+            this.options = options;
+            this.entryTime = entryTime;
+            this.key = key;
+            this.cachedParts = cachedParts;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public File call() throws IOException {
+            final File partFile = File.createTempFile("segment", ".jar", directory);
+            final File packedFile = File.createTempFile("segment", ".pack", directory);
+            try {
+                if (key != null && segmentCache.get(key, packedFile)) {
+                    cachedParts.incrementAndGet();
+                    return packedFile;
+                }
+                try (ZipArchiveOutputStream outputStream = new ZipArchiveOutputStream(partFile)) {
+                    for (ZipArchiveEntry entry : entries) {
+                        final ZipArchiveEntry partEntry = entryTime >= 0 ? new ZipArchiveEntry(entry) : entry;
+                        if (entryTime >= 0) {
+                            partEntry.setTime(entryTime);
+                        }
+                        try (InputStream inputStream = zipFile.getRawInputStream(entry)) {
+                            outputStream.addRawArchiveEntry(partEntry, inputStream);
+                        }
+                    }
+                }
+                engine.pack(partFile, packedFile, options);
+                if (key != null) {
+                    segmentCache.put(key, packedFile);
+                }
+                return packedFile;
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(packedFile.toPath());
+                throw e;
+            } finally {
+                Files.deleteIfExists(partFile.toPath());
+            }
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,284 @@
+package com.arhs.mojo.pack200.engine;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.compression.Codec;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
+import com.arhs.mojo.pack200.report.Phase;
+import com.arhs.mojo.pack200.report.PerformanceReport;
+import com.arhs.mojo.pack200.report.ProcessMemorySampler;
+import com.arhs.mojo.pack200.report.TimedInputStream;
+import com.arhs.mojo.pack200.worker.Worker;
+import com.arhs.mojo.pack200.worker.WorkerMain;
+import com.arhs.mojo.pack200.worker.WorkerPool;
+import com.arhs.mojo.pack200.worker.WorkerSettings;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Engine sending the pack and unpack jobs to long-lived worker Java Virtual Machines.
+ * <p>
+ * The workers keep the isolation and the heap of a forked process, without paying the start of a Java Virtual
+ * Machine and the compilation of the packer for every job. The workers of a Java home up to JDK 13 use the packer
+ * of the JDK, the other ones the packer of Apache Commons Compress. The options to the Java Virtual Machine are
+ * applied to the workers, which are pooled by options.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ * @see WorkerPool
+ */
+public class WorkerEngine implements Engine {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Unpacker property of the deflate hint.
+     */
+    private static final String UNPACK_DEFLATE_HINT = "unpack.deflate.hint";
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Debug mode.
+     */
+    private final boolean debug;
+
+    /**
+     * Engine mapping the packing options onto packer properties.
+     */
+    private final InProcessEngine inProcessEngine;
+
+    /**
+     * Logger.
+     */
+    private final Log log;
+
+    /**
+     * Settings of the workers.
+     */
+    private final WorkerSettings settings;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param log       Logger.
+     * @param debug     Debug mode.
+     * @param settings  Settings of the workers.
+     */
+    public WorkerEngine(Log log, boolean debug, WorkerSettings settings) {
+        this.log = log;
+        this.debug = debug;
+        this.settings = settings;
+        this.inProcessEngine = new InProcessEngine(log, debug);
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Sends a job to a worker.
+     *
+     * @param operation     Operation.
+     * @param inputFile     Input file.
+     * @param outputFile    Output file.
+     * @param properties    Properties of the packer or the unpacker.
+     * @param jvmOptions    Options to the Java Virtual Machine of the worker.
+     * @param report        Performance report receiving the peak memory usage of the worker, or {@code null}.
+     * @throws IOException  If the job failed.
+     */
+    private void execute(String operation, File inputFile, File outputFile, Map<String, String> properties,
+                         List<String> jvmOptions, PerformanceReport report) throws IOException {
+        final WorkerPool pool = WorkerPool.get(settings.withJvmOptions(jvmOptions));
+        final Worker worker = pool.acquire();
+        try {
+            if (debug) {
+                log.info(String.format("Worker job: %s %s -> %s %s", operation, inputFile, outputFile, properties));
+            }
+            worker.execute(operation, inputFile, outputFile, properties);
+            ProcessMemorySampler.record(worker.getProcess(), report);
+        } finally {
+            pool.release(worker);
+        }
+    }
+
+    /**
+     * Logs the options which aren't applied by the workers.
+     *
+     * @param logFile   Log output file.
+     * @param verbose   Verbose operation.
+     */
+    private void logIgnoredOptions(File logFile, boolean verbose) {
+        if (logFile != null) {
+            log.warn("The log file is ignored by the worker engine: " + logFile);
+        }
+        if (verbose) {
+            log.warn("The verbose operation is ignored by the worker engine.");
+        }
+    }
+
+    /**
+     * Packs a JAR file into an uncompressed packed file.
+     *
+     * @param inputFile     Input JAR file.
+     * @param packedFile    Output packed file.
+     * @param options       Packing options.
+     * @throws IOException  If the JAR file couldn't be packed.
+     */
+    private void packFile(File inputFile, File packedFile, PackOptions options) throws IOException {
+        logIgnoredOptions(options.getLogFile(), options.isVerbose());
+        execute(WorkerMain.PACK, inputFile, packedFile, inProcessEngine.toPackerProperties(options),
+                options.getJvmOptions(), options.getReport());
+    }
+
+    /**
+     * Unpacks an uncompressed packed file.
+     *
+     * @param packedFile    Input packed file.
+     * @param outputFile    Output JAR file.
+     * @param options       Unpacking options.
+     * @throws IOException  If the packed file couldn't be unpacked.
+     */
+    private void unpackFile(File packedFile, File outputFile, UnpackOptions options) throws IOException {
+        logIgnoredOptions(options.getLogFile(), options.isVerbose());
+        final Map<String, String> properties = options.getDeflateHint() != null
+                ? Collections.singletonMap(UNPACK_DEFLATE_HINT, options.getDeflateHint().name().toLowerCase())
+                : Collections.<String, String>emptyMap();
+        execute(WorkerMain.UNPACK, packedFile, outputFile, properties, options.getJvmOptions(), options.getReport());
+    }
+
+    //</editor-fold>
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The version is reported by the first worker of the Java home, which is started, if needed, in the pool of the
+     * jobs having the options of the settings, so that it serves the jobs afterwards.
+     * </p>
+     */
+    public String getVersion() {
+        try {
+            return "worker/" + WorkerPool.get(settings).getVersion();
+        } catch (IOException e) {
+            log.warn("The version of the workers couldn't be obtained: " + e.getMessage());
+            return "worker/unknown";
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The worker writes an uncompressed packed file, which is compressed by the codec of the options.
+     * </p>
+     */
+    public void pack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        if (options.getCompression() == Codec.NONE) {
+            packFile(inputFile, outputFile, options);
+            return;
+        }
+
+        final File packedFile = File.createTempFile("pack", ".pack", outputFile.getAbsoluteFile().getParentFile());
+        try {
+            packFile(inputFile, packedFile, options);
+            ForkEngine.compress(packedFile, outputFile, options);
+        } finally {
+            Files.deleteIfExists(packedFile.toPath());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void repack(File inputFile, File outputFile, PackOptions options) throws IOException {
+        final File destinationFile = outputFile != null ? outputFile : inputFile;
+        final File directory = destinationFile.getAbsoluteFile().getParentFile();
+        final File packedFile = File.createTempFile("repack", ".pack", directory);
+        final File temporaryFile = File.createTempFile("repack", ".jar", directory);
+        try {
+            packFile(inputFile, packedFile, options);
+
+            final UnpackOptions unpackOptions = new UnpackOptions();
+            unpackOptions.getJvmOptions().addAll(options.getJvmOptions());
+            unpackOptions.setReport(options.getReport());
+            unpackFile(packedFile, temporaryFile, unpackOptions);
+            Files.move(temporaryFile.toPath(), destinationFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(packedFile.toPath());
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The compressed files are decompressed into a temporary file first, so that the workers only read uncompressed
+     * files, whatever their Pack200 implementation.
+     * </p>
+     */
+    public void unpack(File inputFile, File outputFile, UnpackOptions options) throws IOException {
+        final Codec codec = ForkEngine.detectCodec(inputFile);
+        if (codec == Codec.NONE) {
+            unpackFile(inputFile, outputFile, options);
+        } else {
+            final File packedFile = File.createTempFile("unpack", ".pack",
+                    outputFile.getAbsoluteFile().getParentFile());
+            try {
+                try (InputStream inputStream = TimedInputStream.wrap(codec.createInputStream(
+                        new BufferedInputStream(Files.newInputStream(inputFile.toPath()))), options.getReport(),
+                        Phase.COMPRESS)) {
+                    Files.copy(inputStream, packedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                unpackFile(packedFile, outputFile, options);
+            } finally {
+                Files.deleteIfExists(packedFile.toPath());
+            }
+        }
+        if (options.isRemovePackFile()) {
+            Files.delete(inputFile.toPath());
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,122 @@
+package com.arhs.mojo.pack200.estimate;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.pack.AbstractPackMojo;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Goal for estimating the size of the packed jar, before and after compression, without packing the whole jar.
+ * <p>
+ * Samples of the entries of every package are packed with the options of the <code>pack</code> goal, and the sizes
+ * are extrapolated with a confidence interval of 95%. The estimate is logged and written as a JSON file into the
+ * <code>reportDirectory</code>: <code>estimate-&lt;file name&gt;.json</code>.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ * @see PackEstimator
+ */
+@Mojo(name = "estimate", defaultPhase = LifecyclePhase.PACKAGE, threadSafe = true)
+public class EstimateMojo extends AbstractPackMojo {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Part of the jar packed by every sample group.
+     * <p>
+     * The default value is: <code>0.025</code>. The part is increased so that a group is at least as large as a
+     * segment (<code>segmentLimit</code>), which makes the estimation of a small jar close to its packing.
+     * </p>
+     */
+    @Parameter(defaultValue = "0.025")
+    public double sampleFraction;
+
+    /**
+     * Number of sample groups, whose variance gives the confidence interval.
+     * <p>The default value is: <code>4</code>. The minimum value is <code>2</code>.</p>
+     */
+    @Parameter(defaultValue = "4")
+    public int sampleGroups;
+
+    /**
+     * Number of sample groups packed at the same time.
+     * <p>The default value is: <code>0</code>, which uses the number of available processors.</p>
+     */
+    @Parameter(defaultValue = "0")
+    public int sampleThreads;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String getOperation() {
+        return "estimate";
+    }
+
+    /**
+     * Perform whatever build-process behavior this Mojo implements.
+     *
+     * @throws MojoExecutionException If an unexpected problem occurs. Throwing this exception
+     *                                causes a <b>BUILD ERROR</b> message to be displayed.
+     */
+    @Override
+    public void execute() throws MojoExecutionException {
+        final File jarFile = getInputFile();
+        final PackOptions packOptions = createPackOptions();
+        final PackEstimate estimate;
+        try {
+            detectPassFiles(jarFile, packOptions);
+            final PackEstimator estimator = new PackEstimator(createEngine(), getLog(), sampleGroups, sampleFraction,
+                    sampleThreads);
+            estimate = estimator.estimate(jarFile, jarFile.getAbsoluteFile().getParentFile(), packOptions);
+        } catch (IOException e) {
+            throw new MojoExecutionException("The file couldn't be estimated: " + jarFile, e);
+        }
+
+        getLog().info(estimate.toSummary());
+        if (reportDirectory != null) {
+            try {
+                estimate.write(new File(reportDirectory, "estimate-" + jarFile.getName() + ".json"));
+            } catch (IOException e) {
+                getLog().warn("The estimate couldn't be written: " + e.getMessage());
+            }
+        }
+    }
+
+    //</editor-fold>
+
+}
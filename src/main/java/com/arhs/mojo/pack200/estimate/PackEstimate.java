@@ -0,0 +1,298 @@
+package com.arhs.mojo.pack200.estimate;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.report.PerformanceReport;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimate of the sizes of a packed JAR file, before and after compression, with their confidence intervals.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ * @see PackEstimator
+ */
+public class PackEstimate {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Confidence level of the intervals.
+     */
+    public static final double CONFIDENCE = 0.95;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Estimated size of the compressed packed file, and the bounds of its confidence interval, in bytes.
+     */
+    private final long[] compressedSize = new long[3];
+
+    /**
+     * Duration of the estimation, in nanoseconds.
+     */
+    private long duration;
+
+    /**
+     * Number of entries of the JAR file.
+     */
+    private final long entries;
+
+    /**
+     * Estimated JAR file.
+     */
+    private final File file;
+
+    /**
+     * Number of sample groups.
+     */
+    private int groups;
+
+    /**
+     * Estimated size of the packed file, and the bounds of its confidence interval, in bytes.
+     */
+    private final long[] packedSize = new long[3];
+
+    /**
+     * Number of sampled entries.
+     */
+    private long sampledEntries;
+
+    /**
+     * Uncompressed size of the sampled entries and their names, in bytes.
+     */
+    private long sampledSize;
+
+    /**
+     * Uncompressed size of the entries and their names, in bytes.
+     */
+    private final long size;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param file      Estimated JAR file.
+     * @param entries   Number of entries of the JAR file.
+     * @param size      Uncompressed size of the entries and their names, in bytes.
+     */
+    PackEstimate(File file, long entries, long size) {
+        this.file = file;
+        this.entries = entries;
+        this.size = size;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Formats a size and its confidence interval as a JSON object.
+     *
+     * @param values    Size, lower bound and upper bound.
+     * @return          JSON object.
+     */
+    private static String toJson(long[] values) {
+        return "{\"estimate\": " + values[0] + ", \"low\": " + values[1] + ", \"high\": " + values[2] + "}";
+    }
+
+    //</editor-fold>
+
+    /**
+     * Sets the estimated size of the compressed packed file.
+     *
+     * @param estimate  Estimated size, in bytes.
+     * @param low       Lower bound of the confidence interval, in bytes.
+     * @param high      Upper bound of the confidence interval, in bytes.
+     */
+    void setCompressedSize(long estimate, long low, long high) {
+        compressedSize[0] = estimate;
+        compressedSize[1] = low;
+        compressedSize[2] = high;
+    }
+
+    /**
+     * Sets the duration of the estimation.
+     *
+     * @param duration Duration, in nanoseconds.
+     */
+    void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * Sets the estimated size of the packed file.
+     *
+     * @param estimate  Estimated size, in bytes.
+     * @param low       Lower bound of the confidence interval, in bytes.
+     * @param high      Upper bound of the confidence interval, in bytes.
+     */
+    void setPackedSize(long estimate, long low, long high) {
+        packedSize[0] = estimate;
+        packedSize[1] = low;
+        packedSize[2] = high;
+    }
+
+    /**
+     * Sets the sample.
+     *
+     * @param groups            Number of sample groups.
+     * @param sampledEntries    Number of sampled entries.
+     * @param sampledSize       Uncompressed size of the sampled entries and their names, in bytes.
+     */
+    void setSample(int groups, long sampledEntries, long sampledSize) {
+        this.groups = groups;
+        this.sampledEntries = sampledEntries;
+        this.sampledSize = sampledSize;
+    }
+
+    /**
+     * Gets the estimated size of the compressed packed file.
+     *
+     * @return Size, in bytes.
+     */
+    public long getCompressedSize() {
+        return compressedSize[0];
+    }
+
+    /**
+     * Gets the upper bound of the confidence interval of the size of the compressed packed file.
+     *
+     * @return Upper bound, in bytes.
+     */
+    public long getCompressedSizeHigh() {
+        return compressedSize[2];
+    }
+
+    /**
+     * Gets the lower bound of the confidence interval of the size of the compressed packed file.
+     *
+     * @return Lower bound, in bytes.
+     */
+    public long getCompressedSizeLow() {
+        return compressedSize[1];
+    }
+
+    /**
+     * Gets the duration of the estimation.
+     *
+     * @return Duration, in milliseconds.
+     */
+    public long getDuration() {
+        return TimeUnit.NANOSECONDS.toMillis(duration);
+    }
+
+    /**
+     * Gets the estimated size of the packed file.
+     *
+     * @return Size, in bytes.
+     */
+    public long getPackedSize() {
+        return packedSize[0];
+    }
+
+    /**
+     * Gets the upper bound of the confidence interval of the size of the packed file.
+     *
+     * @return Upper bound, in bytes.
+     */
+    public long getPackedSizeHigh() {
+        return packedSize[2];
+    }
+
+    /**
+     * Gets the lower bound of the confidence interval of the size of the packed file.
+     *
+     * @return Lower bound, in bytes.
+     */
+    public long getPackedSizeLow() {
+        return packedSize[1];
+    }
+
+    /**
+     * Gets the part of the JAR file which is packed by the estimation.
+     *
+     * @return Part of the uncompressed size, from <code>0</code> to <code>1</code>.
+     */
+    public double getSampledFraction() {
+        return size > 0 ? (double) sampledSize / size : 0;
+    }
+
+    /**
+     * Formats the estimate as a one-line summary.
+     *
+     * @return Summary.
+     */
+    public String toSummary() {
+        return String.format(Locale.ROOT, "estimate: packed %d bytes [%d, %d], compressed %d bytes [%d, %d] at "
+                        + "%.0f%% confidence, from %d of %d entries (%.1f%%) in %d groups in %d ms", packedSize[0],
+                packedSize[1], packedSize[2], compressedSize[0], compressedSize[1], compressedSize[2],
+                CONFIDENCE * 100, sampledEntries, entries, getSampledFraction() * 100, groups, getDuration());
+    }
+
+    /**
+     * Formats the estimate as a JSON object.
+     *
+     * @return JSON object.
+     */
+    public String toJson() {
+        return "{\n"
+                + "  \"file\": " + PerformanceReport.quote(file.getPath()) + ",\n"
+                + "  \"durationMillis\": " + getDuration() + ",\n"
+                + "  \"entries\": " + entries + ",\n"
+                + "  \"size\": " + size + ",\n"
+                + "  \"sampledEntries\": " + sampledEntries + ",\n"
+                + "  \"sampledSize\": " + sampledSize + ",\n"
+                + "  \"groups\": " + groups + ",\n"
+                + "  \"confidence\": " + CONFIDENCE + ",\n"
+                + "  \"packedSize\": " + toJson(packedSize) + ",\n"
+                + "  \"compressedSize\": " + toJson(compressedSize) + "\n"
+                + "}\n";
+    }
+
+    /**
+     * Writes the estimate as a JSON file.
+     *
+     * @param jsonFile      JSON file.
+     * @throws IOException  If the file couldn't be written.
+     */
+    public void write(File jsonFile) throws IOException {
+        PerformanceReport.writeJson(jsonFile, toJson());
+    }
+
+    //</editor-fold>
+
+}
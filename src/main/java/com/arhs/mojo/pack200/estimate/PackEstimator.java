@@ -0,0 +1,594 @@
+package com.arhs.mojo.pack200.estimate;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.compression.Codec;
+import com.arhs.mojo.pack200.engine.Engine;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Estimates the sizes of a packed JAR file by packing samples of its entries.
+ * <p>
+ * The entries are ordered by package, keeping their order within a package, then cut into blocks: runs of
+ * consecutive classes of a package, which share their constants in the packer, and single resources. Every sample
+ * group takes one block out of an interval, from its own random offset, so that the packages contribute to every
+ * group in proportion to their sizes. The entries which are large compared with a group, such as nested JAR files,
+ * aren't sampled but packed apart, and their sizes are added as they are.
+ * </p>
+ * <p>
+ * The samples are packed concurrently with the packing options, then compressed with their codec. The ratio of the
+ * packed size to the uncompressed size of the entries and their names gives the estimate, and the variance of this
+ * ratio between the groups gives its confidence interval. The interval covers the sampling error only: the classes of
+ * a group share fewer constants than the classes of a segment, so the estimate is slightly above the packed size.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class PackEstimator {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Size of the buffer of the sample files, which receive many small writes.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Part of a group above which an entry is packed apart instead of being sampled.
+     */
+    private static final double CERTAINTY_FRACTION = 0.01;
+
+    /**
+     * Extension of the class files.
+     */
+    private static final String CLASS_EXTENSION = ".class";
+
+    /**
+     * Default segment limit of the packer, in bytes.
+     */
+    private static final long DEFAULT_SEGMENT_LIMIT = 1000000;
+
+    /**
+     * Order of the entries: by package. The sort is stable, so the entries of a package keep their order.
+     */
+    private static final Comparator<ZipEntry> ENTRY_ORDER = new Comparator<ZipEntry>() {
+        public int compare(ZipEntry first, ZipEntry second) {
+            return getPackage(first.getName()).compareTo(getPackage(second.getName()));
+        }
+    };
+
+    /**
+     * Quantile of the normal distribution for a two-sided confidence level of 95%.
+     */
+    private static final double NORMAL_QUANTILE = 1.96;
+
+    /**
+     * Maximal size of a run of classes sampled together, in bytes.
+     */
+    private static final long RUN_LIMIT = 64 * 1024;
+
+    /**
+     * Seed of the offsets of the groups, so that the same JAR file gives the same estimate.
+     */
+    private static final long SEED = 200;
+
+    /**
+     * Quantiles of the Student's t-distribution for a two-sided confidence level of 95%, indexed by the number of
+     * degrees of freedom minus one.
+     */
+    private static final double[] T_QUANTILES = {12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262,
+            2.228, 2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086, 2.080, 2.074, 2.069, 2.064,
+            2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Engine.
+     */
+    private final Engine engine;
+
+    /**
+     * Part of the JAR file sampled by every group.
+     */
+    private final double fraction;
+
+    /**
+     * Number of sample groups.
+     */
+    private final int groups;
+
+    /**
+     * Logger.
+     */
+    private final Log log;
+
+    /**
+     * Number of groups packed at the same time.
+     */
+    private final int threads;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param engine    Engine.
+     * @param log       Logger.
+     * @param groups    Number of sample groups, at least <code>2</code> for a confidence interval.
+     * @param fraction  Part of the JAR file sampled by every group, from <code>0</code> to <code>1</code>. The part
+     *                  is increased so that a group is at least as large as a segment.
+     * @param threads   Number of groups packed at the same time: <code>0</code> to use the number of available
+     *                  processors.
+     */
+    public PackEstimator(Engine engine, Log log, int groups, double fraction, int threads) {
+        this.engine = engine;
+        this.log = log;
+        this.groups = Math.max(2, groups);
+        this.fraction = fraction;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Gets the package of an entry.
+     *
+     * @param name  Name of the entry.
+     * @return      Directory of the entry.
+     */
+    private static String getPackage(String name) {
+        final int separator = name.lastIndexOf('/', name.length() - 2);
+        return separator >= 0 ? name.substring(0, separator) : "";
+    }
+
+    /**
+     * Gets the quantile of the Student's t-distribution for a two-sided confidence level of 95%.
+     *
+     * @param degreesOfFreedom  Number of degrees of freedom.
+     * @return                  Quantile.
+     */
+    private static double getQuantile(int degreesOfFreedom) {
+        return degreesOfFreedom <= T_QUANTILES.length ? T_QUANTILES[degreesOfFreedom - 1] : NORMAL_QUANTILE;
+    }
+
+    /**
+     * Gets the uncompressed size of an entry and its name, which the packer both transmits.
+     *
+     * @param entry Entry.
+     * @return      Size, in bytes.
+     */
+    private static long getWeight(ZipEntry entry) {
+        return Math.max(0, entry.getSize()) + entry.getName().length();
+    }
+
+    /**
+     * Gets the estimate of a total and its confidence interval from the samples.
+     *
+     * @param values    Measured values of the groups, followed by the values of the other samples.
+     * @param weights   Uncompressed sizes of the groups.
+     * @param total     Uncompressed size of the JAR file.
+     * @return          Estimate, lower bound and upper bound.
+     */
+    private static long[] extrapolate(long[] values, long[] weights, long total) {
+        long valueSum = 0;
+        long weightSum = 0;
+        int samples = 0;
+        for (int i = 0; i < weights.length; i++) {
+            valueSum += values[i];
+            weightSum += weights[i];
+            samples += weights[i] > 0 ? 1 : 0;
+        }
+        final double ratio = weightSum > 0 ? (double) valueSum / weightSum : 0;
+        final double estimate = ratio * total;
+        if (samples < 2) {
+            return new long[] {Math.round(estimate), Math.round(estimate), Math.round(estimate)};
+        }
+
+        // The groups without entries, of a small JAR file, don't measure the ratio.
+        double variance = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] > 0) {
+                final double deviation = (double) values[i] / weights[i] - ratio;
+                variance += deviation * deviation;
+            }
+        }
+        variance /= samples - 1;
+        final double margin = getQuantile(samples - 1) * Math.sqrt(variance / samples) * total;
+        return new long[] {Math.round(estimate), Math.max(0, Math.round(estimate - margin)),
+                Math.round(estimate + margin)};
+    }
+
+    /**
+     * Cuts the entries into blocks: runs of consecutive classes of a package, which share constants, and single
+     * resources, which the packer transmits as they are.
+     *
+     * @param entries   Ordered entries.
+     * @param runLimit  Maximal size of a run of classes, in bytes.
+     * @return          Blocks.
+     */
+    private static List<List<ZipEntry>> getBlocks(List<ZipEntry> entries, long runLimit) {
+        final List<List<ZipEntry>> blocks = new ArrayList<>();
+        List<ZipEntry> run = new ArrayList<>();
+        long runSize = 0;
+        String runPackage = null;
+        for (ZipEntry entry : entries) {
+            if (!entry.getName().endsWith(CLASS_EXTENSION)) {
+                blocks.add(Collections.singletonList(entry));
+                continue;
+            }
+            final String entryPackage = getPackage(entry.getName());
+            if (!run.isEmpty() && (runSize >= runLimit || !entryPackage.equals(runPackage))) {
+                blocks.add(run);
+                run = new ArrayList<>();
+                runSize = 0;
+            }
+            run.add(entry);
+            runSize += getWeight(entry);
+            runPackage = entryPackage;
+        }
+        if (!run.isEmpty()) {
+            blocks.add(run);
+        }
+        return blocks;
+    }
+
+    /**
+     * Selects the entries of the sample groups: every group takes one block per interval, from its own offset.
+     *
+     * @param blocks    Blocks of entries.
+     * @param interval  Number of blocks per block of a group.
+     * @param groups    Number of groups.
+     * @return          Entries of the groups.
+     */
+    private static List<List<ZipEntry>> selectGroups(List<List<ZipEntry>> blocks, int interval, int groups) {
+        final List<Integer> offsets = new ArrayList<>();
+        for (int offset = 0; offset < Math.min(interval, blocks.size()); offset++) {
+            offsets.add(offset);
+        }
+        Collections.shuffle(offsets, new Random(SEED));
+
+        final List<List<ZipEntry>> groupEntries = new ArrayList<>();
+        for (int group = 0; group < Math.min(groups, offsets.size()); group++) {
+            final List<ZipEntry> entries = new ArrayList<>();
+            for (int i = offsets.get(group); i < blocks.size(); i += interval) {
+                entries.addAll(blocks.get(i));
+            }
+            groupEntries.add(entries);
+        }
+        return groupEntries;
+    }
+
+    /**
+     * Gets the uncompressed size of entries and their names.
+     *
+     * @param entries   Entries.
+     * @return          Size, in bytes.
+     */
+    private static long getWeight(List<ZipEntry> entries) {
+        long weight = 0;
+        for (ZipEntry entry : entries) {
+            weight += getWeight(entry);
+        }
+        return weight;
+    }
+
+    /**
+     * Writes samples into JAR files.
+     * <p>
+     * The entries keep their compression methods, which the packer records, but aren't compressed again: the packer
+     * only reads their content.
+     * </p>
+     *
+     * @param zipFile       JAR file.
+     * @param samples       Entries of the samples.
+     * @param directory     Directory of the sample files.
+     * @return              Sample files.
+     * @throws IOException  If a sample file couldn't be written.
+     */
+    private static List<File> writeSamples(ZipFile zipFile, List<List<ZipEntry>> samples, File directory)
+            throws IOException {
+        final List<File> sampleFiles = new ArrayList<>();
+        try {
+            for (List<ZipEntry> entries : samples) {
+                final File sampleFile = File.createTempFile("estimate", ".jar", directory);
+                sampleFiles.add(sampleFile);
+                try (ZipOutputStream outputStream = new ZipOutputStream(new BufferedOutputStream(
+                        new FileOutputStream(sampleFile), BUFFER_SIZE))) {
+                    outputStream.setLevel(Deflater.NO_COMPRESSION);
+                    for (ZipEntry entry : entries) {
+                        writeSample(zipFile, entry, outputStream);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteSamples(sampleFiles);
+            throw e;
+        }
+        return sampleFiles;
+    }
+
+    /**
+     * Writes an entry into a sample file.
+     *
+     * @param zipFile       JAR file.
+     * @param entry         Entry.
+     * @param outputStream  Sample file, whose level is {@link Deflater#NO_COMPRESSION}.
+     * @throws IOException  If the entry couldn't be read or written.
+     */
+    private static void writeSample(ZipFile zipFile, ZipEntry entry, ZipOutputStream outputStream)
+            throws IOException {
+        final ZipEntry sampleEntry = new ZipEntry(entry.getName());
+        sampleEntry.setTime(entry.getTime());
+        sampleEntry.setExtra(entry.getExtra());
+        if (entry.getMethod() == ZipEntry.STORED) {
+            sampleEntry.setMethod(ZipEntry.STORED);
+            sampleEntry.setSize(entry.getSize());
+            sampleEntry.setCompressedSize(entry.getSize());
+            sampleEntry.setCrc(entry.getCrc());
+        }
+        outputStream.putNextEntry(sampleEntry);
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+            IOUtils.copy(inputStream, outputStream);
+        }
+        outputStream.closeEntry();
+    }
+
+    /**
+     * Deletes the sample files.
+     *
+     * @param sampleFiles   Sample files.
+     * @throws IOException  If a sample file couldn't be deleted.
+     */
+    private static void deleteSamples(List<File> sampleFiles) throws IOException {
+        for (File sampleFile : sampleFiles) {
+            Files.deleteIfExists(sampleFile.toPath());
+        }
+    }
+
+    //</editor-fold>
+
+    /**
+     * Estimates the sizes of a packed JAR file.
+     *
+     * @param inputFile     Input JAR file.
+     * @param directory     Directory of the temporary sample files.
+     * @param options       Packing options, including the codec compressing the packed file.
+     * @return              Estimate.
+     * @throws IOException  If the JAR file couldn't be read or a sample couldn't be packed.
+     */
+    public PackEstimate estimate(File inputFile, File directory, PackOptions options) throws IOException {
+        final long start = System.nanoTime();
+        try (ZipFile zipFile = new ZipFile(inputFile)) {
+            final List<ZipEntry> entries = new ArrayList<>(zipFile.size());
+            for (Enumeration<? extends ZipEntry> enumeration = zipFile.entries(); enumeration.hasMoreElements();) {
+                entries.add(enumeration.nextElement());
+            }
+            Collections.sort(entries, ENTRY_ORDER);
+            long size = 0;
+            for (ZipEntry entry : entries) {
+                size += getWeight(entry);
+            }
+            final PackEstimate estimate = new PackEstimate(inputFile, entries.size(), size);
+
+            // The groups aren't smaller than a segment. Without a segment limit, they are as large as the default
+            // segments, which share fewer constants than the whole JAR file.
+            final long segmentLimit = options.getSegmentLimit() > 0 ? options.getSegmentLimit()
+                    : DEFAULT_SEGMENT_LIMIT;
+            final double groupFraction = Math.min(1, Math.max(fraction, (double) segmentLimit / Math.max(1, size)));
+
+            // The large entries, such as nested JAR files, would make the groups uneven: they are all packed.
+            final long certaintyLimit = Math.max(1, Math.round(size * groupFraction * CERTAINTY_FRACTION));
+            final List<ZipEntry> certainEntries = new ArrayList<>();
+            final List<ZipEntry> sampledEntries = new ArrayList<>();
+            for (ZipEntry entry : entries) {
+                (getWeight(entry) >= certaintyLimit ? certainEntries : sampledEntries).add(entry);
+            }
+
+            final List<List<ZipEntry>> samples = selectGroups(getBlocks(sampledEntries,
+                    Math.min(RUN_LIMIT, segmentLimit)), Math.max(groups, (int) Math.round(1 / groupFraction)), groups);
+            final int groupCount = samples.size();
+            final long[] weights = new long[groupCount];
+            long sampledCount = certainEntries.size();
+            long sampledSize = getWeight(certainEntries);
+            for (int group = 0; group < groupCount; group++) {
+                weights[group] = getWeight(samples.get(group));
+                sampledCount += samples.get(group).size();
+                sampledSize += weights[group];
+            }
+            estimate.setSample(groupCount, sampledCount, sampledSize);
+            if (!certainEntries.isEmpty()) {
+                samples.add(certainEntries);
+            }
+
+            final List<File> sampleFiles = writeSamples(zipFile, samples, directory);
+            try {
+                if (!sampleFiles.isEmpty()) {
+                    final long[][] sizes = pack(sampleFiles, directory, options);
+                    final long[] packed = extrapolate(sizes[0], weights, size - getWeight(certainEntries));
+                    final long[] compressed = extrapolate(sizes[1], weights, size - getWeight(certainEntries));
+                    if (!certainEntries.isEmpty()) {
+                        for (int i = 0; i < packed.length; i++) {
+                            packed[i] += sizes[0][groupCount];
+                            compressed[i] += sizes[1][groupCount];
+                        }
+                    }
+                    estimate.setPackedSize(packed[0], packed[1], packed[2]);
+                    estimate.setCompressedSize(compressed[0], compressed[1], compressed[2]);
+                }
+            } finally {
+                deleteSamples(sampleFiles);
+            }
+            estimate.setDuration(System.nanoTime() - start);
+            return estimate;
+        }
+    }
+
+    /**
+     * Packs the sample groups concurrently.
+     *
+     * @param sampleFiles   Sample files.
+     * @param directory     Directory of the temporary packed files.
+     * @param options       Packing options.
+     * @return              Sizes of the packed groups, then sizes of the compressed packed groups.
+     * @throws IOException  If a group couldn't be packed or the packing was interrupted.
+     */
+    private long[][] pack(List<File> sampleFiles, File directory, PackOptions options) throws IOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, sampleFiles.size()));
+        try {
+            final List<Future<long[]>> futures = new ArrayList<>();
+            for (File sampleFile : sampleFiles) {
+                futures.add(executor.submit(new GroupTask(sampleFile, directory, options)));
+            }
+
+            final long[][] sizes = new long[2][sampleFiles.size()];
+            for (int i = 0; i < futures.size(); i++) {
+                final long[] groupSizes = futures.get(i).get();
+                sizes[0][i] = groupSizes[0];
+                sizes[1][i] = groupSizes[1];
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("Sample group %d: %d bytes packed, %d bytes compressed", i,
+                            groupSizes[0], groupSizes[1]));
+                }
+            }
+            return sizes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The estimation was interrupted.");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("A sample group couldn't be packed.", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Inner classes section.">
+
+    /**
+     * Operation packing a sample group, then compressing it.
+     */
+    private final class GroupTask implements Callable<long[]> {
+
+        /**
+         * Directory of the temporary packed file.
+         */
+        private final File directory;
+
+        /**
+         * Packing options.
+         */
+        private final PackOptions options;
+
+        /**
+         * Sample file.
+         */
+        private final File sampleFile;
+
+        /**
+         * Constructor.
+         *
+         * @param sampleFile    Sample file.
+         * @param directory     Directory of the temporary packed file.
+         * @param options       Packing options.
+         */
+        private GroupTask(File sampleFile, File directory, PackOptions options) {
+            this.sampleFile = sampleFile;
+            this.directory = directory;
+            this.options = options;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public long[] call() throws IOException {
+            // The groups already use every thread, and the size doesn't depend on the compression threads.
+            final PackOptions groupOptions = options.copy();
+            groupOptions.setCompression(Codec.NONE);
+            groupOptions.setCompressionThreads(1);
+            groupOptions.setLogFile(null);
+            groupOptions.setReport(null);
+
+            final File packedFile = File.createTempFile("estimate", ".pack", directory);
+            try {
+                engine.pack(sampleFile, packedFile, groupOptions);
+                final Codec codec = options.getCompression() != null ? options.getCompression() : Codec.GZIP;
+                final CountingOutputStream countingStream = new CountingOutputStream(NullOutputStream.INSTANCE);
+                try (InputStream inputStream = Files.newInputStream(packedFile.toPath());
+                     OutputStream outputStream = codec.createOutputStream(countingStream,
+                             options.getCompressionLevel(), 1, options.isStoreIncompressible())) {
+                    IOUtils.copy(inputStream, outputStream);
+                }
+                return new long[] {packedFile.length(), countingStream.getByteCount()};
+            } finally {
+                Files.deleteIfExists(packedFile.toPath());
+            }
+        }
+    }
+
+    //</editor-fold>
+
+}
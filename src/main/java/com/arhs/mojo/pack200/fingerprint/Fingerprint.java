@@ -0,0 +1,161 @@
+package com.arhs.mojo.pack200.fingerprint;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 fingerprint of files and values.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class Fingerprint {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Digest algorithm.
+     */
+    private static final String ALGORITHM = "SHA-256";
+
+    /**
+     * Size of the buffer used to read the files.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Hexadecimal digits.
+     */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Message digest.
+     */
+    private final MessageDigest digest;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     */
+    public Fingerprint() {
+        try {
+            digest = MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The digest algorithm isn't available: " + ALGORITHM, e);
+        }
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Computes the fingerprint of the content of a file.
+     *
+     * @param file          File.
+     * @return              Fingerprint, in hexadecimal.
+     * @throws IOException  If the file couldn't be read.
+     */
+    public static String of(File file) throws IOException {
+        return new Fingerprint().addContent(file).toHex();
+    }
+
+    /**
+     * Adds a named value.
+     *
+     * @param name  Name.
+     * @param value Value or {@code null}.
+     * @return      This fingerprint.
+     */
+    public Fingerprint add(String name, Object value) {
+        digest.update((name + "=" + value + "\n").getBytes(StandardCharsets.UTF_8));
+        return this;
+    }
+
+    /**
+     * Adds the content of a file.
+     *
+     * @param file          File.
+     * @return              This fingerprint.
+     * @throws IOException  If the file couldn't be read.
+     */
+    public Fingerprint addContent(File file) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, length);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Adds a named file: its content if the file exists, otherwise a marker.
+     *
+     * @param name          Name.
+     * @param file          File or {@code null}.
+     * @return              This fingerprint.
+     * @throws IOException  If the file couldn't be read.
+     */
+    public Fingerprint addFile(String name, File file) throws IOException {
+        if (file == null || !file.isFile()) {
+            return add(name, null);
+        }
+        return add(name, of(file));
+    }
+
+    /**
+     * Completes the fingerprint.
+     *
+     * @return Fingerprint, in hexadecimal.
+     */
+    public String toHex() {
+        final byte[] bytes = digest.digest();
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+    //</editor-fold>
+
+}
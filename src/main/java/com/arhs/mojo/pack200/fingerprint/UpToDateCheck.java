@@ -0,0 +1,210 @@
+package com.arhs.mojo.pack200.fingerprint;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Checks if the output file of an operation is up to date, by comparing the fingerprints of the input file, the
+ * output file and the options with the ones persisted by the last execution.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class UpToDateCheck {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Property of the fingerprint of the input file.
+     */
+    private static final String INPUT_PROPERTY = "input";
+
+    /**
+     * Property of the fingerprint of the options.
+     */
+    private static final String OPTIONS_PROPERTY = "options";
+
+    /**
+     * Property of the fingerprint of the output file.
+     */
+    private static final String OUTPUT_PROPERTY = "output";
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * File containing the persisted fingerprints.
+     */
+    private final File fingerprintFile;
+
+    /**
+     * Input file.
+     */
+    private final File inputFile;
+
+    /**
+     * Fingerprint of the input file, computed on demand.
+     */
+    private String inputFingerprint;
+
+    /**
+     * Fingerprint of the options.
+     */
+    private final String optionsFingerprint;
+
+    /**
+     * Output file.
+     */
+    private final File outputFile;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param directory             Directory containing the persisted fingerprints.
+     * @param operation             Name of the operation.
+     * @param inputFile             Input file.
+     * @param outputFile            Output file, which may be the input file.
+     * @param optionsFingerprint    Fingerprint of the options.
+     */
+    public UpToDateCheck(File directory, String operation, File inputFile, File outputFile,
+                         String optionsFingerprint) {
+        final String outputPath = outputFile.getAbsolutePath();
+        final String pathFingerprint = new Fingerprint().add("path", outputPath).toHex().substring(0, 8);
+
+        this.fingerprintFile = new File(directory,
+                String.format("%s-%s-%s.properties", operation, outputFile.getName(), pathFingerprint));
+        this.inputFile = inputFile;
+        this.outputFile = outputFile;
+        this.optionsFingerprint = optionsFingerprint;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Checks if the operation replaces its input file.
+     *
+     * @return {@code true} if the output file is the input file.
+     */
+    private boolean isInPlace() {
+        return inputFile.getAbsoluteFile().equals(outputFile.getAbsoluteFile());
+    }
+
+    //</editor-fold>
+
+    /**
+     * Checks if the output file is up to date.
+     * <p>
+     * The output file is up to date if it still exists with the content produced by the last execution, the options
+     * are the same and the input file didn't change. If the operation replaces its input file, the input file is up
+     * to date when it has the content produced by the last execution.
+     * </p>
+     *
+     * @return              {@code true} if the output file is up to date.
+     * @throws IOException  If a file couldn't be read.
+     */
+    public boolean isUpToDate() throws IOException {
+        if (!inputFile.isFile()) {
+            return false;
+        }
+        if (!isInPlace()) {
+            // Computed before the operation, which may remove the input file.
+            getInputFingerprint();
+        }
+        if (!fingerprintFile.isFile() || !outputFile.isFile()) {
+            return false;
+        }
+
+        final Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(fingerprintFile.toPath())) {
+            properties.load(inputStream);
+        }
+
+        return optionsFingerprint.equals(properties.getProperty(OPTIONS_PROPERTY))
+                && Fingerprint.of(outputFile).equals(properties.getProperty(OUTPUT_PROPERTY))
+                && (isInPlace() || getInputFingerprint().equals(properties.getProperty(INPUT_PROPERTY)));
+    }
+
+    /**
+     * Gets the fingerprint of the input file, computed once.
+     *
+     * @return              Fingerprint.
+     * @throws IOException  If the input file couldn't be read.
+     */
+    public String getInputFingerprint() throws IOException {
+        if (inputFingerprint == null) {
+            inputFingerprint = Fingerprint.of(inputFile);
+        }
+        return inputFingerprint;
+    }
+
+    /**
+     * Persists the fingerprints after a successful execution.
+     * <p>This method must be called after {@link #isUpToDate()}.</p>
+     *
+     * @throws IOException If the fingerprints couldn't be written.
+     */
+    public void record() throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty(OPTIONS_PROPERTY, optionsFingerprint);
+        properties.setProperty(OUTPUT_PROPERTY, Fingerprint.of(outputFile));
+        if (!isInPlace()) {
+            properties.setProperty(INPUT_PROPERTY, getInputFingerprint());
+        }
+
+        final File directory = fingerprintFile.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("The directory couldn't be created: " + directory);
+        }
+        final File temporaryFile = File.createTempFile(fingerprintFile.getName(), ".tmp", directory);
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(temporaryFile.toPath())) {
+                properties.store(outputStream, null);
+            }
+            Files.move(temporaryFile.toPath(), fingerprintFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -24,14 +24,28 @@ package com.arhs.mojo.pack200.pack;
  */
 
 import com.arhs.mojo.pack200.AbstractPluginMojo;
+import com.arhs.mojo.pack200.aggregate.PackJob;
+import com.arhs.mojo.pack200.analysis.PassThroughDetector;
+import com.arhs.mojo.pack200.cache.PackCache;
+import com.arhs.mojo.pack200.compression.Codec;
+import com.arhs.mojo.pack200.engine.Engine;
+import com.arhs.mojo.pack200.engine.MemoryBoundedEngine;
+import com.arhs.mojo.pack200.engine.NestedJarEngine;
+import com.arhs.mojo.pack200.engine.ReproducibleEngine;
+import com.arhs.mojo.pack200.engine.SegmentParallelEngine;
+import com.arhs.mojo.pack200.fingerprint.Fingerprint;
+import com.arhs.mojo.pack200.fingerprint.UpToDateCheck;
+import com.arhs.mojo.pack200.packing.PackOptions;
 import com.arhs.mojo.pack200.packing.options.DeflateHint;
 import com.arhs.mojo.pack200.packing.options.ModificationTime;
 import com.arhs.mojo.pack200.packing.options.UnknownAttribute;
+import com.arhs.mojo.pack200.report.PerformanceReport;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.codehaus.plexus.util.StringUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -45,6 +59,60 @@ public abstract class AbstractPackMojo extends AbstractPluginMojo {
 
     //<editor-fold desc="Fields section.">
 
+    /**
+     * Reuses the files packed by other builds from the cache directory.
+     * <p>The default value is: <code>false</code>.</p>
+     *
+     * @see AbstractPackMojo#cacheDirectory
+     */
+    @Parameter(defaultValue = "false")
+    public boolean cache;
+
+    /**
+     * Cache directory, which can be shared between projects.
+     * <p>The default value is: <code>${user.home}/.m2/pack200-cache</code>.</p>
+     */
+    @Parameter(defaultValue = "${user.home}/.m2/pack200-cache")
+    public File cacheDirectory;
+
+    /**
+     * Maximum size of the cache directory, in megabytes. The least recently used files are removed beyond.
+     * <p>The default value is: <code>1024</code>.</p>
+     */
+    @Parameter(defaultValue = "1024")
+    public long cacheMaxSize;
+
+    /**
+     * Compression codec of the packed file.
+     * <p>
+     * The default value is: <code>GZIP</code>. The <code>noGzip</code> parameter, if set, is a shorthand for
+     * <code>NONE</code>.
+     * </p>
+     *
+     * @see com.arhs.mojo.pack200.compression.Codec
+     */
+    @Parameter(defaultValue = "GZIP")
+    public Codec compression;
+
+    /**
+     * Compression level of the packed file, from <code>1</code> (fastest) to <code>9</code> (smallest).
+     * <p>The default value is: <code>0</code>, which uses the default level of the codec.</p>
+     */
+    @Parameter(defaultValue = "0")
+    public int compressionLevel;
+
+    /**
+     * Number of threads compressing the packed file, used by the <code>GZIP</code> codec.
+     * <p>
+     * The default value is: <code>0</code>, which uses the number of available processors. The packed file is
+     * compressed by the plugin in independent blocks, and remains a standard GZIP file. With the <code>FORK</code>
+     * engine, <code>pack200</code> compresses the file itself unless a value above <code>1</code>, a compression
+     * level or the pass-through is configured.
+     * </p>
+     */
+    @Parameter(defaultValue = "0")
+    public int compressionThreads;
+
     /**
      * Specifies a configuration file.
      */
@@ -65,6 +133,18 @@ public abstract class AbstractPackMojo extends AbstractPluginMojo {
     @Parameter
     public String effort;
 
+    /**
+     * Packs the JAR file incrementally, reusing the packed segments whose entries didn't change.
+     * <p>
+     * The default value is: <code>false</code>. If <code>true</code>, the entries of the JAR file are partitioned
+     * into segments at stable package boundaries, the segments are packed concurrently by
+     * <code>segmentThreads</code> threads, and each packed segment is kept in the <code>cacheDirectory</code>, keyed by
+     * the fingerprint of its entries. Only the segments whose entries changed are packed again.
+     * </p>
+     */
+    @Parameter(defaultValue = "false")
+    public boolean incremental;
+
     /**
      * Name of the generated JAR.
      * <p>
@@ -88,6 +168,21 @@ public abstract class AbstractPackMojo extends AbstractPluginMojo {
     @Parameter
     public File logFile;
 
+    /**
+     * Memory budget of the packing of each JAR file, in megabytes.
+     * <p>
+     * The default value is: <code>0</code>, which disables the budget. Otherwise, the budget is shared by the packers
+     * running at the same time for the segments (<code>parallelSegments</code>, <code>incremental</code>) and the
+     * nested JAR files (<code>nestedJars</code>), within <code>maxConcurrentJobs</code>. The heap of the
+     * <code>FORK</code> and <code>WORKER</code> engines is set to the share of a packer, unless the
+     * <code>options</code> set it, and the segment limit is lowered when the size and the number of classes of the JAR
+     * file don't fit in half of the share. If the packer runs out of memory, the JAR file is packed again with smaller
+     * segments.
+     * </p>
+     */
+    @Parameter(defaultValue = "0")
+    public long memoryBudget;
+
     /**
      * Transmit modtimes.
      *
@@ -96,6 +191,24 @@ public abstract class AbstractPackMojo extends AbstractPluginMojo {
     @Parameter
     public ModificationTime modificationTime;
 
+    /**
+     * Packs the JAR files nested in the JAR file, like the libraries of a fat JAR file.
+     * <p>
+     * The default value is: <code>false</code>. If <code>true</code>, the nested JAR files are extracted and packed
+     * concurrently, recursively, and the JAR file is packed with the packed archives instead of the nested JAR
+     * files. The <code>unpack</code> goal reassembles the JAR file. The signed nested JAR files are left as they are.
+     * </p>
+     */
+    @Parameter(defaultValue = "false")
+    public boolean nestedJars;
+
+    /**
+     * Number of nested JAR files packed at the same time, if the <code>nestedJars</code> parameter is enabled.
+     * <p>The default value is: <code>0</code>, which uses the number of available processors.</p>
+     */
+    @Parameter(defaultValue = "0")
+    public int nestedJarThreads;
+
     /**
      * Disables GZIP compression.
      * <p>The default value is: <code>false</code>.</p>
@@ -103,6 +216,18 @@ public abstract class AbstractPackMojo extends AbstractPluginMojo {
     @Parameter(defaultValue = "false")
     public boolean noGzip;
 
+    /**
+     * Packs the segments of the JAR file concurrently.
+     * <p>
+     * The default value is: <code>false</code>. If <code>true</code>, the entries of the JAR file are partitioned
+     * into one part per thread, which are packed concurrently and concatenated into a single packed file. The
+     * unpacked JAR file has the same entries as with a serial packing. The order of the files is taken from the
+     * <code>keepFileOrder</code> and <code>noKeepFileOrder</code> parameters, not from the configuration file.
+     * </p>
+     */
+    @Parameter(defaultValue = "false")
+    public boolean parallelSegments;
+
     /**
      * Allows pack200 to reorder the elements of the JAR files.
      * <p>The default value is: <code>false</code>.</p>
@@ -110,12 +235,52 @@ public abstract class AbstractPackMojo extends AbstractPluginMojo {
     @Parameter(defaultValue = "false")
     public boolean noKeepFileOrder;
 
+    /**
+     * Passes the entries which are already compressed through the packer and stores the incompressible parts of the
+     * packed file.
+     * <p>
+     * The default value is: <code>false</code>. If <code>true</code>, the resources recognized as compressed by
+     * their extension, their magic number or the entropy of their first bytes, like the images and the nested
+     * archives, are transmitted as they are by the packer, and the <code>GZIP</code> codec stores the blocks of the
+     * packed file which are incompressible instead of deflating them.
+     * </p>
+     */
+    @Parameter(defaultValue = "false")
+    public boolean passThrough;
+
+    /**
+     * Patterns of the entries which are never passed through the packer, like <code>**&#47;*.svgz</code>.
+     */
+    @Parameter
+    public List<String> passThroughExcludes;
+
+    /**
+     * Patterns of the entries which are always passed through the packer, like <code>**&#47;*.bin</code>, even if
+     * the <code>passThrough</code> parameter is disabled. The matching class files are transmitted as they are
+     * instead of being packed.
+     */
+    @Parameter
+    public List<String> passThroughIncludes;
+
     /**
      * Options to the Java Virtual Machine.
      */
     @Parameter
     public List<String> options;
 
+    /**
+     * Timestamp of the reproducible packed files, in the format of the <code>project.build.outputTimestamp</code>
+     * property: a date in the ISO 8601 format, like <code>2026-10-18T00:00:00Z</code>, or a number of seconds since
+     * the epoch.
+     * <p>
+     * The default value is: <code>${project.build.outputTimestamp}</code>. If it is set, the entries of the JAR file
+     * are packed in the order of their names, with the timestamp as modification time, so that packing the same
+     * classes produces the same bytes. A single character, like <code>a</code>, disables it.
+     * </p>
+     */
+    @Parameter(defaultValue = "${project.build.outputTimestamp}")
+    public String outputTimestamp;
+
     /**
      * Specifies quiet operation with no messages.
      * <p>The default value is: <code>false</code>.</p>
@@ -129,6 +294,14 @@ public abstract class AbstractPackMojo extends AbstractPluginMojo {
     @Parameter
     public int segmentLimit;
 
+    /**
+     * Number of segments packed at the same time, if the <code>parallelSegments</code> or <code>incremental</code>
+     * parameter is enabled.
+     * <p>The default value is: <code>0</code>, which uses the number of available processors.</p>
+     */
+    @Parameter(defaultValue = "0")
+    public int segmentThreads;
+
     /**
      * Strips attributes used for debugging from the output.
      * <p>The default value is: <code>false</code>.</p>
@@ -159,199 +332,189 @@ public abstract class AbstractPackMojo extends AbstractPluginMojo {
 
     //</editor-fold>
 
-    //<editor-fold desc="Constructors section.">
-
-    /**
-     * Constructor.
-     */
-    protected AbstractPackMojo() {
-        super("pack200");
-    }
-
-    //</editor-fold>
-
     //<editor-fold desc="Methods section.">
 
     /**
-     * Adds the configuration file if this exists.
+     * Creates the packing options from the parameters.
      *
-     * @see AbstractPackMojo#configFile
-     */
-    private void addConfigFileArgument() {
-        if (configFile != null) {
-            if (configFile.exists()) {
-                addArgument("--config-file", configFile.toString());
-            } else if (debug) {
-                getLog().warn("The configuration file doesn't exist: " + configFile);
-            }
-        }
-    }
-
-    /**
-     * Adds a "deflate-hint" argument.
-     *
-     * @see AbstractPackMojo#deflateHint
-     */
-    private void addDeflateHint() {
-        if (deflateHint != null) {
-            addArgument("--deflate-hint", deflateHint.name().toLowerCase());
-        }
-    }
-
-    /**
-     * Adds a "effort" argument.
-     *
-     * @see AbstractPackMojo#effort
-     */
-    private void addEffort() {
-        if (StringUtils.isNotEmpty(effort)) {
-            addArgument("--effort", effort);
-        }
-    }
-
-    /**
-     * Adds a JAR file argument.
-     *
-     * @see AbstractPackMojo#target
-     * @see AbstractPackMojo#inputFile
-     */
-    private void addJarFile() {
-        File jarFile = new File(target, inputFile);
-        addArgument(jarFile.getAbsolutePath());
-    }
-
-    /**
-     * Adds a "keep-file-order" argument.
-     *
-     * @see AbstractPackMojo#keepFileOrder
-     */
-    private void addKeepFileOrder() {
+     * @return Packing options.
+     */
+    protected PackOptions createPackOptions() {
+        final PackOptions packOptions = new PackOptions();
+        packOptions.setCompression(getCompression());
+        packOptions.setCompressionLevel(compressionLevel);
+        packOptions.setCompressionThreads(compressionThreads);
+        packOptions.setConfigFile(configFile);
+        packOptions.setDeflateHint(deflateHint);
+        packOptions.setEffort(effort);
         if (keepFileOrder && !noKeepFileOrder) {
-            addArgument("--keep-file-order");
+            packOptions.setKeepFileOrder(Boolean.TRUE);
+        } else if (noKeepFileOrder && !keepFileOrder) {
+            packOptions.setKeepFileOrder(Boolean.FALSE);
         }
+        packOptions.setLogFile(logFile);
+        packOptions.setModificationTime(modificationTime);
+        if (options != null) {
+            packOptions.getJvmOptions().addAll(options);
+        }
+        packOptions.setQuiet(quiet);
+        packOptions.setSegmentLimit(segmentLimit);
+        packOptions.setStoreIncompressible(passThrough);
+        packOptions.setStripDebug(stripDebug);
+        packOptions.setTimestamp(ReproducibleEngine.parseTimestamp(outputTimestamp));
+        packOptions.setUnknownAttribute(unknownAttribute);
+        packOptions.setVerbose(verbose);
+
+        return packOptions;
     }
 
     /**
-     * Adds the log output file if this exists.
-     *
-     * @see AbstractPackMojo#logFile
+     * {@inheritDoc}
      */
-    private void addLogFileArgument() {
-        if (logFile != null) {
-            addArgument("--log-file", logFile.toString());
-        }
+    @Override
+    protected List<String> getJvmOptions() {
+        return options != null ? options : Collections.<String>emptyList();
     }
 
     /**
-     * Adds a "options" argument.
-     *
-     * @see AbstractPackMojo#options
+     * {@inheritDoc}
+     * <p>
+     * The engine packs the JAR files reproducibly if the <code>outputTimestamp</code> parameter is set. If the
+     * <code>memoryBudget</code> parameter is set, the engine packs within the budget. If the
+     * <code>incremental</code> parameter is enabled, the engine reuses the packed segments which didn't change,
+     * otherwise if the <code>parallelSegments</code> parameter is enabled, it packs the segments concurrently. If the
+     * <code>nestedJars</code> parameter is enabled, the engine packs the nested JAR files concurrently.
+     * </p>
      */
-    private void addOptions() {
-        if ((options != null) && (options.size() > 0)) {
-            for (String option : options) {
-                addArgument("-J", option, "");
+    @Override
+    protected Engine createEngine() {
+        Engine engine = new ReproducibleEngine(super.createEngine());
+        if (memoryBudget > 0) {
+            // The bounded engine sits under the concurrent decorators, so each packer gets its share of the budget.
+            final int packers = getConcurrentPackers();
+            if (debug) {
+                getLog().info(String.format("Memory budget: %d MB for each of %d packers", memoryBudget / packers,
+                        packers));
             }
+            engine = new MemoryBoundedEngine(engine, getEngineType(), getLog(),
+                    memoryBudget * 1024 * 1024 / packers);
         }
-    }
-
-    /**
-     * Adds a "modification-time" argument.
-     *
-     * @see AbstractPackMojo#modificationTime
-     */
-    private void addModificationTime() {
-        if (modificationTime != null) {
-            addArgument("--modification-time", modificationTime.name().toLowerCase());
+        if (incremental) {
+            engine = new SegmentParallelEngine(engine, getLog(), segmentThreads,
+                    new PackCache(cacheDirectory, cacheMaxSize * 1024 * 1024));
+        } else if (parallelSegments) {
+            engine = new SegmentParallelEngine(engine, getLog(), segmentThreads);
         }
+        return nestedJars ? new NestedJarEngine(engine, getLog(), nestedJarThreads) : engine;
     }
 
     /**
-     * Adds a "no-gzip" argument.
+     * Gets the largest number of packers running at the same time for a JAR file, across its segments and its
+     * nested JAR files.
      *
-     * @see AbstractPackMojo#noGzip
+     * @return Number of packers.
      */
-    private void addNoGzip() {
-        if (noGzip) {
-            addArgument("--no-gzip");
+    private int getConcurrentPackers() {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        long packers = 1;
+        if (incremental || parallelSegments) {
+            packers *= segmentThreads > 0 ? segmentThreads : processors;
         }
-    }
-
-    /**
-     * Adds a "no-keep-file-order" argument.
-     *
-     * @see AbstractPackMojo#noKeepFileOrder
-     */
-    private void addNoKeepFileOrder() {
-        if (noKeepFileOrder && !keepFileOrder) {
-            addArgument("--no-keep-file-order");
+        if (nestedJars) {
+            packers *= nestedJarThreads > 0 ? nestedJarThreads : processors;
         }
+        return (int) Math.max(1, Math.min(packers, maxConcurrentJobs > 0 ? maxConcurrentJobs : processors));
     }
 
     /**
-     * Adds the output file if this exists.
+     * Creates the key of the cache entry of the output file.
      *
-     * @param outputFile Output file.
-     */
-    private void addOutputFileArgument(File outputFile) {
-        if (outputFile != null) {
-            addArgument(outputFile.toString());
-        }
+     * @param engine        Engine.
+     * @param inputFile     Input JAR file.
+     * @param packOptions   Packing options.
+     * @param upToDateCheck Up-to-date check, which may have already computed the fingerprint of the input file.
+     * @return              Key.
+     * @throws IOException  If the input JAR file or the configuration file couldn't be read.
+     */
+    private String createCacheKey(Engine engine, File inputFile, PackOptions packOptions,
+                                  UpToDateCheck upToDateCheck) throws IOException {
+        final String inputFingerprint = upToDateCheck != null ? upToDateCheck.getInputFingerprint()
+                : Fingerprint.of(inputFile);
+        return packOptions.appendTo(new Fingerprint())
+                .add("operation", getOperation())
+                .add("input", inputFingerprint)
+                .add("engine", engine.getVersion())
+                .add("memoryBudget", memoryBudget > 0 ? memoryBudget : null)
+                .toHex();
     }
 
     /**
-     * Adds a "quiet" argument.
+     * Detects the entries of the input JAR file which are passed through the packer.
      *
-     * @see AbstractPackMojo#quiet
-     */
-    private void addQuietArgument() {
-        if (quiet && !verbose) {
-            addArgument("--quiet");
+     * @param inputFile     Input JAR file.
+     * @param packOptions   Packing options receiving the entries.
+     * @throws IOException  If the input JAR file couldn't be read.
+     * @see AbstractPackMojo#passThrough
+     */
+    protected void detectPassFiles(File inputFile, PackOptions packOptions) throws IOException {
+        final PassThroughDetector detector = new PassThroughDetector(passThrough, passThroughIncludes,
+                passThroughExcludes);
+        final List<String> passFiles = detector.detect(inputFile);
+        if (!passFiles.isEmpty()) {
+            getLog().info(String.format("%d entries are passed through the packer.", passFiles.size()));
+            if (getLog().isDebugEnabled()) {
+                getLog().debug("Passed through entries: " + passFiles);
+            }
         }
+        packOptions.getPassFiles().addAll(passFiles);
     }
 
     /**
-     * Adds a "segment-limit" argument.
+     * Gets the compression codec of the packed file.
      *
-     * @see AbstractPackMojo#segmentLimit
+     * @return Codec.
+     * @see AbstractPackMojo#compression
+     * @see AbstractPackMojo#noGzip
      */
-    private void addSegmentLimit() {
-        if (segmentLimit != 0) {
-            addArgument("--segment-limit", String.valueOf(segmentLimit));
+    protected Codec getCompression() {
+        if (noGzip) {
+            return Codec.NONE;
         }
+        return compression != null ? compression : Codec.GZIP;
     }
 
     /**
-     * Adds a "strip-debug" argument.
+     * Gets the input JAR file.
      *
-     * @see AbstractPackMojo#stripDebug
+     * @return Input JAR file.
+     * @see AbstractPackMojo#target
+     * @see AbstractPackMojo#inputFile
      */
-    private void addStripDebug() {
-        if (stripDebug) {
-            addArgument("--strip-debug");
-        }
+    protected File getInputFile() {
+        return new File(target, inputFile);
     }
 
     /**
-     * Adds a "unknown-attribute" argument.
+     * Gets the name of the operation of the goal.
      *
-     * @see AbstractPackMojo#unknownAttribute
+     * @return Name of the operation.
      */
-    private void addUnknown() {
-        if (unknownAttribute != null) {
-            addArgument("--unknown-attribute", unknownAttribute.name().toLowerCase());
-        }
+    protected String getOperation() {
+        return "pack";
     }
 
     /**
-     * Adds a "verbose" argument.
+     * Performs the operation of the goal with the engine.
      *
-     * @see AbstractPackMojo#verbose
-     */
-    private void addVerboseArgument() {
-        if (verbose && !quiet) {
-            addArgument("--verbose");
-        }
+     * @param engine        Engine.
+     * @param inputFile     Input JAR file.
+     * @param outputFile    Output file.
+     * @param packOptions   Packing options.
+     * @throws IOException  If the operation failed.
+     */
+    protected void execute(Engine engine, File inputFile, File outputFile, PackOptions packOptions)
+            throws IOException {
+        engine.pack(inputFile, outputFile, packOptions);
     }
 
     /**
@@ -373,29 +536,128 @@ public abstract class AbstractPackMojo extends AbstractPluginMojo {
      *                                  causes a <b>BUILD ERROR</b> message to be displayed.
      */
     public void execute(File outputFile) throws MojoExecutionException {
-        // Options.
-        addNoGzip();
-        addStripDebug();
-        addNoKeepFileOrder();
-        addKeepFileOrder();
-        addSegmentLimit();
-        addEffort();
-        addDeflateHint();
-        addModificationTime();
-        addUnknown();
-        addConfigFileArgument();
-        addVerboseArgument();
-        addQuietArgument();
-        addLogFileArgument();
-        addOptions();
-
-        // Output JAR file.
-        addOutputFileArgument(outputFile);
-        // Input JAR file.
-        addJarFile();
-
-        // Execute command.
-        super.execute();
+        final PackJob job = createJob(outputFile);
+        if (job != null) {
+            try {
+                job.run();
+            } catch (IOException e) {
+                throw new MojoExecutionException("Command is failed.", e);
+            }
+        }
+    }
+
+    /**
+     * Creates the job performing the operation of the goal, unless the output file is up to date.
+     *
+     * @param outputFile                Output JAR file.
+     * @return                          Job or {@code null} if the output file is up to date.
+     * @throws MojoExecutionException   If the input JAR file couldn't be read.
+     */
+    protected PackJob createJob(final File outputFile) throws MojoExecutionException {
+        final File inputFile = getInputFile();
+        final File destinationFile = outputFile != null ? outputFile : inputFile;
+        final PerformanceReport performanceReport = createReport(getOperation());
+        final PackOptions packOptions = createPackOptions();
+        packOptions.setReport(performanceReport);
+        final UpToDateCheck upToDateCheck;
+        try {
+            if (performanceReport != null) {
+                performanceReport.addInput(inputFile);
+                performanceReport.countEntries(inputFile);
+            }
+            detectPassFiles(inputFile, packOptions);
+
+            upToDateCheck = createUpToDateCheck(getOperation(), inputFile, destinationFile,
+                    packOptions.appendTo(new Fingerprint())
+                            .add("incremental", incremental ? Boolean.TRUE : null)
+                            .add("memoryBudget", memoryBudget > 0 ? memoryBudget : null)
+                            .add("nestedJars", nestedJars ? Boolean.TRUE : null)
+                            .add("segmentThreads", parallelSegments && !incremental ? segmentThreads : null));
+            if (upToDateCheck != null && upToDateCheck.isUpToDate()) {
+                getLog().info("The file is up to date: " + destinationFile);
+                if (performanceReport != null) {
+                    performanceReport.endSetup();
+                    performanceReport.addUpToDate();
+                    performanceReport.addOutput(destinationFile);
+                    publishReport(performanceReport, getOperation() + "-" + destinationFile.getName());
+                }
+                return null;
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Command is failed.", e);
+        }
+
+        return new PackJob() {
+            public File getInputFile() {
+                return inputFile;
+            }
+
+            public File getOutputFile() {
+                return destinationFile;
+            }
+
+            public void run() throws IOException {
+                execute(inputFile, outputFile, destinationFile, packOptions, upToDateCheck);
+            }
+        };
+    }
+
+    /**
+     * Performs the operation of the goal, or restores the output file from the cache, and records it.
+     *
+     * @param inputFile         Input JAR file.
+     * @param outputFile        Output file or {@code null} if the input JAR file is replaced.
+     * @param destinationFile   File written by the operation.
+     * @param packOptions       Packing options.
+     * @param upToDateCheck     Up-to-date check or {@code null}.
+     * @throws IOException      If the operation failed.
+     */
+    private void execute(File inputFile, File outputFile, File destinationFile, PackOptions packOptions,
+                         UpToDateCheck upToDateCheck) throws IOException {
+        final PerformanceReport performanceReport = packOptions.getReport();
+        if (performanceReport != null) {
+            // A job deferred to the end of the reactor is only sampled once it runs.
+            performanceReport.start();
+        }
+        try {
+            final Engine engine = createEngine();
+            final String cacheKey = cache ? createCacheKey(engine, inputFile, packOptions, upToDateCheck) : null;
+            final PackCache packCache = cache ? new PackCache(cacheDirectory, cacheMaxSize * 1024 * 1024) : null;
+            if (performanceReport != null) {
+                performanceReport.setEngine(engine.getVersion());
+            }
+            if (packCache != null && packCache.get(cacheKey, destinationFile)) {
+                getLog().info("The file is restored from the cache: " + destinationFile);
+                if (performanceReport != null) {
+                    performanceReport.endSetup();
+                    performanceReport.addCached();
+                }
+            } else {
+                if (performanceReport != null) {
+                    performanceReport.endSetup();
+                }
+                final long start = System.nanoTime();
+                execute(engine, inputFile, outputFile, packOptions);
+                if (performanceReport != null) {
+                    performanceReport.addOperationTime(System.nanoTime() - start);
+                }
+                if (packCache != null) {
+                    packCache.put(cacheKey, destinationFile);
+                }
+            }
+
+            if (upToDateCheck != null) {
+                upToDateCheck.record();
+            }
+            if (performanceReport != null) {
+                performanceReport.addOutput(destinationFile);
+                publishReport(performanceReport, getOperation() + "-" + destinationFile.getName());
+            }
+        } finally {
+            if (performanceReport != null) {
+                performanceReport.finish();
+            }
+        }
     }
 
     //</editor-fold>
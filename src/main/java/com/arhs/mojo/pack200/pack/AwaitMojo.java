@@ -0,0 +1,185 @@
+package com.arhs.mojo.pack200.pack;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.AbstractPluginMojo;
+import com.arhs.mojo.pack200.aggregate.BackgroundPackJobs;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProjectHelper;
+
+import java.io.File;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Goal for waiting for the packing started in the background by the <code>pack-async</code> goal.
+ * <p>
+ * The failure of the packing fails the build, and the packed file is attached to the project, so that it is
+ * installed and deployed with the JAR file.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ * @see PackAsyncMojo
+ */
+@Mojo(name = "await", defaultPhase = LifecyclePhase.VERIFY, threadSafe = true)
+public class AwaitMojo extends AbstractPluginMojo {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Attaches the packed file to the project.
+     * <p>The default value is: <code>true</code>.</p>
+     */
+    @Parameter(defaultValue = "true")
+    public boolean attach;
+
+    /**
+     * Attaches the existing packed file if no packing was started in the background, like when the
+     * <code>pack-async</code> goal is skipped.
+     * <p>
+     * The default value is: <code>false</code>, which fails the build instead, since the existing file may come from
+     * a previous build.
+     * </p>
+     */
+    @Parameter(defaultValue = "false")
+    public boolean attachExisting;
+
+    /**
+     * Classifier of the attached packed file.
+     * <p>By default, the packed file has no classifier.</p>
+     */
+    @Parameter
+    public String classifier;
+
+    /**
+     * Name of the packed file, which must be the output file of the <code>pack-async</code> goal.
+     * <p>
+     * The default value is the name of JAR file generated followed by the extension <code>.pack.gz</code>:
+     * <code>${project.build.directory}/${project.build.finalName}.jar.pack.gz</code>.
+     * This property is required.
+     * </p>
+     */
+    @Parameter(defaultValue = "${project.build.directory}/${project.build.finalName}.jar.pack.gz", required = true)
+    public File outputFile;
+
+    /**
+     * Helper attaching the packed file to the project.
+     */
+    @Component
+    public MavenProjectHelper projectHelper;
+
+    /**
+     * Maximum time to wait for the packing, in seconds.
+     * <p>The default value is: <code>0</code>, which waits until the end of the packing.</p>
+     */
+    @Parameter(defaultValue = "0")
+    public int timeout;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Waits for the packing started in the background.
+     *
+     * @param future                    Packing.
+     * @throws MojoExecutionException   If the packing failed, was interrupted or didn't end in time.
+     */
+    private void await(Future<?> future) throws MojoExecutionException {
+        final long start = System.nanoTime();
+        try {
+            if (timeout > 0) {
+                future.get(timeout, TimeUnit.SECONDS);
+            } else {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("The wait for the packing was interrupted: " + outputFile, e);
+        } catch (ExecutionException e) {
+            throw new MojoExecutionException("Command is failed.", e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new MojoExecutionException(String.format("The packing didn't end within %d seconds: %s", timeout,
+                    outputFile), e);
+        }
+        getLog().info(String.format("The packing in the background is joined after %d ms: %s",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), outputFile));
+    }
+
+    /**
+     * Gets the type of the attached packed file, from the extensions following the final name of the project.
+     *
+     * @return Type, like <code>jar.pack.gz</code>.
+     */
+    private String getType() {
+        final String name = outputFile.getName();
+        final String finalName = project.getBuild() != null ? project.getBuild().getFinalName() : null;
+        if (finalName != null && name.startsWith(finalName + ".")) {
+            return name.substring(finalName.length() + 1);
+        }
+        final int extension = name.indexOf('.');
+        return extension >= 0 ? name.substring(extension + 1) : "pack";
+    }
+
+    //</editor-fold>
+
+    /**
+     * Perform whatever build-process behavior this Mojo implements.
+     *
+     * @throws MojoExecutionException If an unexpected problem occurs. Throwing this exception
+     *                                causes a <b>BUILD ERROR</b> message to be displayed.
+     */
+    public void execute() throws MojoExecutionException {
+        final Future<?> future = BackgroundPackJobs.remove(outputFile);
+        if (future != null) {
+            await(future);
+        } else if (attachExisting && outputFile.exists()) {
+            getLog().warn("No packing was started in the background, the existing file is used: " + outputFile);
+        } else {
+            throw new MojoExecutionException("No packing was started in the background, the pack-async goal must "
+                    + "run before: " + outputFile);
+        }
+
+        if (attach && project != null && projectHelper != null) {
+            projectHelper.attachArtifact(project, getType(), classifier, outputFile);
+            if (debug) {
+                getLog().info("The packed file is attached: " + outputFile);
+            }
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,104 @@
+package com.arhs.mojo.pack200.pack;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.aggregate.BackgroundPackJobs;
+import com.arhs.mojo.pack200.engine.Engine;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Goal for starting the packing of the jar in the background.
+ * <p>
+ * The build goes on with the next phases, like the integration tests, while the JAR file is packed. The
+ * <code>await</code> goal, bound to a later phase, waits for the packed file, reports the failure of the packing and
+ * attaches the packed file to the project. The packed file is written into a temporary file and moved into place once
+ * complete, so that a packing killed with the build leaves no truncated packed file.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ * @see AwaitMojo
+ */
+@Mojo(name = "pack-async", defaultPhase = LifecyclePhase.PACKAGE, threadSafe = true)
+public class PackAsyncMojo extends AbstractPackMojo {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Name of the output file.
+     * <p>
+     * The default value is the name of JAR file generated followed by the extension <code>.pack.gz</code>:
+     * <code>${project.build.directory}/${project.build.finalName}.jar.pack.gz</code>.
+     * This property is required.
+     * </p>
+     */
+    @Parameter(defaultValue = "${project.build.directory}/${project.build.finalName}.jar.pack.gz", required = true)
+    public File outputFile;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void execute(Engine engine, File inputFile, File outputFile, PackOptions packOptions)
+            throws IOException {
+        final File temporaryFile = File.createTempFile(outputFile.getName(), ".tmp",
+                outputFile.getAbsoluteFile().getParentFile());
+        try {
+            engine.pack(inputFile, temporaryFile, packOptions);
+            Files.move(temporaryFile.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    /**
+     * Perform whatever build-process behavior this Mojo implements.
+     *
+     * @throws MojoExecutionException If an unexpected problem occurs. Throwing this exception
+     *                                causes a <b>BUILD ERROR</b> message to be displayed.
+     */
+    @Override
+    public void execute() throws MojoExecutionException {
+        BackgroundPackJobs.submit(outputFile, createJob(outputFile));
+        getLog().info("The packing runs in the background until the await goal: " + outputFile);
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,412 @@
+package com.arhs.mojo.pack200.pack;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.compression.Codec;
+import com.arhs.mojo.pack200.engine.Engine;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.report.PerformanceReport;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.codehaus.plexus.util.DirectoryScanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Goal for packing every JAR file of a directory concurrently.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+@Mojo(name = "pack-files", defaultPhase = LifecyclePhase.PACKAGE, threadSafe = true)
+public class PackFilesMojo extends AbstractPackMojo {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Directory containing the JAR files to pack.
+     * <p>The default value is: <code>${project.build.directory}</code>.</p>
+     */
+    @Parameter(defaultValue = "${project.build.directory}", required = true)
+    public File directory;
+
+    /**
+     * Patterns of the files to exclude, relative to the directory.
+     */
+    @Parameter
+    public List<String> excludes;
+
+    /**
+     * Stops at the first file which couldn't be packed.
+     * <p>
+     * The default value is: <code>true</code>. If <code>false</code>, every file is packed and the files which
+     * couldn't be packed are reported at the end.
+     * </p>
+     */
+    @Parameter(defaultValue = "true")
+    public boolean failFast;
+
+    /**
+     * Patterns of the files to pack, relative to the directory.
+     * <p>The default value is: <code>**&#47;*.jar</code>.</p>
+     */
+    @Parameter
+    public List<String> includes;
+
+    /**
+     * Directory for the packed files.
+     * <p>By default, each packed file is created next to its JAR file.</p>
+     */
+    @Parameter
+    public File outputDirectory;
+
+    /**
+     * Number of JAR files packed at the same time.
+     * <p>The default value is: <code>0</code>, which uses the number of available processors.</p>
+     */
+    @Parameter(defaultValue = "0")
+    public int threads;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Waits for the end of the running operations.
+     *
+     * @param executor Executor.
+     */
+    private void awaitTermination(ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                getLog().info("Waiting for the end of the running operations.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the relative paths of the JAR files to pack, the largest ones first.
+     *
+     * @return Relative paths.
+     * @see PackFilesMojo#includes
+     * @see PackFilesMojo#excludes
+     */
+    private List<String> scanFiles() {
+        final DirectoryScanner scanner = new DirectoryScanner();
+        scanner.setBasedir(directory);
+        if (includes != null && !includes.isEmpty()) {
+            scanner.setIncludes(includes.toArray(new String[includes.size()]));
+        } else {
+            scanner.setIncludes(new String[]{"**/*.jar"});
+        }
+        if (excludes != null && !excludes.isEmpty()) {
+            scanner.setExcludes(excludes.toArray(new String[excludes.size()]));
+        }
+        scanner.addDefaultExcludes();
+        scanner.scan();
+
+        // The largest files are packed first, so that the last worker doesn't finish long after the others.
+        final List<String> files = new ArrayList<>(Arrays.asList(scanner.getIncludedFiles()));
+        Collections.sort(files, new Comparator<String>() {
+            public int compare(String first, String second) {
+                return Long.compare(new File(directory, second).length(), new File(directory, first).length());
+            }
+        });
+        return files;
+    }
+
+    /**
+     * Gets the packed file of a JAR file.
+     *
+     * @param path          Relative path of the JAR file.
+     * @param compression   Compression codec of the packed file.
+     * @return              Packed file.
+     */
+    private File getOutputFile(String path, Codec compression) {
+        final File outputFile = new File(outputDirectory != null ? outputDirectory : directory,
+                path + ".pack" + compression.getExtension());
+        outputFile.getParentFile().mkdirs();
+        return outputFile;
+    }
+
+    /**
+     * Gets the number of JAR files packed at the same time.
+     *
+     * @param fileCount Number of JAR files.
+     * @return          Number of threads.
+     */
+    private int getThreadCount(int fileCount) {
+        final int threadCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(threadCount, fileCount));
+    }
+
+    /**
+     * Logs the result of every file.
+     *
+     * @param results Results.
+     */
+    private void logSummary(List<FileResult> results) {
+        Collections.sort(results, new Comparator<FileResult>() {
+            public int compare(FileResult first, FileResult second) {
+                return first.path.compareTo(second.path);
+            }
+        });
+        for (FileResult result : results) {
+            if (result.error == null) {
+                getLog().info(String.format("%s: %d -> %d bytes (%.1f%%) in %d ms", result.path,
+                        result.inputLength, result.outputLength, result.getRatio() * 100, result.duration));
+            } else {
+                getLog().error(String.format("%s: %s", result.path, result.error.getMessage()));
+            }
+        }
+    }
+
+    //</editor-fold>
+
+    /**
+     * Perform whatever build-process behavior this Mojo implements.
+     *
+     * @throws MojoExecutionException If an unexpected problem occurs. Throwing this exception
+     *                                causes a <b>BUILD ERROR</b> message to be displayed.
+     */
+    @Override
+    public void execute() throws MojoExecutionException {
+        final List<String> files = scanFiles();
+        if (files.isEmpty()) {
+            getLog().info("No JAR file to pack in " + directory);
+            return;
+        }
+
+        final PerformanceReport performanceReport = createReport("pack-files");
+        final PackOptions packOptions = createPackOptions();
+        packOptions.setReport(performanceReport);
+        if (packOptions.getLogFile() != null) {
+            // Concurrent operations would overwrite the same log file.
+            getLog().warn("The log file is ignored when several files are packed: " + packOptions.getLogFile());
+            packOptions.setLogFile(null);
+        }
+
+        final Engine engine = createEngine();
+        final int threadCount = getThreadCount(files.size());
+        getLog().info(String.format("Packing %d files with %d threads.", files.size(), threadCount));
+        if (performanceReport != null) {
+            performanceReport.setEngine(engine.getVersion());
+            performanceReport.endSetup();
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        final CompletionService<FileResult> completionService = new ExecutorCompletionService<>(executor);
+        final List<FileResult> results = new ArrayList<>();
+        final List<FileResult> failures = new ArrayList<>();
+        try {
+            if (performanceReport != null) {
+                performanceReport.start();
+            }
+            for (final String path : files) {
+                completionService.submit(new PackTask(engine, path, getOutputFile(path, packOptions.getCompression()),
+                        packOptions));
+            }
+
+            for (int i = 0; i < files.size(); i++) {
+                final FileResult result = completionService.take().get();
+                results.add(result);
+                if (result.error != null) {
+                    failures.add(result);
+                    if (failFast) {
+                        break;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("The packing of the files was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new MojoExecutionException("Command is failed.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            awaitTermination(executor);
+            if (performanceReport != null) {
+                performanceReport.finish();
+            }
+        }
+
+        logSummary(results);
+        publishReport(performanceReport, "pack-files");
+        if (!failures.isEmpty()) {
+            final FileResult failure = failures.get(0);
+            throw new MojoExecutionException(String.format("%d file(s) couldn't be packed, the first one is: %s",
+                    failures.size(), failure.path), failure.error);
+        }
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Inner classes section.">
+
+    /**
+     * Operation packing a JAR file.
+     */
+    private final class PackTask implements Callable<FileResult> {
+
+        /**
+         * Engine.
+         */
+        private final Engine engine;
+
+        /**
+         * Relative path of the JAR file.
+         */
+        private final String path;
+
+        /**
+         * Packed file.
+         */
+        private final File outputFile;
+
+        /**
+         * Packing options.
+         */
+        private final PackOptions packOptions;
+
+        /**
+         * Constructor.
+         *
+         * @param engine        Engine.
+         * @param path          Relative path of the JAR file.
+         * @param outputFile    Packed file.
+         * @param packOptions   Packing options.
+         */
+        private PackTask(Engine engine, String path, File outputFile, PackOptions packOptions) {
+            this.engine = engine;
+            this.path = path;
+            this.outputFile = outputFile;
+            this.packOptions = packOptions;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public FileResult call() {
+            final File inputFile = new File(directory, path);
+            final FileResult result = new FileResult(path);
+            final long start = System.nanoTime();
+            try {
+                final PackOptions fileOptions = packOptions.copy();
+                detectPassFiles(inputFile, fileOptions);
+                engine.pack(inputFile, outputFile, fileOptions);
+                result.inputLength = inputFile.length();
+                result.outputLength = outputFile.length();
+            } catch (IOException | RuntimeException e) {
+                result.error = e;
+            }
+            final long duration = System.nanoTime() - start;
+            result.duration = TimeUnit.NANOSECONDS.toMillis(duration);
+
+            final PerformanceReport performanceReport = packOptions.getReport();
+            if (performanceReport != null && result.error == null) {
+                performanceReport.addOperationTime(duration);
+                performanceReport.addInput(inputFile);
+                performanceReport.addOutput(outputFile);
+                try {
+                    performanceReport.countEntries(inputFile);
+                } catch (IOException e) {
+                    getLog().debug("The entries couldn't be counted: " + inputFile, e);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Result of the packing of a JAR file.
+     */
+    private static final class FileResult {
+
+        /**
+         * Relative path of the JAR file.
+         */
+        private final String path;
+
+        /**
+         * Duration, in milliseconds.
+         */
+        private long duration;
+
+        /**
+         * Error or {@code null} if the JAR file was packed.
+         */
+        private Exception error;
+
+        /**
+         * Size of the JAR file, in bytes.
+         */
+        private long inputLength;
+
+        /**
+         * Size of the packed file, in bytes.
+         */
+        private long outputLength;
+
+        /**
+         * Constructor.
+         *
+         * @param path Relative path of the JAR file.
+         */
+        private FileResult(String path) {
+            this.path = path;
+        }
+
+        /**
+         * Gets the ratio between the size of the packed file and the size of the JAR file.
+         *
+         * @return Ratio.
+         */
+        private double getRatio() {
+            return inputLength > 0 ? (double) outputLength / inputLength : 0;
+        }
+    }
+
+    //</editor-fold>
+
+}
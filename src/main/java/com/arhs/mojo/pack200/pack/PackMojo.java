@@ -23,13 +23,34 @@ package com.arhs.mojo.pack200.pack;
  * THE SOFTWARE.
  */
 
+import com.arhs.mojo.pack200.SessionEndListener;
+import com.arhs.mojo.pack200.aggregate.PackJob;
+import com.arhs.mojo.pack200.aggregate.ReactorPackQueue;
+import com.arhs.mojo.pack200.analysis.JarAnalysis;
+import com.arhs.mojo.pack200.analysis.JarAnalyzer;
+import com.arhs.mojo.pack200.fingerprint.Fingerprint;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.tuning.PackTuner;
+import com.arhs.mojo.pack200.tuning.TuningFile;
+import com.arhs.mojo.pack200.tuning.TuningResult;
+import com.arhs.mojo.pack200.tuning.TuningSettings;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Execute;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Goal for packing the jar.
@@ -38,12 +59,41 @@ import java.io.File;
  * @version 1.0
  * @since 2014-11-17
  */
-@Mojo(name = "pack")
+@Mojo(name = "pack", threadSafe = true)
 @Execute(goal = "pack", phase = LifecyclePhase.PACKAGE)
 public class PackMojo extends AbstractPackMojo {
 
     //<editor-fold desc="Fields section.">
 
+    /**
+     * Defers the packing to the end of the reactor.
+     * <p>
+     * The default value is: <code>false</code>. If <code>true</code>, the JAR file is packed once every execution of
+     * the goal in the reactor has run, together with the JAR files of the other projects, on a single pool bounded by
+     * <code>aggregateThreads</code> and the largest JAR files first. The packed files are created by the execution
+     * of the last project, which reports the failures. If that execution doesn't run, because its project fails or
+     * is skipped or its phase isn't reached, the queued files are packed at the end of the session, whose failures
+     * fail the build.
+     * </p>
+     */
+    @Parameter(defaultValue = "false")
+    public boolean aggregate;
+
+    /**
+     * Number of JAR files packed at the same time at the end of the reactor.
+     * <p>The default value is: <code>0</code>, which uses the number of available processors.</p>
+     *
+     * @see PackMojo#aggregate
+     */
+    @Parameter(defaultValue = "0")
+    public int aggregateThreads;
+
+    /**
+     * Current execution.
+     */
+    @Parameter(defaultValue = "${mojoExecution}", readonly = true)
+    public MojoExecution mojoExecution;
+
     /**
      * Name of the output file.
      * <p>
@@ -55,10 +105,214 @@ public class PackMojo extends AbstractPackMojo {
     @Parameter(defaultValue = "${project.build.directory}/${project.build.finalName}.jar.pack.gz", required = true, readonly = true)
     public File outputFile;
 
+    /**
+     * Searches the packing settings producing the smallest packed file.
+     * <p>
+     * The default value is: <code>false</code>. If <code>true</code>, the JAR file is packed with candidate
+     * combinations of efforts, segment limits, file orders and deflate hints, except the ones configured by the
+     * execution. The settings producing the smallest file are recorded in the <code>tuningFile</code> and reused by
+     * the later builds, until the JAR file or the options change substantially.
+     * </p>
+     */
+    @Parameter(defaultValue = "false")
+    public boolean tune;
+
+    /**
+     * Time budget of the tuning, in seconds.
+     * <p>
+     * The default value is: <code>60</code>. The candidates which aren't evaluated when the budget is spent are
+     * discarded. <code>0</code> evaluates every candidate.
+     * </p>
+     */
+    @Parameter(defaultValue = "60")
+    public int tuningBudget;
+
+    /**
+     * File recording the packing settings found by the tuning, for each JAR file by its name.
+     * <p>The default value is: <code>${basedir}/pack200-tuning.properties</code>.</p>
+     */
+    @Parameter(defaultValue = "${basedir}/pack200-tuning.properties")
+    public File tuningFile;
+
+    /**
+     * Number of candidates packed at the same time by the tuning.
+     * <p>The default value is: <code>0</code>, which uses the number of available processors.</p>
+     */
+    @Parameter(defaultValue = "0")
+    public int tuningThreads;
+
+    /**
+     * Change of the size or of the number of entries of the JAR file, in percent, above which the tuning runs again.
+     * <p>The default value is: <code>10</code>.</p>
+     */
+    @Parameter(defaultValue = "10")
+    public int tuningThreshold;
+
+    /**
+     * Settings found by the tuning or {@code null}.
+     */
+    private TuningSettings tunedSettings;
+
     //</editor-fold>
 
     //<editor-fold desc="Methods section.">
 
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Gets the packing settings producing the smallest packed file, from the tuning file or by searching them.
+     *
+     * @return                          Settings or {@code null} if no candidate could be evaluated.
+     * @throws MojoExecutionException   If the tuning failed.
+     */
+    private TuningSettings tune() throws MojoExecutionException {
+        final File inputFile = getInputFile();
+        final PackOptions packOptions = super.createPackOptions();
+        try {
+            final String optionsFingerprint = packOptions.appendTo(new Fingerprint()).toHex();
+            final TuningFile file = new TuningFile(tuningFile);
+            final TuningSettings settings = file.load(inputFile, optionsFingerprint, tuningThreshold);
+            if (settings != null) {
+                getLog().info("The tuned settings are reused: " + settings);
+                return settings;
+            }
+
+            final File directory = outputFile.getAbsoluteFile().getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("The directory couldn't be created: " + directory);
+            }
+            final PackTuner tuner = new PackTuner(createEngine(), getLog(), tuningThreads,
+                    TimeUnit.SECONDS.toMillis(tuningBudget));
+            final JarAnalysis analysis = JarAnalyzer.analyze(inputFile);
+            if (debug) {
+                getLog().info(analysis.toSummary());
+            }
+            final TuningResult result = tuner.tune(inputFile, directory, packOptions,
+                    TuningSettings.candidates(packOptions, analysis));
+            if (result == null) {
+                getLog().warn("No candidate could be evaluated, the configured settings are used.");
+                return null;
+            }
+
+            getLog().info(String.format("The tuned settings are: %s (%d bytes)", result.getSettings(),
+                    result.getLength()));
+            file.store(inputFile, optionsFingerprint, result);
+            return result.getSettings();
+        } catch (IOException e) {
+            throw new MojoExecutionException("The tuning is failed.", e);
+        }
+    }
+
+    /**
+     * Counts the executions of the goal in the reactor, which arrive in the queue of the reactor.
+     *
+     * @return Number of executions.
+     */
+    private int countExecutions() {
+        final List<MavenProject> projects = session.getProjects();
+        if (projects == null || projects.isEmpty()) {
+            return 1;
+        }
+
+        // A goal of the command line runs in every project, otherwise only the declared executions run.
+        int count = 0;
+        if (mojoExecution != null && mojoExecution.getSource() != MojoExecution.Source.CLI) {
+            final String pluginKey = mojoExecution.getMojoDescriptor().getPluginDescriptor().getPluginLookupKey();
+            for (MavenProject reactorProject : projects) {
+                final Plugin plugin = reactorProject.getPlugin(pluginKey);
+                if (plugin != null) {
+                    for (PluginExecution execution : plugin.getExecutions()) {
+                        if (execution.getGoals().contains(mojoExecution.getGoal())) {
+                            count++;
+                        }
+                    }
+                }
+            }
+        }
+        return count > 0 ? count : projects.size();
+    }
+
+    /**
+     * Arrives in the queue of the reactor and, if the execution is the last one, packs the queued JAR files.
+     *
+     * @param job                       Deferred job or {@code null}.
+     * @throws MojoExecutionException   If a queued JAR file couldn't be packed.
+     */
+    private void arrive(PackJob job) throws MojoExecutionException {
+        final ReactorPackQueue queue = ReactorPackQueue.get(session.getRequest().getStartTime(), countExecutions());
+        // The last execution may never run, so the queue is drained at the end of the session.
+        final MavenSession buildSession = session;
+        final int threads = aggregateThreads;
+        final Log log = getLog();
+        SessionEndListener.register(session, "reactor-pack-queue", new Runnable() {
+            public void run() {
+                final List<PackJob> jobs = queue.drain();
+                if (jobs.isEmpty()) {
+                    return;
+                }
+                log.warn(String.format("The last execution of the goal didn't run, %d deferred file(s) are packed "
+                        + "at the end of the session.", jobs.size()));
+                try {
+                    packQueued(jobs, threads, log);
+                } catch (MojoExecutionException e) {
+                    log.error(e.getMessage());
+                    buildSession.getResult().addException(e);
+                }
+            }
+        });
+
+        final List<PackJob> jobs = queue.arrive(job);
+        if (jobs == null) {
+            if (job != null) {
+                getLog().info("The packing is deferred to the end of the reactor: " + job.getOutputFile());
+            }
+            return;
+        }
+        packQueued(jobs, aggregateThreads, getLog());
+    }
+
+    /**
+     * Packs the queued JAR files of the reactor.
+     *
+     * @param jobs                      Queued jobs.
+     * @param threads                   Number of threads, <code>0</code> for the number of available processors.
+     * @param log                       Logger.
+     * @throws MojoExecutionException   If a queued JAR file couldn't be packed.
+     */
+    private static void packQueued(List<PackJob> jobs, int threads, Log log) throws MojoExecutionException {
+        final Map<PackJob, Exception> failures;
+        try {
+            failures = ReactorPackQueue.run(jobs, threads, log);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Command is failed.", e);
+        }
+        if (!failures.isEmpty()) {
+            for (Map.Entry<PackJob, Exception> failure : failures.entrySet()) {
+                log.error(String.format("%s: %s", failure.getKey().getInputFile(), failure.getValue().getMessage()));
+            }
+            final Map.Entry<PackJob, Exception> failure = failures.entrySet().iterator().next();
+            throw new MojoExecutionException(String.format("%d file(s) of the reactor couldn't be packed, the "
+                    + "first one is: %s", failures.size(), failure.getKey().getInputFile()), failure.getValue());
+        }
+    }
+
+    //</editor-fold>
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The settings found by the tuning override the configured ones.
+     * </p>
+     */
+    @Override
+    protected PackOptions createPackOptions() {
+        final PackOptions packOptions = super.createPackOptions();
+        if (tunedSettings != null) {
+            tunedSettings.applyTo(packOptions);
+        }
+        return packOptions;
+    }
+
     /**
      * Perform whatever build-process behavior this Mojo implements.
      *
@@ -66,7 +320,21 @@ public class PackMojo extends AbstractPackMojo {
      *                                causes a <b>BUILD ERROR</b> message to be displayed.
      */
     public void execute() throws MojoExecutionException {
-        super.execute(outputFile);
+        if (tune) {
+            tunedSettings = tune();
+        }
+        if (session == null || session.getRequest() == null || session.getRequest().getStartTime() == null) {
+            super.execute(outputFile);
+            return;
+        }
+
+        // Every execution arrives in the queue, so that the last one packs the deferred JAR files.
+        if (aggregate) {
+            arrive(createJob(outputFile));
+        } else {
+            super.execute(outputFile);
+            arrive(null);
+        }
     }
 
     //</editor-fold>
@@ -23,6 +23,9 @@ package com.arhs.mojo.pack200.pack;
  * THE SOFTWARE.
  */
 
+import com.arhs.mojo.pack200.engine.Engine;
+import com.arhs.mojo.pack200.engine.RawCopyEngine;
+import com.arhs.mojo.pack200.packing.PackOptions;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Execute;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -30,6 +33,7 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
 import java.io.File;
+import java.io.IOException;
 
 /**
  * Goal for normalize the jar.
@@ -38,7 +42,7 @@ import java.io.File;
  * @version 1.0
  * @since 2014-11-17
  */
-@Mojo(name = "repack")
+@Mojo(name = "repack", threadSafe = true)
 @Execute(goal = "repack", phase = LifecyclePhase.PREPARE_PACKAGE)
 public class RepackMojo extends AbstractPackMojo {
 
@@ -50,22 +54,52 @@ public class RepackMojo extends AbstractPackMojo {
     @Parameter
     protected File outputFile;
 
+    /**
+     * Copies the compressed bytes of the resources which didn't change instead of compressing them again.
+     * <p>
+     * The default value is: <code>true</code>. The unpacker inflates and deflates all the entries again, so the
+     * entries are first repacked without compression, then only the classes and the changed entries are compressed,
+     * as the <code>deflateHint</code> parameter requires. The copy is disabled with the <code>nestedJars</code>
+     * parameter, since the nested JAR files would be repacked without compression as well.
+     * </p>
+     */
+    @Parameter(defaultValue = "true")
+    public boolean rawCopy;
+
     //</editor-fold>
 
     //<editor-fold desc="Methods section.">
 
-    //<editor-fold desc="Private methods section.">
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the <code>rawCopy</code> parameter is enabled, the engine copies the resources which didn't change.
+     * </p>
+     */
+    @Override
+    protected Engine createEngine() {
+        if (rawCopy && nestedJars) {
+            getLog().debug("The resources aren't copied, since the nested JAR files are repacked.");
+        }
+        return rawCopy && !nestedJars ? new RawCopyEngine(super.createEngine(), getLog()) : super.createEngine();
+    }
 
     /**
-     * Adds the argument: "--repack".
-     *
-     * @see AbstractPackMojo#command
+     * {@inheritDoc}
      */
-    private void addRepackArgument() {
-        addArgument("--repack");
+    @Override
+    protected String getOperation() {
+        return "repack";
     }
 
-    //</editor-fold>
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void execute(Engine engine, File inputFile, File outputFile, PackOptions packOptions)
+            throws IOException {
+        engine.repack(inputFile, outputFile, packOptions);
+    }
 
     /**
      * Perform whatever build-process behavior this Mojo implements.
@@ -74,7 +108,6 @@ public class RepackMojo extends AbstractPackMojo {
      *                                causes a <b>BUILD ERROR</b> message to be displayed.
      */
     public void execute() throws MojoExecutionException {
-        addRepackArgument();
         super.execute(outputFile);
     }
 
@@ -0,0 +1,534 @@
+package com.arhs.mojo.pack200.packing;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.compression.Codec;
+import com.arhs.mojo.pack200.fingerprint.Fingerprint;
+import com.arhs.mojo.pack200.packing.options.DeflateHint;
+import com.arhs.mojo.pack200.packing.options.ModificationTime;
+import com.arhs.mojo.pack200.packing.options.UnknownAttribute;
+import com.arhs.mojo.pack200.report.PerformanceReport;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packing options, independent of the engine used to pack the JAR file.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class PackOptions {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Compression codec of the packed file.
+     */
+    private Codec compression = Codec.GZIP;
+
+    /**
+     * Compression level of the packed file: <code>0</code> to use the default level.
+     */
+    private int compressionLevel;
+
+    /**
+     * Number of threads compressing the packed file: <code>0</code> to use the number of available processors.
+     */
+    private int compressionThreads;
+
+    /**
+     * Configuration file.
+     */
+    private File configFile;
+
+    /**
+     * Deflate hint.
+     */
+    private DeflateHint deflateHint;
+
+    /**
+     * Effort.
+     */
+    private String effort;
+
+    /**
+     * Options to the Java Virtual Machine.
+     */
+    private final List<String> jvmOptions = new ArrayList<>();
+
+    /**
+     * Preserve the order of files: {@code null} to use the default behavior of the packer.
+     */
+    private Boolean keepFileOrder;
+
+    /**
+     * Log output file.
+     */
+    private File logFile;
+
+    /**
+     * Modification time.
+     */
+    private ModificationTime modificationTime;
+
+    /**
+     * Names of the entries transmitted as they are, without being compressed by the packer.
+     */
+    private final List<String> passFiles = new ArrayList<>();
+
+    /**
+     * Quiet operation.
+     */
+    private boolean quiet;
+
+    /**
+     * Performance report filled by the engine, or {@code null}.
+     */
+    private PerformanceReport report;
+
+    /**
+     * Target segment size: <code>0</code> to use the default behavior of the packer.
+     */
+    private int segmentLimit;
+
+    /**
+     * Stores the incompressible parts of the packed file instead of compressing them.
+     */
+    private boolean storeIncompressible;
+
+    /**
+     * Strips attributes used for debugging.
+     */
+    private boolean stripDebug;
+
+    /**
+     * Modification time of the entries, in milliseconds since the epoch, which makes the packed file reproducible:
+     * {@code null} to keep the modification times of the JAR file.
+     */
+    private Long timestamp;
+
+    /**
+     * Unknown attribute action.
+     */
+    private UnknownAttribute unknownAttribute;
+
+    /**
+     * Verbose operation.
+     */
+    private boolean verbose;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Creates a copy of the options.
+     *
+     * @return Copy.
+     */
+    public PackOptions copy() {
+        final PackOptions copy = new PackOptions();
+        copy.compression = compression;
+        copy.compressionLevel = compressionLevel;
+        copy.compressionThreads = compressionThreads;
+        copy.configFile = configFile;
+        copy.deflateHint = deflateHint;
+        copy.effort = effort;
+        copy.jvmOptions.addAll(jvmOptions);
+        copy.keepFileOrder = keepFileOrder;
+        copy.logFile = logFile;
+        copy.modificationTime = modificationTime;
+        copy.passFiles.addAll(passFiles);
+        copy.quiet = quiet;
+        copy.report = report;
+        copy.segmentLimit = segmentLimit;
+        copy.storeIncompressible = storeIncompressible;
+        copy.stripDebug = stripDebug;
+        copy.timestamp = timestamp;
+        copy.unknownAttribute = unknownAttribute;
+        copy.verbose = verbose;
+        return copy;
+    }
+
+    /**
+     * Adds the options which have an effect on the packed file to a fingerprint.
+     * <p>
+     * The number of compression threads is included: the fork engine lets <code>pack200</code> compress the file
+     * with a single thread, which gives other bytes than the compression of the plugin.
+     * </p>
+     *
+     * @param fingerprint   Fingerprint.
+     * @return              Fingerprint.
+     * @throws IOException  If the configuration file couldn't be read.
+     */
+    public Fingerprint appendTo(Fingerprint fingerprint) throws IOException {
+        return fingerprint.addFile("configFile", configFile)
+                .add("compression", compression)
+                .add("compressionLevel", compressionLevel)
+                .add("compressionThreads", compressionThreads)
+                .add("deflateHint", deflateHint)
+                .add("effort", effort)
+                .add("keepFileOrder", keepFileOrder)
+                .add("modificationTime", modificationTime)
+                .add("passFiles", passFiles)
+                .add("segmentLimit", segmentLimit)
+                .add("storeIncompressible", storeIncompressible)
+                .add("stripDebug", stripDebug)
+                .add("timestamp", timestamp)
+                .add("unknownAttribute", unknownAttribute);
+    }
+
+    /**
+     * Gets the compression codec of the packed file.
+     *
+     * @return Codec, {@link Codec#NONE} if the packed file isn't compressed.
+     */
+    public Codec getCompression() {
+        return compression;
+    }
+
+    /**
+     * Sets the compression codec of the packed file.
+     *
+     * @param compression Codec.
+     */
+    public void setCompression(Codec compression) {
+        this.compression = compression;
+    }
+
+    /**
+     * Gets the compression level of the packed file.
+     *
+     * @return Compression level or <code>0</code> for the default level.
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Sets the compression level of the packed file.
+     *
+     * @param compressionLevel Compression level or <code>0</code> for the default level.
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Gets the number of threads compressing the packed file.
+     *
+     * @return Number of threads or <code>0</code> for the number of available processors.
+     */
+    public int getCompressionThreads() {
+        return compressionThreads;
+    }
+
+    /**
+     * Sets the number of threads compressing the packed file.
+     *
+     * @param compressionThreads Number of threads or <code>0</code> for the number of available processors.
+     */
+    public void setCompressionThreads(int compressionThreads) {
+        this.compressionThreads = compressionThreads;
+    }
+
+    /**
+     * Gets the configuration file.
+     *
+     * @return Configuration file or {@code null}.
+     */
+    public File getConfigFile() {
+        return configFile;
+    }
+
+    /**
+     * Sets the configuration file.
+     *
+     * @param configFile Configuration file.
+     */
+    public void setConfigFile(File configFile) {
+        this.configFile = configFile;
+    }
+
+    /**
+     * Gets the deflate hint.
+     *
+     * @return Deflate hint or {@code null}.
+     */
+    public DeflateHint getDeflateHint() {
+        return deflateHint;
+    }
+
+    /**
+     * Sets the deflate hint.
+     *
+     * @param deflateHint Deflate hint.
+     */
+    public void setDeflateHint(DeflateHint deflateHint) {
+        this.deflateHint = deflateHint;
+    }
+
+    /**
+     * Gets the effort.
+     *
+     * @return Effort or {@code null}.
+     */
+    public String getEffort() {
+        return effort;
+    }
+
+    /**
+     * Sets the effort.
+     *
+     * @param effort Effort.
+     */
+    public void setEffort(String effort) {
+        this.effort = effort;
+    }
+
+    /**
+     * Gets the options to the Java Virtual Machine.
+     *
+     * @return Options list, never {@code null}.
+     */
+    public List<String> getJvmOptions() {
+        return jvmOptions;
+    }
+
+    /**
+     * Gets the file order behavior.
+     *
+     * @return {@code true} to preserve the order, {@code false} to allow reordering, {@code null} for the default.
+     */
+    public Boolean getKeepFileOrder() {
+        return keepFileOrder;
+    }
+
+    /**
+     * Sets the file order behavior.
+     *
+     * @param keepFileOrder File order behavior.
+     */
+    public void setKeepFileOrder(Boolean keepFileOrder) {
+        this.keepFileOrder = keepFileOrder;
+    }
+
+    /**
+     * Gets the log output file.
+     *
+     * @return Log output file or {@code null}.
+     */
+    public File getLogFile() {
+        return logFile;
+    }
+
+    /**
+     * Sets the log output file.
+     *
+     * @param logFile Log output file.
+     */
+    public void setLogFile(File logFile) {
+        this.logFile = logFile;
+    }
+
+    /**
+     * Gets the modification time.
+     *
+     * @return Modification time or {@code null}.
+     */
+    public ModificationTime getModificationTime() {
+        return modificationTime;
+    }
+
+    /**
+     * Sets the modification time.
+     *
+     * @param modificationTime Modification time.
+     */
+    public void setModificationTime(ModificationTime modificationTime) {
+        this.modificationTime = modificationTime;
+    }
+
+    /**
+     * Gets the names of the entries transmitted as they are, without being compressed by the packer.
+     *
+     * @return Names list, never {@code null}.
+     */
+    public List<String> getPassFiles() {
+        return passFiles;
+    }
+
+    /**
+     * Checks if the operation is quiet.
+     *
+     * @return {@code true} if the operation is quiet.
+     */
+    public boolean isQuiet() {
+        return quiet;
+    }
+
+    /**
+     * Sets the quiet operation.
+     *
+     * @param quiet Quiet operation.
+     */
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    /**
+     * Gets the performance report filled by the engine.
+     *
+     * @return Performance report or {@code null}.
+     */
+    public PerformanceReport getReport() {
+        return report;
+    }
+
+    /**
+     * Sets the performance report filled by the engine.
+     *
+     * @param report Performance report or {@code null}.
+     */
+    public void setReport(PerformanceReport report) {
+        this.report = report;
+    }
+
+    /**
+     * Gets the target segment size.
+     *
+     * @return Segment size or <code>0</code>.
+     */
+    public int getSegmentLimit() {
+        return segmentLimit;
+    }
+
+    /**
+     * Sets the target segment size.
+     *
+     * @param segmentLimit Segment size.
+     */
+    public void setSegmentLimit(int segmentLimit) {
+        this.segmentLimit = segmentLimit;
+    }
+
+    /**
+     * Checks if the incompressible parts of the packed file are stored instead of compressed.
+     *
+     * @return {@code true} if the incompressible parts are stored.
+     */
+    public boolean isStoreIncompressible() {
+        return storeIncompressible;
+    }
+
+    /**
+     * Sets the storage of the incompressible parts of the packed file.
+     *
+     * @param storeIncompressible {@code true} to store the incompressible parts instead of compressing them.
+     */
+    public void setStoreIncompressible(boolean storeIncompressible) {
+        this.storeIncompressible = storeIncompressible;
+    }
+
+    /**
+     * Checks if the attributes used for debugging are stripped.
+     *
+     * @return {@code true} if the attributes are stripped.
+     */
+    public boolean isStripDebug() {
+        return stripDebug;
+    }
+
+    /**
+     * Sets the stripping of attributes used for debugging.
+     *
+     * @param stripDebug {@code true} to strip the attributes.
+     */
+    public void setStripDebug(boolean stripDebug) {
+        this.stripDebug = stripDebug;
+    }
+
+    /**
+     * Gets the modification time of the entries.
+     *
+     * @return Modification time, in milliseconds since the epoch, or {@code null} to keep the modification times of
+     *         the JAR file.
+     */
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Sets the modification time of the entries.
+     *
+     * @param timestamp Modification time, in milliseconds since the epoch, or {@code null} to keep the modification
+     *                  times of the JAR file.
+     */
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Gets the unknown attribute action.
+     *
+     * @return Unknown attribute action or {@code null}.
+     */
+    public UnknownAttribute getUnknownAttribute() {
+        return unknownAttribute;
+    }
+
+    /**
+     * Sets the unknown attribute action.
+     *
+     * @param unknownAttribute Unknown attribute action.
+     */
+    public void setUnknownAttribute(UnknownAttribute unknownAttribute) {
+        this.unknownAttribute = unknownAttribute;
+    }
+
+    /**
+     * Checks if the operation is verbose.
+     *
+     * @return {@code true} if the operation is verbose.
+     */
+    public boolean isVerbose() {
+        return verbose;
+    }
+
+    /**
+     * Sets the verbose operation.
+     *
+     * @param verbose Verbose operation.
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,213 @@
+package com.arhs.mojo.pack200.packing;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.fingerprint.Fingerprint;
+import com.arhs.mojo.pack200.packing.options.DeflateHint;
+import com.arhs.mojo.pack200.report.PerformanceReport;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unpacking options, independent of the engine used to unpack the file.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class UnpackOptions {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Deflate hint.
+     */
+    private DeflateHint deflateHint;
+
+    /**
+     * Options to the Java Virtual Machine.
+     */
+    private final List<String> jvmOptions = new ArrayList<>();
+
+    /**
+     * Log output file.
+     */
+    private File logFile;
+
+    /**
+     * Quiet operation.
+     */
+    private boolean quiet;
+
+    /**
+     * Removes the input file after unpacking.
+     */
+    private boolean removePackFile;
+
+    /**
+     * Performance report filled by the engine, or {@code null}.
+     */
+    private PerformanceReport report;
+
+    /**
+     * Verbose operation.
+     */
+    private boolean verbose;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Adds the options which have an effect on the unpacked file to a fingerprint.
+     *
+     * @param fingerprint   Fingerprint.
+     * @return              Fingerprint.
+     */
+    public Fingerprint appendTo(Fingerprint fingerprint) {
+        return fingerprint.add("deflateHint", deflateHint);
+    }
+
+    /**
+     * Gets the deflate hint.
+     *
+     * @return Deflate hint or {@code null}.
+     */
+    public DeflateHint getDeflateHint() {
+        return deflateHint;
+    }
+
+    /**
+     * Sets the deflate hint.
+     *
+     * @param deflateHint Deflate hint.
+     */
+    public void setDeflateHint(DeflateHint deflateHint) {
+        this.deflateHint = deflateHint;
+    }
+
+    /**
+     * Gets the options to the Java Virtual Machine.
+     *
+     * @return Options list, never {@code null}.
+     */
+    public List<String> getJvmOptions() {
+        return jvmOptions;
+    }
+
+    /**
+     * Gets the log output file.
+     *
+     * @return Log output file or {@code null}.
+     */
+    public File getLogFile() {
+        return logFile;
+    }
+
+    /**
+     * Sets the log output file.
+     *
+     * @param logFile Log output file.
+     */
+    public void setLogFile(File logFile) {
+        this.logFile = logFile;
+    }
+
+    /**
+     * Checks if the operation is quiet.
+     *
+     * @return {@code true} if the operation is quiet.
+     */
+    public boolean isQuiet() {
+        return quiet;
+    }
+
+    /**
+     * Sets the quiet operation.
+     *
+     * @param quiet Quiet operation.
+     */
+    public void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+
+    /**
+     * Checks if the input file is removed after unpacking.
+     *
+     * @return {@code true} if the input file is removed.
+     */
+    public boolean isRemovePackFile() {
+        return removePackFile;
+    }
+
+    /**
+     * Sets the removal of the input file after unpacking.
+     *
+     * @param removePackFile {@code true} to remove the input file.
+     */
+    public void setRemovePackFile(boolean removePackFile) {
+        this.removePackFile = removePackFile;
+    }
+
+    /**
+     * Gets the performance report filled by the engine.
+     *
+     * @return Performance report or {@code null}.
+     */
+    public PerformanceReport getReport() {
+        return report;
+    }
+
+    /**
+     * Sets the performance report filled by the engine.
+     *
+     * @param report Performance report or {@code null}.
+     */
+    public void setReport(PerformanceReport report) {
+        this.report = report;
+    }
+
+    /**
+     * Checks if the operation is verbose.
+     *
+     * @return {@code true} if the operation is verbose.
+     */
+    public boolean isVerbose() {
+        return verbose;
+    }
+
+    /**
+     * Sets the verbose operation.
+     *
+     * @param verbose Verbose operation.
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,717 @@
+package com.arhs.mojo.pack200.report;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Performance report of a goal execution: wall time of the phases, sizes of the files, number of entries and peak
+ * memory usage.
+ * <p>
+ * The report is filled concurrently by the mojo and the engines, which receive it with the options. The time of the
+ * {@link Phase#PACK} phase is the time of the operations, minus the times of the other phases measured inside them.
+ * When several files are packed concurrently, the times of the phases are summed over the threads.
+ * </p>
+ * <p>
+ * The peak heap usage is the largest used heap of the Java Virtual Machine sampled every
+ * {@value #SAMPLE_PERIOD} milliseconds while the report is open, so it includes the memory of the other executions
+ * running at the same time, such as the projects of a parallel build, and misses the peaks shorter than a period.
+ * The peaks recorded by the memory pools aren't used: they are global to the Java Virtual Machine and can't be reset
+ * for one execution without altering the others.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class PerformanceReport {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Extension of the class files.
+     */
+    private static final String CLASS_EXTENSION = ".class";
+
+    /**
+     * Reports whose peak heap usage is sampled.
+     */
+    private static final Set<PerformanceReport> SAMPLED_REPORTS = new HashSet<>();
+
+    /**
+     * Period of the sampling of the heap usage, in milliseconds.
+     */
+    private static final long SAMPLE_PERIOD = 20;
+
+    /**
+     * Time measured inside the timed calls of the current thread, which is excluded from the enclosing calls.
+     */
+    private static final ThreadLocal<long[]> NESTED_TIME = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[1];
+        }
+    };
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Number of files restored from the cache.
+     */
+    private final AtomicLong cached = new AtomicLong();
+
+    /**
+     * Number of classes of the JAR files.
+     */
+    private final AtomicLong classes = new AtomicLong();
+
+    /**
+     * Time of the creation of the report, in nanoseconds.
+     */
+    private final long creationTime = System.nanoTime();
+
+    /**
+     * Duration of the execution, in nanoseconds, or <code>-1</code> until the report is finished.
+     */
+    private volatile long duration = -1;
+
+    /**
+     * Version of the engine or {@code null}.
+     */
+    private volatile String engine;
+
+    /**
+     * Number of entries of the JAR files.
+     */
+    private final AtomicLong entries = new AtomicLong();
+
+    /**
+     * Number of processed files.
+     */
+    private final AtomicLong files = new AtomicLong();
+
+    /**
+     * Goal.
+     */
+    private final String goal;
+
+    /**
+     * Size of the input files, in bytes.
+     */
+    private final AtomicLong inputBytes = new AtomicLong();
+
+    /**
+     * Time of the operations performed by the engine, in nanoseconds.
+     */
+    private final AtomicLong operationTime = new AtomicLong();
+
+    /**
+     * Size of the output files, in bytes.
+     */
+    private final AtomicLong outputBytes = new AtomicLong();
+
+    /**
+     * Peak memory usage of the child processes, in bytes, or <code>-1</code> if unknown.
+     */
+    private final AtomicLong peakChildMemory = new AtomicLong(-1);
+
+    /**
+     * Peak heap usage of the current Java Virtual Machine during the execution, in bytes.
+     */
+    private final AtomicLong peakHeapMemory = new AtomicLong();
+
+    /**
+     * Time of the phases, in nanoseconds, indexed by the ordinal of the phase.
+     */
+    private final AtomicLongArray phaseTimes = new AtomicLongArray(Phase.values().length);
+
+    /**
+     * Identifier of the project or {@code null}.
+     */
+    private final String project;
+
+    /**
+     * Sampler of the heap usage, while a report is open, or {@code null}.
+     */
+    private static ScheduledExecutorService sampler;
+
+    /**
+     * Number of files which were up to date.
+     */
+    private final AtomicLong upToDate = new AtomicLong();
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     * <p>
+     * The peak heap usage is sampled from the start of the execution until it is finished, so an execution which
+     * starts the report must finish it, even if it fails.
+     * </p>
+     *
+     * @param goal      Goal.
+     * @param project   Identifier of the project or {@code null}.
+     * @see PerformanceReport#start()
+     */
+    public PerformanceReport(String goal, String project) {
+        this.goal = goal;
+        this.project = project;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Samples the heap usage into the open reports.
+     */
+    private static void sampleHeap() {
+        final long used = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        final List<PerformanceReport> reports;
+        synchronized (SAMPLED_REPORTS) {
+            reports = new ArrayList<>(SAMPLED_REPORTS);
+        }
+        for (PerformanceReport report : reports) {
+            report.recordHeapMemory(used);
+        }
+    }
+
+    /**
+     * Starts the sampling of the heap usage of a report, and the sampler if it isn't running.
+     *
+     * @param report Report.
+     */
+    private static void startSampling(PerformanceReport report) {
+        report.recordHeapMemory(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        synchronized (SAMPLED_REPORTS) {
+            SAMPLED_REPORTS.add(report);
+            if (sampler == null) {
+                sampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                    public Thread newThread(Runnable runnable) {
+                        final Thread thread = new Thread(runnable, "pack200-heap-sampler");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+                sampler.scheduleAtFixedRate(new Runnable() {
+                    public void run() {
+                        sampleHeap();
+                    }
+                }, SAMPLE_PERIOD, SAMPLE_PERIOD, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Stops the sampling of the heap usage of a report, and the sampler if no report is open.
+     *
+     * @param report Report.
+     */
+    private static void stopSampling(PerformanceReport report) {
+        synchronized (SAMPLED_REPORTS) {
+            if (SAMPLED_REPORTS.remove(report) && SAMPLED_REPORTS.isEmpty()) {
+                sampler.shutdownNow();
+                sampler = null;
+            }
+        }
+        report.recordHeapMemory(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    }
+
+    /**
+     * Records a sample of the heap usage.
+     *
+     * @param bytes Heap usage, in bytes.
+     */
+    private void recordHeapMemory(long bytes) {
+        long current;
+        do {
+            current = peakHeapMemory.get();
+        } while (bytes > current && !peakHeapMemory.compareAndSet(current, bytes));
+    }
+
+    /**
+     * Converts nanoseconds into milliseconds.
+     *
+     * @param nanos Nanoseconds.
+     * @return      Milliseconds.
+     */
+    private static long toMillis(long nanos) {
+        return nanos / 1000000;
+    }
+
+    //</editor-fold>
+
+    /**
+     * Counts the reports whose heap usage is sampled, which are the started executions not finished yet.
+     *
+     * @return Number of reports.
+     */
+    public static int countSampledReports() {
+        synchronized (SAMPLED_REPORTS) {
+            return SAMPLED_REPORTS.size();
+        }
+    }
+
+    /**
+     * Quotes a string in JSON.
+     *
+     * @param value String or {@code null}.
+     * @return      JSON string or <code>null</code>.
+     */
+    public static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        final StringBuilder builder = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /**
+     * Writes a JSON document atomically.
+     *
+     * @param file          File.
+     * @param json          JSON document.
+     * @throws IOException  If the file couldn't be written.
+     */
+    public static void writeJson(File file, String json) throws IOException {
+        final File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("The directory couldn't be created: " + directory);
+        }
+        final File temporaryFile = File.createTempFile(file.getName(), ".tmp", directory);
+        try {
+            try (Writer writer = new OutputStreamWriter(Files.newOutputStream(temporaryFile.toPath()),
+                    StandardCharsets.UTF_8)) {
+                writer.write(json);
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    /**
+     * Adds the time of a phase.
+     *
+     * @param phase Phase.
+     * @param nanos Time, in nanoseconds.
+     */
+    public void addTime(Phase phase, long nanos) {
+        phaseTimes.addAndGet(phase.ordinal(), Math.max(0, nanos));
+    }
+
+    /**
+     * Adds an input file.
+     *
+     * @param file Input file.
+     */
+    public void addInput(File file) {
+        inputBytes.addAndGet(file.length());
+    }
+
+    /**
+     * Adds an output file, which completes the processing of a file.
+     *
+     * @param file Output file.
+     */
+    public void addOutput(File file) {
+        files.incrementAndGet();
+        outputBytes.addAndGet(file.length());
+    }
+
+    /**
+     * Counts the entries and the classes of a JAR file.
+     *
+     * @param jarFile       JAR file.
+     * @throws IOException  If the JAR file couldn't be read.
+     */
+    public void countEntries(File jarFile) throws IOException {
+        if (!jarFile.isFile()) {
+            return;
+        }
+        // Only the central directory is read.
+        try (ZipFile zipFile = new ZipFile(jarFile)) {
+            final Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                final ZipEntry entry = zipEntries.nextElement();
+                if (!entry.isDirectory()) {
+                    entries.incrementAndGet();
+                    if (entry.getName().endsWith(CLASS_EXTENSION)) {
+                        classes.incrementAndGet();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a file restored from the cache.
+     */
+    public void addCached() {
+        cached.incrementAndGet();
+    }
+
+    /**
+     * Adds a file which was up to date.
+     */
+    public void addUpToDate() {
+        upToDate.incrementAndGet();
+    }
+
+    /**
+     * Begins a timed call, whose time excludes the time of the timed calls nested inside it.
+     *
+     * @return Token passed to {@link PerformanceReport#endTiming(Phase, long[])}.
+     */
+    long[] beginTiming() {
+        return new long[]{NESTED_TIME.get()[0], System.nanoTime()};
+    }
+
+    /**
+     * Ends a timed call and adds its time to a phase.
+     *
+     * @param phase Phase.
+     * @param token Token returned by {@link PerformanceReport#beginTiming()}.
+     */
+    void endTiming(Phase phase, long[] token) {
+        final long elapsed = System.nanoTime() - token[1];
+        final long[] nestedTime = NESTED_TIME.get();
+        addTime(phase, elapsed - (nestedTime[0] - token[0]));
+        nestedTime[0] = token[0] + elapsed;
+    }
+
+    /**
+     * Adds the time of an operation performed by the engine.
+     *
+     * @param nanos Time, in nanoseconds.
+     */
+    public void addOperationTime(long nanos) {
+        operationTime.addAndGet(nanos);
+    }
+
+    /**
+     * Ends the setup phase, which began with the creation of the report.
+     */
+    public void endSetup() {
+        addTime(Phase.SETUP, System.nanoTime() - creationTime);
+    }
+
+    /**
+     * Starts the execution: the heap usage is sampled until the execution is finished.
+     */
+    public void start() {
+        startSampling(this);
+    }
+
+    /**
+     * Ends the execution: the duration is measured and the sampling of the heap usage stops. An execution which is
+     * already finished is left as it is.
+     */
+    public void finish() {
+        stopSampling(this);
+        if (duration < 0) {
+            duration = System.nanoTime() - creationTime;
+        }
+    }
+
+    /**
+     * Records the peak memory usage of a child process.
+     *
+     * @param bytes Peak memory usage, in bytes.
+     */
+    public void recordChildMemory(long bytes) {
+        long current;
+        do {
+            current = peakChildMemory.get();
+        } while (bytes > current && !peakChildMemory.compareAndSet(current, bytes));
+    }
+
+    /**
+     * Gets the number of files restored from the cache.
+     *
+     * @return Number of files.
+     */
+    public long getCached() {
+        return cached.get();
+    }
+
+    /**
+     * Gets the number of classes of the JAR files.
+     *
+     * @return Number of classes.
+     */
+    public long getClasses() {
+        return classes.get();
+    }
+
+    /**
+     * Gets the duration of the execution.
+     *
+     * @return Duration, in milliseconds.
+     */
+    public long getDuration() {
+        return toMillis(duration >= 0 ? duration : System.nanoTime() - creationTime);
+    }
+
+    /**
+     * Gets the version of the engine.
+     *
+     * @return Version or {@code null}.
+     */
+    public String getEngine() {
+        return engine;
+    }
+
+    /**
+     * Sets the version of the engine.
+     *
+     * @param engine Version.
+     */
+    public void setEngine(String engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Gets the number of entries of the JAR files.
+     *
+     * @return Number of entries.
+     */
+    public long getEntries() {
+        return entries.get();
+    }
+
+    /**
+     * Gets the number of processed files.
+     *
+     * @return Number of files.
+     */
+    public long getFiles() {
+        return files.get();
+    }
+
+    /**
+     * Gets the goal.
+     *
+     * @return Goal.
+     */
+    public String getGoal() {
+        return goal;
+    }
+
+    /**
+     * Gets the size of the input files.
+     *
+     * @return Size, in bytes.
+     */
+    public long getInputBytes() {
+        return inputBytes.get();
+    }
+
+    /**
+     * Gets the size of the output files.
+     *
+     * @return Size, in bytes.
+     */
+    public long getOutputBytes() {
+        return outputBytes.get();
+    }
+
+    /**
+     * Gets the peak memory usage of the child processes.
+     *
+     * @return Peak memory usage, in bytes, or <code>-1</code> if unknown.
+     */
+    public long getPeakChildMemory() {
+        return peakChildMemory.get();
+    }
+
+    /**
+     * Gets the peak heap usage of the current Java Virtual Machine during the execution, as sampled.
+     *
+     * @return Peak heap usage, in bytes.
+     */
+    public long getPeakHeapMemory() {
+        return peakHeapMemory.get();
+    }
+
+    /**
+     * Gets the time of a phase.
+     *
+     * @param phase Phase.
+     * @return      Time, in milliseconds.
+     */
+    public long getPhaseTime(Phase phase) {
+        if (phase == Phase.PACK) {
+            return toMillis(Math.max(0, operationTime.get() - phaseTimes.get(Phase.COMPRESS.ordinal())
+                    - phaseTimes.get(Phase.WRITE.ordinal())));
+        }
+        return toMillis(phaseTimes.get(phase.ordinal()));
+    }
+
+    /**
+     * Gets the identifier of the project.
+     *
+     * @return Identifier or {@code null}.
+     */
+    public String getProject() {
+        return project;
+    }
+
+    /**
+     * Gets the ratio of the size of the output files to the size of the input files.
+     *
+     * @return Ratio or <code>0</code> without input.
+     */
+    public double getRatio() {
+        return inputBytes.get() > 0 ? (double) outputBytes.get() / inputBytes.get() : 0;
+    }
+
+    /**
+     * Gets the number of files which were up to date.
+     *
+     * @return Number of files.
+     */
+    public long getUpToDate() {
+        return upToDate.get();
+    }
+
+    /**
+     * Formats the report as a one-line summary.
+     *
+     * @return Summary.
+     */
+    public String toSummary() {
+        final StringBuilder builder = new StringBuilder(String.format(Locale.ROOT,
+                "%s: %d -> %d bytes (%.1f%%), %d entries, %d classes in %d ms (", goal, getInputBytes(),
+                getOutputBytes(), getRatio() * 100, getEntries(), getClasses(), getDuration()));
+        for (Phase phase : Phase.values()) {
+            builder.append(phase.name().toLowerCase(Locale.ROOT)).append(' ').append(getPhaseTime(phase))
+                    .append(phase.ordinal() < Phase.values().length - 1 ? ", " : ")");
+        }
+        builder.append(String.format(Locale.ROOT, ", sampled peak heap %d MB", getPeakHeapMemory() / (1024 * 1024)));
+        if (getPeakChildMemory() >= 0) {
+            builder.append(String.format(Locale.ROOT, ", peak child %d MB", getPeakChildMemory() / (1024 * 1024)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Formats the report as a JSON object.
+     *
+     * @param indent  Indentation of the object.
+     * @return        JSON object.
+     */
+    public String toJson(String indent) {
+        final String inner = indent + "  ";
+        final StringBuilder builder = new StringBuilder("{\n");
+        builder.append(inner).append("\"goal\": ").append(quote(goal)).append(",\n");
+        builder.append(inner).append("\"project\": ").append(quote(project)).append(",\n");
+        builder.append(inner).append("\"engine\": ").append(quote(engine)).append(",\n");
+        builder.append(inner).append("\"files\": ").append(getFiles()).append(",\n");
+        builder.append(inner).append("\"upToDate\": ").append(getUpToDate()).append(",\n");
+        builder.append(inner).append("\"cached\": ").append(getCached()).append(",\n");
+        builder.append(inner).append("\"durationMillis\": ").append(getDuration()).append(",\n");
+        builder.append(inner).append("\"phaseMillis\": {");
+        for (Phase phase : Phase.values()) {
+            builder.append(phase.ordinal() > 0 ? ", " : "").append(quote(phase.name().toLowerCase(Locale.ROOT)))
+                    .append(": ").append(getPhaseTime(phase));
+        }
+        builder.append("},\n");
+        builder.append(inner).append("\"inputBytes\": ").append(getInputBytes()).append(",\n");
+        builder.append(inner).append("\"outputBytes\": ").append(getOutputBytes()).append(",\n");
+        builder.append(inner).append("\"ratio\": ").append(String.format(Locale.ROOT, "%.4f", getRatio()))
+                .append(",\n");
+        builder.append(inner).append("\"entries\": ").append(getEntries()).append(",\n");
+        builder.append(inner).append("\"classes\": ").append(getClasses()).append(",\n");
+        builder.append(inner).append("\"peakHeapBytes\": ").append(getPeakHeapMemory()).append(",\n");
+        builder.append(inner).append("\"peakChildBytes\": ")
+                .append(getPeakChildMemory() >= 0 ? String.valueOf(getPeakChildMemory()) : "null").append('\n');
+        return builder.append(indent).append('}').toString();
+    }
+
+    /**
+     * Writes the report as a JSON file.
+     *
+     * @param file          JSON file.
+     * @throws IOException  If the file couldn't be written.
+     */
+    public void write(File file) throws IOException {
+        writeJson(file, toJson("") + "\n");
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,201 @@
+package com.arhs.mojo.pack200.report;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Sampler of the peak memory usage of a child process, read from <code>/proc/&lt;pid&gt;/status</code>.
+ * <p>
+ * The peak resident set size is only available on Linux. On the other systems, or if the identifier of the process
+ * can't be obtained, nothing is recorded.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class ProcessMemorySampler implements Runnable {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Interval between the samples, in milliseconds.
+     */
+    private static final long INTERVAL = 20;
+
+    /**
+     * Field of the status file containing the peak resident set size, in kilobytes.
+     */
+    private static final String PEAK_FIELD = "VmHWM:";
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Process.
+     */
+    private final Process process;
+
+    /**
+     * Performance report.
+     */
+    private final PerformanceReport report;
+
+    /**
+     * Status file of the process.
+     */
+    private final File statusFile;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param process       Process.
+     * @param statusFile    Status file of the process.
+     * @param report        Performance report.
+     */
+    private ProcessMemorySampler(Process process, File statusFile, PerformanceReport report) {
+        this.process = process;
+        this.statusFile = statusFile;
+        this.report = report;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Gets the identifier of a process.
+     *
+     * @param process   Process.
+     * @return          Identifier or <code>-1</code> if it can't be obtained.
+     */
+    private static long getPid(Process process) {
+        try {
+            // Java 9 and later.
+            return (Long) Process.class.getMethod("pid").invoke(process);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            try {
+                // Java 8 on Unix.
+                final Field field = process.getClass().getDeclaredField("pid");
+                field.setAccessible(true);
+                return field.getInt(process);
+            } catch (ReflectiveOperationException | RuntimeException ignored) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Reads the peak resident set size of the process.
+     *
+     * @return Peak resident set size, in bytes, or <code>-1</code> if it couldn't be read.
+     */
+    private long readPeakMemory() {
+        try {
+            for (String line : Files.readAllLines(statusFile.toPath(), StandardCharsets.US_ASCII)) {
+                if (line.startsWith(PEAK_FIELD)) {
+                    final String value = line.substring(PEAK_FIELD.length()).trim();
+                    return Long.parseLong(value.substring(0, value.indexOf(' '))) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The process has ended.
+        }
+        return -1;
+    }
+
+    //</editor-fold>
+
+    /**
+     * Starts sampling the peak memory usage of a process, if there is a performance report.
+     *
+     * @param process   Process.
+     * @param report    Performance report or {@code null}.
+     */
+    public static void start(Process process, PerformanceReport report) {
+        if (report == null) {
+            return;
+        }
+        final long pid = getPid(process);
+        final File statusFile = new File("/proc/" + pid + "/status");
+        if (pid >= 0 && statusFile.isFile()) {
+            final Thread thread = new Thread(new ProcessMemorySampler(process, statusFile, report),
+                    "pack200-memory-sampler-" + pid);
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Records the current peak memory usage of a long-lived process, if there is a performance report.
+     *
+     * @param process   Process.
+     * @param report    Performance report or {@code null}.
+     */
+    public static void record(Process process, PerformanceReport report) {
+        if (report == null) {
+            return;
+        }
+        final long pid = getPid(process);
+        final File statusFile = new File("/proc/" + pid + "/status");
+        if (pid >= 0 && statusFile.isFile()) {
+            final long peakMemory = new ProcessMemorySampler(process, statusFile, report).readPeakMemory();
+            if (peakMemory >= 0) {
+                report.recordChildMemory(peakMemory);
+            }
+        }
+    }
+
+    /**
+     * Samples the peak memory usage until the end of the process.
+     */
+    public void run() {
+        try {
+            while (process.isAlive()) {
+                final long peakMemory = readPeakMemory();
+                if (peakMemory >= 0) {
+                    report.recordChildMemory(peakMemory);
+                }
+                Thread.sleep(INTERVAL);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,190 @@
+package com.arhs.mojo.pack200.report;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Aggregate of the performance reports of the executions of a build, across the projects of the reactor.
+ * <p>
+ * The reports are kept in memory for the duration of the build, which is identified by its start time, so that a
+ * Java Virtual Machine running several builds starts a new aggregate for each one.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class ReactorReport {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Aggregate of the current build.
+     */
+    private static ReactorReport current;
+
+    /**
+     * Reports of the executions.
+     */
+    private final List<PerformanceReport> reports = new ArrayList<>();
+
+    /**
+     * Start time of the build.
+     */
+    private final Date startTime;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param startTime Start time of the build.
+     */
+    private ReactorReport(Date startTime) {
+        this.startTime = startTime;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Adds the report of an execution to the aggregate of a build.
+     *
+     * @param startTime Start time of the build.
+     * @param report    Report of the execution.
+     * @return          Aggregate of the build.
+     */
+    public static synchronized ReactorReport add(Date startTime, PerformanceReport report) {
+        if (current == null || !current.startTime.equals(startTime)) {
+            current = new ReactorReport(startTime);
+        }
+        current.add(report);
+        return current;
+    }
+
+    /**
+     * Adds the report of an execution.
+     *
+     * @param report Report of the execution.
+     */
+    private synchronized void add(PerformanceReport report) {
+        reports.add(report);
+    }
+
+    /**
+     * Formats the aggregate as a one-line summary.
+     *
+     * @return Summary.
+     */
+    public synchronized String toSummary() {
+        long inputBytes = 0;
+        long outputBytes = 0;
+        long entries = 0;
+        long duration = 0;
+        for (PerformanceReport report : reports) {
+            inputBytes += report.getInputBytes();
+            outputBytes += report.getOutputBytes();
+            entries += report.getEntries();
+            duration += report.getDuration();
+        }
+        return String.format(Locale.ROOT, "reactor: %d executions, %d -> %d bytes (%.1f%%), %d entries in %d ms",
+                reports.size(), inputBytes, outputBytes, inputBytes > 0 ? outputBytes * 100.0 / inputBytes : 0,
+                entries, duration);
+    }
+
+    /**
+     * Formats the aggregate as a JSON object, with the totals and the report of every execution.
+     *
+     * @return JSON object.
+     */
+    public synchronized String toJson() {
+        long inputBytes = 0;
+        long outputBytes = 0;
+        long entries = 0;
+        long classes = 0;
+        long duration = 0;
+        long peakHeapMemory = 0;
+        long peakChildMemory = -1;
+        final long[] phaseTimes = new long[Phase.values().length];
+        for (PerformanceReport report : reports) {
+            inputBytes += report.getInputBytes();
+            outputBytes += report.getOutputBytes();
+            entries += report.getEntries();
+            classes += report.getClasses();
+            duration += report.getDuration();
+            peakHeapMemory = Math.max(peakHeapMemory, report.getPeakHeapMemory());
+            peakChildMemory = Math.max(peakChildMemory, report.getPeakChildMemory());
+            for (Phase phase : Phase.values()) {
+                phaseTimes[phase.ordinal()] += report.getPhaseTime(phase);
+            }
+        }
+
+        final StringBuilder builder = new StringBuilder("{\n");
+        builder.append("  \"executions\": ").append(reports.size()).append(",\n");
+        builder.append("  \"durationMillis\": ").append(duration).append(",\n");
+        builder.append("  \"phaseMillis\": {");
+        for (Phase phase : Phase.values()) {
+            builder.append(phase.ordinal() > 0 ? ", " : "")
+                    .append(PerformanceReport.quote(phase.name().toLowerCase(Locale.ROOT)))
+                    .append(": ").append(phaseTimes[phase.ordinal()]);
+        }
+        builder.append("},\n");
+        builder.append("  \"inputBytes\": ").append(inputBytes).append(",\n");
+        builder.append("  \"outputBytes\": ").append(outputBytes).append(",\n");
+        builder.append("  \"ratio\": ").append(String.format(Locale.ROOT, "%.4f",
+                inputBytes > 0 ? (double) outputBytes / inputBytes : 0)).append(",\n");
+        builder.append("  \"entries\": ").append(entries).append(",\n");
+        builder.append("  \"classes\": ").append(classes).append(",\n");
+        builder.append("  \"peakHeapBytes\": ").append(peakHeapMemory).append(",\n");
+        builder.append("  \"peakChildBytes\": ")
+                .append(peakChildMemory >= 0 ? String.valueOf(peakChildMemory) : "null").append(",\n");
+        builder.append("  \"executionReports\": [");
+        for (int i = 0; i < reports.size(); i++) {
+            builder.append(i > 0 ? ", " : "").append(reports.get(i).toJson("  "));
+        }
+        return builder.append("]\n}\n").toString();
+    }
+
+    /**
+     * Writes the aggregate as a JSON file.
+     *
+     * @param file          JSON file.
+     * @throws IOException  If the file couldn't be written.
+     */
+    public void write(File file) throws IOException {
+        PerformanceReport.writeJson(file, toJson());
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,142 @@
+package com.arhs.mojo.pack200.report;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream adding the time spent in its calls to a phase of a performance report.
+ * <p>
+ * The time spent in the timed streams nested inside it is excluded, so that a compressing stream wrapping a timed
+ * file stream only reports the compression.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class TimedOutputStream extends FilterOutputStream {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Phase.
+     */
+    private final Phase phase;
+
+    /**
+     * Performance report.
+     */
+    private final PerformanceReport report;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param outputStream  Output stream.
+     * @param report        Performance report.
+     * @param phase         Phase.
+     */
+    private TimedOutputStream(OutputStream outputStream, PerformanceReport report, Phase phase) {
+        super(outputStream);
+        this.report = report;
+        this.phase = phase;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Wraps an output stream, if there is a performance report.
+     *
+     * @param outputStream  Output stream.
+     * @param report        Performance report or {@code null}.
+     * @param phase         Phase.
+     * @return              Timed output stream, or the output stream without report.
+     */
+    public static OutputStream wrap(OutputStream outputStream, PerformanceReport report, Phase phase) {
+        return report != null ? new TimedOutputStream(outputStream, report, phase) : outputStream;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(int b) throws IOException {
+        final long[] token = report.beginTiming();
+        try {
+            out.write(b);
+        } finally {
+            report.endTiming(phase, token);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        final long[] token = report.beginTiming();
+        try {
+            out.write(b, off, len);
+        } finally {
+            report.endTiming(phase, token);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() throws IOException {
+        final long[] token = report.beginTiming();
+        try {
+            out.flush();
+        } finally {
+            report.endTiming(phase, token);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        final long[] token = report.beginTiming();
+        try {
+            out.close();
+        } finally {
+            report.endTiming(phase, token);
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,276 @@
+package com.arhs.mojo.pack200.tuning;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.engine.Engine;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Searches the packing settings producing the smallest packed file, by packing a JAR file with every candidate
+ * settings concurrently.
+ * <p>
+ * The search is bounded by a time budget: the candidates which are evaluated when the budget is spent are kept,
+ * whatever their order, and the others are discarded. The packed files are only measured, then removed.
+ * </p>
+ * <p>
+ * The packer can't be interrupted, so the candidates still running when the budget is spent finish in the background,
+ * on daemon threads of the lowest priority, while the JAR file is packed. There are at most as many as the threads of
+ * the tuning; the candidates which didn't start yet never start.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class PackTuner {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Time budget, in milliseconds: <code>0</code> for no limit.
+     */
+    private final long budget;
+
+    /**
+     * Engine.
+     */
+    private final Engine engine;
+
+    /**
+     * Logger.
+     */
+    private final Log log;
+
+    /**
+     * Number of candidates evaluated at the same time.
+     */
+    private final int threads;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param engine    Engine.
+     * @param log       Logger.
+     * @param threads   Number of candidates evaluated at the same time: <code>0</code> to use the number of
+     *                  available processors.
+     * @param budget    Time budget, in milliseconds: <code>0</code> for no limit.
+     */
+    public PackTuner(Engine engine, Log log, int threads, long budget) {
+        this.engine = engine;
+        this.log = log;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.budget = budget;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Searches the settings producing the smallest packed file.
+     *
+     * @param inputFile     Input JAR file.
+     * @param directory     Directory of the temporary packed files.
+     * @param options       Packing options, to which the candidate settings are applied.
+     * @param candidates    Candidate settings, the cheapest first.
+     * @return              Best result or {@code null} if no candidate could be evaluated within the budget.
+     * @throws IOException  If the tuning was interrupted.
+     */
+    public TuningResult tune(File inputFile, File directory, PackOptions options, List<TuningSettings> candidates)
+            throws IOException {
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budget);
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, candidates.size()),
+                new ThreadFactory() {
+                    public Thread newThread(Runnable runnable) {
+                        // The running candidates aren't interruptible, so they mustn't keep the JVM alive.
+                        final Thread thread = new Thread(runnable, "pack200-tuning");
+                        thread.setDaemon(true);
+                        // The candidates running past the budget yield to the packing of the JAR file.
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        return thread;
+                    }
+                });
+
+        final List<Future<TuningResult>> futures = new ArrayList<>();
+        for (TuningSettings candidate : candidates) {
+            futures.add(executor.submit(new CandidateTask(inputFile, directory, options, candidate, deadline)));
+        }
+
+        TuningResult best = null;
+        int discarded = 0;
+        try {
+            for (Future<TuningResult> future : futures) {
+                final TuningResult result;
+                try {
+                    if (budget <= 0) {
+                        result = future.get();
+                    } else if (discarded == 0) {
+                        result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    } else if (future.isDone()) {
+                        // Once the budget is spent, the candidates which finished in time are still kept.
+                        result = future.get();
+                    } else {
+                        discarded++;
+                        continue;
+                    }
+                } catch (TimeoutException e) {
+                    discarded++;
+                    continue;
+                } catch (CancellationException e) {
+                    discarded++;
+                    continue;
+                } catch (ExecutionException e) {
+                    log.warn("A candidate couldn't be evaluated: " + e.getCause().getMessage());
+                    continue;
+                }
+                if (result == null) {
+                    discarded++;
+                    continue;
+                }
+
+                if (log.isDebugEnabled()) {
+                    log.debug(String.format("%s: %d bytes in %d ms", result.getSettings(), result.getLength(),
+                            result.getDuration()));
+                }
+                if (best == null || result.getLength() < best.getLength()) {
+                    best = result;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The tuning was interrupted.");
+        } finally {
+            executor.shutdownNow();
+        }
+        if (discarded > 0) {
+            log.warn(String.format("The tuning budget is spent, %d of %d candidates are discarded.", discarded,
+                    candidates.size()));
+        }
+        return best;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Inner classes section.">
+
+    /**
+     * Operation packing a JAR file with candidate settings.
+     */
+    private final class CandidateTask implements Callable<TuningResult> {
+
+        /**
+         * Candidate settings.
+         */
+        private final TuningSettings candidate;
+
+        /**
+         * Deadline of the tuning, as a {@link System#nanoTime()} value.
+         */
+        private final long deadline;
+
+        /**
+         * Directory of the temporary packed file.
+         */
+        private final File directory;
+
+        /**
+         * Input JAR file.
+         */
+        private final File inputFile;
+
+        /**
+         * Packing options.
+         */
+        private final PackOptions options;
+
+        /**
+         * Constructor.
+         *
+         * @param inputFile Input JAR file.
+         * @param directory Directory of the temporary packed file.
+         * @param options   Packing options.
+         * @param candidate Candidate settings.
+         * @param deadline  Deadline of the tuning, as a {@link System#nanoTime()} value.
+         */
+        private CandidateTask(File inputFile, File directory, PackOptions options, TuningSettings candidate,
+                              long deadline) {
+            this.inputFile = inputFile;
+            this.directory = directory;
+            this.options = options;
+            this.candidate = candidate;
+            this.deadline = deadline;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @return Result or {@code null} if the budget was spent before the candidate started.
+         */
+        public TuningResult call() throws IOException {
+            if (budget > 0 && System.nanoTime() - deadline >= 0) {
+                return null;
+            }
+
+            final PackOptions candidateOptions = options.copy();
+            candidate.applyTo(candidateOptions);
+            // The candidates already use every thread, and the size doesn't depend on the compression threads.
+            candidateOptions.setCompressionThreads(1);
+            candidateOptions.setLogFile(null);
+
+            final File outputFile = File.createTempFile("tuning", ".pack", directory);
+            try {
+                final long start = System.nanoTime();
+                engine.pack(inputFile, outputFile, candidateOptions);
+                return new TuningResult(candidate, outputFile.length(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } finally {
+                Files.deleteIfExists(outputFile.toPath());
+            }
+        }
+    }
+
+    //</editor-fold>
+
+}
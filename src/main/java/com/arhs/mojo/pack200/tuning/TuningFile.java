@@ -0,0 +1,253 @@
+package com.arhs.mojo.pack200.tuning;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.packing.options.DeflateHint;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.zip.ZipFile;
+
+/**
+ * File persisting the settings found by the tuning of JAR files, so that later builds reuse them until the JAR file
+ * or the options change substantially.
+ * <p>
+ * The properties of a JAR file are prefixed by its name, so that the JAR files of the executions sharing the file
+ * keep their own settings.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class TuningFile {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Property of the deflate hint.
+     */
+    private static final String DEFLATE_HINT_PROPERTY = "deflateHint";
+
+    /**
+     * Property of the effort.
+     */
+    private static final String EFFORT_PROPERTY = "effort";
+
+    /**
+     * Property of the number of entries of the JAR file.
+     */
+    private static final String JAR_ENTRIES_PROPERTY = "jarEntries";
+
+    /**
+     * Property of the size of the JAR file.
+     */
+    private static final String JAR_LENGTH_PROPERTY = "jarLength";
+
+    /**
+     * Property of the file order.
+     */
+    private static final String KEEP_FILE_ORDER_PROPERTY = "keepFileOrder";
+
+    /**
+     * Property of the fingerprint of the options.
+     */
+    private static final String OPTIONS_PROPERTY = "options";
+
+    /**
+     * Property of the size of the packed file.
+     */
+    private static final String PACKED_LENGTH_PROPERTY = "packedLength";
+
+    /**
+     * Property of the segment limit.
+     */
+    private static final String SEGMENT_LIMIT_PROPERTY = "segmentLimit";
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * File.
+     */
+    private final File file;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param file File.
+     */
+    public TuningFile(File file) {
+        this.file = file;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Counts the entries of a JAR file.
+     *
+     * @param jarFile       JAR file.
+     * @return              Number of entries.
+     * @throws IOException  If the JAR file couldn't be read.
+     */
+    private static int countEntries(File jarFile) throws IOException {
+        try (ZipFile zipFile = new ZipFile(jarFile)) {
+            return zipFile.size();
+        }
+    }
+
+    /**
+     * Gets the key of a property of a JAR file.
+     *
+     * @param jarFile   JAR file.
+     * @param property  Property.
+     * @return          Key, such as <code>my-applet.jar.effort</code>.
+     */
+    private static String getKey(File jarFile, String property) {
+        return jarFile.getName() + '.' + property;
+    }
+
+    /**
+     * Checks if a value changed by more than a percentage.
+     *
+     * @param previous  Previous value.
+     * @param current   Current value.
+     * @param threshold Percentage.
+     * @return          {@code true} if the value changed by more than the percentage.
+     */
+    private static boolean hasChanged(long previous, long current, int threshold) {
+        return Math.abs(current - previous) * 100 > (long) threshold * previous;
+    }
+
+    //</editor-fold>
+
+    /**
+     * Loads the settings of a JAR file.
+     *
+     * @param jarFile               JAR file.
+     * @param optionsFingerprint    Fingerprint of the options the settings apply to.
+     * @param threshold             Percentage of change of the size or of the number of entries of the JAR file
+     *                              above which the settings are obsolete.
+     * @return                      Settings or {@code null} if there are no settings or they are obsolete.
+     * @throws IOException          If the file or the JAR file couldn't be read.
+     */
+    public TuningSettings load(File jarFile, String optionsFingerprint, int threshold) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        final Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            properties.load(inputStream);
+        }
+        if (!optionsFingerprint.equals(properties.getProperty(getKey(jarFile, OPTIONS_PROPERTY)))) {
+            return null;
+        }
+
+        try {
+            if (hasChanged(Long.parseLong(properties.getProperty(getKey(jarFile, JAR_LENGTH_PROPERTY))),
+                    jarFile.length(), threshold)
+                    || hasChanged(Long.parseLong(properties.getProperty(getKey(jarFile, JAR_ENTRIES_PROPERTY))),
+                    countEntries(jarFile), threshold)) {
+                return null;
+            }
+
+            final String deflateHint = properties.getProperty(getKey(jarFile, DEFLATE_HINT_PROPERTY));
+            final String keepFileOrder = properties.getProperty(getKey(jarFile, KEEP_FILE_ORDER_PROPERTY));
+            return new TuningSettings(properties.getProperty(getKey(jarFile, EFFORT_PROPERTY)),
+                    Integer.parseInt(properties.getProperty(getKey(jarFile, SEGMENT_LIMIT_PROPERTY))),
+                    keepFileOrder != null ? Boolean.valueOf(keepFileOrder) : null,
+                    deflateHint != null ? DeflateHint.valueOf(deflateHint) : null);
+        } catch (IllegalArgumentException e) {
+            // An invalid file is ignored, the tuning runs again and replaces it.
+            return null;
+        }
+    }
+
+    /**
+     * Stores the settings of a JAR file.
+     *
+     * @param jarFile               JAR file.
+     * @param optionsFingerprint    Fingerprint of the options the settings apply to.
+     * @param result                Result of the tuning.
+     * @throws IOException          If the file couldn't be written or the JAR file couldn't be read.
+     */
+    public void store(File jarFile, String optionsFingerprint, TuningResult result) throws IOException {
+        // The settings of the other JAR files are kept.
+        final Properties properties = new Properties();
+        if (file.isFile()) {
+            try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+                properties.load(inputStream);
+            }
+        }
+        properties.remove(getKey(jarFile, DEFLATE_HINT_PROPERTY));
+        properties.remove(getKey(jarFile, KEEP_FILE_ORDER_PROPERTY));
+
+        final TuningSettings settings = result.getSettings();
+        properties.setProperty(getKey(jarFile, OPTIONS_PROPERTY), optionsFingerprint);
+        properties.setProperty(getKey(jarFile, JAR_LENGTH_PROPERTY), String.valueOf(jarFile.length()));
+        properties.setProperty(getKey(jarFile, JAR_ENTRIES_PROPERTY), String.valueOf(countEntries(jarFile)));
+        properties.setProperty(getKey(jarFile, PACKED_LENGTH_PROPERTY), String.valueOf(result.getLength()));
+        properties.setProperty(getKey(jarFile, EFFORT_PROPERTY), settings.getEffort());
+        properties.setProperty(getKey(jarFile, SEGMENT_LIMIT_PROPERTY), String.valueOf(settings.getSegmentLimit()));
+        if (settings.getKeepFileOrder() != null) {
+            properties.setProperty(getKey(jarFile, KEEP_FILE_ORDER_PROPERTY), settings.getKeepFileOrder().toString());
+        }
+        if (settings.getDeflateHint() != null) {
+            properties.setProperty(getKey(jarFile, DEFLATE_HINT_PROPERTY), settings.getDeflateHint().name());
+        }
+
+        final File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("The directory couldn't be created: " + directory);
+        }
+        final File temporaryFile = File.createTempFile(file.getName(), ".tmp", directory);
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(temporaryFile.toPath())) {
+                properties.store(outputStream, "Packing settings found by the pack200 tuning");
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile.toPath());
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,102 @@
+package com.arhs.mojo.pack200.tuning;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+/**
+ * Result of the evaluation of candidate settings.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class TuningResult {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Duration, in milliseconds.
+     */
+    private final long duration;
+
+    /**
+     * Size of the packed file, in bytes.
+     */
+    private final long length;
+
+    /**
+     * Settings.
+     */
+    private final TuningSettings settings;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param settings  Settings.
+     * @param length    Size of the packed file, in bytes.
+     * @param duration  Duration, in milliseconds.
+     */
+    public TuningResult(TuningSettings settings, long length, long duration) {
+        this.settings = settings;
+        this.length = length;
+        this.duration = duration;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Gets the duration of the packing.
+     *
+     * @return Duration, in milliseconds.
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Gets the size of the packed file.
+     *
+     * @return Size, in bytes.
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Gets the settings.
+     *
+     * @return Settings.
+     */
+    public TuningSettings getSettings() {
+        return settings;
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,217 @@
+package com.arhs.mojo.pack200.tuning;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.analysis.JarAnalysis;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.options.DeflateHint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Packing settings searched by the tuning: effort, segment limit, file order and deflate hint.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class TuningSettings {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Efforts tried when the effort isn't configured, the cheapest first.
+     */
+    private static final List<String> EFFORTS = Arrays.asList("5", "7", "9");
+
+    /**
+     * Segment limits tried when the segment limit isn't configured: the default limit and a single segment.
+     */
+    private static final List<Integer> SEGMENT_LIMITS = Arrays.asList(1000000, -1);
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Deflate hint or {@code null} to keep the one of the options.
+     */
+    private final DeflateHint deflateHint;
+
+    /**
+     * Effort.
+     */
+    private final String effort;
+
+    /**
+     * Keeps the order of the files.
+     */
+    private final Boolean keepFileOrder;
+
+    /**
+     * Segment limit.
+     */
+    private final int segmentLimit;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param effort        Effort.
+     * @param segmentLimit  Segment limit.
+     * @param keepFileOrder Keeps the order of the files.
+     * @param deflateHint   Deflate hint or {@code null} to keep the one of the options.
+     */
+    public TuningSettings(String effort, int segmentLimit, Boolean keepFileOrder, DeflateHint deflateHint) {
+        this.effort = effort;
+        this.segmentLimit = segmentLimit;
+        this.keepFileOrder = keepFileOrder;
+        this.deflateHint = deflateHint;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Creates the candidate settings for packing options.
+     * <p>
+     * The settings configured in the options are kept, the other ones are searched. The deflate hint is searched
+     * between the one of the JAR file, <code>true</code> and <code>false</code>, the latter storing the entries of the
+     * unpacked JAR file without compression; a configured deflate hint keeps the entries deflated. The candidates are
+     * sorted by effort, so that the cheapest ones are evaluated first.
+     * </p>
+     * <p>
+     * The analysis of the JAR file discards the candidates which can't produce a smaller packed file than another
+     * one: a single segment if the JAR file fits in the default segment, and the deflate hint of the JAR file if every
+     * entry is deflated or stored, since the deflate hint <code>true</code> or <code>false</code> unpacks the same
+     * entries without a hint per entry.
+     * </p>
+     *
+     * @param options   Packing options.
+     * @param analysis  Analysis of the JAR file or {@code null}.
+     * @return          Candidate settings, the first one being the default settings.
+     */
+    public static List<TuningSettings> candidates(PackOptions options, JarAnalysis analysis) {
+        final List<String> efforts = options.getEffort() != null && !options.getEffort().isEmpty()
+                ? Collections.singletonList(options.getEffort()) : EFFORTS;
+        List<Integer> segmentLimits = options.getSegmentLimit() != 0
+                ? Collections.singletonList(options.getSegmentLimit()) : SEGMENT_LIMITS;
+        final List<Boolean> keepFileOrders = options.getKeepFileOrder() != null
+                ? Collections.singletonList(options.getKeepFileOrder()) : Arrays.asList(Boolean.TRUE, Boolean.FALSE);
+        List<DeflateHint> deflateHints = options.getDeflateHint() != null
+                ? Collections.singletonList(options.getDeflateHint())
+                : Arrays.asList(null, DeflateHint.TRUE, DeflateHint.FALSE);
+        if (analysis != null) {
+            // The packer adds the names and the headers of the entries to their sizes, hence the margin.
+            if (segmentLimits.size() > 1 && analysis.getSize() < SEGMENT_LIMITS.get(0) / 2) {
+                segmentLimits = segmentLimits.subList(0, 1);
+            }
+            if (deflateHints.size() > 1 && (analysis.getDeflatedEntries() == analysis.getEntries()
+                    || analysis.getDeflatedEntries() == 0)) {
+                deflateHints = Arrays.asList(DeflateHint.TRUE, DeflateHint.FALSE);
+            }
+        }
+
+        final List<TuningSettings> candidates = new ArrayList<>();
+        for (String effort : efforts) {
+            for (int segmentLimit : segmentLimits) {
+                for (Boolean keepFileOrder : keepFileOrders) {
+                    for (DeflateHint deflateHint : deflateHints) {
+                        candidates.add(new TuningSettings(effort, segmentLimit, keepFileOrder, deflateHint));
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Applies the settings to packing options.
+     *
+     * @param options Packing options.
+     */
+    public void applyTo(PackOptions options) {
+        options.setEffort(effort);
+        options.setSegmentLimit(segmentLimit);
+        options.setKeepFileOrder(keepFileOrder);
+        if (deflateHint != null) {
+            options.setDeflateHint(deflateHint);
+        }
+    }
+
+    /**
+     * Gets the deflate hint.
+     *
+     * @return Deflate hint or {@code null} to keep the one of the options.
+     */
+    public DeflateHint getDeflateHint() {
+        return deflateHint;
+    }
+
+    /**
+     * Gets the effort.
+     *
+     * @return Effort.
+     */
+    public String getEffort() {
+        return effort;
+    }
+
+    /**
+     * Gets if the order of the files is kept.
+     *
+     * @return {@code true} if the order of the files is kept.
+     */
+    public Boolean getKeepFileOrder() {
+        return keepFileOrder;
+    }
+
+    /**
+     * Gets the segment limit.
+     *
+     * @return Segment limit.
+     */
+    public int getSegmentLimit() {
+        return segmentLimit;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return String.format("effort=%s, segmentLimit=%d, keepFileOrder=%s, deflateHint=%s", effort, segmentLimit,
+                keepFileOrder, deflateHint != null ? deflateHint : "default");
+    }
+
+    //</editor-fold>
+
+}
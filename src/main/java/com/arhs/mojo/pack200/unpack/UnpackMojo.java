@@ -24,8 +24,13 @@ package com.arhs.mojo.pack200.unpack;
  */
 
 import com.arhs.mojo.pack200.AbstractPluginMojo;
-import com.arhs.mojo.pack200.pack.AbstractPackMojo;
+import com.arhs.mojo.pack200.engine.Engine;
+import com.arhs.mojo.pack200.engine.NestedJarEngine;
+import com.arhs.mojo.pack200.fingerprint.Fingerprint;
+import com.arhs.mojo.pack200.fingerprint.UpToDateCheck;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
 import com.arhs.mojo.pack200.packing.options.DeflateHint;
+import com.arhs.mojo.pack200.report.PerformanceReport;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Execute;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -33,6 +38,8 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -42,7 +49,7 @@ import java.util.List;
  * @version 1.0
  * @since 2014-11-20
  */
-@Mojo(name = "unpack")
+@Mojo(name = "unpack", threadSafe = true)
 @Execute(goal = "unpack", phase = LifecyclePhase.VERIFY)
 public class UnpackMojo extends AbstractPluginMojo {
 
@@ -72,6 +79,18 @@ public class UnpackMojo extends AbstractPluginMojo {
     @Parameter
     public File logFile;
 
+    /**
+     * Number of nested JAR files unpacked at the same time, if the file was packed with the <code>nestedJars</code>
+     * parameter.
+     * <p>
+     * The default value is: <code>0</code>, which uses the number of available processors. The in-process unpacker
+     * unpacks one file at a time, so the nested JAR files are only unpacked concurrently by the <code>FORK</code>
+     * and <code>WORKER</code> engines.
+     * </p>
+     */
+    @Parameter(defaultValue = "0")
+    public int nestedJarThreads;
+
     /**
      * Options to the Java Virtual Machine.
      */
@@ -120,111 +139,46 @@ public class UnpackMojo extends AbstractPluginMojo {
 
     //</editor-fold>
 
-    //<editor-fold desc="Constructors section.">
-
-    /**
-     * Constructor.
-     */
-    protected UnpackMojo() {
-        super("unpack200");
-    }
-
-    //</editor-fold>
-
     //<editor-fold desc="Methods section.">
 
-    //<editor-fold desc="Private methods section.">
-
     /**
-     * Adds a "deflate-hint" argument.
-     *
-     * @see AbstractPackMojo#deflateHint
+     * {@inheritDoc}
      */
-    private void addDeflateHint() {
-        if (deflateHint != null) {
-            addArgument("--deflate-hint", deflateHint.name().toLowerCase());
-        }
+    @Override
+    protected List<String> getJvmOptions() {
+        return options != null ? options : Collections.<String>emptyList();
     }
 
     /**
-     * Adds a JAR file argument.
-     *
-     * @see AbstractPackMojo#target
-     * @see AbstractPackMojo#inputFile
-     */
-    private void addJarFile() {
-        File jarFile = new File(target, inputFile);
-        addArgument(jarFile.getAbsolutePath());
-    }
-
-    /**
-     * Adds the log output file if this exists.
-     *
-     * @see AbstractPackMojo#logFile
-     */
-    private void addLogFileArgument() {
-        if (logFile != null) {
-            addArgument("--log-file", logFile.toString());
-        }
-    }
-
-    /**
-     * Adds a "options" argument.
-     *
-     * @see AbstractPackMojo#options
-     */
-    private void addOptions() {
-        if ((options != null) && (options.size() > 0)) {
-            for (String option : options) {
-                addArgument("-J", option);
-            }
-        }
-    }
-
-    /**
-     * Adds the output file if this exists.
-     */
-    private void addOutputFileArgument() {
-        if (outputFile != null) {
-            addArgument(outputFile.toString());
-        }
-    }
-
-    /**
-     * Adds a "quiet" argument.
-     *
-     * @see AbstractPackMojo#quiet
+     * {@inheritDoc}
+     * <p>
+     * The engine unpacks the nested JAR files packed by the <code>nestedJars</code> parameter.
+     * </p>
      */
-    private void addQuietArgument() {
-        if (quiet && !verbose) {
-            addArgument("--quiet");
-        }
+    @Override
+    protected Engine createEngine() {
+        return new NestedJarEngine(super.createEngine(), getLog(), nestedJarThreads);
     }
 
     /**
-     * Adds a "remove-pack-file" argument.
+     * Creates the unpacking options from the parameters.
      *
-     * @see UnpackMojo#removePackFile
-     */
-    private void addRemovePackFile() {
-        if (removePackFile) {
-            addArgument("--remove-pack-file");
+     * @return Unpacking options.
+     */
+    protected UnpackOptions createUnpackOptions() {
+        final UnpackOptions unpackOptions = new UnpackOptions();
+        unpackOptions.setDeflateHint(deflateHint);
+        unpackOptions.setLogFile(logFile);
+        if (options != null) {
+            unpackOptions.getJvmOptions().addAll(options);
         }
-    }
+        unpackOptions.setQuiet(quiet);
+        unpackOptions.setRemovePackFile(removePackFile);
+        unpackOptions.setVerbose(verbose);
 
-    /**
-     * Adds a "verbose" argument.
-     *
-     * @see AbstractPackMojo#verbose
-     */
-    private void addVerboseArgument() {
-        if (verbose && !quiet) {
-            addArgument("--verbose");
-        }
+        return unpackOptions;
     }
 
-    //</editor-fold>
-
     /**
      * Perform whatever build-process behavior this Mojo implements.
      *
@@ -232,22 +186,53 @@ public class UnpackMojo extends AbstractPluginMojo {
      *                                causes a <b>BUILD ERROR</b> message to be displayed.
      */
     public void execute() throws MojoExecutionException {
-        // Options.
-        addDeflateHint();
-        addRemovePackFile();
-        addVerboseArgument();
-        addQuietArgument();
-        addLogFileArgument();
-        addOptions();
-
-        // Input JAR file.
-        addJarFile();
-
-        // Output JAR file.
-        addOutputFileArgument();
-
-        // Execute command.
-        super.execute();
+        final File jarFile = new File(target, inputFile);
+        final PerformanceReport performanceReport = createReport("unpack");
+        final UnpackOptions unpackOptions = createUnpackOptions();
+        unpackOptions.setReport(performanceReport);
+        try {
+            if (performanceReport != null) {
+                performanceReport.start();
+                performanceReport.addInput(jarFile);
+            }
+
+            final UpToDateCheck upToDateCheck = createUpToDateCheck("unpack", jarFile, outputFile,
+                    unpackOptions.appendTo(new Fingerprint()));
+            if (upToDateCheck != null && upToDateCheck.isUpToDate()) {
+                getLog().info("The file is up to date: " + outputFile);
+                if (performanceReport != null) {
+                    performanceReport.endSetup();
+                    performanceReport.addUpToDate();
+                }
+            } else {
+                final Engine engine = createEngine();
+                if (performanceReport != null) {
+                    performanceReport.setEngine(engine.getVersion());
+                    performanceReport.endSetup();
+                }
+                final long start = System.nanoTime();
+                engine.unpack(jarFile, outputFile, unpackOptions);
+                if (performanceReport != null) {
+                    performanceReport.addOperationTime(System.nanoTime() - start);
+                }
+
+                if (upToDateCheck != null) {
+                    upToDateCheck.record();
+                }
+            }
+
+            if (performanceReport != null) {
+                performanceReport.addOutput(outputFile);
+                performanceReport.countEntries(outputFile);
+                publishReport(performanceReport, "unpack-" + outputFile.getName());
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Command is failed.", e);
+        } finally {
+            if (performanceReport != null) {
+                performanceReport.finish();
+            }
+        }
     }
 
     //</editor-fold>
@@ -0,0 +1,129 @@
+package com.arhs.mojo.pack200.verify;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+/**
+ * Difference between an entry of a JAR file and the same entry after a pack and unpack round trip.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class EntryDifference {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Description of the difference.
+     */
+    private final String description;
+
+    /**
+     * Name of the entry.
+     */
+    private final String name;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param name          Name of the entry.
+     * @param description   Description of the difference.
+     */
+    private EntryDifference(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Creates the difference of an entry which only exists after the round trip.
+     *
+     * @param name  Name of the entry.
+     * @param size  Size of the entry after the round trip, in bytes.
+     * @return      Difference.
+     */
+    public static EntryDifference added(String name, long size) {
+        return new EntryDifference(name, String.format("added by the round trip (%d bytes)", size));
+    }
+
+    /**
+     * Creates the difference of an entry whose content changed.
+     *
+     * @param name          Name of the entry.
+     * @param expectedSize  Size of the entry in the JAR file, in bytes.
+     * @param actualSize    Size of the entry after the round trip, in bytes.
+     * @param offset        Offset of the first different byte.
+     * @return              Difference.
+     */
+    public static EntryDifference changed(String name, long expectedSize, long actualSize, long offset) {
+        return new EntryDifference(name, String.format("content differs from byte %d (%d bytes, %d bytes after the "
+                + "round trip)", offset, expectedSize, actualSize));
+    }
+
+    /**
+     * Creates the difference of an entry which is missing after the round trip.
+     *
+     * @param name  Name of the entry.
+     * @return      Difference.
+     */
+    public static EntryDifference missing(String name) {
+        return new EntryDifference(name, "missing after the round trip");
+    }
+
+    /**
+     * Gets the description of the difference.
+     *
+     * @return Description.
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Gets the name of the entry.
+     *
+     * @return Name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return name + ": " + description;
+    }
+
+    //</editor-fold>
+
+}
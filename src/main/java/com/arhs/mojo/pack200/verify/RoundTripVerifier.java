@@ -0,0 +1,385 @@
+package com.arhs.mojo.pack200.verify;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.engine.InProcessEngine;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Verifies that packing and unpacking a JAR file reproduces its entries.
+ * <p>
+ * The JAR file is packed and unpacked by the in-process engine, through pipes rather than intermediate files, and
+ * the unpacked entries are read as they are produced. The unpacker only starts once the packed stream is complete, so
+ * that the unpackers of the other executions don't wait for the packer. The entries of the JAR file and the unpacked
+ * entries are hashed concurrently, and the content of an entry is only compared byte per byte if the hashes differ.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class RoundTripVerifier {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Digest algorithm of the entries.
+     */
+    private static final String ALGORITHM = "SHA-256";
+
+    /**
+     * Size of the buffers of the pipes, in bytes.
+     */
+    private static final int PIPE_SIZE = 1024 * 1024;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Engine.
+     */
+    private final InProcessEngine engine;
+
+    /**
+     * Number of threads hashing the entries.
+     */
+    private final int threads;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param engine    Engine.
+     * @param threads   Number of threads hashing the entries, <code>0</code> for the number of available processors.
+     */
+    public RoundTripVerifier(InProcessEngine engine, int threads) {
+        this.engine = engine;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Creates an executor whose threads don't keep the Java Virtual Machine alive.
+     *
+     * @param threadCount   Number of threads.
+     * @param name          Name of the threads.
+     * @return              Executor.
+     */
+    private static ExecutorService createExecutor(int threadCount, final String name) {
+        return Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                final Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Computes the digest of a content.
+     *
+     * @param content   Content.
+     * @return          Digest.
+     */
+    private static byte[] digest(byte[] content) {
+        try {
+            return MessageDigest.getInstance(ALGORITHM).digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The digest algorithm isn't available: " + ALGORITHM, e);
+        }
+    }
+
+    /**
+     * Gets the result of a task, rethrowing its failure.
+     *
+     * @param future        Task.
+     * @param <T>           Type of the result.
+     * @return              Result.
+     * @throws IOException  If the task failed or was interrupted.
+     */
+    private static <T> T get(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The verification was interrupted.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("The verification failed.", e.getCause());
+        }
+    }
+
+    /**
+     * Gets the offset of the first different byte of two contents.
+     *
+     * @param expected  Expected content.
+     * @param actual    Actual content.
+     * @return          Offset.
+     */
+    private static int mismatch(byte[] expected, byte[] actual) {
+        final int length = Math.min(expected.length, actual.length);
+        for (int i = 0; i < length; i++) {
+            if (expected[i] != actual[i]) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Reads the content of an entry of the JAR file.
+     *
+     * @param zipFile       JAR file.
+     * @param entry         Entry.
+     * @return              Content.
+     * @throws IOException  If the entry couldn't be read.
+     */
+    private static byte[] read(ZipFile zipFile, ZipEntry entry) throws IOException {
+        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+            return IOUtils.toByteArray(inputStream);
+        }
+    }
+
+    //</editor-fold>
+
+    /**
+     * Verifies that packing and unpacking a JAR file reproduces its entries.
+     *
+     * @param jarFile       JAR file.
+     * @param options       Packing options.
+     * @return              Differences, sorted by entry name, or an empty list if the entries are reproduced.
+     * @throws IOException  If the JAR file couldn't be packed or unpacked.
+     */
+    public List<EntryDifference> verify(final File jarFile, final PackOptions options) throws IOException {
+        final ExecutorService digestExecutor = createExecutor(threads, "pack200-verify-digest");
+        // The packer and the unpacker run on their own threads, on both ends of a pipe.
+        final ExecutorService pipelineExecutor = createExecutor(2, "pack200-verify-pipeline");
+        try (ZipFile zipFile = new ZipFile(jarFile)) {
+            final Map<String, Future<byte[]>> expectedDigests = new LinkedHashMap<>();
+            for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                if (!entry.isDirectory()) {
+                    expectedDigests.put(entry.getName(), digestExecutor.submit(new DigestTask(zipFile, entry)));
+                }
+            }
+
+            final PipedInputStream packedInputStream = new PipedInputStream(PIPE_SIZE);
+            final PipedOutputStream packedOutputStream = new PipedOutputStream(packedInputStream);
+            final PipedInputStream jarInputStream = new PipedInputStream(PIPE_SIZE);
+            final PipedOutputStream jarOutputStream = new PipedOutputStream(jarInputStream);
+            final Future<?> packFuture = pipelineExecutor.submit(new Callable<Void>() {
+                public Void call() throws IOException {
+                    try (OutputStream outputStream = packedOutputStream) {
+                        engine.pack(jarFile, outputStream, options);
+                    }
+                    return null;
+                }
+            });
+            final Future<?> unpackFuture = pipelineExecutor.submit(new Callable<Void>() {
+                public Void call() throws IOException {
+                    final UnpackOptions unpackOptions = new UnpackOptions();
+                    unpackOptions.setQuiet(true);
+                    try (InputStream inputStream = packedInputStream; OutputStream outputStream = jarOutputStream) {
+                        engine.unpack(inputStream, outputStream, unpackOptions);
+                    }
+                    return null;
+                }
+            });
+
+            // The comparisons are queued after every digest of the JAR file, so they never wait for a queued task.
+            final List<Future<EntryDifference>> comparisons = new ArrayList<>();
+            final Set<String> actualNames = new HashSet<>();
+            try (ZipInputStream inputStream = new ZipInputStream(jarInputStream)) {
+                ZipEntry entry;
+                while ((entry = inputStream.getNextEntry()) != null) {
+                    if (!entry.isDirectory() && actualNames.add(entry.getName())) {
+                        comparisons.add(digestExecutor.submit(new CompareTask(zipFile, entry.getName(),
+                                IOUtils.toByteArray(inputStream), expectedDigests.get(entry.getName()))));
+                    }
+                }
+            }
+            get(packFuture);
+            get(unpackFuture);
+
+            final List<EntryDifference> differences = new ArrayList<>();
+            for (Future<EntryDifference> comparison : comparisons) {
+                final EntryDifference difference = get(comparison);
+                if (difference != null) {
+                    differences.add(difference);
+                }
+            }
+            for (String name : expectedDigests.keySet()) {
+                if (!actualNames.contains(name)) {
+                    differences.add(EntryDifference.missing(name));
+                }
+            }
+            Collections.sort(differences, new Comparator<EntryDifference>() {
+                public int compare(EntryDifference first, EntryDifference second) {
+                    return first.getName().compareTo(second.getName());
+                }
+            });
+            return differences;
+        } finally {
+            pipelineExecutor.shutdownNow();
+            digestExecutor.shutdownNow();
+        }
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Inner classes section.">
+
+    /**
+     * Operation computing the digest of an entry of the JAR file.
+     */
+    private static final class DigestTask implements Callable<byte[]> {
+
+        /**
+         * Entry.
+         */
+        private final ZipEntry entry;
+
+        /**
+         * JAR file.
+         */
+        private final ZipFile zipFile;
+
+        /**
+         * Constructor.
+         *
+         * @param zipFile   JAR file.
+         * @param entry     Entry.
+         */
+        private DigestTask(ZipFile zipFile, ZipEntry entry) {
+            this.zipFile = zipFile;
+            this.entry = entry;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public byte[] call() throws IOException {
+            return digest(read(zipFile, entry));
+        }
+    }
+
+    /**
+     * Operation comparing an unpacked entry with the entry of the JAR file.
+     */
+    private static final class CompareTask implements Callable<EntryDifference> {
+
+        /**
+         * Unpacked content.
+         */
+        private final byte[] content;
+
+        /**
+         * Digest of the entry of the JAR file or {@code null} if the JAR file hasn't the entry.
+         */
+        private final Future<byte[]> expectedDigest;
+
+        /**
+         * Name of the entry.
+         */
+        private final String name;
+
+        /**
+         * JAR file.
+         */
+        private final ZipFile zipFile;
+
+        /**
+         * Constructor.
+         *
+         * @param zipFile           JAR file.
+         * @param name              Name of the entry.
+         * @param content           Unpacked content.
+         * @param expectedDigest    Digest of the entry of the JAR file or {@code null}.
+         */
+        private CompareTask(ZipFile zipFile, String name, byte[] content, Future<byte[]> expectedDigest) {
+            this.zipFile = zipFile;
+            this.name = name;
+            this.content = content;
+            this.expectedDigest = expectedDigest;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public EntryDifference call() throws IOException {
+            if (expectedDigest == null) {
+                return EntryDifference.added(name, content.length);
+            }
+            if (Arrays.equals(get(expectedDigest), digest(content))) {
+                return null;
+            }
+
+            final byte[] expected = read(zipFile, zipFile.getEntry(name));
+            return EntryDifference.changed(name, expected.length, content.length, mismatch(expected, content));
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,133 @@
+package com.arhs.mojo.pack200.verify;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.compression.Codec;
+import com.arhs.mojo.pack200.engine.EngineType;
+import com.arhs.mojo.pack200.engine.InProcessEngine;
+import com.arhs.mojo.pack200.pack.AbstractPackMojo;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.report.PerformanceReport;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Goal for verifying that packing and unpacking the normalized jar reproduces its entries.
+ * <p>
+ * The jar is packed with the packing options of the goal, which must be the ones of the <code>repack</code> goal,
+ * then unpacked in memory by the in-process engine. The class files, the resources and the manifest are compared
+ * with the entries of the jar, and the build fails with the list of the different entries.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+@Mojo(name = "verify", defaultPhase = LifecyclePhase.VERIFY, threadSafe = true)
+public class VerifyMojo extends AbstractPackMojo {
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Number of threads hashing the entries.
+     * <p>The default value is: <code>0</code>, which uses the number of available processors.</p>
+     */
+    @Parameter(defaultValue = "0")
+    public int threads;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String getOperation() {
+        return "verify";
+    }
+
+    /**
+     * Perform whatever build-process behavior this Mojo implements.
+     *
+     * @throws MojoExecutionException If an unexpected problem occurs. Throwing this exception
+     *                                causes a <b>BUILD ERROR</b> message to be displayed.
+     */
+    @Override
+    public void execute() throws MojoExecutionException {
+        final File jarFile = getInputFile();
+        final PerformanceReport performanceReport = createReport(getOperation());
+        final PackOptions packOptions = createPackOptions();
+        packOptions.setCompression(Codec.NONE);
+        if (engine != null && engine != EngineType.IN_PROCESS) {
+            getLog().warn("The round trip is verified by the in-process engine instead of: " + engine);
+        }
+
+        final List<EntryDifference> differences;
+        try {
+            if (performanceReport != null) {
+                performanceReport.start();
+            }
+            detectPassFiles(jarFile, packOptions);
+            final InProcessEngine inProcessEngine = new InProcessEngine(getLog(), debug);
+            if (performanceReport != null) {
+                performanceReport.setEngine(inProcessEngine.getVersion());
+                performanceReport.addInput(jarFile);
+                performanceReport.countEntries(jarFile);
+                performanceReport.endSetup();
+            }
+            final long start = System.nanoTime();
+            differences = new RoundTripVerifier(inProcessEngine, threads).verify(jarFile, packOptions);
+            if (performanceReport != null) {
+                performanceReport.addOperationTime(System.nanoTime() - start);
+                performanceReport.addOutput(jarFile);
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Command is failed.", e);
+        } finally {
+            if (performanceReport != null) {
+                performanceReport.finish();
+            }
+        }
+        publishReport(performanceReport, getOperation() + "-" + jarFile.getName());
+
+        if (!differences.isEmpty()) {
+            for (EntryDifference difference : differences) {
+                getLog().error(difference.toString());
+            }
+            throw new MojoExecutionException(String.format("%d entries aren't reproduced by the round trip, the "
+                    + "first one is: %s", differences.size(), differences.get(0)));
+        }
+        getLog().info("The round trip reproduces the entries of the file: " + jarFile);
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,293 @@
+package com.arhs.mojo.pack200.worker;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker Java Virtual Machine, receiving the jobs through its standard input.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ * @see WorkerMain
+ */
+public class Worker {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Classes whose locations make the class path of the workers: the worker, Apache Commons Compress and its
+     * dependencies.
+     */
+    private static final String[] CLASS_PATH_CLASSES = {
+            WorkerMain.class.getName(),
+            "org.apache.commons.compress.java.util.jar.Pack200",
+            "org.apache.commons.io.IOUtils",
+            "org.apache.commons.lang3.StringUtils",
+            "org.objectweb.asm.ClassReader"
+    };
+
+    /**
+     * Options opening the streams to the unpacker of Apache Commons Compress, which unwraps them by reflection. The
+     * Java Virtual Machines before Java 9 ignore them.
+     */
+    private static final String[] OPEN_STREAMS_OPTIONS = {
+            "-XX:+IgnoreUnrecognizedVMOptions",
+            "--add-opens=java.base/java.io=ALL-UNNAMED"
+    };
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Indicates whether the streams of the worker broke.
+     */
+    private boolean broken;
+
+    /**
+     * Time since which the worker is idle, in milliseconds.
+     */
+    private long idleSince;
+
+    /**
+     * Stream of the results.
+     */
+    private final DataInputStream inputStream;
+
+    /**
+     * Number of jobs performed.
+     */
+    private int jobs;
+
+    /**
+     * Stream of the jobs.
+     */
+    private final DataOutputStream outputStream;
+
+    /**
+     * Process.
+     */
+    private final Process process;
+
+    /**
+     * Version of the Pack200 implementation of the worker.
+     */
+    private final String version;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param process       Process.
+     * @throws IOException  If the worker didn't start.
+     */
+    private Worker(Process process) throws IOException {
+        this.process = process;
+        this.inputStream = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+        this.outputStream = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        this.version = inputStream.readUTF();
+        this.idleSince = System.currentTimeMillis();
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Gets the class path of the workers.
+     *
+     * @return              Class path.
+     * @throws IOException  If the location of a class couldn't be found.
+     */
+    private static String getClassPath() throws IOException {
+        final Set<String> entries = new LinkedHashSet<>();
+        for (String className : CLASS_PATH_CLASSES) {
+            try {
+                final Class<?> type = Class.forName(className, false, Worker.class.getClassLoader());
+                entries.add(new File(type.getProtectionDomain().getCodeSource().getLocation().toURI())
+                        .getAbsolutePath());
+            } catch (ClassNotFoundException | URISyntaxException | RuntimeException e) {
+                throw new IOException("The location of the class couldn't be found: " + className, e);
+            }
+        }
+
+        final StringBuilder classPath = new StringBuilder();
+        for (String entry : entries) {
+            classPath.append(classPath.length() > 0 ? File.pathSeparator : "").append(entry);
+        }
+        return classPath.toString();
+    }
+
+    //</editor-fold>
+
+    /**
+     * Starts a worker.
+     *
+     * @param settings      Settings of the workers.
+     * @return              Worker.
+     * @throws IOException  If the worker didn't start.
+     */
+    public static Worker start(WorkerSettings settings) throws IOException {
+        final List<String> command = new ArrayList<>();
+        command.add(settings.getJavaExecutable().getAbsolutePath());
+        command.addAll(Arrays.asList(OPEN_STREAMS_OPTIONS));
+        command.addAll(settings.getJvmOptions());
+        command.add("-cp");
+        command.add(getClassPath());
+        command.add(WorkerMain.class.getName());
+        command.add(String.valueOf(TimeUnit.SECONDS.toMillis(settings.getIdleTimeout())));
+
+        final Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        try {
+            return new Worker(process);
+        } catch (IOException e) {
+            process.destroy();
+            throw new IOException("The worker didn't start: " + command, e);
+        }
+    }
+
+    /**
+     * Performs a job.
+     *
+     * @param operation     Operation: {@link WorkerMain#PACK} or {@link WorkerMain#UNPACK}.
+     * @param inputFile     Input file.
+     * @param outputFile    Output file.
+     * @param properties    Properties of the packer or the unpacker.
+     * @throws IOException  If the job failed.
+     */
+    public void execute(String operation, File inputFile, File outputFile, Map<String, String> properties)
+            throws IOException {
+        final boolean success;
+        final String message;
+        try {
+            outputStream.writeUTF(operation);
+            outputStream.writeUTF(inputFile.getAbsolutePath());
+            outputStream.writeUTF(outputFile.getAbsolutePath());
+            outputStream.writeInt(properties.size());
+            for (Map.Entry<String, String> property : properties.entrySet()) {
+                outputStream.writeUTF(property.getKey());
+                outputStream.writeUTF(property.getValue());
+            }
+            outputStream.flush();
+
+            success = inputStream.readBoolean();
+            message = inputStream.readUTF();
+        } catch (IOException e) {
+            broken = true;
+            throw new IOException("The worker stopped during the job.", e);
+        } finally {
+            jobs++;
+            idleSince = System.currentTimeMillis();
+        }
+        if (!success) {
+            throw new IOException(String.format("The worker failed to %s the file %s: %s", operation, inputFile,
+                    message));
+        }
+    }
+
+    /**
+     * Gets the time since which the worker is idle.
+     *
+     * @return Time, in milliseconds.
+     */
+    public long getIdleSince() {
+        return idleSince;
+    }
+
+    /**
+     * Gets the number of jobs performed.
+     *
+     * @return Number of jobs.
+     */
+    public int getJobs() {
+        return jobs;
+    }
+
+    /**
+     * Gets the process of the worker.
+     *
+     * @return Process.
+     */
+    public Process getProcess() {
+        return process;
+    }
+
+    /**
+     * Gets the version of the Pack200 implementation of the worker.
+     *
+     * @return Version.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks if the worker can perform jobs.
+     *
+     * @return {@code true} if the worker is running and its streams didn't break.
+     */
+    public boolean isAlive() {
+        return !broken && process.isAlive();
+    }
+
+    /**
+     * Stops the worker, which ends at the end of its standard input.
+     */
+    public void stop() {
+        try {
+            outputStream.close();
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.destroy();
+            }
+        } catch (IOException e) {
+            process.destroy();
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //</editor-fold>
+
+}
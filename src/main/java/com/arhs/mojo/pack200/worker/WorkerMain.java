@@ -0,0 +1,356 @@
+package com.arhs.mojo.pack200.worker;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.engine.InProcessEngine;
+import org.apache.commons.compress.harmony.pack200.Archive;
+import org.apache.commons.compress.harmony.pack200.PackingOptions;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Entry point of a worker Java Virtual Machine, performing the pack and unpack jobs sent by the plugin.
+ * <p>
+ * The jobs are read from the standard input and the results are written into the standard output, whose messages
+ * are redirected to the standard error. The Pack200 implementation of the JDK is used if it exists (up to JDK 13),
+ * the one of Apache Commons Compress otherwise, whose archives are driven directly since its adapters ignore their
+ * properties. The worker only uses the JDK and Apache Commons Compress, so that it runs on any JDK from 8. It ends
+ * when the plugin closes the standard input, or when no job was received during the idle timeout.
+ * </p>
+ * <p>
+ * A job is made of the operation (<code>pack</code> or <code>unpack</code>), the input file, the output file and
+ * the properties of the packer or the unpacker. Its result is a success flag followed by the error message.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public final class WorkerMain {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Unpacker property of the deflate hint.
+     */
+    private static final String DEFLATE_HINT = "unpack.deflate.hint";
+
+    /**
+     * Pack200 class of the JDK.
+     */
+    private static final String JDK_PACK200 = "java.util.jar.Pack200";
+
+    /**
+     * Pack operation.
+     */
+    public static final String PACK = "pack";
+
+    /**
+     * Unpack operation.
+     */
+    public static final String UNPACK = "unpack";
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Time of the end of the last job, in milliseconds.
+     */
+    private static volatile long lastActivity = System.currentTimeMillis();
+
+    /**
+     * Indicates whether a job is running.
+     */
+    private static volatile boolean busy;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     */
+    private WorkerMain() {
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Loads the Pack200 class of the JDK.
+     *
+     * @return Pack200 class or {@code null} if the JDK has none, from JDK 14.
+     */
+    private static Class<?> loadPack200() {
+        try {
+            return Class.forName(JDK_PACK200);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the version of the Pack200 implementation, with the version of the Java Virtual Machine.
+     *
+     * @param pack200   Pack200 class of the JDK or {@code null} for Apache Commons Compress.
+     * @return          Version.
+     */
+    private static String getVersion(Class<?> pack200) {
+        final String implementation = pack200 != null ? "jdk" : "commons-compress-"
+                + Archive.class.getPackage().getImplementationVersion();
+        return String.format("%s-%s/%s", System.getProperty("java.vendor"), System.getProperty("java.version"),
+                implementation);
+    }
+
+    /**
+     * Creates the packer or the unpacker, with its properties.
+     *
+     * @param pack200       Pack200 class of the JDK.
+     * @param factory       Name of the factory method.
+     * @param properties    Properties.
+     * @return              Packer or unpacker.
+     * @throws Exception    If the implementation couldn't be created.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object create(Class<?> pack200, String factory, Map<String, String> properties)
+            throws Exception {
+        final Object instance = invoke(pack200, null, factory, new Class<?>[0]);
+        ((SortedMap<String, String>) invoke(instance.getClass(), instance, "properties", new Class<?>[0]))
+                .putAll(properties);
+        return instance;
+    }
+
+    /**
+     * Invokes a method, rethrowing its failure.
+     *
+     * @param type          Type declaring the method.
+     * @param instance      Instance or {@code null} for a static method.
+     * @param name          Name of the method.
+     * @param types         Types of the parameters.
+     * @param arguments     Arguments.
+     * @return              Result.
+     * @throws Exception    If the method failed.
+     */
+    private static Object invoke(Class<?> type, Object instance, String name, Class<?>[] types, Object... arguments)
+            throws Exception {
+        final Method method = type.getMethod(name, types);
+        method.setAccessible(true);
+        try {
+            return method.invoke(instance, arguments);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw (Error) e.getCause();
+        }
+    }
+
+    /**
+     * Packs a JAR file with the packer of Apache Commons Compress.
+     *
+     * @param inputFile     Input JAR file.
+     * @param outputFile    Output packed file, uncompressed.
+     * @param properties    Properties of the packer.
+     * @throws Exception    If the JAR file couldn't be packed.
+     */
+    private static void pack(String inputFile, String outputFile, Map<String, String> properties) throws Exception {
+        final PackingOptions packingOptions = InProcessEngine.toPackingOptions(properties);
+        packingOptions.setGzip(false);
+        try (JarFile jarFile = new JarFile(inputFile);
+             OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(outputFile))) {
+            new Archive(jarFile, outputStream, packingOptions).pack();
+        }
+    }
+
+    /**
+     * Unpacks a packed file with the unpacker of Apache Commons Compress.
+     *
+     * @param inputFile     Input packed file, uncompressed.
+     * @param outputFile    Output JAR file.
+     * @param properties    Properties of the unpacker.
+     * @throws Exception    If the packed file couldn't be unpacked.
+     */
+    private static void unpack(String inputFile, String outputFile, Map<String, String> properties)
+            throws Exception {
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(inputFile));
+             JarOutputStream outputStream = new JarOutputStream(new BufferedOutputStream(
+                     new FileOutputStream(outputFile)))) {
+            final org.apache.commons.compress.harmony.unpack200.Archive archive =
+                    new org.apache.commons.compress.harmony.unpack200.Archive(inputStream, outputStream);
+            final String deflateHint = properties.get(DEFLATE_HINT);
+            if (deflateHint != null && !"keep".equals(deflateHint)) {
+                archive.setDeflateHint(Boolean.parseBoolean(deflateHint));
+            }
+            archive.unpack();
+        }
+    }
+
+    /**
+     * Performs a job.
+     *
+     * @param pack200       Pack200 class of the JDK or {@code null} for Apache Commons Compress.
+     * @param operation     Operation.
+     * @param inputFile     Input file.
+     * @param outputFile    Output file.
+     * @param properties    Properties of the packer or the unpacker.
+     * @throws Exception    If the job failed.
+     */
+    private static void perform(Class<?> pack200, String operation, String inputFile, String outputFile,
+                                Map<String, String> properties) throws Exception {
+        if (pack200 == null && PACK.equals(operation)) {
+            pack(inputFile, outputFile, properties);
+        } else if (pack200 == null && UNPACK.equals(operation)) {
+            unpack(inputFile, outputFile, properties);
+        } else if (PACK.equals(operation)) {
+            final Object packer = create(pack200, "newPacker", properties);
+            try (JarFile jarFile = new JarFile(inputFile);
+                 OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(outputFile))) {
+                invoke(packer.getClass(), packer, "pack", new Class<?>[]{JarFile.class, OutputStream.class}, jarFile,
+                        outputStream);
+            }
+        } else if (UNPACK.equals(operation)) {
+            final Object unpacker = create(pack200, "newUnpacker", properties);
+            try (JarOutputStream outputStream = new JarOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(outputFile)))) {
+                invoke(unpacker.getClass(), unpacker, "unpack", new Class<?>[]{File.class, JarOutputStream.class},
+                        new File(inputFile), outputStream);
+            }
+        } else {
+            throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+    }
+
+    /**
+     * Starts the thread ending the worker when no job was received during the idle timeout.
+     *
+     * @param idleTimeout Idle timeout, in milliseconds.
+     */
+    private static void startWatchdog(final long idleTimeout) {
+        final Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    while (busy || System.currentTimeMillis() - lastActivity < idleTimeout) {
+                        Thread.sleep(1000);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                System.exit(0);
+            }
+        }, "pack200-worker-watchdog");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    //</editor-fold>
+
+    /**
+     * Runs the worker.
+     *
+     * @param args          Idle timeout, in milliseconds.
+     * @throws Exception    If the worker couldn't communicate with the plugin.
+     */
+    public static void main(String[] args) throws Exception {
+        final DataInputStream inputStream = new DataInputStream(new BufferedInputStream(System.in));
+        final DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(FileDescriptor.out)));
+        // The standard output carries the results, and the unpacker may close the stream of its messages.
+        System.setOut(new PrintStream(new FilterOutputStream(System.err) {
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        }, true));
+
+        final Class<?> pack200 = loadPack200();
+        outputStream.writeUTF(getVersion(pack200));
+        outputStream.flush();
+        startWatchdog(Long.parseLong(args[0]));
+
+        while (true) {
+            final String operation;
+            try {
+                operation = inputStream.readUTF();
+            } catch (EOFException e) {
+                // The plugin has stopped the worker.
+                return;
+            }
+            busy = true;
+            final String inputFile = inputStream.readUTF();
+            final String outputFile = inputStream.readUTF();
+            final Map<String, String> properties = new TreeMap<>();
+            for (int i = inputStream.readInt(); i > 0; i--) {
+                properties.put(inputStream.readUTF(), inputStream.readUTF());
+            }
+
+            Error error = null;
+            try {
+                perform(pack200, operation, inputFile, outputFile, properties);
+                outputStream.writeBoolean(true);
+                outputStream.writeUTF("");
+            } catch (Exception e) {
+                outputStream.writeBoolean(false);
+                outputStream.writeUTF(String.valueOf(e));
+            } catch (Error e) {
+                // The state of the worker is unknown after an error, like a lack of memory.
+                outputStream.writeBoolean(false);
+                outputStream.writeUTF(String.valueOf(e));
+                error = e;
+            }
+            outputStream.flush();
+            if (error != null) {
+                throw error;
+            }
+            lastActivity = System.currentTimeMillis();
+            busy = false;
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,246 @@
+package com.arhs.mojo.pack200.worker;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pool of the worker Java Virtual Machines sharing the same settings.
+ * <p>
+ * The pools are kept for the lifetime of the plugin, so that the workers stay warm across the projects of the
+ * reactor, and across the builds of a Maven daemon. The most recently used worker is reused first. A worker is
+ * recycled after the maximum number of jobs, and ends by itself after the idle timeout; it also ends with the Java
+ * Virtual Machine of Maven, since its standard input is closed.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class WorkerPool {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Margin before the idle timeout, in milliseconds, within which an idle worker isn't reused since it may end.
+     */
+    private static final long IDLE_MARGIN = 2000;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Pools, by key of their settings.
+     */
+    private static final Map<String, WorkerPool> POOLS = new HashMap<>();
+
+    /**
+     * Versions of the Pack200 implementations of the workers, by Java executable.
+     */
+    private static final Map<String, String> VERSIONS = new HashMap<>();
+
+    /**
+     * Idle workers, the most recently used first.
+     */
+    private final Deque<Worker> idleWorkers = new ArrayDeque<>();
+
+    /**
+     * Settings of the workers.
+     */
+    private final WorkerSettings settings;
+
+    /**
+     * Number of workers being started.
+     */
+    private int starting;
+
+    /**
+     * Running workers.
+     */
+    private final Set<Worker> workers = new HashSet<>();
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param settings Settings of the workers.
+     */
+    private WorkerPool(WorkerSettings settings) {
+        this.settings = settings;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Stops a worker and removes it from the pool.
+     *
+     * @param worker Worker.
+     */
+    private void discard(Worker worker) {
+        workers.remove(worker);
+        worker.stop();
+    }
+
+    /**
+     * Checks if an idle worker may end before receiving a job.
+     *
+     * @param worker    Idle worker.
+     * @return          {@code true} if the idle timeout of the worker is about to expire.
+     */
+    private boolean isExpiring(Worker worker) {
+        return System.currentTimeMillis() - worker.getIdleSince() > settings.getIdleTimeout() * 1000L - IDLE_MARGIN;
+    }
+
+    /**
+     * Takes an idle worker or reserves the start of a new one, waiting for a worker to be released if the pool is
+     * full.
+     *
+     * @return                  Idle worker or {@code null} if a new worker must be started.
+     * @throws IOException      If the wait was interrupted.
+     */
+    private synchronized Worker take() throws IOException {
+        while (true) {
+            Worker worker;
+            while ((worker = idleWorkers.pollFirst()) != null) {
+                if (worker.isAlive() && !isExpiring(worker)) {
+                    return worker;
+                }
+                discard(worker);
+            }
+            if (workers.size() + starting < settings.getWorkers()) {
+                starting++;
+                return null;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("The wait for a worker was interrupted.");
+            }
+        }
+    }
+
+    //</editor-fold>
+
+    /**
+     * Gets the pool of the workers with the given settings.
+     *
+     * @param settings  Settings of the workers.
+     * @return          Pool.
+     */
+    public static synchronized WorkerPool get(WorkerSettings settings) {
+        final String key = settings.toKey();
+        WorkerPool pool = POOLS.get(key);
+        if (pool == null) {
+            pool = new WorkerPool(settings);
+            POOLS.put(key, pool);
+        }
+        return pool;
+    }
+
+    /**
+     * Acquires a worker, which must be released after the job.
+     *
+     * @return              Worker.
+     * @throws IOException  If no worker could be started.
+     */
+    public Worker acquire() throws IOException {
+        final Worker idleWorker = take();
+        if (idleWorker != null) {
+            return idleWorker;
+        }
+
+        // The Java Virtual Machine is started outside of the lock, so that the other workers can be released.
+        Worker worker = null;
+        try {
+            worker = Worker.start(settings);
+            return worker;
+        } finally {
+            synchronized (this) {
+                starting--;
+                if (worker != null) {
+                    workers.add(worker);
+                    synchronized (VERSIONS) {
+                        VERSIONS.put(settings.getJavaExecutable().getAbsolutePath(), worker.getVersion());
+                    }
+                } else {
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the version of the Pack200 implementation of the workers, starting a worker if none has started with the
+     * same Java executable.
+     *
+     * @return              Version.
+     * @throws IOException  If no worker could be started.
+     */
+    public String getVersion() throws IOException {
+        final String executable = settings.getJavaExecutable().getAbsolutePath();
+        synchronized (VERSIONS) {
+            final String version = VERSIONS.get(executable);
+            if (version != null) {
+                return version;
+            }
+        }
+
+        final Worker worker = acquire();
+        release(worker);
+        return worker.getVersion();
+    }
+
+    /**
+     * Releases a worker after a job. It is recycled if it has performed the maximum number of jobs or has stopped.
+     *
+     * @param worker Worker.
+     */
+    public synchronized void release(Worker worker) {
+        if (worker.isAlive() && worker.getJobs() < settings.getMaxJobs()) {
+            idleWorkers.addFirst(worker);
+        } else {
+            discard(worker);
+        }
+        notifyAll();
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,178 @@
+package com.arhs.mojo.pack200.worker;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the worker Java Virtual Machines.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class WorkerSettings {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Default idle timeout, in seconds.
+     */
+    private static final int DEFAULT_IDLE_TIMEOUT = 300;
+
+    /**
+     * Default number of jobs after which a worker is recycled.
+     */
+    private static final int DEFAULT_MAX_JOBS = 100;
+
+    /**
+     * Default number of workers.
+     */
+    private static final int DEFAULT_WORKERS = 2;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Idle timeout, in seconds.
+     */
+    private final int idleTimeout;
+
+    /**
+     * Java home of the workers.
+     */
+    private final File javaHome;
+
+    /**
+     * Options to the Java Virtual Machines of the workers.
+     */
+    private final List<String> jvmOptions;
+
+    /**
+     * Number of jobs after which a worker is recycled.
+     */
+    private final int maxJobs;
+
+    /**
+     * Maximum number of workers.
+     */
+    private final int workers;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Constructors section.">
+
+    /**
+     * Constructor.
+     *
+     * @param javaHome      Java home of the workers or {@code null} for the one running Maven.
+     * @param workers       Maximum number of workers or <code>0</code> for the default value.
+     * @param idleTimeout   Idle timeout, in seconds, or <code>0</code> for the default value.
+     * @param maxJobs       Number of jobs after which a worker is recycled or <code>0</code> for the default value.
+     * @param jvmOptions    Options to the Java Virtual Machines of the workers.
+     */
+    public WorkerSettings(File javaHome, int workers, int idleTimeout, int maxJobs, List<String> jvmOptions) {
+        this.javaHome = javaHome != null ? javaHome : new File(System.getProperty("java.home"));
+        this.workers = workers > 0 ? workers : DEFAULT_WORKERS;
+        this.idleTimeout = idleTimeout > 0 ? idleTimeout : DEFAULT_IDLE_TIMEOUT;
+        this.maxJobs = maxJobs > 0 ? maxJobs : DEFAULT_MAX_JOBS;
+        this.jvmOptions = new ArrayList<>(jvmOptions);
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    /**
+     * Creates the settings with other options to the Java Virtual Machines.
+     *
+     * @param options   Options to the Java Virtual Machines of the workers.
+     * @return          Settings.
+     */
+    public WorkerSettings withJvmOptions(List<String> options) {
+        return new WorkerSettings(javaHome, workers, idleTimeout, maxJobs, options);
+    }
+
+    /**
+     * Gets the idle timeout.
+     *
+     * @return Idle timeout, in seconds.
+     */
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Gets the Java executable of the workers.
+     *
+     * @return Java executable.
+     */
+    public File getJavaExecutable() {
+        final File executable = new File(javaHome, "bin/java");
+        return executable.exists() ? executable : new File(javaHome, "bin/java.exe");
+    }
+
+    /**
+     * Gets the options to the Java Virtual Machines of the workers.
+     *
+     * @return Options.
+     */
+    public List<String> getJvmOptions() {
+        return jvmOptions;
+    }
+
+    /**
+     * Gets the number of jobs after which a worker is recycled.
+     *
+     * @return Number of jobs.
+     */
+    public int getMaxJobs() {
+        return maxJobs;
+    }
+
+    /**
+     * Gets the maximum number of workers.
+     *
+     * @return Number of workers.
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Gets the key of the pool of the workers, made of the settings.
+     *
+     * @return Key.
+     */
+    public String toKey() {
+        return String.format("%s %d %d %d %s", javaHome.getAbsolutePath(), workers, idleTimeout, maxJobs,
+                jvmOptions);
+    }
+
+    //</editor-fold>
+
+}
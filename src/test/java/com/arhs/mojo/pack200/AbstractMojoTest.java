@@ -27,7 +27,12 @@ import org.apache.commons.io.FileUtils;
 import org.apache.maven.plugin.testing.AbstractMojoTestCase;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
 
 /**
  * Base for  mojo unit tests.
@@ -101,6 +106,29 @@ public abstract class AbstractMojoTest extends AbstractMojoTestCase {
         return inputJarFile;
     }
 
+    /**
+     * Creates a fat JAR file, storing a JAR file as a library.
+     *
+     * @param file          Fat JAR file.
+     * @param libraryFile   JAR file of the library.
+     * @throws IOException  If the fat JAR file couldn't be written.
+     */
+    protected static void createFatJar(File file, String libraryFile) throws IOException {
+        final byte[] library = FileUtils.readFileToByteArray(new File(libraryFile));
+        final CRC32 crc = new CRC32();
+        crc.update(library);
+        try (JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(file))) {
+            final JarEntry entry = new JarEntry("BOOT-INF/lib/my-applet.jar");
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(library.length);
+            entry.setCompressedSize(library.length);
+            entry.setCrc(crc.getValue());
+            outputStream.putNextEntry(entry);
+            outputStream.write(library);
+            outputStream.closeEntry();
+        }
+    }
+
     /**
      * Gets mojo by goal name and POM file.
      *
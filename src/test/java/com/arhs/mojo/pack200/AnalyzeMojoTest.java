@@ -0,0 +1,119 @@
+package com.arhs.mojo.pack200;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.analysis.AnalyzeMojo;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+
+import java.io.File;
+
+/**
+ * Unit tests for {@code AnalyzeMojo} class.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class AnalyzeMojoTest extends AbstractMojoTest {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Original JAR file.
+     */
+    private static final String JAR_FILE_ORIGINAL = "src/test/resources/my-applet.original.jar";
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Input JAR file.
+     */
+    private File inputJarFile;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Protected methods section.">
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+
+        // Clean generated files.
+        inputJarFile.delete();
+    }
+
+    //</editor-fold>
+
+    /**
+     * Test for analyzing a JAR file and writing its analysis.
+     * @throws Exception If the input JAR file couldn't be copied or that mojo object couldn't be executed.
+     */
+    public void testAnalyze() throws Exception {
+        // Get mojo object.
+        final AnalyzeMojo analyzeMojo = createMojoByPomFile("src/test/resources/pom/analyze.xml", "analyze");
+        analyzeMojo.reportDirectory = new File("target/pack200-reports");
+        final File analysisFile = new File(analyzeMojo.reportDirectory, "analysis-my-applet.jar.json");
+        analysisFile.delete();
+
+        // Create a JAR file by the "inputFile" parameter.
+        inputJarFile = copyJar(analyzeMojo.target, analyzeMojo.inputFile, JAR_FILE_ORIGINAL);
+        analyzeMojo.execute();
+
+        // Checks if the analysis describes the entries of the JAR file.
+        assertTrue("No analysis file was created.", analysisFile.exists());
+        final String analysis = FileUtils.readFileToString(analysisFile, "UTF-8");
+        assertTrue("The entries aren't counted.", analysis.contains("\"entries\": 4,"));
+        assertTrue("The class isn't counted.", analysis.contains("\"class\": {\"entries\": 1, \"size\": 527"));
+        assertTrue("The class version isn't read.", analysis.contains("\"classVersions\": {\"49\": 1}"));
+        assertTrue("The package isn't reported.", analysis.contains("{\"name\": \"com.arhs.test\", \"entries\": 1"));
+    }
+
+    /**
+     * Test for failing the analysis of a file which isn't a JAR file.
+     * @throws Exception If the input file couldn't be copied or that mojo object couldn't be executed.
+     */
+    public void testAnalyzeNotJar() throws Exception {
+        // Get mojo object.
+        final AnalyzeMojo analyzeMojo = createMojoByPomFile("src/test/resources/pom/analyze.xml", "analyze");
+
+        // Create a file which isn't a JAR file by the "inputFile" parameter.
+        inputJarFile = copyJar(analyzeMojo.target, analyzeMojo.inputFile, "src/test/resources/pack.properties");
+        try {
+            analyzeMojo.execute();
+            fail("The analysis of a file which isn't a JAR file succeeded.");
+        } catch (MojoExecutionException e) {
+            assertTrue("The failure doesn't report the file.", e.getMessage().contains("couldn't be analyzed"));
+        }
+    }
+
+    //</editor-fold>
+
+}
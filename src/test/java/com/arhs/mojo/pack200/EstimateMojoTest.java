@@ -0,0 +1,153 @@
+package com.arhs.mojo.pack200;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.estimate.EstimateMojo;
+import com.arhs.mojo.pack200.pack.PackMojo;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+
+import java.io.File;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Unit tests for {@code EstimateMojo} class.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class EstimateMojoTest extends AbstractMojoTest {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Directory of the tests.
+     */
+    private static final File DIRECTORY = new File("target/estimate");
+
+    /**
+     * Maximal relative error of the estimated compressed size.
+     */
+    private static final double MAX_ERROR = 0.1;
+
+    /**
+     * Size of the synthetic JAR file, in bytes.
+     */
+    private static final long SIZE = 8 * 1024 * 1024;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Protected methods section.">
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+
+        // Clean generated files.
+        FileUtils.deleteDirectory(DIRECTORY);
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Reads a size of an estimate.
+     *
+     * @param estimate  Estimate, in JSON.
+     * @param key       Key of the size.
+     * @return          Size, lower bound and upper bound.
+     */
+    private static long[] readSize(String estimate, String key) {
+        final Matcher matcher = Pattern.compile("\"" + key
+                + "\": \\{\"estimate\": (\\d+), \"low\": (\\d+), \"high\": (\\d+)}").matcher(estimate);
+        assertTrue("The estimate has no " + key + ".", matcher.find());
+        return new long[] {Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)),
+                Long.parseLong(matcher.group(3))};
+    }
+
+    //</editor-fold>
+
+    /**
+     * Test for estimating the size of a packed JAR file close to the size of the packed JAR file.
+     * @throws Exception If the JAR file couldn't be created or that mojo objects couldn't be executed.
+     */
+    public void testEstimate() throws Exception {
+        // Get mojo object.
+        final EstimateMojo estimateMojo = createMojoByPomFile("src/test/resources/pom/estimate.xml", "estimate");
+        estimateMojo.reportDirectory = new File(DIRECTORY, "reports");
+        final File estimateFile = new File(estimateMojo.reportDirectory, "estimate-synthetic.jar.json");
+
+        // Create a JAR file by the "inputFile" parameter.
+        FileUtils.forceMkdir(estimateMojo.target);
+        SyntheticJarGenerator.forSize(SIZE).create(new File(estimateMojo.target, estimateMojo.inputFile));
+        estimateMojo.execute();
+
+        // Checks if the estimate samples a part of the JAR file and has a confidence interval.
+        assertTrue("No estimate file was created.", estimateFile.exists());
+        final String estimate = FileUtils.readFileToString(estimateFile, "UTF-8");
+        final long[] compressedSize = readSize(estimate, "compressedSize");
+        final long[] packedSize = readSize(estimate, "packedSize");
+        assertTrue("The estimate isn't in its interval.",
+                compressedSize[1] <= compressedSize[0] && compressedSize[0] <= compressedSize[2]);
+        assertTrue("The compressed size exceeds the packed size.", compressedSize[0] < packedSize[0]);
+        assertFalse("The whole JAR file was sampled.", estimate.contains("\"sampledEntries\": "
+                + estimate.replaceAll("(?s).*\"entries\": (\\d+),.*", "$1") + ","));
+
+        // Packs the JAR file, then checks if the estimate is close to the compressed size.
+        final PackMojo packMojo = createMojoByPomFile("src/test/resources/pom/estimate-pack.xml", "pack");
+        packMojo.outputFile = new File(DIRECTORY, "synthetic.jar.pack.gz");
+        packMojo.execute();
+        final double error = Math.abs(compressedSize[0] - packMojo.outputFile.length())
+                / (double) packMojo.outputFile.length();
+        assertTrue("The estimate is too far from the compressed size: " + error, error < MAX_ERROR);
+    }
+
+    /**
+     * Test for failing the estimate of a file which isn't a JAR file.
+     * @throws Exception If the input file couldn't be copied or that mojo object couldn't be executed.
+     */
+    public void testEstimateNotJar() throws Exception {
+        // Get mojo object.
+        final EstimateMojo estimateMojo = createMojoByPomFile("src/test/resources/pom/estimate.xml", "estimate");
+
+        // Create a file which isn't a JAR file by the "inputFile" parameter.
+        copyJar(estimateMojo.target, estimateMojo.inputFile, "src/test/resources/pack.properties");
+        try {
+            estimateMojo.execute();
+            fail("The estimate of a file which isn't a JAR file succeeded.");
+        } catch (MojoExecutionException e) {
+            assertTrue("The failure doesn't report the file.", e.getMessage().contains("couldn't be estimated"));
+        }
+    }
+
+    //</editor-fold>
+
+}
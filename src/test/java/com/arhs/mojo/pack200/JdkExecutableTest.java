@@ -0,0 +1,119 @@
+package com.arhs.mojo.pack200;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.engine.JdkExecutable;
+import junit.framework.TestCase;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+
+/**
+ * Unit tests for {@code JdkExecutable} class.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class JdkExecutableTest extends TestCase {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Directory of the tests.
+     */
+    private static final File DIRECTORY = new File("target/jdk-executable");
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Protected methods section.">
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+
+        // Clean generated files.
+        FileUtils.deleteDirectory(DIRECTORY);
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Writes an executable printing a version as the <code>-J-version</code> argument does.
+     *
+     * @param file          Executable file.
+     * @param version       Printed version.
+     * @param time          Modification time of the executable.
+     * @throws Exception    If the executable couldn't be written.
+     */
+    private static void writeExecutable(File file, String version, long time) throws Exception {
+        FileUtils.writeStringToFile(file, "#!/bin/sh\necho '" + version + "' >&2\n", "UTF-8");
+        assertTrue("The executable couldn't be made executable.", file.setExecutable(true));
+        assertTrue("The modification time couldn't be set.", file.setLastModified(time));
+    }
+
+    //</editor-fold>
+
+    /**
+     * Test for parsing the major versions of the old and new version schemes.
+     */
+    public void testParseMajorVersion() {
+        assertEquals(8, JdkExecutable.parseMajorVersion("java version \"1.8.0_292\""));
+        assertEquals(11, JdkExecutable.parseMajorVersion("openjdk version \"11.0.2\" 2019-01-15"));
+        assertEquals(0, JdkExecutable.parseMajorVersion("unknown"));
+    }
+
+    /**
+     * Test for probing the version of an executable, and probing it again when the executable is replaced.
+     * @throws Exception If the executable couldn't be written.
+     */
+    public void testProbeReplacedExecutable() throws Exception {
+        if (File.separatorChar == '\\') {
+            return;
+        }
+
+        final File file = new File(DIRECTORY, "pack200");
+        writeExecutable(file, "openjdk version \"11.0.2\" 2019-01-15", 1000000000000L);
+        final JdkExecutable executable = JdkExecutable.of(file);
+        assertEquals("The version isn't probed.", 11, executable.getMajorVersion());
+        assertTrue("The version isn't kept.", executable.getVersion().contains("11.0.2"));
+        assertSame("The executable is probed again.", executable, JdkExecutable.of(file));
+
+        // Replaces the executable by the one of another JDK.
+        writeExecutable(file, "java version \"1.8.0_292\"", 1000000002000L);
+        final JdkExecutable replacedExecutable = JdkExecutable.of(file);
+        assertEquals("The replaced executable isn't probed.", 8, replacedExecutable.getMajorVersion());
+        assertFalse("The fingerprint doesn't change.",
+                executable.getFingerprint().equals(replacedExecutable.getFingerprint()));
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,357 @@
+package com.arhs.mojo.pack200;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.engine.Engine;
+import com.arhs.mojo.pack200.engine.JobLimiter;
+import com.arhs.mojo.pack200.engine.LimitedEngine;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
+import junit.framework.TestCase;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Unit tests for {@code JobLimiter} and {@code LimitedEngine} classes, whose jobs run on several threads.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class JobLimiterTest extends TestCase {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Directory of the tests.
+     */
+    private static final File DIRECTORY = new File("target/job-limiter");
+
+    /**
+     * Duration of a job, in milliseconds.
+     */
+    private static final long JOB_DURATION = 100;
+
+    /**
+     * Number of threads submitting the jobs.
+     */
+    private static final int THREADS = 6;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Protected methods section.">
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        FileUtils.forceMkdir(DIRECTORY);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+
+        // Clean generated files.
+        FileUtils.deleteDirectory(DIRECTORY);
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Creates an input file of a given size.
+     *
+     * @param name          Name of the file.
+     * @param length        Size of the file, in bytes.
+     * @return              Input file.
+     * @throws IOException  If the file couldn't be created.
+     */
+    private static File createFile(String name, long length) throws IOException {
+        final File file = new File(DIRECTORY, name);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(length);
+        }
+        return file;
+    }
+
+    /**
+     * Packs input files at the same time, each one on its own thread.
+     *
+     * @param engine        Engine.
+     * @param inputFiles    Input files.
+     * @throws Exception    If a job failed.
+     */
+    private static void packConcurrently(final Engine engine, List<File> inputFiles) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(inputFiles.size());
+        try {
+            final List<Future<Void>> futures = new ArrayList<>();
+            for (final File inputFile : inputFiles) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    public Void call() throws IOException {
+                        engine.pack(inputFile, null, new PackOptions());
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    //</editor-fold>
+
+    /**
+     * Test for running at most the maximum number of jobs at the same time.
+     * @throws Exception If a job failed.
+     */
+    public void testMaxJobs() throws Exception {
+        final List<File> inputFiles = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            inputFiles.add(createFile("small" + i + ".jar", 0));
+        }
+        final RecordingEngine recordingEngine = new RecordingEngine();
+        packConcurrently(new LimitedEngine(recordingEngine, 2, Long.MAX_VALUE), inputFiles);
+
+        assertEquals("Not every job ran.", THREADS, recordingEngine.getJobs());
+        assertEquals("The number of running jobs isn't limited.", 2, recordingEngine.getMaxRunningJobs());
+    }
+
+    /**
+     * Test for running the jobs at the same time only while their footprints fit into the memory budget.
+     * @throws Exception If a job failed.
+     */
+    public void testMemoryBudget() throws Exception {
+        final List<File> inputFiles = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            inputFiles.add(createFile("medium" + i + ".jar", 1024 * 1024));
+        }
+        // The budget holds two footprints, but not three.
+        final long footprint = JobLimiter.estimateFootprint(inputFiles.get(0));
+        final long memoryBudget = footprint * 2 + footprint / 2;
+        final RecordingEngine recordingEngine = new RecordingEngine();
+        packConcurrently(new LimitedEngine(recordingEngine, THREADS, memoryBudget), inputFiles);
+
+        assertEquals("Not every job ran.", THREADS, recordingEngine.getJobs());
+        assertEquals("The running jobs don't fill the memory budget.", 2, recordingEngine.getMaxRunningJobs());
+        assertTrue("The running jobs exceed the memory budget.",
+                recordingEngine.getMaxRunningFootprint() <= memoryBudget);
+    }
+
+    /**
+     * Test for running alone a job whose footprint exceeds the memory budget, without blocking the other jobs.
+     * @throws Exception If a job failed.
+     */
+    public void testLargerThanBudget() throws Exception {
+        final List<File> inputFiles = new ArrayList<>();
+        for (int i = 0; i < THREADS - 1; i++) {
+            inputFiles.add(createFile("small" + i + ".jar", 0));
+        }
+        final File largeFile = createFile("large.jar", 8 * 1024 * 1024);
+        inputFiles.add(THREADS / 2, largeFile);
+        // The budget holds two small footprints, but not the large one.
+        final long memoryBudget = JobLimiter.estimateFootprint(inputFiles.get(0)) * 2;
+        assertTrue("The large job fits into the budget.", JobLimiter.estimateFootprint(largeFile) > memoryBudget);
+        final RecordingEngine recordingEngine = new RecordingEngine();
+        packConcurrently(new LimitedEngine(recordingEngine, THREADS, memoryBudget), inputFiles);
+
+        assertEquals("Not every job ran.", THREADS, recordingEngine.getJobs());
+        assertEquals("The small jobs don't run together.", 2, recordingEngine.getMaxRunningJobs());
+        assertEquals("The large job doesn't run alone.", 1, recordingEngine.getRunningJobsWith(largeFile));
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Inner classes section.">
+
+    /**
+     * Engine recording the jobs running at the same time, each one lasting {@value #JOB_DURATION} milliseconds.
+     */
+    private static final class RecordingEngine implements Engine {
+
+        /**
+         * Number of the finished jobs.
+         */
+        private int jobs;
+
+        /**
+         * Largest estimated footprint of the jobs running at the same time, in bytes.
+         */
+        private long maxRunningFootprint;
+
+        /**
+         * Largest number of jobs running at the same time.
+         */
+        private int maxRunningJobs;
+
+        /**
+         * Estimated footprint of the running jobs, in bytes.
+         */
+        private long runningFootprint;
+
+        /**
+         * Input files of the running jobs.
+         */
+        private final List<File> runningFiles = new ArrayList<>();
+
+        /**
+         * Largest number of jobs running at the same time as a job, by input file.
+         */
+        private final Map<File, Integer> runningJobsWith = new HashMap<>();
+
+        /**
+         * Records the start of a job.
+         *
+         * @param inputFile Input file of the job.
+         */
+        private synchronized void start(File inputFile) {
+            runningFiles.add(inputFile);
+            runningFootprint += JobLimiter.estimateFootprint(inputFile);
+            maxRunningJobs = Math.max(maxRunningJobs, runningFiles.size());
+            maxRunningFootprint = Math.max(maxRunningFootprint, runningFootprint);
+            for (File runningFile : runningFiles) {
+                final Integer count = runningJobsWith.get(runningFile);
+                runningJobsWith.put(runningFile, Math.max(count != null ? count : 0, runningFiles.size()));
+            }
+        }
+
+        /**
+         * Records the end of a job.
+         *
+         * @param inputFile Input file of the job.
+         */
+        private synchronized void end(File inputFile) {
+            runningFiles.remove(inputFile);
+            runningFootprint -= JobLimiter.estimateFootprint(inputFile);
+            jobs++;
+        }
+
+        /**
+         * Runs a job.
+         *
+         * @param inputFile     Input file of the job.
+         * @throws IOException  If the job was interrupted.
+         */
+        private void run(File inputFile) throws IOException {
+            start(inputFile);
+            try {
+                Thread.sleep(JOB_DURATION);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("The job was interrupted.");
+            } finally {
+                end(inputFile);
+            }
+        }
+
+        /**
+         * Gets the number of the finished jobs.
+         *
+         * @return Number of jobs.
+         */
+        private synchronized int getJobs() {
+            return jobs;
+        }
+
+        /**
+         * Gets the largest estimated footprint of the jobs running at the same time.
+         *
+         * @return Footprint, in bytes.
+         */
+        private synchronized long getMaxRunningFootprint() {
+            return maxRunningFootprint;
+        }
+
+        /**
+         * Gets the largest number of jobs running at the same time.
+         *
+         * @return Number of jobs.
+         */
+        private synchronized int getMaxRunningJobs() {
+            return maxRunningJobs;
+        }
+
+        /**
+         * Gets the largest number of jobs running at the same time as the job of an input file, itself included.
+         *
+         * @param inputFile Input file of the job.
+         * @return          Number of jobs.
+         */
+        private synchronized int getRunningJobsWith(File inputFile) {
+            return runningJobsWith.get(inputFile);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public String getVersion() {
+            return "recording";
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void pack(File inputFile, File outputFile, PackOptions options) throws IOException {
+            run(inputFile);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void repack(File inputFile, File outputFile, PackOptions options) throws IOException {
+            run(inputFile);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        public void unpack(File inputFile, File outputFile, UnpackOptions options) throws IOException {
+            run(inputFile);
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,191 @@
+package com.arhs.mojo.pack200;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.pack.AwaitMojo;
+import com.arhs.mojo.pack200.pack.PackAsyncMojo;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.project.MavenProject;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Unit tests for {@code PackAsyncMojo} and {@code AwaitMojo} classes.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class PackAsyncMojoTest extends AbstractMojoTest {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Original JAR file.
+     */
+    private static final String JAR_FILE_ORIGINAL = "src/test/resources/my-applet.original.jar";
+
+    /**
+     * POM file of the goal waiting for the packing.
+     */
+    private static final String AWAIT_POM_FILE = "src/test/resources/pom/await.xml";
+
+    /**
+     * POM file of the goal packing in the background.
+     */
+    private static final String PACK_ASYNC_POM_FILE = "src/test/resources/pom/pack-async.xml";
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Input JAR file.
+     */
+    private File inputJarFile;
+
+    /**
+     * Packed file.
+     */
+    private File outputFile;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Creates the mojo waiting for the packing, with a project receiving the attached file.
+     *
+     * @return              Mojo.
+     * @throws Exception    If the mojo object couldn't be created.
+     */
+    private AwaitMojo createAwaitMojo() throws Exception {
+        final AwaitMojo awaitMojo = createMojoByPomFile(AWAIT_POM_FILE, "await");
+        final MavenProject project = new MavenProject();
+        project.setArtifact(new DefaultArtifact("com.arhs.test", "my-simple-applet", "1.0", Artifact.SCOPE_COMPILE,
+                "jar", null, new DefaultArtifactHandler("jar")));
+        awaitMojo.attach = true;
+        awaitMojo.project = project;
+        return awaitMojo;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Protected methods section.">
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+
+        // Clean generated files.
+        if (inputJarFile != null) {
+            inputJarFile.delete();
+        }
+        outputFile.delete();
+    }
+
+    //</editor-fold>
+
+    /**
+     * Test for packing a JAR file in the background and attaching the packed file once joined.
+     * @throws Exception If the input JAR file couldn't be copied or that mojo object couldn't be executed.
+     */
+    public void testPackAsync() throws Exception {
+        // Get mojo objects.
+        final PackAsyncMojo packAsyncMojo = createMojoByPomFile(PACK_ASYNC_POM_FILE, "pack-async");
+        final AwaitMojo awaitMojo = createAwaitMojo();
+        outputFile = packAsyncMojo.outputFile;
+        outputFile.delete();
+
+        // Create a JAR file by the "inputFile" parameter.
+        inputJarFile = copyJar(packAsyncMojo.target, packAsyncMojo.inputFile, JAR_FILE_ORIGINAL);
+        packAsyncMojo.execute();
+        awaitMojo.execute();
+
+        // Checks if the packed file is created and attached.
+        assertTrue("No output file was created.", outputFile.exists());
+        final List<Artifact> artifacts = awaitMojo.project.getAttachedArtifacts();
+        assertEquals("The packed file isn't attached.", 1, artifacts.size());
+        assertEquals("The attached file is wrong.", outputFile, artifacts.get(0).getFile());
+    }
+
+    /**
+     * Test for reporting the failure of a packing in the background.
+     * @throws Exception If the input file couldn't be copied or that mojo object couldn't be executed.
+     */
+    public void testPackAsyncFailure() throws Exception {
+        // Get mojo objects.
+        final PackAsyncMojo packAsyncMojo = createMojoByPomFile(PACK_ASYNC_POM_FILE, "pack-async");
+        final AwaitMojo awaitMojo = createAwaitMojo();
+        outputFile = packAsyncMojo.outputFile;
+
+        // Create a file which isn't a JAR file by the "inputFile" parameter.
+        inputJarFile = copyJar(packAsyncMojo.target, packAsyncMojo.inputFile, "src/test/resources/pack.properties");
+        packAsyncMojo.execute();
+        try {
+            awaitMojo.execute();
+            fail("The failure of the packing wasn't reported.");
+        } catch (MojoExecutionException e) {
+            assertNotNull("The failure has no cause.", e.getCause());
+        }
+        assertTrue("The packed file is attached.", awaitMojo.project.getAttachedArtifacts().isEmpty());
+    }
+
+    /**
+     * Test for failing the wait without packing in the background, although a packed file exists.
+     * @throws Exception If the packed file couldn't be created or that mojo object couldn't be executed.
+     */
+    public void testAwaitWithoutPacking() throws Exception {
+        // Get mojo object.
+        final AwaitMojo awaitMojo = createAwaitMojo();
+        outputFile = awaitMojo.outputFile;
+
+        // Create a packed file left by a previous build.
+        FileUtils.writeStringToFile(outputFile, "stale", "UTF-8");
+        try {
+            awaitMojo.execute();
+            fail("The existing packed file was used.");
+        } catch (MojoExecutionException e) {
+            assertTrue("The failure doesn't report the goal.", e.getMessage().contains("pack-async"));
+        }
+        assertTrue("The packed file is attached.", awaitMojo.project.getAttachedArtifacts().isEmpty());
+
+        // Attaches the existing packed file on request.
+        awaitMojo.attachExisting = true;
+        awaitMojo.execute();
+        assertEquals("The existing packed file isn't attached.", 1, awaitMojo.project.getAttachedArtifacts().size());
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,128 @@
+package com.arhs.mojo.pack200;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.pack.PackFilesMojo;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Unit tests for {@code PackFilesMojo} class.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class PackFilesMojoTest extends AbstractMojoTest {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Original JAR file.
+     */
+    private static final String JAR_FILE_ORIGINAL = "src/test/resources/my-applet.original.jar";
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Pack files mojo object.
+     */
+    private PackFilesMojo packFilesMojo;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Creates the mojo object and copies the JAR files into its directory.
+     *
+     * @param pomFile       POM file.
+     * @throws Exception    If the JAR files couldn't be copied or that mojo object couldn't be created.
+     */
+    private void createMojo(String pomFile) throws Exception {
+        packFilesMojo = createMojoByPomFile(pomFile, "pack-files");
+
+        FileUtils.deleteDirectory(packFilesMojo.directory);
+        copyJar(packFilesMojo.directory, "my-applet-1.jar", JAR_FILE_ORIGINAL);
+        copyJar(packFilesMojo.directory, "lib/my-applet-2.jar", JAR_FILE_ORIGINAL);
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Protected methods section.">
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+
+        // Clean generated files.
+        FileUtils.deleteDirectory(packFilesMojo.directory);
+    }
+
+    //</editor-fold>
+
+    /**
+     * Test for packing every JAR file of a directory.
+     * @throws Exception If the JAR files couldn't be copied or that mojo object couldn't be executed.
+     */
+    public void testPackFiles() throws Exception {
+        createMojo("src/test/resources/pom/pack-files.xml");
+        packFilesMojo.execute();
+
+        // Checks if the output files exist.
+        assertTrue("No output file was created.", new File(packFilesMojo.directory, "my-applet-1.jar.pack.gz").exists());
+        assertTrue("No output file was created.", new File(packFilesMojo.directory, "lib/my-applet-2.jar.pack.gz").exists());
+    }
+
+    /**
+     * Test for packing every JAR file of a directory when a file couldn't be packed.
+     * @throws Exception If the JAR files couldn't be copied or that mojo object couldn't be executed.
+     */
+    public void testPackFilesCollectErrors() throws Exception {
+        createMojo("src/test/resources/pom/pack-files-collect.xml");
+        FileUtils.writeStringToFile(new File(packFilesMojo.directory, "broken.jar"), "Not a JAR file.",
+                StandardCharsets.UTF_8);
+
+        try {
+            packFilesMojo.execute();
+            fail("The broken JAR file was packed.");
+        } catch (MojoExecutionException e) {
+            // Checks if the other files were packed.
+            assertTrue("No output file was created.", new File(packFilesMojo.directory, "my-applet-1.jar.pack.gz").exists());
+            assertTrue("No output file was created.", new File(packFilesMojo.directory, "lib/my-applet-2.jar.pack.gz").exists());
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -23,9 +23,42 @@ package com.arhs.mojo.pack200;
  * THE SOFTWARE.
  */
 
+import com.arhs.mojo.pack200.engine.Engine;
+import com.arhs.mojo.pack200.engine.InProcessEngine;
+import com.arhs.mojo.pack200.engine.NestedJarEngine;
+import com.arhs.mojo.pack200.engine.ReproducibleEngine;
 import com.arhs.mojo.pack200.pack.PackMojo;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
+import com.arhs.mojo.pack200.packing.options.ModificationTime;
+import com.arhs.mojo.pack200.report.PerformanceReport;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.execution.AbstractExecutionListener;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
 
 /**
  * Unit tests for {@code PackMojo} class.
@@ -82,6 +115,80 @@ public class PackMojoTest extends AbstractMojoTest {
         assertTrue("No output JAR file was created.", packMojo.outputFile.exists());
     }
 
+    /**
+     * Creates a JAR file with a resource in each of 40 packages.
+     *
+     * @param file          JAR file.
+     * @param version       Content of the resource of the last package.
+     * @throws IOException  If the JAR file couldn't be written.
+     */
+    private static void createPackagesJar(File file, String version) throws IOException {
+        try (JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(file))) {
+            for (int i = 0; i < 40; i++) {
+                final JarEntry entry = new JarEntry("com/arhs/package" + i + "/resource.txt");
+                entry.setTime(0);
+                outputStream.putNextEntry(entry);
+                outputStream.write(("resource " + i + " " + (i == 39 ? version : "")).getBytes("UTF-8"));
+                outputStream.closeEntry();
+            }
+        }
+    }
+
+    /**
+     * Counts the entries of a cache directory.
+     *
+     * @param directory Cache directory.
+     * @return          Number of entries.
+     */
+    private static int countCacheEntries(File directory) {
+        return FileUtils.listFiles(directory, new String[]{"entry"}, true).size();
+    }
+
+    /**
+     * Lists the entries of a JAR file with their attributes.
+     *
+     * @param file          JAR file.
+     * @return              Entries.
+     * @throws IOException  If the JAR file couldn't be read.
+     */
+    private static List<String> listEntries(File file) throws IOException {
+        final List<String> entries = new ArrayList<>();
+        try (JarFile jarFile = new JarFile(file)) {
+            for (JarEntry entry : Collections.list(jarFile.entries())) {
+                entries.add(String.format("%s %d %d %d", entry.getName(), entry.getMethod(), entry.getTime(),
+                        entry.getSize()));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Rewrites a JAR file with its entries in the reverse order and another modification time.
+     *
+     * @param file          JAR file.
+     * @param time          Modification time of the entries.
+     * @throws IOException  If the JAR file couldn't be read or written.
+     */
+    private static void reverseJar(File file, long time) throws IOException {
+        final File reversedFile = new File(file.getPath() + ".reversed");
+        try (JarFile jarFile = new JarFile(file);
+             JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(reversedFile))) {
+            final List<JarEntry> entries = Collections.list(jarFile.entries());
+            Collections.reverse(entries);
+            for (JarEntry entry : entries) {
+                final JarEntry reversedEntry = new JarEntry(entry.getName());
+                reversedEntry.setTime(time);
+                outputStream.putNextEntry(reversedEntry);
+                try (InputStream inputStream = jarFile.getInputStream(entry)) {
+                    IOUtils.copy(inputStream, outputStream);
+                }
+                outputStream.closeEntry();
+            }
+        }
+        FileUtils.copyFile(reversedFile, file);
+        reversedFile.delete();
+    }
+
     //</editor-fold>
 
     //<editor-fold desc="Protected methods section.">
@@ -120,6 +227,478 @@ public class PackMojoTest extends AbstractMojoTest {
         testPack("src/test/resources/pom/pack-options.xml");
     }
 
+    /**
+     * Test for skipping the packing of a JAR file which didn't change.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackUpToDate() throws Exception {
+        testPack("src/test/resources/pom/pack-up-to-date.xml");
+        assertTrue("The output file couldn't be modified.", packMojo.outputFile.setLastModified(0));
+
+        // Checks if the output file isn't created again.
+        packMojo.execute();
+        assertEquals("The output file was created again.", 0, packMojo.outputFile.lastModified());
+
+        // Checks if the output file is created again when the options change.
+        packMojo.effort = "1";
+        packMojo.execute();
+        assertTrue("The output file wasn't created again.", packMojo.outputFile.lastModified() > 0);
+
+        // Checks if the output file is created again when the number of compression threads changes.
+        assertTrue("The output file couldn't be modified.", packMojo.outputFile.setLastModified(0));
+        packMojo.compressionThreads = packMojo.compressionThreads == 1 ? 2 : 1;
+        packMojo.execute();
+        assertTrue("The output file wasn't created again.", packMojo.outputFile.lastModified() > 0);
+    }
+
+    /**
+     * Test for restoring a compressed JAR file from the cache.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackCache() throws Exception {
+        FileUtils.deleteDirectory(new File("target/pack200-cache"));
+        testPack("src/test/resources/pom/pack-cache.xml");
+
+        // Replaces the cache entry to check that it is restored.
+        final Collection<File> entries = FileUtils.listFiles(packMojo.cacheDirectory, new String[]{"entry"}, true);
+        assertEquals("No cache entry was created.", 1, entries.size());
+        FileUtils.writeStringToFile(entries.iterator().next(), "cached", StandardCharsets.UTF_8);
+
+        packMojo.outputFile.delete();
+        packMojo.execute();
+        assertEquals("The output file wasn't restored from the cache.", "cached",
+                FileUtils.readFileToString(packMojo.outputFile, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test for create a compressed JAR file with the in-process engine.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackInProcess() throws Exception {
+        testPack("src/test/resources/pom/pack-in-process.xml");
+
+        // Checks if the output file is compressed with GZIP.
+        try (InputStream inputStream = new FileInputStream(packMojo.outputFile)) {
+            assertEquals("The output file isn't compressed.", 0x1f, inputStream.read());
+            assertEquals("The output file isn't compressed.", 0x8b, inputStream.read());
+        }
+    }
+
+    /**
+     * Test for create a compressed JAR file with several compression threads.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackParallelGzip() throws Exception {
+        testPack("src/test/resources/pom/pack-parallel-gzip.xml");
+
+        // Checks if the output file is a valid GZIP file containing a packed file.
+        try (InputStream inputStream = new GZIPInputStream(new FileInputStream(packMojo.outputFile))) {
+            assertEquals("The output file isn't packed.", 0xca, inputStream.read());
+            assertEquals("The output file isn't packed.", 0xfe, inputStream.read());
+            assertEquals("The output file isn't packed.", 0xd0, inputStream.read());
+            assertEquals("The output file isn't packed.", 0x0d, inputStream.read());
+            while (inputStream.read(new byte[8192]) != -1) {
+                // Reads until the end, which checks the CRC.
+            }
+        }
+    }
+
+    /**
+     * Test for create a JAR file packed and compressed with XZ.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackXz() throws Exception {
+        testPack("src/test/resources/pom/pack-xz.xml");
+
+        // Checks if the output file is compressed with XZ.
+        try (InputStream inputStream = new FileInputStream(packMojo.outputFile)) {
+            assertEquals("The output file isn't compressed with XZ.", 0xfd, inputStream.read());
+            assertEquals("The output file isn't compressed with XZ.", '7', inputStream.read());
+            assertEquals("The output file isn't compressed with XZ.", 'z', inputStream.read());
+            assertEquals("The output file isn't compressed with XZ.", 'X', inputStream.read());
+            assertEquals("The output file isn't compressed with XZ.", 'Z', inputStream.read());
+        }
+    }
+
+    /**
+     * Test for search the packing settings producing the smallest file, then reuse them.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackTuning() throws Exception {
+        new File("target/pack200-tuning.properties").delete();
+        testPack("src/test/resources/pom/pack-tuning.xml");
+
+        // Checks if the settings are recorded.
+        assertTrue("No tuning file was created.", packMojo.tuningFile.exists());
+        final Properties properties = new Properties();
+        try (InputStream inputStream = new FileInputStream(packMojo.tuningFile)) {
+            properties.load(inputStream);
+        }
+        assertNotNull("No effort was recorded.", properties.getProperty("my-applet.jar.effort"));
+        assertEquals("The size of the packed file is wrong.", String.valueOf(packMojo.outputFile.length()),
+                properties.getProperty("my-applet.jar.packedLength"));
+
+        // Checks if the settings are reused while the JAR file doesn't change.
+        assertTrue("The tuning file couldn't be modified.", packMojo.tuningFile.setLastModified(0));
+        packMojo.execute();
+        assertEquals("The tuning ran again.", 0, packMojo.tuningFile.lastModified());
+
+        // Checks if another JAR file sharing the tuning file is tuned without discarding the settings of the first one.
+        final File otherJarFile = copyJar(packMojo.target, "my-other-applet.jar", JAR_FILE_ORIGINAL);
+        try {
+            packMojo.inputFile = otherJarFile.getName();
+            packMojo.execute();
+            assertTrue("The other JAR file wasn't tuned.", packMojo.tuningFile.lastModified() != 0);
+            properties.clear();
+            try (InputStream inputStream = new FileInputStream(packMojo.tuningFile)) {
+                properties.load(inputStream);
+            }
+            assertNotNull("No effort was recorded for the other JAR file.",
+                    properties.getProperty("my-other-applet.jar.effort"));
+            assertNotNull("The settings of the first JAR file were discarded.",
+                    properties.getProperty("my-applet.jar.effort"));
+        } finally {
+            otherJarFile.delete();
+        }
+    }
+
+    /**
+     * Test for create a compressed JAR file by packing its segments concurrently.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackParallelSegments() throws Exception {
+        testPack("src/test/resources/pom/pack-parallel-segments.xml");
+
+        // Checks if the unpacked JAR file has the same entries as the one of a serial packing.
+        final Engine engine = new InProcessEngine(new SystemStreamLog(), false);
+        final File serialPackedFile = new File("target/my-applet.serial.jar.pack.gz");
+        final File serialJarFile = new File("target/my-applet.serial.jar");
+        final File parallelJarFile = new File("target/my-applet.parallel.jar");
+        engine.pack(inputJarFile, serialPackedFile, new PackOptions());
+        engine.unpack(serialPackedFile, serialJarFile, new UnpackOptions());
+        engine.unpack(packMojo.outputFile, parallelJarFile, new UnpackOptions());
+        assertEquals("The unpacked JAR files are different.", listEntries(serialJarFile), listEntries(parallelJarFile));
+    }
+
+    /**
+     * Test for create a compressed JAR file by packing its segments concurrently with the latest modification time.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackParallelSegmentsLatest() throws Exception {
+        packMojo = createMojoByPomFile("src/test/resources/pom/pack-parallel-segments.xml", "pack");
+        packMojo.modificationTime = ModificationTime.LATEST;
+        inputJarFile = new File(packMojo.target, packMojo.inputFile);
+
+        // Create a JAR file whose parts have different latest times.
+        try (JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(inputJarFile))) {
+            for (int i = 0; i < 2; i++) {
+                final JarEntry entry = new JarEntry("com/arhs/resource" + i + ".txt");
+                entry.setTime(1000000000000L + i * 3600000L);
+                outputStream.putNextEntry(entry);
+                outputStream.write(new byte[1024]);
+                outputStream.closeEntry();
+            }
+        }
+        packMojo.execute();
+
+        // Checks if the entries have the latest time of the whole JAR file, as with a serial packing.
+        final Engine engine = new InProcessEngine(new SystemStreamLog(), false);
+        final PackOptions options = new PackOptions();
+        options.setModificationTime(ModificationTime.LATEST);
+        final File serialPackedFile = new File("target/my-applet.serial-latest.jar.pack.gz");
+        final File serialJarFile = new File("target/my-applet.serial-latest.jar");
+        final File parallelJarFile = new File("target/my-applet.parallel-latest.jar");
+        engine.pack(inputJarFile, serialPackedFile, options);
+        engine.unpack(serialPackedFile, serialJarFile, new UnpackOptions());
+        engine.unpack(packMojo.outputFile, parallelJarFile, new UnpackOptions());
+        assertEquals("The unpacked JAR files are different.", listEntries(serialJarFile), listEntries(parallelJarFile));
+    }
+
+    /**
+     * Test for create a compressed JAR file with a worker Java Virtual Machine.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackWorker() throws Exception {
+        testPack("src/test/resources/pom/pack-worker.xml");
+
+        // Checks if the warm worker unpacks the same entries as the in-process engine.
+        final Engine engine = packMojo.engine.createEngine(new SystemStreamLog(), false);
+        final File workerJarFile = new File("target/my-applet.worker.jar");
+        final File inProcessJarFile = new File("target/my-applet.in-process.jar");
+        engine.unpack(packMojo.outputFile, workerJarFile, new UnpackOptions());
+        new InProcessEngine(new SystemStreamLog(), false).unpack(packMojo.outputFile, inProcessJarFile,
+                new UnpackOptions());
+        assertEquals("The unpacked JAR files are different.", listEntries(inProcessJarFile),
+                listEntries(workerJarFile));
+    }
+
+    /**
+     * Test for create a compressed JAR file by a worker whose heap is set by the memory budget.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackMemoryBudget() throws Exception {
+        testPack("src/test/resources/pom/pack-memory-budget.xml");
+
+        // Checks if the packed file unpacks into the entries of the JAR file.
+        final File jarFile = new File("target/my-applet.memory-budget.jar");
+        new InProcessEngine(new SystemStreamLog(), false).unpack(packMojo.outputFile, jarFile, new UnpackOptions());
+        assertEquals("The unpacked JAR file is different.", listEntries(new File("src/test/resources/my-applet.jar")),
+                listEntries(jarFile));
+    }
+
+    /**
+     * Test for create a compressed fat JAR file whose nested JAR files are packed.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackNestedJars() throws Exception {
+        packMojo = createMojoByPomFile("src/test/resources/pom/pack-nested-jars.xml", "pack");
+        inputJarFile = new File(packMojo.target, packMojo.inputFile);
+        createFatJar(inputJarFile, JAR_FILE_ORIGINAL);
+        packMojo.execute();
+        assertTrue("No output JAR file was created.", packMojo.outputFile.exists());
+
+        // Checks if the fat JAR file is reassembled with the entries of the nested JAR file.
+        final File jarFile = new File("target/my-applet.nested-jars.jar");
+        final File libraryFile = new File("target/my-applet.nested-jars.library.jar");
+        new NestedJarEngine(new InProcessEngine(new SystemStreamLog(), false), new SystemStreamLog(), 0)
+                .unpack(packMojo.outputFile, jarFile, new UnpackOptions());
+        try (JarFile unpackedJarFile = new JarFile(jarFile)) {
+            assertNull("The index is left.", unpackedJarFile.getEntry(NestedJarEngine.INDEX_NAME));
+            final JarEntry entry = unpackedJarFile.getJarEntry("BOOT-INF/lib/my-applet.jar");
+            assertNotNull("The nested JAR file is missing.", entry);
+            assertEquals("The nested JAR file isn't stored.", ZipEntry.STORED, entry.getMethod());
+            FileUtils.copyInputStreamToFile(unpackedJarFile.getInputStream(entry), libraryFile);
+        }
+        final List<String> expectedEntries = listEntries(new File(JAR_FILE_ORIGINAL));
+        final List<String> entries = listEntries(libraryFile);
+        Collections.sort(expectedEntries);
+        Collections.sort(entries);
+        assertEquals("The nested JAR file is different.", expectedEntries, entries);
+    }
+
+    /**
+     * Test for create a compressed JAR file whose classes are passed through the packer.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackPassThrough() throws Exception {
+        testPack("src/test/resources/pom/pack-pass-through.xml");
+
+        // Checks if the class is unpacked as it is, although the debugging attributes are stripped.
+        final File jarFile = new File("target/my-applet.pass-through.jar");
+        new InProcessEngine(new SystemStreamLog(), false).unpack(packMojo.outputFile, jarFile, new UnpackOptions());
+        final String className = "com/arhs/test/MySimpleApplet.class";
+        try (JarFile originalJarFile = new JarFile(inputJarFile); JarFile unpackedJarFile = new JarFile(jarFile)) {
+            assertTrue("The class isn't passed through.", Arrays.equals(
+                    IOUtils.toByteArray(originalJarFile.getInputStream(originalJarFile.getEntry(className))),
+                    IOUtils.toByteArray(unpackedJarFile.getInputStream(unpackedJarFile.getEntry(className)))));
+        }
+    }
+
+    /**
+     * Test for create a compressed JAR file incrementally, by reusing the packed segments which didn't change.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackIncremental() throws Exception {
+        packMojo = createMojoByPomFile("src/test/resources/pom/pack-incremental.xml", "pack");
+        FileUtils.deleteDirectory(packMojo.cacheDirectory);
+        inputJarFile = new File(packMojo.target, packMojo.inputFile);
+        createPackagesJar(inputJarFile, "1.0");
+        packMojo.execute();
+        final int segments = countCacheEntries(packMojo.cacheDirectory);
+        assertTrue("The JAR file isn't packed into several segments.", segments > 1);
+
+        // Checks if only the segment of the changed resource is packed again.
+        createPackagesJar(inputJarFile, "1.1");
+        packMojo.execute();
+        assertEquals("The unchanged segments are packed again.", segments + 1,
+                countCacheEntries(packMojo.cacheDirectory));
+
+        // Checks if only the segment of the passed through resource is packed again.
+        packMojo.passThroughIncludes = Collections.singletonList("com/arhs/package0/*.txt");
+        packMojo.execute();
+        assertEquals("The segments without passed through resource are packed again.", segments + 2,
+                countCacheEntries(packMojo.cacheDirectory));
+
+        // Checks if the segments unpack into the entries of the JAR file.
+        final File jarFile = new File("target/my-applet.incremental.jar");
+        new InProcessEngine(new SystemStreamLog(), false).unpack(packMojo.outputFile, jarFile, new UnpackOptions());
+        assertEquals("The unpacked JAR file is different.", listEntries(inputJarFile), listEntries(jarFile));
+    }
+
+    /**
+     * Test for create a reproducible compressed JAR file.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackReproducible() throws Exception {
+        testPack("src/test/resources/pom/pack-reproducible.xml");
+        final byte[] packedFile = FileUtils.readFileToByteArray(packMojo.outputFile);
+
+        // Checks if the same entries, in another order and with other modification times, produce the same bytes.
+        reverseJar(inputJarFile, System.currentTimeMillis());
+        packMojo.execute();
+        assertTrue("The packed files are different.",
+                Arrays.equals(packedFile, FileUtils.readFileToByteArray(packMojo.outputFile)));
+
+        // Checks if the entries are unpacked with the timestamp as modification time.
+        final File jarFile = new File("target/my-applet.reproducible.jar");
+        new InProcessEngine(new SystemStreamLog(), false).unpack(packMojo.outputFile, jarFile, new UnpackOptions());
+        final long timestamp = ReproducibleEngine.parseTimestamp(packMojo.outputTimestamp);
+        try (JarFile unpackedJarFile = new JarFile(jarFile)) {
+            for (JarEntry entry : Collections.list(unpackedJarFile.entries())) {
+                assertEquals("The modification time isn't the timestamp: " + entry.getName(), timestamp,
+                        entry.getTime());
+            }
+        }
+    }
+
+    /**
+     * Test for create a compressed JAR file and write its performance report.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackReport() throws Exception {
+        final File reportFile = new File("target/pack200-reports/pack-my-applet.jar.pack.gz.json");
+        reportFile.delete();
+        testPack("src/test/resources/pom/pack-report.xml");
+
+        // Checks if the report describes the execution.
+        assertTrue("No report file was created.", reportFile.exists());
+        final String report = FileUtils.readFileToString(reportFile, "UTF-8");
+        assertTrue("The goal isn't reported.", report.contains("\"goal\": \"pack\""));
+        assertTrue("The input size is wrong.", report.contains("\"inputBytes\": " + inputJarFile.length()));
+        assertTrue("The output size is wrong.", report.contains("\"outputBytes\": " + packMojo.outputFile.length()));
+        assertTrue("The phases aren't reported.", report.contains("\"compress\": "));
+        assertFalse("No entry was counted.", report.contains("\"entries\": 0,"));
+        assertFalse("No heap usage was sampled.", report.contains("\"peakHeapBytes\": 0,"));
+    }
+
+    /**
+     * Test for failing the packing of a broken JAR file without leaving an output packed file.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackBroken() throws Exception {
+        packMojo = createMojoByPomFile("src/test/resources/pom/pack.xml", "pack");
+        inputJarFile = copyJar(packMojo.target, packMojo.inputFile, JAR_FILE_ORIGINAL);
+        FileUtils.writeStringToFile(inputJarFile, "This isn't a JAR file.", "UTF-8");
+        packMojo.outputFile.delete();
+
+        try {
+            packMojo.execute();
+            fail("The packing of a broken JAR file succeeded.");
+        } catch (MojoExecutionException e) {
+            // Checks if neither the output packed file nor a temporary file is left.
+            assertFalse("A truncated output packed file was left.", packMojo.outputFile.exists());
+            final File directory = packMojo.outputFile.getAbsoluteFile().getParentFile();
+            final String[] temporaryFiles = directory.list((dir, name) -> name.matches("pack-?\\d+\\.pack.*"));
+            assertEquals("A temporary file was left.", 0, temporaryFiles.length);
+        }
+    }
+
+    /**
+     * Test for stopping the heap sampling of the performance report when the packing fails.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackReportFailure() throws Exception {
+        packMojo = createMojoByPomFile("src/test/resources/pom/pack-report.xml", "pack");
+        inputJarFile = copyJar(packMojo.target, packMojo.inputFile, JAR_FILE_ORIGINAL);
+        FileUtils.writeStringToFile(inputJarFile, "This isn't a JAR file.", "UTF-8");
+
+        try {
+            packMojo.execute();
+            fail("The packing of a broken JAR file succeeded.");
+        } catch (MojoExecutionException e) {
+            assertEquals("The report of the failed execution is still sampled.", 0,
+                    PerformanceReport.countSampledReports());
+        }
+    }
+
+    /**
+     * Test for logging the summary of the reports of the reactor at the end of the session.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackReactorReport() throws Exception {
+        packMojo = createMojoByPomFile("src/test/resources/pom/pack-report.xml", "pack");
+        inputJarFile = copyJar(packMojo.target, packMojo.inputFile, JAR_FILE_ORIGINAL);
+        final List<String> messages = new ArrayList<>();
+        packMojo.setLog(new SystemStreamLog() {
+            @Override
+            public void info(CharSequence content) {
+                messages.add(content.toString());
+            }
+        });
+        final MavenProject project = new MavenProject();
+        project.getBuild().setDirectory("target");
+        final MavenSession session = newMavenSession(project);
+        session.getRequest().setStartTime(new Date());
+        final List<String> events = new ArrayList<>();
+        session.getRequest().setExecutionListener(new AbstractExecutionListener() {
+            @Override
+            public void sessionEnded(ExecutionEvent event) {
+                events.add("sessionEnded");
+            }
+        });
+        packMojo.session = session;
+        packMojo.execute();
+
+        // Checks if the summary of the reactor is only logged at the end of the session, before the summary of Maven.
+        for (String message : messages) {
+            assertFalse("The summary of the reactor was logged before the end.", message.startsWith("reactor: "));
+        }
+        session.getRequest().getExecutionListener().sessionEnded(null);
+        assertTrue("The summary of the reactor wasn't logged.", messages.get(messages.size() - 1)
+                .startsWith("reactor: 1 executions"));
+        assertEquals("The end of the session wasn't forwarded.", Collections.singletonList("sessionEnded"), events);
+    }
+
+    /**
+     * Test for deferring the packing of the JAR files to the end of the reactor.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackAggregate() throws Exception {
+        packMojo = createMojoByPomFile("src/test/resources/pom/pack-aggregate.xml", "pack");
+        final PackMojo lastMojo = createMojoByPomFile("src/test/resources/pom/pack-aggregate.xml", "pack");
+        lastMojo.outputFile = new File(packMojo.outputFile.getParentFile(), "my-applet.last.jar.pack.gz");
+        inputJarFile = copyJar(packMojo.target, packMojo.inputFile, JAR_FILE_ORIGINAL);
+
+        // Simulate a reactor of two projects executing the goal.
+        final MavenSession session = newMavenSession(new MavenProject());
+        session.getRequest().setStartTime(new Date());
+        session.setProjects(Arrays.asList(new MavenProject(), new MavenProject()));
+        packMojo.session = session;
+        lastMojo.session = session;
+
+        // Checks if the JAR files are packed by the last execution.
+        try {
+            packMojo.execute();
+            assertFalse("The packing wasn't deferred.", packMojo.outputFile.exists());
+            lastMojo.execute();
+            assertTrue("The deferred JAR file wasn't packed.", packMojo.outputFile.exists());
+            assertTrue("The last JAR file wasn't packed.", lastMojo.outputFile.exists());
+        } finally {
+            lastMojo.outputFile.delete();
+        }
+    }
+
+    /**
+     * Test for packing the deferred JAR files at the end of the session when the last execution doesn't run.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testPackAggregateSessionEnd() throws Exception {
+        packMojo = createMojoByPomFile("src/test/resources/pom/pack-aggregate.xml", "pack");
+        inputJarFile = copyJar(packMojo.target, packMojo.inputFile, JAR_FILE_ORIGINAL);
+
+        // Simulate a reactor of two projects, whose second execution never runs.
+        final MavenSession session = newMavenSession(new MavenProject());
+        session.getRequest().setStartTime(new Date());
+        session.setProjects(Arrays.asList(new MavenProject(), new MavenProject()));
+        packMojo.session = session;
+        packMojo.execute();
+        assertFalse("The packing wasn't deferred.", packMojo.outputFile.exists());
+
+        // Checks if the deferred JAR file is packed at the end of the session.
+        session.getRequest().getExecutionListener().sessionEnded(null);
+        assertTrue("The deferred JAR file wasn't packed.", packMojo.outputFile.exists());
+        assertFalse("The build failed.", session.getResult().hasExceptions());
+    }
     //</editor-fold>
 
 }
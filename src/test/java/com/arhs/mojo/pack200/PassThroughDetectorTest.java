@@ -0,0 +1,192 @@
+package com.arhs.mojo.pack200;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.analysis.PassThroughDetector;
+import com.arhs.mojo.pack200.compression.ParallelGzipOutputStream;
+import junit.framework.TestCase;
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.jar.JarOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Unit tests for {@code PassThroughDetector} and {@code ParallelGzipOutputStream} classes, which pass the compressed
+ * data through.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class PassThroughDetectorTest extends TestCase {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * JAR file of the tests.
+     */
+    private static final File JAR_FILE = new File("target/pass-through/resources.jar");
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Creates the JAR file of the tests, with compressed and compressible resources.
+     * <p>
+     * The PNG image and the random blob are compressed, the first one being recognized by its extension and the
+     * second one by the entropy of its first bytes. The text is compressible, and an excluded blob is compressed.
+     * </p>
+     *
+     * @throws IOException If the JAR file couldn't be written.
+     */
+    private static void createJar() throws IOException {
+        final byte[] image = createRandomBytes(8192, 1);
+        System.arraycopy(new byte[] {(byte) 0x89, 'P', 'N', 'G'}, 0, image, 0, 4);
+
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 8192; i++) {
+            text.append("Line ").append(i).append(" of a compressible text resource.\n");
+        }
+
+        JAR_FILE.getParentFile().mkdirs();
+        try (JarOutputStream outputStream = new JarOutputStream(new FileOutputStream(JAR_FILE))) {
+            writeEntry(outputStream, "images/logo.png", image);
+            writeEntry(outputStream, "data/blob.bin", createRandomBytes(8192, 2));
+            writeEntry(outputStream, "text/readme.txt", text.toString().getBytes(StandardCharsets.UTF_8));
+            writeEntry(outputStream, "data/excluded.bin", createRandomBytes(8192, 3));
+        }
+    }
+
+    /**
+     * Creates random bytes, which are incompressible.
+     *
+     * @param length    Number of bytes.
+     * @param seed      Seed of the generator.
+     * @return          Bytes.
+     */
+    private static byte[] createRandomBytes(int length, long seed) {
+        final byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes an entry.
+     *
+     * @param outputStream  Output JAR stream.
+     * @param name          Name of the entry.
+     * @param content       Content of the entry.
+     * @throws IOException  If the entry couldn't be written.
+     */
+    private static void writeEntry(JarOutputStream outputStream, String name, byte[] content) throws IOException {
+        outputStream.putNextEntry(new ZipEntry(name));
+        outputStream.write(content);
+        outputStream.closeEntry();
+    }
+
+    //</editor-fold>
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        createJar();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        JAR_FILE.delete();
+    }
+
+    /**
+     * Test for detecting the compressed resources, but neither the compressible ones nor the excluded ones.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testDetect() throws Exception {
+        final PassThroughDetector detector = new PassThroughDetector(true, null,
+                Collections.singletonList("**/excluded.bin"));
+        assertEquals("The detected resources are wrong.", Arrays.asList("images/logo.png", "data/blob.bin"),
+                detector.detect(JAR_FILE));
+    }
+
+    /**
+     * Test for excluding a resource matched by an include pattern.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testDetectExcludeWins() throws Exception {
+        final PassThroughDetector detector = new PassThroughDetector(false, Collections.singletonList("**/*.bin"),
+                Collections.singletonList("**/excluded.bin"));
+        assertEquals("The excluded resource is passed through.", Collections.singletonList("data/blob.bin"),
+                detector.detect(JAR_FILE));
+    }
+
+    /**
+     * Test for compressing with GZIP blocks of which some are stored, then decompressing the same bytes.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testStoreIncompressible() throws Exception {
+        // Alternates incompressible blocks and compressible blocks, larger than the blocks of the stream.
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        for (int i = 0; i < 3; i++) {
+            data.write(createRandomBytes(300 * 1024, i));
+            data.write(new byte[300 * 1024]);
+        }
+        final byte[] bytes = data.toByteArray();
+
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream outputStream = new ParallelGzipOutputStream(compressed, -1, 2, true)) {
+            outputStream.write(bytes);
+        }
+        assertTrue("The compressible blocks aren't deflated.", compressed.size() < bytes.length * 2 / 3);
+
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertTrue("The decompressed bytes are different.", Arrays.equals(bytes,
+                    IOUtils.toByteArray(inputStream)));
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,228 @@
+package com.arhs.mojo.pack200;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.pack.PackMojo;
+import com.arhs.mojo.pack200.pack.RepackMojo;
+import com.arhs.mojo.pack200.unpack.UnpackMojo;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end performance suite of the {@code pack}, {@code unpack} and {@code repack} goals on synthetic JAR files of
+ * growing sizes.
+ * <p>
+ * The duration, the peak heap usage and the ratio of every execution are read from its performance report and
+ * written into <code>target/performance/curves.csv</code>. The suite fails if the time per megabyte of a goal at a
+ * size exceeds the best one of the goal at the smaller sizes by more than the maximal slowdown, which reveals a
+ * non-linear behavior.
+ * </p>
+ * <p>
+ * The suite is only run by the <code>performance</code> profile. The sizes, in megabytes, are set by the
+ * <code>pack200.performance.sizes</code> property and the maximal slowdown by the
+ * <code>pack200.performance.maxSlowdown</code> property.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class PerformanceSuiteTest extends AbstractMojoTest {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Header of the curves file.
+     */
+    private static final String CURVES_HEADER =
+            "goal,jarBytes,inputBytes,outputBytes,ratio,durationMillis,peakHeapBytes,millisPerMegabyte";
+
+    /**
+     * Default maximal slowdown of the time per megabyte.
+     */
+    private static final String DEFAULT_MAX_SLOWDOWN = "3";
+
+    /**
+     * Default sizes of the JAR files, in megabytes.
+     */
+    private static final String DEFAULT_SIZES = "1,5,25,100,500";
+
+    /**
+     * Directory of the suite.
+     */
+    private static final File DIRECTORY = new File("target/performance");
+
+    /**
+     * Goals of the suite, in the order of their executions.
+     */
+    private static final String[] GOALS = {"pack", "unpack", "repack"};
+
+    /**
+     * Number of bytes per megabyte.
+     */
+    private static final long MEGABYTE = 1024 * 1024;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Gets the sizes of the JAR files.
+     *
+     * @return Sizes, in megabytes, in ascending order.
+     */
+    private static List<Integer> getSizes() {
+        final List<Integer> sizes = new ArrayList<>();
+        for (String size : System.getProperty("pack200.performance.sizes", DEFAULT_SIZES).split(",")) {
+            if (!size.trim().isEmpty()) {
+                sizes.add(Integer.valueOf(size.trim()));
+            }
+        }
+        Collections.sort(sizes);
+        return sizes;
+    }
+
+    /**
+     * Reads a number of a performance report.
+     *
+     * @param report    Performance report, in JSON.
+     * @param key       Key of the number.
+     * @return          Number.
+     */
+    private static double readNumber(String report, String key) {
+        final Matcher matcher = Pattern.compile("\"" + key + "\": (-?[0-9.Ee+-]+)").matcher(report);
+        assertTrue("The report has no " + key + ".", matcher.find());
+        return Double.parseDouble(matcher.group(1));
+    }
+
+    /**
+     * Reads the performance report of an execution and records it into the curves.
+     *
+     * @param reportFile    Performance report.
+     * @param goal          Goal of the execution.
+     * @param jarBytes      Size of the JAR file, in bytes, whatever the input of the goal is.
+     * @param curves        Lines of the curves file.
+     * @return              Time per megabyte of the JAR file, in milliseconds.
+     * @throws IOException  If the report couldn't be read.
+     */
+    private static double record(File reportFile, String goal, long jarBytes, List<String> curves)
+            throws IOException {
+        assertTrue("No report file was created: " + reportFile, reportFile.exists());
+        final String report = FileUtils.readFileToString(reportFile, "UTF-8");
+        final long durationMillis = (long) readNumber(report, "durationMillis");
+        final double millisPerMegabyte = durationMillis * (double) MEGABYTE / jarBytes;
+        final String line = String.format(Locale.ROOT, "%s,%d,%d,%d,%.4f,%d,%d,%.2f", goal, jarBytes,
+                (long) readNumber(report, "inputBytes"), (long) readNumber(report, "outputBytes"),
+                readNumber(report, "ratio"), durationMillis, (long) readNumber(report, "peakHeapBytes"),
+                millisPerMegabyte);
+        curves.add(line);
+        return millisPerMegabyte;
+    }
+
+    //</editor-fold>
+
+    /**
+     * Test for packing, unpacking and repacking JAR files of growing sizes in a time proportional to their sizes.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testGoalsScaleLinearly() throws Exception {
+        final double maxSlowdown = Double.parseDouble(System.getProperty("pack200.performance.maxSlowdown",
+                DEFAULT_MAX_SLOWDOWN));
+        final File reportDirectory = new File(DIRECTORY, "reports");
+        FileUtils.deleteDirectory(DIRECTORY);
+        FileUtils.forceMkdir(reportDirectory);
+
+        final List<String> curves = new ArrayList<>();
+        curves.add(CURVES_HEADER);
+        final Map<String, Map<Integer, Double>> rates = new LinkedHashMap<>();
+        for (String goal : GOALS) {
+            rates.put(goal, new LinkedHashMap<Integer, Double>());
+        }
+
+        for (int size : getSizes()) {
+            final String name = "synthetic-" + size + "mb.jar";
+            final File jarFile = new File(DIRECTORY, name);
+            SyntheticJarGenerator.forSize(size * MEGABYTE).create(jarFile);
+            final long jarBytes = jarFile.length();
+
+            // Packs the JAR file.
+            final PackMojo packMojo = createMojoByPomFile("src/test/resources/pom/performance-pack.xml", "pack");
+            packMojo.inputFile = name;
+            packMojo.outputFile = new File(DIRECTORY, name + ".pack.gz");
+            packMojo.execute();
+            rates.get("pack").put(size, record(new File(reportDirectory, "pack-" + name + ".pack.gz.json"),
+                    "pack", jarBytes, curves));
+
+            // Unpacks the packed file.
+            final UnpackMojo unpackMojo = createMojoByPomFile("src/test/resources/pom/performance-unpack.xml",
+                    "unpack");
+            unpackMojo.inputFile = name + ".pack.gz";
+            unpackMojo.outputFile = new File(DIRECTORY, "unpacked-" + name);
+            unpackMojo.execute();
+            rates.get("unpack").put(size, record(new File(reportDirectory, "unpack-unpacked-" + name + ".json"),
+                    "unpack", jarBytes, curves));
+
+            // Repacks the JAR file in place.
+            final RepackMojo repackMojo = createMojoByPomFile("src/test/resources/pom/performance-repack.xml",
+                    "repack");
+            repackMojo.inputFile = name;
+            repackMojo.execute();
+            rates.get("repack").put(size, record(new File(reportDirectory, "repack-" + name + ".json"),
+                    "repack", jarBytes, curves));
+
+            // Deletes the files of the size, which can be large.
+            FileUtils.deleteQuietly(jarFile);
+            FileUtils.deleteQuietly(packMojo.outputFile);
+            FileUtils.deleteQuietly(unpackMojo.outputFile);
+        }
+        FileUtils.writeLines(new File(DIRECTORY, "curves.csv"), "UTF-8", curves);
+
+        // Checks if the time per megabyte doesn't grow with the size. The smallest sizes are slower while the JIT
+        // compiler warms up, so every size is only compared with the smaller ones.
+        for (Map.Entry<String, Map<Integer, Double>> goalRates : rates.entrySet()) {
+            double bestRate = Double.MAX_VALUE;
+            for (Map.Entry<Integer, Double> rate : goalRates.getValue().entrySet()) {
+                bestRate = Math.min(bestRate, rate.getValue());
+                assertTrue(String.format(Locale.ROOT, "The %s goal isn't linear: %.2f ms/MB at %d MB, %.2f at best.",
+                        goalRates.getKey(), rate.getValue(), rate.getKey(), bestRate),
+                        rate.getValue() <= Math.max(bestRate, 1) * maxSlowdown);
+            }
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -24,8 +24,19 @@ package com.arhs.mojo.pack200;
  */
 
 import com.arhs.mojo.pack200.pack.RepackMojo;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
 
 /**
  * Unit tests for {@code RepackMojo} class.
@@ -58,15 +69,52 @@ public class RepackMojoTest extends AbstractMojoTest {
 
     //<editor-fold desc="Private methods section.">
 
+    /**
+     * Reads the entries of a JAR file.
+     *
+     * @param file          JAR file.
+     * @param raw           {@code true} to read the compressed bytes, {@code false} to read the content.
+     * @return              Bytes of the entries, by name.
+     * @throws IOException  If the JAR file couldn't be read.
+     */
+    private static Map<String, byte[]> readEntries(File file, boolean raw) throws IOException {
+        final Map<String, byte[]> entries = new TreeMap<>();
+        try (ZipFile zipFile = ZipFile.builder().setFile(file).get()) {
+            for (ZipArchiveEntry entry : Collections.list(zipFile.getEntries())) {
+                try (InputStream inputStream = raw ? zipFile.getRawInputStream(entry) : zipFile.getInputStream(entry)) {
+                    entries.put(entry.getName(), IOUtils.toByteArray(inputStream));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Reads the compression methods of the entries of a JAR file.
+     *
+     * @param file          JAR file.
+     * @return              Compression methods, by name.
+     * @throws IOException  If the JAR file couldn't be read.
+     */
+    private static Map<String, Integer> readMethods(File file) throws IOException {
+        final Map<String, Integer> methods = new TreeMap<>();
+        try (ZipFile zipFile = ZipFile.builder().setFile(file).get()) {
+            for (ZipArchiveEntry entry : Collections.list(zipFile.getEntries())) {
+                methods.put(entry.getName(), entry.getMethod());
+            }
+        }
+        return methods;
+    }
+
     /**
      * Test for packing and unpacking a JAR file with a specific POM file.
      *
      * @param pomFile       POM file.
      * @throws Exception    If the input JAR file couldn't be copied or that mojo object couldn't be executed.
      */
-    private void testRepack(String pomFile) throws Exception {
+    private RepackMojo testRepack(String pomFile) throws Exception {
         // Get mojo object.
-        RepackMojo repackMojo = createMojoByPomFile(pomFile, "repack");
+        final RepackMojo repackMojo = createMojoByPomFile(pomFile, "repack");
 
         // Create a JAR file by the "inputFile" parameter.
         inputJarFile = copyJar(repackMojo.target, repackMojo.inputFile, JAR_FILE_ORIGINAL);
@@ -74,6 +122,7 @@ public class RepackMojoTest extends AbstractMojoTest {
 
         // Checks if the input JAR file exists.
         assertTrue("No input JAR file was created.", inputJarFile.exists());
+        return repackMojo;
     }
 
     //</editor-fold>
@@ -116,6 +165,88 @@ public class RepackMojoTest extends AbstractMojoTest {
         testRepack("src/test/resources/pom/repack-config.xml");
     }
 
+    /**
+     * Test for copying the compressed bytes of the resources which didn't change.
+     * @throws Exception If the input JAR file couldn't be copied or that mojo object couldn't be executed.
+     */
+    public void testRepackRawCopy() throws Exception {
+        final RepackMojo repackMojo = createMojoByPomFile("src/test/resources/pom/repack-raw-copy.xml", "repack");
+        inputJarFile = copyJar(repackMojo.target, repackMojo.inputFile, JAR_FILE_ORIGINAL);
+        final File outputJarFile = new File(getBasedir(), "src/test/resources/my-applet.raw-copy.jar");
+        try {
+            repackMojo.execute();
+            final Map<String, byte[]> copiedEntries = readEntries(outputJarFile, false);
+
+            // Checks if the compressed bytes of the resources are copied.
+            final Map<String, byte[]> inputRawEntries = readEntries(inputJarFile, true);
+            final Map<String, byte[]> outputRawEntries = readEntries(outputJarFile, true);
+            for (String name : new String[] {"META-INF/MANIFEST.MF",
+                    "META-INF/maven/com.arhs.test/my-simple-applet/pom.xml",
+                    "META-INF/maven/com.arhs.test/my-simple-applet/pom.properties"}) {
+                assertTrue("The resource wasn't copied: " + name,
+                        Arrays.equals(inputRawEntries.get(name), outputRawEntries.get(name)));
+            }
+
+            // Checks if the entries are the ones of a repacking compressing every entry again.
+            repackMojo.rawCopy = false;
+            repackMojo.execute();
+            final Map<String, byte[]> repackedEntries = readEntries(outputJarFile, false);
+            assertEquals("The entries differ.", repackedEntries.keySet(), copiedEntries.keySet());
+            for (Map.Entry<String, byte[]> entry : repackedEntries.entrySet()) {
+                assertTrue("The entry differs: " + entry.getKey(),
+                        Arrays.equals(entry.getValue(), copiedEntries.get(entry.getKey())));
+            }
+        } finally {
+            outputJarFile.delete();
+        }
+    }
+
+    /**
+     * Test for keeping the compression of the entries of the nested JAR files when the resources are copied.
+     * @throws Exception If the fat JAR file couldn't be created or that mojo object couldn't be executed.
+     */
+    public void testRepackRawCopyNestedJars() throws Exception {
+        final RepackMojo repackMojo = createMojoByPomFile("src/test/resources/pom/repack-raw-copy.xml", "repack");
+        repackMojo.nestedJars = true;
+        inputJarFile = new File(repackMojo.target, repackMojo.inputFile);
+        createFatJar(inputJarFile, JAR_FILE_ORIGINAL);
+        final File outputJarFile = new File(getBasedir(), "src/test/resources/my-applet.raw-copy.jar");
+        final File libraryFile = new File("target/my-applet.raw-copy.library.jar");
+        try {
+            repackMojo.execute();
+            try (ZipFile zipFile = ZipFile.builder().setFile(outputJarFile).get()) {
+                final ZipArchiveEntry entry = zipFile.getEntry("BOOT-INF/lib/my-applet.jar");
+                assertNotNull("The nested JAR file is missing.", entry);
+                try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                    FileUtils.copyInputStreamToFile(inputStream, libraryFile);
+                }
+            }
+
+            // Checks if the entries of the nested JAR file are compressed as in the original JAR file.
+            final Map<String, Integer> expectedMethods = readMethods(new File(JAR_FILE_ORIGINAL));
+            assertTrue("The original JAR file has no compressed entry.",
+                    expectedMethods.containsValue(ZipEntry.DEFLATED));
+            assertEquals("The entries of the nested JAR file are compressed differently.", expectedMethods,
+                    readMethods(libraryFile));
+        } finally {
+            outputJarFile.delete();
+            libraryFile.delete();
+        }
+    }
+
+    /**
+     * Test for skipping the normalization of a JAR file which is already normalized.
+     * @throws Exception If the input JAR file couldn't be copied or that mojo object couldn't be executed.
+     */
+    public void testRepackUpToDate() throws Exception {
+        final RepackMojo repackMojo = testRepack("src/test/resources/pom/repack-up-to-date.xml");
+        assertTrue("The JAR file couldn't be modified.", inputJarFile.setLastModified(0));
+
+        // Checks if the JAR file isn't normalized again.
+        repackMojo.execute();
+        assertEquals("The JAR file was normalized again.", 0, inputJarFile.lastModified());
+    }
+
     //</editor-fold>
 
 }
\ No newline at end of file
@@ -0,0 +1,442 @@
+package com.arhs.mojo.pack200;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Generator of synthetic JAR files: classes whose constant pools share a configurable part of their constants, text
+ * resources, incompressible resources, already compressed resources and nested JAR files.
+ * <p>
+ * The classes are generated for Java 6 with debug attributes and without <code>invokedynamic</code>, so that every
+ * packer reads them. The content only depends on the parameters, so the same generator always produces the same
+ * bytes.
+ * </p>
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class SyntheticJarGenerator {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Size of the binary resources, in bytes.
+     */
+    private static final int BINARY_SIZE = 4096;
+
+    /**
+     * Approximate size of a generated class in a JAR file, with its share of resources, in bytes.
+     */
+    private static final int BYTES_PER_CLASS = 800;
+
+    /**
+     * Number of classes per package.
+     */
+    private static final int CLASSES_PER_PACKAGE = 20;
+
+    /**
+     * Number of methods per class.
+     */
+    private static final int METHODS_PER_CLASS = 5;
+
+    /**
+     * Number of the constants shared by the classes.
+     */
+    private static final int SHARED_CONSTANTS = 256;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Number of incompressible resources.
+     */
+    private int binaryResources;
+
+    /**
+     * Number of classes.
+     */
+    private int classes;
+
+    /**
+     * Number of already compressed resources.
+     */
+    private int compressedResources;
+
+    /**
+     * Part of the constants of the classes taken from the shared constants, from <code>0</code> to <code>1</code>.
+     */
+    private double constantSharing = 0.5;
+
+    /**
+     * Number of classes of the nested JAR files.
+     */
+    private int nestedJarClasses = 100;
+
+    /**
+     * Number of nested JAR files.
+     */
+    private int nestedJars;
+
+    /**
+     * Seed of the random content.
+     */
+    private long seed = 200;
+
+    /**
+     * Number of text resources.
+     */
+    private int textResources;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Gets the internal name of a generated class.
+     *
+     * @param index Index of the class.
+     * @return      Internal name.
+     */
+    private static String getClassName(int index) {
+        return String.format("synthetic/p%d/Class%d", index / CLASSES_PER_PACKAGE, index);
+    }
+
+    /**
+     * Adds an entry.
+     *
+     * @param outputStream  JAR output stream.
+     * @param name          Name of the entry.
+     * @param content       Content of the entry.
+     * @param stored        {@code true} to store the entry, {@code false} to deflate it.
+     * @throws IOException  If the entry couldn't be written.
+     */
+    private static void addEntry(JarOutputStream outputStream, String name, byte[] content, boolean stored)
+            throws IOException {
+        final JarEntry entry = new JarEntry(name);
+        entry.setTime(0);
+        if (stored) {
+            final CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(content.length);
+            entry.setCompressedSize(content.length);
+            entry.setCrc(crc.getValue());
+        }
+        outputStream.putNextEntry(entry);
+        outputStream.write(content);
+        outputStream.closeEntry();
+    }
+
+    /**
+     * Gets a string constant of a class, shared by the classes or not.
+     *
+     * @param random    Random generator.
+     * @param index     Index of the class.
+     * @param number    Number of the constant in the class.
+     * @return          Constant.
+     */
+    private String getConstant(Random random, int index, int number) {
+        return random.nextDouble() < constantSharing
+                ? "shared.constant." + random.nextInt(SHARED_CONSTANTS)
+                : "class" + index + ".constant" + number;
+    }
+
+    /**
+     * Generates a class with fields, a constructor and methods calling the previous class.
+     *
+     * @param random    Random generator.
+     * @param index     Index of the class.
+     * @return          Class file.
+     */
+    private byte[] generateClass(Random random, int index) {
+        final String name = getClassName(index);
+        final ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V1_6, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, "java/lang/Object", null);
+        writer.visitSource("Class" + index + ".java", null);
+        writer.visitField(Opcodes.ACC_PRIVATE, "count", "I", null, null).visitEnd();
+        writer.visitField(Opcodes.ACC_PRIVATE, "label", "Ljava/lang/String;", null, null).visitEnd();
+
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        method.visitCode();
+        final Label start = new Label();
+        method.visitLabel(start);
+        method.visitLineNumber(1, start);
+        method.visitVarInsn(Opcodes.ALOAD, 0);
+        method.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        method.visitVarInsn(Opcodes.ALOAD, 0);
+        method.visitLdcInsn(getConstant(random, index, 0));
+        method.visitFieldInsn(Opcodes.PUTFIELD, name, "label", "Ljava/lang/String;");
+        method.visitInsn(Opcodes.RETURN);
+        final Label end = new Label();
+        method.visitLabel(end);
+        method.visitLocalVariable("this", "L" + name + ";", null, start, end, 0);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        for (int m = 0; m < METHODS_PER_CLASS; m++) {
+            method = writer.visitMethod(Opcodes.ACC_PUBLIC, "compute" + m, "(I)Ljava/lang/String;", null, null);
+            method.visitCode();
+            final Label methodStart = new Label();
+            method.visitLabel(methodStart);
+            method.visitLineNumber(10 + m, methodStart);
+            method.visitVarInsn(Opcodes.ALOAD, 0);
+            method.visitFieldInsn(Opcodes.GETFIELD, name, "count", "I");
+            method.visitVarInsn(Opcodes.ILOAD, 1);
+            method.visitInsn(Opcodes.IADD);
+            method.visitIntInsn(Opcodes.SIPUSH, (index * 7 + m) & Short.MAX_VALUE);
+            method.visitInsn(Opcodes.IMUL);
+            if (index > 0) {
+                // Calls the previous class, so that the classes share references.
+                final String previous = getClassName(index - 1);
+                method.visitTypeInsn(Opcodes.NEW, previous);
+                method.visitInsn(Opcodes.DUP);
+                method.visitMethodInsn(Opcodes.INVOKESPECIAL, previous, "<init>", "()V", false);
+                method.visitInsn(Opcodes.SWAP);
+                method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, previous, "compute" + m, "(I)Ljava/lang/String;",
+                        false);
+                method.visitInsn(Opcodes.POP);
+            } else {
+                method.visitInsn(Opcodes.POP);
+            }
+            method.visitLdcInsn(getConstant(random, index, m + 1));
+            method.visitInsn(Opcodes.ARETURN);
+            final Label methodEnd = new Label();
+            method.visitLabel(methodEnd);
+            method.visitLocalVariable("this", "L" + name + ";", null, methodStart, methodEnd, 0);
+            method.visitLocalVariable("value", "I", null, methodStart, methodEnd, 1);
+            method.visitMaxs(0, 0);
+            method.visitEnd();
+        }
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Generates a text resource.
+     *
+     * @param index Index of the resource.
+     * @return      Content.
+     */
+    private static byte[] generateText(int index) {
+        final StringBuilder builder = new StringBuilder();
+        for (int line = 0; line < 50; line++) {
+            builder.append("message.").append(index).append('.').append(line)
+                    .append("=The resource ").append(index).append(" has the line ").append(line).append('\n');
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Generates an already compressed resource: a deflated text resource.
+     *
+     * @param index         Index of the resource.
+     * @return              Content.
+     * @throws IOException  If the resource couldn't be compressed.
+     */
+    private static byte[] generateCompressed(int index) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (OutputStream deflaterStream = new DeflaterOutputStream(outputStream,
+                new Deflater(Deflater.BEST_COMPRESSION))) {
+            for (int i = 0; i < 8; i++) {
+                deflaterStream.write(generateText(index * 8 + i));
+            }
+        }
+        return outputStream.toByteArray();
+    }
+
+    //</editor-fold>
+
+    /**
+     * Creates a generator of JAR files of about a size, with a text resource every 10 classes, an incompressible
+     * resource every 50 classes, an already compressed resource every 100 classes and a nested JAR file every 5000
+     * classes.
+     *
+     * @param size  Size of the JAR files, in bytes.
+     * @return      Generator.
+     */
+    public static SyntheticJarGenerator forSize(long size) {
+        final int classes = (int) Math.max(1, size / BYTES_PER_CLASS);
+        final SyntheticJarGenerator generator = new SyntheticJarGenerator();
+        generator.setClasses(classes);
+        generator.setTextResources(classes / 10);
+        generator.setBinaryResources(classes / 50);
+        generator.setCompressedResources(classes / 100);
+        generator.setNestedJars(classes / 5000);
+        return generator;
+    }
+
+    /**
+     * Creates a synthetic JAR file.
+     *
+     * @param file          JAR file.
+     * @throws IOException  If the JAR file couldn't be written.
+     */
+    public void create(File file) throws IOException {
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            write(outputStream);
+        }
+    }
+
+    /**
+     * Writes a synthetic JAR file into a stream.
+     *
+     * @param stream        Output stream, which is closed.
+     * @throws IOException  If the JAR file couldn't be written.
+     */
+    private void write(OutputStream stream) throws IOException {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+
+        final Random random = new Random(seed);
+        try (JarOutputStream outputStream = new JarOutputStream(stream, manifest)) {
+            for (int i = 0; i < classes; i++) {
+                addEntry(outputStream, getClassName(i) + ".class", generateClass(random, i), false);
+            }
+            for (int i = 0; i < textResources; i++) {
+                addEntry(outputStream, String.format("synthetic/messages%d.properties", i), generateText(i), false);
+            }
+            for (int i = 0; i < binaryResources; i++) {
+                final byte[] binary = new byte[BINARY_SIZE];
+                random.nextBytes(binary);
+                addEntry(outputStream, String.format("synthetic/image%d.bin", i), binary, false);
+            }
+            for (int i = 0; i < compressedResources; i++) {
+                addEntry(outputStream, String.format("synthetic/messages%d.deflate", i), generateCompressed(i),
+                        false);
+            }
+            for (int i = 0; i < nestedJars; i++) {
+                final SyntheticJarGenerator nestedGenerator = new SyntheticJarGenerator();
+                nestedGenerator.setClasses(nestedJarClasses);
+                nestedGenerator.setConstantSharing(constantSharing);
+                nestedGenerator.setTextResources(nestedJarClasses / 10);
+                nestedGenerator.setSeed(seed + i + 1);
+                final ByteArrayOutputStream nestedStream = new ByteArrayOutputStream();
+                nestedGenerator.write(nestedStream);
+                addEntry(outputStream, String.format("BOOT-INF/lib/nested%d.jar", i), nestedStream.toByteArray(),
+                        true);
+            }
+        }
+    }
+
+    /**
+     * Sets the number of incompressible resources.
+     *
+     * @param binaryResources Number of incompressible resources.
+     */
+    public void setBinaryResources(int binaryResources) {
+        this.binaryResources = binaryResources;
+    }
+
+    /**
+     * Sets the number of classes.
+     *
+     * @param classes Number of classes.
+     */
+    public void setClasses(int classes) {
+        this.classes = classes;
+    }
+
+    /**
+     * Sets the number of already compressed resources.
+     *
+     * @param compressedResources Number of already compressed resources.
+     */
+    public void setCompressedResources(int compressedResources) {
+        this.compressedResources = compressedResources;
+    }
+
+    /**
+     * Sets the part of the constants of the classes taken from the shared constants.
+     *
+     * @param constantSharing Part of the constants, from <code>0</code> (every constant is unique) to <code>1</code>
+     *                        (every constant is shared). The default value is <code>0.5</code>.
+     */
+    public void setConstantSharing(double constantSharing) {
+        this.constantSharing = constantSharing;
+    }
+
+    /**
+     * Sets the number of classes of the nested JAR files.
+     *
+     * @param nestedJarClasses Number of classes. The default value is <code>100</code>.
+     */
+    public void setNestedJarClasses(int nestedJarClasses) {
+        this.nestedJarClasses = nestedJarClasses;
+    }
+
+    /**
+     * Sets the number of nested JAR files, which are stored.
+     *
+     * @param nestedJars Number of nested JAR files.
+     */
+    public void setNestedJars(int nestedJars) {
+        this.nestedJars = nestedJars;
+    }
+
+    /**
+     * Sets the seed of the random content.
+     *
+     * @param seed Seed.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the number of text resources.
+     *
+     * @param textResources Number of text resources.
+     */
+    public void setTextResources(int textResources) {
+        this.textResources = textResources;
+    }
+
+    //</editor-fold>
+
+}
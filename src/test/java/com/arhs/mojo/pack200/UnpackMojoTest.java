@@ -23,9 +23,20 @@ package com.arhs.mojo.pack200;
  * THE SOFTWARE.
  */
 
+import com.arhs.mojo.pack200.compression.Codec;
 import com.arhs.mojo.pack200.unpack.UnpackMojo;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugin.MojoExecutionException;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.jar.JarFile;
 
 /**
  * Unit tests for {@code UnpackMojo} class.
@@ -100,6 +111,48 @@ public class UnpackMojoTest extends AbstractMojoTest {
         assertTrue("No output JAR file was created.", unpackMojo.outputFile.exists());
     }
 
+    /**
+     * Test for unpack a file compressed with XZ, whose codec is detected from its content.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testUnpackXz() throws Exception {
+        // Compresses the packed file with XZ, under the same name.
+        final File packedFile = new File(inputJarFile.getPath() + ".xz");
+        try (InputStream inputStream = Codec.GZIP.createInputStream(new FileInputStream(inputJarFile));
+             OutputStream outputStream = Codec.XZ.createOutputStream(new FileOutputStream(packedFile), 0, 0)) {
+            IOUtils.copy(inputStream, outputStream);
+        }
+        Files.move(packedFile.toPath(), inputJarFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        unpackMojo.execute();
+
+        // Checks if the output JAR file is valid.
+        try (JarFile jarFile = new JarFile(unpackMojo.outputFile)) {
+            assertTrue("The output JAR file is empty.", jarFile.size() > 0);
+        }
+    }
+
+    /**
+     * Test for failing the unpacking of a truncated packed file without leaving an output JAR file.
+     * @throws Exception If an error occurs during the test.
+     */
+    public void testUnpackTruncated() throws Exception {
+        // Truncates the packed file in its middle.
+        try (RandomAccessFile file = new RandomAccessFile(inputJarFile, "rw")) {
+            file.setLength(file.length() / 2);
+        }
+        unpackMojo.outputFile.delete();
+        try {
+            unpackMojo.execute();
+            fail("The unpacking of a truncated packed file succeeded.");
+        } catch (MojoExecutionException e) {
+            // Checks if neither the output JAR file nor a temporary file is left.
+            assertFalse("A truncated output JAR file was left.", unpackMojo.outputFile.exists());
+            final File directory = unpackMojo.outputFile.getAbsoluteFile().getParentFile();
+            final String[] temporaryFiles = directory.list((dir, name) -> name.startsWith("unpack"));
+            assertEquals("A temporary file was left.", 0, temporaryFiles.length);
+        }
+    }
+
     //</editor-fold>
 
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.arhs.mojo.pack200;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.engine.InProcessEngine;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.verify.VerifyMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+import java.io.File;
+
+/**
+ * Unit tests for {@code VerifyMojo} class.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class VerifyMojoTest extends AbstractMojoTest {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Original JAR file.
+     */
+    private static final String JAR_FILE_ORIGINAL = "src/test/resources/my-applet.original.jar";
+
+    //</editor-fold>
+
+    //<editor-fold desc="Fields section.">
+
+    /**
+     * Input JAR file.
+     */
+    private File inputJarFile;
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Protected methods section.">
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+
+        // Clean generated files.
+        inputJarFile.delete();
+    }
+
+    //</editor-fold>
+
+    /**
+     * Test for verifying the round trip of a normalized JAR file.
+     * @throws Exception If the input JAR file couldn't be copied or that mojo object couldn't be executed.
+     */
+    public void testVerify() throws Exception {
+        // Get mojo object.
+        final VerifyMojo verifyMojo = createMojoByPomFile("src/test/resources/pom/verify.xml", "verify");
+
+        // Create a normalized JAR file by the "inputFile" parameter.
+        inputJarFile = new File(verifyMojo.target, verifyMojo.inputFile);
+        new InProcessEngine(new SystemStreamLog(), false).repack(new File(JAR_FILE_ORIGINAL), inputJarFile,
+                new PackOptions());
+        verifyMojo.execute();
+    }
+
+    /**
+     * Test for failing the verification of a JAR file which isn't normalized.
+     * @throws Exception If the input JAR file couldn't be copied or that mojo object couldn't be executed.
+     */
+    public void testVerifyNotNormalized() throws Exception {
+        // Get mojo object.
+        final VerifyMojo verifyMojo = createMojoByPomFile("src/test/resources/pom/verify.xml", "verify");
+
+        // Create a JAR file by the "inputFile" parameter.
+        inputJarFile = copyJar(verifyMojo.target, verifyMojo.inputFile, JAR_FILE_ORIGINAL);
+        try {
+            verifyMojo.execute();
+            fail("The verification of a JAR file which isn't normalized succeeded.");
+        } catch (MojoExecutionException e) {
+            assertTrue("The failure doesn't report the entries.", e.getMessage().contains("entries aren't reproduced"));
+        }
+    }
+
+    //</editor-fold>
+
+}
@@ -0,0 +1,155 @@
+package com.arhs.mojo.pack200;
+
+/**
+ * The MIT License (MIT)
+ * Copyright (c) 2015 ARHS Developments SA
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+import com.arhs.mojo.pack200.compression.Codec;
+import com.arhs.mojo.pack200.engine.Engine;
+import com.arhs.mojo.pack200.engine.EngineType;
+import com.arhs.mojo.pack200.engine.InProcessEngine;
+import com.arhs.mojo.pack200.packing.PackOptions;
+import com.arhs.mojo.pack200.packing.UnpackOptions;
+import com.arhs.mojo.pack200.packing.options.DeflateHint;
+import junit.framework.TestCase;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+/**
+ * Unit tests for {@code WorkerEngine} class.
+ *
+ * @author Cyril Schumacher
+ * @version 1.1
+ * @since 2026-10-18
+ */
+public class WorkerEngineTest extends TestCase {
+
+    //<editor-fold desc="Constants section.">
+
+    /**
+     * Directory of the tests.
+     */
+    private static final File DIRECTORY = new File("target/worker-engine");
+
+    /**
+     * Original JAR file.
+     */
+    private static final File JAR_FILE_ORIGINAL = new File("src/test/resources/my-applet.original.jar");
+
+    //</editor-fold>
+
+    //<editor-fold desc="Methods section.">
+
+    //<editor-fold desc="Private methods section.">
+
+    /**
+     * Packs the original JAR file into an uncompressed packed file.
+     *
+     * @param engine        Engine.
+     * @param name          Name of the packed file.
+     * @param options       Packing options.
+     * @return              Packed file.
+     * @throws Exception    If the JAR file couldn't be packed.
+     */
+    private static File pack(Engine engine, String name, PackOptions options) throws Exception {
+        final File packedFile = new File(DIRECTORY, name);
+        options.setCompression(Codec.NONE);
+        engine.pack(JAR_FILE_ORIGINAL, packedFile, options);
+        return packedFile;
+    }
+
+    //</editor-fold>
+
+    //<editor-fold desc="Protected methods section.">
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void setUp() throws Exception {
+        super.setUp();
+        FileUtils.forceMkdir(DIRECTORY);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected void tearDown() throws Exception {
+        super.tearDown();
+
+        // Clean generated files.
+        FileUtils.deleteDirectory(DIRECTORY);
+    }
+
+    //</editor-fold>
+
+    /**
+     * Test for packing with the options sent to the worker, as the in-process engine does.
+     * @throws Exception If the JAR file couldn't be packed.
+     */
+    public void testPackOptions() throws Exception {
+        final Engine engine = EngineType.WORKER.createEngine(new SystemStreamLog(), false);
+        final File defaultFile = pack(engine, "default.pack", new PackOptions());
+        final PackOptions options = new PackOptions();
+        options.setEffort("0");
+        options.setStripDebug(true);
+        final File optionsFile = pack(engine, "options.pack", options);
+        assertFalse("The options are ignored by the worker.", Arrays.equals(
+                FileUtils.readFileToByteArray(defaultFile), FileUtils.readFileToByteArray(optionsFile)));
+
+        // Checks if the worker packs the same bytes as the in-process engine.
+        final PackOptions inProcessOptions = new PackOptions();
+        inProcessOptions.setEffort("0");
+        inProcessOptions.setStripDebug(true);
+        final File inProcessFile = pack(new InProcessEngine(new SystemStreamLog(), false), "in-process.pack",
+                inProcessOptions);
+        assertTrue("The worker packs other bytes than the in-process engine.", Arrays.equals(
+                FileUtils.readFileToByteArray(inProcessFile), FileUtils.readFileToByteArray(optionsFile)));
+    }
+
+    /**
+     * Test for unpacking with the deflate hint sent to the worker.
+     * @throws Exception If the JAR file couldn't be packed or unpacked.
+     */
+    public void testUnpackDeflateHint() throws Exception {
+        final Engine engine = EngineType.WORKER.createEngine(new SystemStreamLog(), false);
+        final File packedFile = pack(engine, "default.pack", new PackOptions());
+        final File jarFile = new File(DIRECTORY, "stored.jar");
+        final UnpackOptions options = new UnpackOptions();
+        options.setDeflateHint(DeflateHint.FALSE);
+        engine.unpack(packedFile, jarFile, options);
+        try (JarFile unpackedJarFile = new JarFile(jarFile)) {
+            for (JarEntry entry : Collections.list(unpackedJarFile.entries())) {
+                assertEquals("The entry isn't stored: " + entry.getName(), ZipEntry.STORED, entry.getMethod());
+            }
+        }
+    }
+
+    //</editor-fold>
+
+}